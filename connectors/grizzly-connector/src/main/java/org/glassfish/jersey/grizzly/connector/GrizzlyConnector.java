@@ -48,6 +48,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,8 +68,8 @@ import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.grizzly.http.client.Version;
 
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import com.ning.http.client.AsyncCompletionHandler;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.Request;
@@ -83,6 +84,7 @@ import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
 public class GrizzlyConnector extends RequestWriter implements Connector {
 
     private AsyncHttpClient client;
+    private ExecutorService callbackExecutor;
 
     /**
      * Create the new Grizzly async client connector.
@@ -92,14 +94,22 @@ public class GrizzlyConnector extends RequestWriter implements Connector {
     public GrizzlyConnector(Configuration config) {
         AsyncHttpClientConfig.Builder builder = new AsyncHttpClientConfig.Builder();
 
+        // asynchronous callbacks may read the response entity, so they must not run in the provider threads
+        final ThreadFactory callbackThreadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("jersey-grizzly-connector-callback-%d")
+                .setDaemon(true)
+                .build();
+
         ExecutorService executorService;
         if (config != null) {
             final Object threadPoolSize = config.getProperties().get(ClientProperties.ASYNC_THREADPOOL_SIZE);
 
             if (threadPoolSize != null && threadPoolSize instanceof Integer && (Integer) threadPoolSize > 0) {
                 executorService = Executors.newFixedThreadPool((Integer) threadPoolSize);
+                callbackExecutor = Executors.newFixedThreadPool((Integer) threadPoolSize, callbackThreadFactory);
             } else {
                 executorService = Executors.newCachedThreadPool();
+                callbackExecutor = Executors.newCachedThreadPool(callbackThreadFactory);
             }
 
             builder = builder.setExecutorService(executorService);
@@ -111,6 +121,7 @@ public class GrizzlyConnector extends RequestWriter implements Connector {
                     ClientProperties.READ_TIMEOUT, 0));
         } else {
             executorService = Executors.newCachedThreadPool();
+            callbackExecutor = Executors.newCachedThreadPool(callbackThreadFactory);
             builder.setExecutorService(executorService);
         }
 
@@ -141,36 +152,23 @@ public class GrizzlyConnector extends RequestWriter implements Connector {
         return translate(requestContext, connectorResponse);
     }
 
+    /*
+     * The response is delivered to the callback as soon as the response headers are received,
+     * the response entity is streamed as it arrives.
+     */
     @Override
     public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
-        final Request connectorRequest = translate(request);
-
         Throwable failure;
         try {
-            return client.executeRequest(connectorRequest, new AsyncCompletionHandler<ClientResponse>() {
-                @Override
-                public ClientResponse onCompleted(com.ning.http.client.Response connectorResponse) throws Exception {
-                    final ClientResponse response = translate(request, connectorResponse);
-                    try {
-                        return response;
-                    } finally {
-                        callback.response(response);
-                    }
-                }
-
-                @Override
-                public void onThrowable(Throwable t) {
-                    t = t instanceof IOException ? new ClientException(t.getMessage(), t) : t;
-                    callback.failure(t);
-                }
-            });
+            final Request connectorRequest = translate(request);
+            return client.executeRequest(connectorRequest,
+                    new StreamingResponseHandler(request, callback, callbackExecutor));
         } catch (IOException ex) {
-            failure = ex;
-            callback.failure(new ClientException(ex.getMessage(), ex.getCause()));
+            failure = new ClientException(ex.getMessage(), ex.getCause());
         } catch (Throwable t) {
             failure = t;
-            callback.failure(t);
         }
+        callback.failure(failure);
 
         final SettableFuture<Object> errorFuture = SettableFuture.create();
         errorFuture.setException(failure);
@@ -180,6 +178,7 @@ public class GrizzlyConnector extends RequestWriter implements Connector {
     @Override
     public void close() {
         client.close();
+        callbackExecutor.shutdown();
     }
 
     private ClientResponse translate(ClientRequest requestContext, final com.ning.http.client.Response original) {
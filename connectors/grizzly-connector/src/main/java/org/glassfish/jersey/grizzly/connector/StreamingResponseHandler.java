@@ -0,0 +1,194 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.client.ClientException;
+
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.message.internal.FeedableInputStream;
+import org.glassfish.jersey.message.internal.Statuses;
+
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.HttpResponseBodyPart;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.HttpResponseStatus;
+
+/**
+ * Asynchronous response handler delivering the {@link ClientResponse client response} as soon as
+ * the response headers are received and streaming the response entity as the body parts arrive.
+ * <p>
+ * The callback is notified using the connector callback executor rather than the provider thread invoking
+ * the handler, since the callback may read the response entity, which is fed by the provider thread.
+ * The body parts are buffered in a {@link FeedableInputStream} until the application reads them. The provider
+ * offers no way to suspend the reading of a connection without blocking its thread, so the buffer is not
+ * bounded (just like the whole response entity was buffered before the streaming was introduced).
+ * Closing the response entity stream before the whole entity is received aborts the response processing
+ * once the next body part arrives and the connection is not reused for subsequent requests.
+ * </p>
+ */
+final class StreamingResponseHandler implements AsyncHandler<Void> {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamingResponseHandler.class.getName());
+
+    private final ClientRequest request;
+    private final AsyncConnectorCallback callback;
+    private final Executor callbackExecutor;
+    private final FeedableInputStream entity = new FeedableInputStream();
+
+    private HttpResponseStatus status;
+    private boolean delivered;
+
+    /**
+     * Create new streaming response handler.
+     *
+     * @param request          client request.
+     * @param callback         callback to be notified about the response.
+     * @param callbackExecutor executor used to notify the callback.
+     */
+    StreamingResponseHandler(final ClientRequest request,
+                             final AsyncConnectorCallback callback,
+                             final Executor callbackExecutor) {
+        this.request = request;
+        this.callback = callback;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public STATE onStatusReceived(final HttpResponseStatus responseStatus) throws Exception {
+        this.status = responseStatus;
+        return STATE.CONTINUE;
+    }
+
+    @Override
+    public STATE onHeadersReceived(final HttpResponseHeaders headers) throws Exception {
+        if (delivered || headers.isTraillingHeadersReceived()) {
+            // trailing headers cannot be propagated to an already delivered response
+            return STATE.CONTINUE;
+        }
+
+        final ClientResponse response = new ClientResponse(
+                Statuses.from(status.getStatusCode(), status.getStatusText()), request);
+        for (Map.Entry<String, List<String>> header : headers.getHeaders()) {
+            for (String value : header.getValue()) {
+                response.getHeaders().add(header.getKey(), value);
+            }
+        }
+        response.setEntityStream(entity);
+
+        delivered = true;
+        notifyCallback(new Runnable() {
+            @Override
+            public void run() {
+                callback.response(response);
+            }
+        });
+        return STATE.CONTINUE;
+    }
+
+    @Override
+    public STATE onBodyPartReceived(final HttpResponseBodyPart bodyPart) throws Exception {
+        if (entity.isClosed()) {
+            // the rest of the entity is still on the way, the connection must not be reused
+            bodyPart.markUnderlyingConnectionAsClosed();
+            return STATE.ABORT;
+        }
+        entity.feed(bodyPart.getBodyPartBytes());
+        return STATE.CONTINUE;
+    }
+
+    @Override
+    public Void onCompleted() throws Exception {
+        entity.complete();
+        if (!delivered) {
+            failed(new ClientException("Response completed without the response headers being received."));
+        }
+        return null;
+    }
+
+    @Override
+    public void onThrowable(final Throwable t) {
+        if (delivered) {
+            if (!entity.isClosed()) {
+                entity.fail(t instanceof IOException ? (IOException) t : new IOException(t.getMessage(), t));
+            }
+        } else {
+            failed(t instanceof IOException ? new ClientException(t.getMessage(), t) : t);
+        }
+    }
+
+    private void failed(final Throwable failure) {
+        delivered = true;
+        notifyCallback(new Runnable() {
+            @Override
+            public void run() {
+                callback.failure(failure);
+            }
+        });
+    }
+
+    private void notifyCallback(final Runnable notification) {
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    notification.run();
+                } catch (Throwable t) {
+                    LOGGER.log(Level.WARNING, "Asynchronous connector callback failed.", t);
+                }
+            }
+        };
+        try {
+            callbackExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the connector has been closed
+            task.run();
+        }
+    }
+}
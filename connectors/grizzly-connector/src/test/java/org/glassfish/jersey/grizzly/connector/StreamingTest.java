@@ -0,0 +1,209 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the streaming of the response entities.
+ */
+public class StreamingTest extends JerseyTest {
+
+    private static final int LARGE_SIZE = 16 * 1024 * 1024;
+    private static volatile CountDownLatch responseReceived;
+
+    @Path("/test")
+    public static class StreamingResource {
+        @GET
+        @Path("hello")
+        public String hello() {
+            return "hello";
+        }
+
+        @GET
+        @Path("large")
+        public StreamingOutput large() {
+            return new StreamingOutput() {
+                @Override
+                public void write(OutputStream output) throws IOException, WebApplicationException {
+                    final byte[] block = new byte[8192];
+                    for (int written = 0; written < LARGE_SIZE; written += block.length) {
+                        for (int i = 0; i < block.length; i++) {
+                            block[i] = (byte) (written + i);
+                        }
+                        output.write(block);
+                    }
+                }
+            };
+        }
+
+        @GET
+        @Path("pending")
+        public StreamingOutput pending() {
+            return new StreamingOutput() {
+                @Override
+                public void write(OutputStream output) throws IOException, WebApplicationException {
+                    output.write("first".getBytes());
+                    output.flush();
+                    try {
+                        // the rest of the entity is written once the client has received the response
+                        responseReceived.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e.getMessage());
+                    }
+                    output.write("-second".getBytes());
+                }
+            };
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(StreamingResource.class);
+    }
+
+    @Override
+    protected void configureClient(ClientConfig clientConfig) {
+        clientConfig.connector(new GrizzlyConnector(clientConfig));
+    }
+
+    @Test
+    public void testResponseDeliveredBeforeEntityCompleted() throws Exception {
+        responseReceived = new CountDownLatch(1);
+
+        final Future<Response> future = target("test/pending").request().async().get();
+        final Response response = future.get(5, TimeUnit.SECONDS);
+        responseReceived.countDown();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("first-second", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testLargeEntityStreamed() throws Exception {
+        final Response response = target("test/large").request().async().get().get();
+        assertEquals(200, response.getStatus());
+
+        final InputStream in = response.readEntity(InputStream.class);
+        final byte[] buffer = new byte[4096];
+        int total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                assertEquals((byte) (total + i), buffer[i]);
+            }
+            total += read;
+        }
+        in.close();
+        assertEquals(LARGE_SIZE, total);
+    }
+
+    @Test
+    public void testAsyncEntityRead() throws Exception {
+        final List<Future<String>> responses = new ArrayList<Future<String>>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(target("test/hello").request().async().get(String.class));
+        }
+        final Future<byte[]> large = target("test/large").request().async().get(byte[].class);
+
+        for (Future<String> response : responses) {
+            assertEquals("hello", response.get(10, TimeUnit.SECONDS));
+        }
+        final byte[] entity = large.get(30, TimeUnit.SECONDS);
+        assertEquals(LARGE_SIZE, entity.length);
+        for (int i = 0; i < entity.length; i++) {
+            assertEquals((byte) i, entity[i]);
+        }
+    }
+
+    @Test
+    public void testClosedEntityAbortsResponse() throws Exception {
+        final InputStream in = target("test/large").request().async().get(InputStream.class).get();
+        assertEquals(0, in.read());
+        in.close();
+
+        // the aborted response does not affect subsequent requests
+        assertEquals("hello", target("test/hello").request().get(String.class));
+        assertEquals("hello", target("test/hello").request().async().get(String.class).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLateReadEntityCompleted() throws Exception {
+        final InputStream in = target("test/large").request().async().get(InputStream.class).get();
+        assertEquals(0, in.read());
+
+        // the connector is not blocked by the entity that is not being read
+        assertEquals("hello", target("test/hello").request().async().get(String.class).get(10, TimeUnit.SECONDS));
+        Thread.sleep(500);
+
+        final byte[] buffer = new byte[4096];
+        int total = 1;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                assertEquals((byte) (total + i), buffer[i]);
+            }
+            total += read;
+        }
+        in.close();
+        assertEquals(LARGE_SIZE, total);
+    }
+}
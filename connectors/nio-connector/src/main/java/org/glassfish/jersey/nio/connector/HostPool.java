@@ -0,0 +1,172 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of connections to a single remote host.
+ * <p>
+ * The pool limits the number of connections opened to the host and keeps the persistent connections
+ * that are not in use for later reuse. Exchanges submitted while all connections are busy wait in a queue
+ * until a connection is released. The pool is owned and accessed exclusively by a single {@link SelectorLoop
+ * selector loop} thread, hence no synchronization is needed.
+ * </p>
+ */
+final class HostPool {
+
+    private final SelectorLoop loop;
+    private final String hostKey;
+    private final int maxConnections;
+    private final long keepAliveTimeout;
+
+    private final Deque<HttpConnection> idle = new ArrayDeque<HttpConnection>();
+    private final Deque<HttpExchange> pending = new ArrayDeque<HttpExchange>();
+    private int open;
+
+    /**
+     * Create new host connection pool.
+     *
+     * @param loop             selector loop owning the pool.
+     * @param hostKey          key of the pooled remote host.
+     * @param maxConnections   maximum number of connections opened to the host.
+     * @param keepAliveTimeout time in milliseconds an idle connection is kept open, zero disables reuse.
+     */
+    HostPool(final SelectorLoop loop, final String hostKey, final int maxConnections, final long keepAliveTimeout) {
+        this.loop = loop;
+        this.hostKey = hostKey;
+        this.maxConnections = maxConnections;
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    /**
+     * Process an exchange using an idle connection, a new connection or once a connection becomes available.
+     *
+     * @param exchange exchange to be processed.
+     */
+    void execute(final HttpExchange exchange) {
+        execute(exchange, false);
+    }
+
+    /**
+     * Retry an exchange that failed on a stale persistent connection. Unless it can be processed
+     * immediately, the exchange is queued ahead of the other waiting exchanges.
+     *
+     * @param exchange exchange to be retried.
+     */
+    void retry(final HttpExchange exchange) {
+        execute(exchange, true);
+    }
+
+    private void execute(final HttpExchange exchange, final boolean first) {
+        if (!loop.isRunning()) {
+            exchange.fail(SelectorLoop.closedFailure());
+            return;
+        }
+        final HttpConnection connection = idle.pollFirst();
+        if (connection != null) {
+            connection.start(exchange);
+        } else if (open < maxConnections) {
+            open++;
+            new HttpConnection(loop, this).connect(exchange);
+        } else if (first) {
+            pending.addFirst(exchange);
+        } else {
+            pending.addLast(exchange);
+        }
+    }
+
+    /**
+     * Return a connection that finished processing an exchange and may be reused.
+     *
+     * @param connection released persistent connection.
+     */
+    void release(final HttpConnection connection) {
+        final HttpExchange next = pending.pollFirst();
+        if (next != null) {
+            connection.start(next);
+        } else if (keepAliveTimeout > 0) {
+            connection.idle(keepAliveTimeout);
+            // most recently used connections are reused first so that the surplus ones can expire
+            idle.addFirst(connection);
+        } else {
+            connection.close();
+        }
+    }
+
+    /**
+     * Notify the pool that a connection has been closed.
+     *
+     * @param connection closed connection.
+     */
+    void closed(final HttpConnection connection) {
+        open--;
+        idle.remove(connection);
+
+        final HttpExchange next = pending.pollFirst();
+        if (next != null) {
+            execute(next, true);
+        } else if (open == 0) {
+            loop.discard(this);
+        }
+    }
+
+    /**
+     * Fail all the exchanges waiting for a connection.
+     *
+     * @param failure failure cause.
+     */
+    void failPending(final Throwable failure) {
+        HttpExchange exchange;
+        while ((exchange = pending.pollFirst()) != null) {
+            exchange.fail(failure);
+        }
+    }
+
+    /**
+     * Get the key of the pooled remote host.
+     *
+     * @return remote host key.
+     */
+    String getHostKey() {
+        return hostKey;
+    }
+}
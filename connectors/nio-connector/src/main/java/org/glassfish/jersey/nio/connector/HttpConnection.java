@@ -0,0 +1,423 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.message.internal.Statuses;
+
+/**
+ * Non-blocking HTTP/1.1 client connection.
+ * <p>
+ * A connection processes one exchange at a time: it writes the serialized request, parses the response
+ * head, delivers the {@link ClientResponse} as soon as the head is parsed and then feeds the response entity
+ * stream as the entity data arrive. Once the response is complete, a persistent connection is released back
+ * to its {@link HostPool host pool}. All the methods, except for {@link #resume(ResponseEntityStream)} and
+ * {@link #abort(ResponseEntityStream)}, must be invoked by the owning {@link SelectorLoop selector loop} thread.
+ * </p>
+ */
+final class HttpConnection {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpConnection.class.getName());
+
+    private static final int CONNECTING = 0;
+    private static final int WRITING = 1;
+    private static final int READING = 2;
+    private static final int IDLE = 3;
+    private static final int CLOSED = 4;
+
+    private final SelectorLoop loop;
+    private final HostPool pool;
+    private final ResponseParser parser = new ResponseParser();
+
+    private SocketChannel channel;
+    private SelectionKey key;
+    private int state = CONNECTING;
+    private long deadline;
+    private boolean reused;
+
+    private HttpExchange exchange;
+    private ByteBuffer[] requestBuffers;
+    private long written;
+    private ResponseEntityStream entity;
+    private HttpExchange redirect;
+    private boolean suspended;
+
+    /**
+     * Create new connection.
+     *
+     * @param loop selector loop driving the connection.
+     * @param pool pool the connection belongs to.
+     */
+    HttpConnection(final SelectorLoop loop, final HostPool pool) {
+        this.loop = loop;
+        this.pool = pool;
+    }
+
+    /**
+     * Open the connection and process the first exchange once connected.
+     *
+     * @param first first exchange to be processed.
+     */
+    void connect(final HttpExchange first) {
+        this.exchange = first;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            loop.track(this);
+            if (channel.connect(first.getAddress())) {
+                key = loop.register(channel, 0, this);
+                start(first);
+            } else {
+                key = loop.register(channel, SelectionKey.OP_CONNECT, this);
+                setDeadline(first.getConnectTimeout());
+            }
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * Start processing an exchange.
+     *
+     * @param next exchange to be processed.
+     */
+    void start(final HttpExchange next) {
+        this.exchange = next;
+        this.requestBuffers = next.getRequestBuffers();
+        this.written = 0;
+        this.entity = null;
+        this.redirect = null;
+        this.suspended = false;
+        this.parser.reset(next.isHeadRequest());
+        this.state = WRITING;
+        setDeadline(next.getReadTimeout());
+        write();
+    }
+
+    /**
+     * Park the connection in the idle state.
+     *
+     * @param keepAliveTimeout time in milliseconds after which the idle connection is closed.
+     */
+    void idle(final long keepAliveTimeout) {
+        state = IDLE;
+        reused = true;
+        exchange = null;
+        entity = null;
+        setDeadline(keepAliveTimeout);
+        // keep watching the idle connection so that a connection closed by the server is discarded early
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Handle the selected channel readiness.
+     */
+    void handle() {
+        if (!key.isValid()) {
+            failed(new IOException("Connection closed."));
+            return;
+        }
+        try {
+            if (key.isConnectable()) {
+                if (!channel.finishConnect()) {
+                    return;
+                }
+                start(exchange);
+            } else if (key.isWritable()) {
+                write();
+            } else if (key.isReadable()) {
+                read();
+            }
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * Check whether the current connection operation has timed out.
+     *
+     * @param now current time in milliseconds.
+     * @return the connection deadline, or zero if the connection has no deadline (anymore).
+     */
+    long checkDeadline(final long now) {
+        if (deadline == 0 || now < deadline) {
+            return deadline;
+        }
+        switch (state) {
+            case CONNECTING:
+                failed(new SocketTimeoutException("Connect timed out."));
+                break;
+            case WRITING:
+            case READING:
+                failed(new SocketTimeoutException("Read timed out."));
+                break;
+            default:
+                close();
+        }
+        return 0;
+    }
+
+    private void setDeadline(final long timeout) {
+        deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+        if (deadline > 0) {
+            loop.scheduleCheck(deadline);
+        }
+    }
+
+    private void write() {
+        try {
+            written += channel.write(requestBuffers);
+        } catch (IOException e) {
+            failed(e);
+            return;
+        }
+        if (requestBuffers[requestBuffers.length - 1].hasRemaining()) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            requestBuffers = null;
+            state = READING;
+            key.interestOps(SelectionKey.OP_READ);
+        }
+        setDeadline(exchange.getReadTimeout());
+    }
+
+    private void read() throws IOException {
+        final ByteBuffer buffer = loop.getReadBuffer();
+        buffer.clear();
+        final int read = channel.read(buffer);
+
+        if (state == IDLE) {
+            // the server closed the idle connection or sent unsolicited data - discard the connection
+            close();
+            return;
+        }
+        if (read < 0) {
+            if (parser.isPristine()) {
+                failed(new IOException("Connection closed by the server."));
+            } else {
+                parser.endOfStream();
+                onComplete(false);
+            }
+            return;
+        }
+
+        buffer.flip();
+        setDeadline(exchange.getReadTimeout());
+        while (true) {
+            switch (parser.next(buffer)) {
+                case ResponseParser.HEAD:
+                    onHead();
+                    break;
+                case ResponseParser.CONTENT:
+                    if (entity != null && !entity.feed(parser.getContent())) {
+                        suspended = true;
+                    }
+                    break;
+                case ResponseParser.COMPLETE:
+                    // no request pipelining - any data following the response make the connection unusable
+                    onComplete(parser.isKeepAlive() && !buffer.hasRemaining());
+                    return;
+                default:
+                    if (suspended) {
+                        key.interestOps(0);
+                        deadline = 0;
+                    }
+                    return;
+            }
+        }
+    }
+
+    private void onHead() {
+        final int status = parser.getStatus();
+
+        redirect = exchange.redirect(status, parser.getHeader("Location"));
+        if (redirect != null) {
+            // the response entity of the followed redirect response is discarded
+            return;
+        }
+
+        final ClientResponse response = new ClientResponse(
+                Statuses.from(status, parser.getReasonPhrase()), exchange.getRequest());
+        final List<String> names = parser.getHeaderNames();
+        final List<String> values = parser.getHeaderValues();
+        for (int i = 0; i < names.size(); i++) {
+            response.getHeaders().add(names.get(i), values.get(i));
+        }
+
+        if (parser.hasContent()) {
+            entity = new ResponseEntityStream(this, loop.getResponseBufferSize());
+            response.setEntityStream(entity);
+        } else {
+            response.setEntityStream(new ByteArrayInputStream(new byte[0]));
+        }
+        exchange.respond(response);
+    }
+
+    private void onComplete(final boolean reusable) {
+        if (entity != null) {
+            entity.complete();
+        }
+        final HttpExchange redirected = redirect;
+
+        if (reusable) {
+            pool.release(this);
+        } else {
+            close();
+        }
+
+        if (redirected != null) {
+            loop.execute(redirected);
+        }
+    }
+
+    /**
+     * Resume reading of a response entity suspended due to a full entity buffer.
+     * May be invoked by any thread.
+     *
+     * @param stream response entity stream that has been drained by the application.
+     */
+    void resume(final ResponseEntityStream stream) {
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (entity == stream && state == READING && suspended) {
+                    suspended = false;
+                    key.interestOps(SelectionKey.OP_READ);
+                    setDeadline(exchange.getReadTimeout());
+                }
+            }
+        });
+    }
+
+    /**
+     * Abort the connection as the response entity stream has been closed before the whole entity was received.
+     * May be invoked by any thread.
+     *
+     * @param stream closed response entity stream.
+     */
+    void abort(final ResponseEntityStream stream) {
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (entity == stream && state == READING) {
+                    close();
+                }
+            }
+        });
+    }
+
+    private void failed(final IOException failure) {
+        if (state == CLOSED) {
+            return;
+        }
+        final HttpExchange current = state == IDLE ? null : exchange;
+        final boolean stale = reused && parser.isPristine();
+
+        if (entity != null) {
+            entity.fail(failure);
+        }
+        close();
+
+        if (current == null) {
+            return;
+        }
+        if (stale && (written == 0 || current.isIdempotent()) && current.retry()) {
+            // the server closed the persistent connection before it processed the request; a non-idempotent
+            // request is retried only if none of it has been sent, as the server might have processed it already
+            LOGGER.log(Level.FINE, "Retrying the request on a new connection.", failure);
+            loop.pool(current.getHostKey()).retry(current);
+        } else {
+            current.fail(failure);
+        }
+    }
+
+    /**
+     * Close the connection. A response entity being received is failed.
+     */
+    void close() {
+        if (state == CLOSED) {
+            return;
+        }
+        final boolean incomplete = state == READING || state == WRITING;
+        state = CLOSED;
+        deadline = 0;
+
+        if (key != null) {
+            key.cancel();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error closing connection.", e);
+            }
+        }
+        if (incomplete && entity != null) {
+            entity.fail(new IOException("Connection closed before the response entity was received."));
+        }
+        loop.untrack(this);
+        pool.closed(this);
+    }
+
+    /**
+     * Close the connection failing the exchange being processed.
+     *
+     * @param failure failure reported to the exchange.
+     */
+    void shutdown(final Throwable failure) {
+        final HttpExchange current = state == IDLE ? null : exchange;
+        close();
+        if (current != null) {
+            // no-op if the response has been delivered already
+            current.fail(failure);
+        }
+    }
+}
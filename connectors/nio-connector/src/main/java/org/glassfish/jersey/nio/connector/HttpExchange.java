@@ -0,0 +1,423 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * A single request-response exchange processed by the {@link NioConnector}.
+ * <p>
+ * The exchange holds the fully serialized request so that it can be sent again over a different
+ * connection, which is used to transparently retry requests that failed on a stale persistent connection
+ * and to follow redirects. Only the {@link #isIdempotent() idempotent} requests are retried once they have
+ * been (even partially) sent.
+ * </p>
+ * <p>
+ * The {@link AsyncConnectorCallback asynchronous callback} is never invoked by the selector thread completing
+ * the exchange, as the callback may read the response entity that is fed by the very same thread. The callback
+ * is invoked using the connector callback executor instead.
+ * </p>
+ */
+final class HttpExchange {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpExchange.class.getName());
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    private static final int MAX_REDIRECTS = 5;
+    private static final Set<String> IDEMPOTENT_METHODS =
+            ImmutableSet.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS", "TRACE");
+
+    private final ClientRequest request;
+    private final String method;
+    private final URI uri;
+    private final MultivaluedMap<String, String> headers;
+    private final byte[] body;
+    private final int bodyLength;
+
+    private final InetSocketAddress address;
+    private final String hostKey;
+    private final byte[] head;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final boolean followRedirects;
+    private final int redirects;
+
+    private final SettableFuture<ClientResponse> future;
+    private final AsyncConnectorCallback callback;
+    private final Executor callbackExecutor;
+
+    private boolean retried;
+
+    /**
+     * Create new exchange.
+     *
+     * @param request    client request.
+     * @param headers    request headers to be sent.
+     * @param body       serialized request entity or {@code null} if the request has no entity.
+     * @param bodyLength number of valid bytes in the {@code body} array.
+     * @param callback   asynchronous callback to be notified about the response, may be {@code null}.
+     * @param callbackExecutor executor used to invoke the asynchronous callback.
+     * @throws UnknownHostException in case the request host cannot be resolved.
+     */
+    HttpExchange(final ClientRequest request,
+                 final MultivaluedMap<String, String> headers,
+                 final byte[] body,
+                 final int bodyLength,
+                 final AsyncConnectorCallback callback,
+                 final Executor callbackExecutor) throws UnknownHostException {
+        this(request, request.getMethod(), request.getUri(), headers, body, bodyLength, 0,
+                SettableFuture.<ClientResponse>create(), callback, callbackExecutor);
+    }
+
+    private HttpExchange(final ClientRequest request,
+                         final String method,
+                         final URI uri,
+                         final MultivaluedMap<String, String> headers,
+                         final byte[] body,
+                         final int bodyLength,
+                         final int redirects,
+                         final SettableFuture<ClientResponse> future,
+                         final AsyncConnectorCallback callback,
+                         final Executor callbackExecutor) throws UnknownHostException {
+        this.request = request;
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.body = body;
+        this.bodyLength = bodyLength;
+        this.redirects = redirects;
+        this.future = future;
+        this.callback = callback;
+        this.callbackExecutor = callbackExecutor;
+
+        final Map<String, Object> properties = request.getConfiguration().getProperties();
+        this.connectTimeout = PropertiesHelper.getValue(properties, ClientProperties.CONNECT_TIMEOUT, 0);
+        this.readTimeout = PropertiesHelper.getValue(properties, ClientProperties.READ_TIMEOUT, 0);
+        this.followRedirects = PropertiesHelper.getValue(properties, ClientProperties.FOLLOW_REDIRECTS, true);
+
+        final String host = uri.getHost();
+        if (host == null) {
+            throw new ClientException("Request URI does not contain a host: " + uri);
+        }
+        final int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        final InetSocketAddress resolved = new InetSocketAddress(host, port);
+        if (resolved.isUnresolved()) {
+            throw new UnknownHostException(host);
+        }
+        this.address = resolved;
+        this.hostKey = host.toLowerCase(Locale.ENGLISH) + ':' + port;
+        this.head = serializeHead();
+    }
+
+    /**
+     * Check whether the request URI scheme is supported by the connector.
+     *
+     * @param uri request URI.
+     * @return {@code true} if the URI can be used by the connector.
+     */
+    static boolean isSupported(final URI uri) {
+        return "http".equalsIgnoreCase(uri.getScheme());
+    }
+
+    private byte[] serializeHead() {
+        final StringBuilder sb = new StringBuilder(256);
+
+        sb.append(method).append(' ');
+        final String path = uri.getRawPath();
+        sb.append(path == null || path.length() == 0 ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            sb.append('?').append(uri.getRawQuery());
+        }
+        sb.append(" HTTP/1.1\r\n");
+
+        sb.append(HttpHeaders.HOST).append(": ").append(uri.getHost());
+        if (uri.getPort() != -1 && uri.getPort() != 80) {
+            sb.append(':').append(uri.getPort());
+        }
+        sb.append("\r\n");
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            final String name = header.getKey();
+            if (HttpHeaders.HOST.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    || "Transfer-Encoding".equalsIgnoreCase(name)) {
+                continue;
+            }
+            sb.append(name).append(": ");
+            boolean first = true;
+            for (String value : header.getValue()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(value);
+                first = false;
+            }
+            sb.append("\r\n");
+        }
+
+        if (body != null) {
+            sb.append(HttpHeaders.CONTENT_LENGTH).append(": ").append(bodyLength).append("\r\n");
+        } else if ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) {
+            sb.append(HttpHeaders.CONTENT_LENGTH).append(": 0\r\n");
+        }
+        sb.append("\r\n");
+
+        return sb.toString().getBytes(ISO_8859_1);
+    }
+
+    /**
+     * Get new buffers containing the serialized request message.
+     *
+     * @return request message buffers ready to be written to a channel.
+     */
+    ByteBuffer[] getRequestBuffers() {
+        if (body == null) {
+            return new ByteBuffer[]{ByteBuffer.wrap(head)};
+        }
+        return new ByteBuffer[]{ByteBuffer.wrap(head), ByteBuffer.wrap(body, 0, bodyLength)};
+    }
+
+    /**
+     * Get the client request.
+     *
+     * @return client request.
+     */
+    ClientRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Check whether the exchange is a {@code HEAD} request.
+     *
+     * @return {@code true} if the request method is {@code HEAD}.
+     */
+    boolean isHeadRequest() {
+        return "HEAD".equalsIgnoreCase(method);
+    }
+
+    /**
+     * Get the remote address.
+     *
+     * @return resolved remote socket address.
+     */
+    InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Get the key identifying the remote host for connection pooling purposes.
+     *
+     * @return remote host key.
+     */
+    String getHostKey() {
+        return hostKey;
+    }
+
+    /**
+     * Get the connect timeout.
+     *
+     * @return connect timeout in milliseconds, zero means no timeout.
+     */
+    int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Get the read timeout.
+     *
+     * @return read timeout in milliseconds, zero means no timeout.
+     */
+    int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Check whether the request method is idempotent, i.e. whether the request may be safely sent again
+     * in case it is not known whether the server has processed it.
+     *
+     * @return {@code true} if the request method is idempotent.
+     */
+    boolean isIdempotent() {
+        return IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Mark the exchange as retried. Each exchange is retried at most once.
+     *
+     * @return {@code true} if the exchange may be retried, {@code false} if it has been retried already.
+     */
+    boolean retry() {
+        if (retried) {
+            return false;
+        }
+        retried = true;
+        return true;
+    }
+
+    /**
+     * Create an exchange following the redirect described by the response, if the redirect should be followed.
+     *
+     * @param status   response status code.
+     * @param location value of the response {@code Location} header, may be {@code null}.
+     * @return redirected exchange or {@code null} if the response should be delivered to the client.
+     */
+    HttpExchange redirect(final int status, final String location) {
+        if (!followRedirects || location == null || redirects >= MAX_REDIRECTS) {
+            return null;
+        }
+        if (status != 301 && status != 302 && status != 303 && status != 307) {
+            return null;
+        }
+        final boolean safe = "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+        if (!safe && status != 303) {
+            return null;
+        }
+
+        final URI target;
+        try {
+            target = uri.resolve(location);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.FINE, "Invalid redirect location: " + location, e);
+            return null;
+        }
+        if (!isSupported(target)) {
+            return null;
+        }
+
+        try {
+            // a 303 redirect of an unsafe method is followed by a GET without the request entity
+            return new HttpExchange(request, safe ? method : "GET", target, headers,
+                    safe ? body : null, safe ? bodyLength : 0, redirects + 1, future, callback, callbackExecutor);
+        } catch (UnknownHostException e) {
+            LOGGER.log(Level.FINE, "Unable to resolve redirect location: " + location, e);
+            return null;
+        } catch (ClientException e) {
+            LOGGER.log(Level.FINE, "Invalid redirect location: " + location, e);
+            return null;
+        }
+    }
+
+    /**
+     * Complete the exchange with a response.
+     *
+     * @param response client response.
+     */
+    void respond(final ClientResponse response) {
+        if (future.set(response) && callback != null) {
+            notifyCallback(new Runnable() {
+                @Override
+                public void run() {
+                    callback.response(response);
+                }
+            });
+        }
+    }
+
+    /**
+     * Fail the exchange.
+     *
+     * @param failure failure cause.
+     */
+    void fail(final Throwable failure) {
+        final Throwable cause = failure instanceof IOException ? new ClientException(failure.getMessage(), failure) : failure;
+        if (future.setException(cause) && callback != null) {
+            notifyCallback(new Runnable() {
+                @Override
+                public void run() {
+                    callback.failure(cause);
+                }
+            });
+        }
+    }
+
+    private void notifyCallback(final Runnable notification) {
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    notification.run();
+                } catch (Throwable t) {
+                    LOGGER.log(Level.WARNING, "Asynchronous connector callback failed.", t);
+                }
+            }
+        };
+        try {
+            callbackExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the connector has been closed, no more data will be fed by the selector thread
+            task.run();
+        }
+    }
+
+    /**
+     * Get the future completed with the exchange response.
+     *
+     * @return exchange response future.
+     */
+    SettableFuture<ClientResponse> getFuture() {
+        return future;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.RequestWriter;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.message.internal.OutboundMessageContext;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Client connector based on non-blocking Java NIO socket channels.
+ * <p>
+ * All connections are driven by a small, fixed number of selector threads (see
+ * {@link NioConnectorProperties#SELECTOR_THREADS}), so that thousands of requests may be in flight
+ * at the same time without dedicating a thread to each of them. Connections are pooled per remote host
+ * and persistent connections are reused for subsequent requests. The number of connections opened to a single
+ * host is limited (see {@link NioConnectorProperties#MAX_CONNECTIONS_PER_HOST}); requests exceeding the limit
+ * are queued until a connection becomes available.
+ * </p>
+ * <p>
+ * The client response is delivered as soon as the response status line and headers are received. The response
+ * entity stream is fed by the selector thread as the entity data arrive, buffering at most
+ * {@link NioConnectorProperties#RESPONSE_BUFFER_SIZE} bytes before the connection reading is suspended
+ * until the application consumes the buffered data.
+ * </p>
+ * <p>
+ * Request entities are not streamed: each request entity is serialized into a memory buffer on the thread
+ * invoking the connector before the request is sent (so that the request can be transparently retried or
+ * redirected). The whole entity is kept in memory until the exchange completes; other connectors should be used
+ * to send request entities that do not comfortably fit in memory.
+ * </p>
+ * <p>
+ * {@link AsyncConnectorCallback Asynchronous callbacks} are never invoked in the selector threads, so that
+ * a callback may read the response entity without blocking the connections driven by the selector.
+ * The callbacks are invoked by a callback thread pool, limited to
+ * {@link ClientProperties#ASYNC_THREADPOOL_SIZE} threads if the property is set.
+ * </p>
+ * <p>
+ * Only the {@code http} URI scheme is supported.
+ * </p>
+ */
+public class NioConnector extends RequestWriter implements Connector {
+
+    private static final AtomicInteger CONNECTOR_COUNTER = new AtomicInteger();
+
+    private final SelectorLoop[] loops;
+    private final ExecutorService callbackExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * Create new NIO client connector.
+     *
+     * @param config client configuration.
+     */
+    public NioConnector(final Configuration config) {
+        final Map<String, Object> properties = config == null ?
+                Collections.<String, Object>emptyMap() : config.getProperties();
+
+        final int selectorThreads = PropertiesHelper.getValue(properties, NioConnectorProperties.SELECTOR_THREADS, 1);
+        final int maxConnectionsPerHost = PropertiesHelper.getValue(properties,
+                NioConnectorProperties.MAX_CONNECTIONS_PER_HOST, 20);
+        final long keepAliveTimeout = PropertiesHelper.getValue(properties, NioConnectorProperties.KEEP_ALIVE_TIMEOUT, 30000L);
+        final int responseBufferSize = PropertiesHelper.getValue(properties,
+                NioConnectorProperties.RESPONSE_BUFFER_SIZE, 64 * 1024);
+
+        Preconditions.checkArgument(selectorThreads > 0, "Number of selector threads must be positive.");
+        Preconditions.checkArgument(maxConnectionsPerHost > 0, "Maximum number of connections per host must be positive.");
+        Preconditions.checkArgument(keepAliveTimeout >= 0, "Keep-alive timeout must not be negative.");
+        Preconditions.checkArgument(responseBufferSize > 0, "Response buffer size must be positive.");
+
+        final int connectorId = CONNECTOR_COUNTER.incrementAndGet();
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("jersey-nio-connector-" + connectorId + "-selector-%d")
+                .setDaemon(true)
+                .build();
+
+        final Object threadPoolSize = properties.get(ClientProperties.ASYNC_THREADPOOL_SIZE);
+        final ThreadFactory callbackThreadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("jersey-nio-connector-" + connectorId + "-callback-%d")
+                .setDaemon(true)
+                .build();
+        if (threadPoolSize instanceof Integer && (Integer) threadPoolSize > 0) {
+            this.callbackExecutor = Executors.newFixedThreadPool((Integer) threadPoolSize, callbackThreadFactory);
+        } else {
+            this.callbackExecutor = Executors.newCachedThreadPool(callbackThreadFactory);
+        }
+
+        this.loops = new SelectorLoop[selectorThreads];
+        try {
+            for (int i = 0; i < selectorThreads; i++) {
+                loops[i] = new SelectorLoop(threadFactory, maxConnectionsPerHost, keepAliveTimeout, responseBufferSize);
+            }
+        } catch (IOException e) {
+            for (SelectorLoop loop : loops) {
+                if (loop != null) {
+                    loop.shutdown();
+                }
+            }
+            callbackExecutor.shutdown();
+            throw new ClientException("Unable to open the NIO connector selector.", e);
+        }
+    }
+
+    @Override
+    public ClientResponse apply(final ClientRequest request) {
+        final SettableFuture<ClientResponse> future = submit(request, null);
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            throw cause instanceof ClientException ?
+                    (ClientException) cause : new ClientException(cause.getMessage(), cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+        try {
+            return submit(request, callback);
+        } catch (Throwable t) {
+            callback.failure(t);
+
+            final SettableFuture<Object> errorFuture = SettableFuture.create();
+            errorFuture.setException(t);
+            return errorFuture;
+        }
+    }
+
+    private SettableFuture<ClientResponse> submit(final ClientRequest request, final AsyncConnectorCallback callback) {
+        if (closed.get()) {
+            throw SelectorLoop.closedFailure();
+        }
+        if (!HttpExchange.isSupported(request.getUri())) {
+            throw new ClientException("URI scheme not supported by the NIO connector: " + request.getUri());
+        }
+
+        final HttpExchange exchange;
+        try {
+            final EntityBuffer body = serializeEntity(request);
+            exchange = new HttpExchange(request, request.getStringHeaders(),
+                    body == null ? null : body.array(), body == null ? 0 : body.size(), callback, callbackExecutor);
+        } catch (IOException ex) {
+            throw new ClientException(ex.getMessage(), ex);
+        }
+
+        final SelectorLoop loop = loops[(exchange.getHostKey().hashCode() & Integer.MAX_VALUE) % loops.length];
+        loop.execute(exchange);
+        return exchange.getFuture();
+    }
+
+    private EntityBuffer serializeEntity(final ClientRequest request) throws IOException {
+        if (request.getEntity() == null) {
+            return null;
+        }
+
+        final EntityBuffer buffer = new EntityBuffer();
+        writeRequestEntity(request, new RequestEntityWriterListener() {
+            @Override
+            public void onRequestEntitySize(final long size) {
+                if (size > 0 && size < Integer.MAX_VALUE) {
+                    buffer.reserve((int) size);
+                }
+            }
+
+            @Override
+            public OutboundMessageContext.StreamProvider onGetStreamProvider() throws IOException {
+                return new OutboundMessageContext.StreamProvider() {
+                    @Override
+                    public OutputStream getOutputStream() throws IOException {
+                        return buffer;
+                    }
+
+                    @Override
+                    public void commit() throws IOException {
+                        // headers are serialized together with the buffered entity
+                    }
+                };
+            }
+        });
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            for (SelectorLoop loop : loops) {
+                loop.shutdown();
+            }
+            callbackExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Jersey NIO Connector";
+    }
+
+    /**
+     * Request entity buffer exposing the buffered bytes without copying.
+     */
+    private static final class EntityBuffer extends ByteArrayOutputStream {
+
+        private EntityBuffer() {
+            super(1024);
+        }
+
+        private void reserve(final int capacity) {
+            if (buf.length < capacity) {
+                final byte[] grown = new byte[capacity];
+                System.arraycopy(buf, 0, grown, 0, count);
+                buf = grown;
+            }
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+/**
+ * Configuration properties specific to the {@link NioConnector NIO client connector}.
+ * <p>
+ * The properties are read from the client configuration when the connector is created.
+ * Standard per-request settings such as {@link org.glassfish.jersey.client.ClientProperties#CONNECT_TIMEOUT},
+ * {@link org.glassfish.jersey.client.ClientProperties#READ_TIMEOUT} and
+ * {@link org.glassfish.jersey.client.ClientProperties#FOLLOW_REDIRECTS} are honored as well.
+ * </p>
+ */
+public final class NioConnectorProperties {
+
+    /**
+     * Number of selector threads used by the connector to drive all connections.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The default value is {@code 1}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String SELECTOR_THREADS = "jersey.config.client.nio.selectorThreads";
+
+    /**
+     * Maximum number of connections the connector keeps open to a single host (scheme, host and port).
+     * Requests submitted while all connections to the host are busy are queued until a connection
+     * becomes available.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The default value is {@code 20}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MAX_CONNECTIONS_PER_HOST = "jersey.config.client.nio.maxConnectionsPerHost";
+
+    /**
+     * Time in milliseconds an idle persistent connection is kept in the pool before it is closed.
+     * A value of zero (0) disables connection reuse.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Long}.
+     * <p />
+     * The default value is {@code 30000}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String KEEP_ALIVE_TIMEOUT = "jersey.config.client.nio.keepAliveTimeout";
+
+    /**
+     * Maximum number of response entity bytes buffered per connection before the connector stops
+     * reading from the connection until the application consumes the buffered data.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The default value is {@code 65536}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String RESPONSE_BUFFER_SIZE = "jersey.config.client.nio.responseBufferSize";
+
+    private NioConnectorProperties() {
+        // prevents instantiation
+    }
+}
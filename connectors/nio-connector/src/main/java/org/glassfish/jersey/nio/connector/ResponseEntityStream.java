@@ -0,0 +1,77 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import org.glassfish.jersey.message.internal.FeedableInputStream;
+
+/**
+ * Response entity input stream fed by the selector thread.
+ * <p>
+ * Content blocks received from the connection are queued in the stream until the application reads
+ * them. Once the amount of buffered data reaches the configured limit, the connection stops reading
+ * from the socket; reading resumes as soon as the application drains the buffer below half of the limit.
+ * Closing the stream before the entity has been fully received aborts the underlying connection.
+ * </p>
+ */
+final class ResponseEntityStream extends FeedableInputStream {
+
+    private final HttpConnection connection;
+
+    /**
+     * Create new response entity stream.
+     *
+     * @param connection  connection receiving the response entity.
+     * @param bufferLimit maximum number of bytes buffered before the connection reading is suspended.
+     */
+    ResponseEntityStream(final HttpConnection connection, final int bufferLimit) {
+        super(bufferLimit);
+        this.connection = connection;
+    }
+
+    @Override
+    protected void onDrained() {
+        connection.resume(this);
+    }
+
+    @Override
+    protected void onAbort() {
+        connection.abort(this);
+    }
+}
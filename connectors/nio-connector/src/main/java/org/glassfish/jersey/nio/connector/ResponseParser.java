@@ -0,0 +1,457 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Incremental HTTP/1.1 response parser.
+ * <p>
+ * The parser consumes the bytes read from a connection as they arrive and reports the parsing
+ * progress as a sequence of events: the response head, zero or more content blocks and the message
+ * completion. Informational ({@code 1xx}) responses are skipped. Both {@code Content-Length} delimited,
+ * {@code chunked} and connection-close delimited response entities are supported.
+ * </p>
+ * <p>
+ * The parser is not thread-safe; it is driven solely by the selector thread owning the connection.
+ * </p>
+ */
+final class ResponseParser {
+
+    /**
+     * More input is needed to make progress.
+     */
+    static final int NEED_MORE = 0;
+    /**
+     * The response status line and headers have been parsed.
+     */
+    static final int HEAD = 1;
+    /**
+     * A block of response entity content is available via {@link #getContent()}.
+     */
+    static final int CONTENT = 2;
+    /**
+     * The response message is complete.
+     */
+    static final int COMPLETE = 3;
+
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+
+    private static final int STATUS_LINE = 0;
+    private static final int HEADERS = 1;
+    private static final int BODY_FIXED = 2;
+    private static final int BODY_UNTIL_CLOSE = 3;
+    private static final int CHUNK_SIZE = 4;
+    private static final int CHUNK_DATA = 5;
+    private static final int CHUNK_END = 6;
+    private static final int TRAILERS = 7;
+    private static final int DONE = 8;
+
+    private final List<String> headerNames = new ArrayList<String>();
+    private final List<String> headerValues = new ArrayList<String>();
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int headSize;
+    private boolean started;
+
+    private int state;
+    private boolean headRequest;
+    private int status;
+    private String reasonPhrase;
+    private boolean keepAlive;
+    private long remaining;
+    private byte[] content;
+
+    /**
+     * Reset the parser to parse a new response.
+     *
+     * @param headRequest {@code true} if the response is received for a {@code HEAD} request,
+     *                    in which case the response never contains an entity.
+     */
+    void reset(final boolean headRequest) {
+        this.headRequest = headRequest;
+        this.started = false;
+        restart();
+    }
+
+    private void restart() {
+        this.state = STATUS_LINE;
+        this.lineLength = 0;
+        this.headSize = 0;
+        this.content = null;
+        this.headerNames.clear();
+        this.headerValues.clear();
+    }
+
+    /**
+     * Parse the next portion of the response.
+     *
+     * @param buffer buffer containing the received response bytes. The parser consumes only the bytes
+     *               it needs to produce the returned event.
+     * @return parsing event, one of {@link #NEED_MORE}, {@link #HEAD}, {@link #CONTENT} or {@link #COMPLETE}.
+     * @throws IOException in case the response is malformed.
+     */
+    int next(final ByteBuffer buffer) throws IOException {
+        while (true) {
+            switch (state) {
+                case STATUS_LINE:
+                    if (!readLine(buffer)) {
+                        return NEED_MORE;
+                    }
+                    if (lineLength > 0) {
+                        parseStatusLine();
+                        state = HEADERS;
+                    }
+                    break;
+                case HEADERS:
+                    if (!readLine(buffer)) {
+                        return NEED_MORE;
+                    }
+                    if (lineLength > 0) {
+                        parseHeader();
+                    } else if (status >= 100 && status < 200) {
+                        if (status == 101) {
+                            throw new IOException("Protocol upgrade is not supported.");
+                        }
+                        restart();
+                    } else {
+                        state = startBody();
+                        return HEAD;
+                    }
+                    break;
+                case BODY_FIXED:
+                case CHUNK_DATA:
+                    if (remaining == 0) {
+                        state = state == BODY_FIXED ? DONE : CHUNK_END;
+                        break;
+                    }
+                    if (!buffer.hasRemaining()) {
+                        return NEED_MORE;
+                    }
+                    content = new byte[(int) Math.min(remaining, buffer.remaining())];
+                    buffer.get(content);
+                    remaining -= content.length;
+                    return CONTENT;
+                case BODY_UNTIL_CLOSE:
+                    if (!buffer.hasRemaining()) {
+                        return NEED_MORE;
+                    }
+                    content = new byte[buffer.remaining()];
+                    buffer.get(content);
+                    return CONTENT;
+                case CHUNK_SIZE:
+                    if (!readLine(buffer)) {
+                        return NEED_MORE;
+                    }
+                    remaining = parseChunkSize();
+                    state = remaining == 0 ? TRAILERS : CHUNK_DATA;
+                    break;
+                case CHUNK_END:
+                    if (!readLine(buffer)) {
+                        return NEED_MORE;
+                    }
+                    if (lineLength > 0) {
+                        throw new IOException("Chunk data not terminated by CRLF.");
+                    }
+                    state = CHUNK_SIZE;
+                    break;
+                case TRAILERS:
+                    if (!readLine(buffer)) {
+                        return NEED_MORE;
+                    }
+                    // trailer fields are ignored
+                    if (lineLength == 0) {
+                        state = DONE;
+                    }
+                    lineLength = 0;
+                    break;
+                default:
+                    content = null;
+                    return COMPLETE;
+            }
+        }
+    }
+
+    /**
+     * Notify the parser that the connection has been closed by the peer.
+     *
+     * @return {@link #COMPLETE} if the response is complete.
+     * @throws IOException in case the connection has been closed before the response was complete.
+     */
+    int endOfStream() throws IOException {
+        if (state == BODY_UNTIL_CLOSE) {
+            state = DONE;
+        }
+        if (state != DONE) {
+            throw new IOException("Connection closed before the response was complete.");
+        }
+        content = null;
+        return COMPLETE;
+    }
+
+    /**
+     * Check if the parser has not consumed any byte of the current response yet.
+     *
+     * @return {@code true} if no response data has been parsed yet.
+     */
+    boolean isPristine() {
+        return !started;
+    }
+
+    /**
+     * Get the response status code.
+     *
+     * @return response status code.
+     */
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the response reason phrase.
+     *
+     * @return response reason phrase.
+     */
+    String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    /**
+     * Get the names of the parsed response headers.
+     *
+     * @return header names in the order they were received, aligned with {@link #getHeaderValues()}.
+     */
+    List<String> getHeaderNames() {
+        return headerNames;
+    }
+
+    /**
+     * Get the values of the parsed response headers.
+     *
+     * @return header values in the order they were received, aligned with {@link #getHeaderNames()}.
+     */
+    List<String> getHeaderValues() {
+        return headerValues;
+    }
+
+    /**
+     * Get the first value of a response header.
+     *
+     * @param name header name, compared case-insensitively.
+     * @return first header value or {@code null} if the header is not present.
+     */
+    String getHeader(final String name) {
+        for (int i = 0; i < headerNames.size(); i++) {
+            if (headerNames.get(i).equalsIgnoreCase(name)) {
+                return headerValues.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if the connection may be reused once the response is complete.
+     *
+     * @return {@code true} if the response allows the connection to be kept alive.
+     */
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Check whether the response has an entity.
+     *
+     * @return {@code true} if the parsed response head announces a response entity.
+     */
+    boolean hasContent() {
+        return state != DONE;
+    }
+
+    /**
+     * Get the content block reported by the last {@link #CONTENT} event.
+     *
+     * @return content block.
+     */
+    byte[] getContent() {
+        return content;
+    }
+
+    private boolean readLine(final ByteBuffer buffer) throws IOException {
+        final boolean head = state == STATUS_LINE || state == HEADERS;
+        while (buffer.hasRemaining()) {
+            final byte b = buffer.get();
+            started = true;
+            if ((head && ++headSize > MAX_HEAD_SIZE) || lineLength >= MAX_HEAD_SIZE) {
+                throw new IOException("Response head or chunk line is too long.");
+            }
+            if (b == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == line.length) {
+                final byte[] grown = new byte[line.length * 2];
+                System.arraycopy(line, 0, grown, 0, lineLength);
+                line = grown;
+            }
+            line[lineLength++] = b;
+        }
+        return false;
+    }
+
+    private String lineString(final int from, final int to) {
+        final char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            chars[i - from] = (char) (line[i] & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    private void parseStatusLine() throws IOException {
+        final String statusLine = lineString(0, lineLength);
+        lineLength = 0;
+
+        final int firstSpace = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/") || firstSpace < 0) {
+            throw new IOException("Invalid response status line: " + statusLine);
+        }
+        int secondSpace = statusLine.indexOf(' ', firstSpace + 1);
+        if (secondSpace < 0) {
+            secondSpace = statusLine.length();
+        }
+        try {
+            status = Integer.parseInt(statusLine.substring(firstSpace + 1, secondSpace));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid response status line: " + statusLine);
+        }
+        reasonPhrase = secondSpace < statusLine.length() ? statusLine.substring(secondSpace + 1) : "";
+        keepAlive = !statusLine.startsWith("HTTP/1.0 ");
+    }
+
+    private void parseHeader() throws IOException {
+        final int length = lineLength;
+        lineLength = 0;
+
+        if ((line[0] == ' ' || line[0] == '\t') && !headerValues.isEmpty()) {
+            // obsolete line folding - append to the previous header value
+            final int last = headerValues.size() - 1;
+            headerValues.set(last, headerValues.get(last) + ' ' + lineString(0, length).trim());
+            return;
+        }
+
+        int colon = 0;
+        while (colon < length && line[colon] != ':') {
+            colon++;
+        }
+        if (colon == 0 || colon == length) {
+            throw new IOException("Invalid response header: " + lineString(0, length));
+        }
+        headerNames.add(lineString(0, colon).trim());
+        headerValues.add(lineString(colon + 1, length).trim());
+    }
+
+    private long parseChunkSize() throws IOException {
+        final int length = lineLength;
+        lineLength = 0;
+
+        long size = 0;
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = Character.digit(line[i], 16);
+            if (digit < 0) {
+                if (line[i] == ';' || line[i] == ' ' || line[i] == '\t') {
+                    break;
+                }
+                throw new IOException("Invalid chunk size: " + lineString(0, length));
+            }
+            if (++digits > 15) {
+                throw new IOException("Chunk size is too large: " + lineString(0, length));
+            }
+            size = (size << 4) + digit;
+        }
+        if (digits == 0) {
+            throw new IOException("Invalid chunk size: " + lineString(0, length));
+        }
+        return size;
+    }
+
+    private int startBody() throws IOException {
+        final String connection = getHeader("Connection");
+        if (connection != null) {
+            final String value = connection.toLowerCase(Locale.ENGLISH);
+            if (value.contains("close")) {
+                keepAlive = false;
+            } else if (value.contains("keep-alive")) {
+                keepAlive = true;
+            }
+        }
+
+        if (headRequest || status == 204 || status == 304) {
+            return DONE;
+        }
+
+        final String transferEncoding = getHeader("Transfer-Encoding");
+        if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ENGLISH).endsWith("chunked")) {
+            return CHUNK_SIZE;
+        }
+
+        final String contentLength = getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                remaining = Long.parseLong(contentLength);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid response Content-Length: " + contentLength);
+            }
+            if (remaining < 0) {
+                throw new IOException("Invalid response Content-Length: " + contentLength);
+            }
+            return remaining == 0 ? DONE : BODY_FIXED;
+        }
+
+        keepAlive = false;
+        return BODY_UNTIL_CLOSE;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.client.ClientException;
+
+/**
+ * Selector loop driving a set of non-blocking connections.
+ * <p>
+ * Each loop runs in its own thread that owns the loop's {@link Selector}, {@link HostPool host pools}
+ * and {@link HttpConnection connections}. Other threads interact with the loop only by submitting
+ * tasks via {@link #execute(Runnable)}, which makes any further synchronization of the connection
+ * state unnecessary.
+ * </p>
+ */
+final class SelectorLoop implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(SelectorLoop.class.getName());
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long MIN_CHECK_INTERVAL = 10;
+
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+    private final int maxConnectionsPerHost;
+    private final long keepAliveTimeout;
+    private final int responseBufferSize;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final Map<String, HostPool> pools = new HashMap<String, HostPool>();
+    private final Set<HttpConnection> connections = new LinkedHashSet<HttpConnection>();
+
+    private volatile boolean running = true;
+    private long nextCheck = Long.MAX_VALUE;
+
+    /**
+     * Create and start new selector loop.
+     *
+     * @param threadFactory         factory of the loop thread.
+     * @param maxConnectionsPerHost maximum number of connections opened to a single host.
+     * @param keepAliveTimeout      time in milliseconds an idle persistent connection is kept open.
+     * @param responseBufferSize    maximum number of response entity bytes buffered per connection.
+     * @throws IOException in case the selector cannot be opened.
+     */
+    SelectorLoop(final ThreadFactory threadFactory,
+                 final int maxConnectionsPerHost,
+                 final long keepAliveTimeout,
+                 final int responseBufferSize) throws IOException {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.keepAliveTimeout = keepAliveTimeout;
+        this.responseBufferSize = responseBufferSize;
+        this.selector = Selector.open();
+        this.thread = threadFactory.newThread(this);
+        this.thread.start();
+    }
+
+    /**
+     * Submit an exchange for processing by the loop.
+     *
+     * @param exchange exchange to be processed.
+     */
+    void execute(final HttpExchange exchange) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                pool(exchange.getHostKey()).execute(exchange);
+            }
+        });
+    }
+
+    /**
+     * Execute a task in the loop thread. May be invoked by any thread.
+     *
+     * @param task task to be executed.
+     */
+    void execute(final Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Shut the loop down. All connections are closed and all exchanges in progress are failed.
+     * May be invoked by any thread.
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                runTasks();
+
+                if (!tasks.isEmpty()) {
+                    selector.selectNow();
+                } else {
+                    final long now = System.currentTimeMillis();
+                    selector.select(nextCheck == Long.MAX_VALUE ? 0 : Math.max(1, nextCheck - now));
+                }
+                if (!running) {
+                    break;
+                }
+
+                final Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    final SelectionKey key = selected.next();
+                    selected.remove();
+                    ((HttpConnection) key.attachment()).handle();
+                }
+
+                checkDeadlines();
+            }
+        } catch (Throwable t) {
+            LOGGER.log(Level.SEVERE, "NIO connector selector loop failed.", t);
+        } finally {
+            close();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "NIO connector selector loop task failed.", e);
+            }
+        }
+    }
+
+    private void checkDeadlines() {
+        final long now = System.currentTimeMillis();
+        if (now < nextCheck) {
+            return;
+        }
+        long next = Long.MAX_VALUE;
+        // copy - expired connections are removed from the set while iterating
+        for (HttpConnection connection : new ArrayList<HttpConnection>(connections)) {
+            final long deadline = connection.checkDeadline(now);
+            if (deadline > 0 && deadline < next) {
+                next = deadline;
+            }
+        }
+        nextCheck = next == Long.MAX_VALUE ? next : Math.max(next, now + MIN_CHECK_INTERVAL);
+    }
+
+    private void close() {
+        running = false;
+
+        final ClientException failure = closedFailure();
+        for (HttpConnection connection : new ArrayList<HttpConnection>(connections)) {
+            connection.shutdown(failure);
+        }
+        for (HostPool pool : new ArrayList<HostPool>(pools.values())) {
+            pool.failPending(failure);
+        }
+        pools.clear();
+
+        // run the remaining tasks so that the exchanges submitted in the meantime are failed
+        runTasks();
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Error closing selector.", e);
+        }
+    }
+
+    /**
+     * Check whether the loop is running.
+     *
+     * @return {@code false} if the loop has been shut down.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Create the failure reported to the exchanges failed due to the loop shutdown.
+     *
+     * @return connector closed failure.
+     */
+    static ClientException closedFailure() {
+        return new ClientException("The connector has been closed.");
+    }
+
+    /**
+     * Get the pool of connections to a host, creating it if necessary.
+     *
+     * @param hostKey remote host key.
+     * @return host connection pool.
+     */
+    HostPool pool(final String hostKey) {
+        HostPool pool = pools.get(hostKey);
+        if (pool == null) {
+            pool = new HostPool(this, hostKey, maxConnectionsPerHost, keepAliveTimeout);
+            pools.put(hostKey, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Discard a host pool that has no open connections.
+     *
+     * @param pool empty host pool.
+     */
+    void discard(final HostPool pool) {
+        if (pools.get(pool.getHostKey()) == pool) {
+            pools.remove(pool.getHostKey());
+        }
+    }
+
+    /**
+     * Register a channel with the loop selector.
+     *
+     * @param channel    channel to be registered.
+     * @param ops        initial interest set.
+     * @param connection connection handling the channel events.
+     * @return selection key of the registered channel.
+     * @throws ClosedChannelException in case the channel is closed.
+     */
+    SelectionKey register(final SelectableChannel channel, final int ops, final HttpConnection connection)
+            throws ClosedChannelException {
+        return channel.register(selector, ops, connection);
+    }
+
+    /**
+     * Start tracking an open connection.
+     *
+     * @param connection open connection.
+     */
+    void track(final HttpConnection connection) {
+        connections.add(connection);
+    }
+
+    /**
+     * Stop tracking a closed connection.
+     *
+     * @param connection closed connection.
+     */
+    void untrack(final HttpConnection connection) {
+        connections.remove(connection);
+    }
+
+    /**
+     * Make sure the connection deadlines are checked no later than at the given time.
+     *
+     * @param deadline time in milliseconds.
+     */
+    void scheduleCheck(final long deadline) {
+        if (deadline < nextCheck) {
+            nextCheck = deadline;
+        }
+    }
+
+    /**
+     * Get the buffer used to read data from the connections.
+     * The buffer is shared by all the connections of the loop.
+     *
+     * @return shared read buffer.
+     */
+    ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    /**
+     * Get the maximum number of response entity bytes buffered per connection.
+     *
+     * @return response entity buffer limit.
+     */
+    int getResponseBufferSize() {
+        return responseBufferSize;
+    }
+}
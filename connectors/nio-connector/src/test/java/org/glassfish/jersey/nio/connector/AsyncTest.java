@@ -0,0 +1,177 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests many concurrently processed asynchronous requests and streamed response entities.
+ */
+public class AsyncTest extends JerseyTest {
+
+    private static final int STREAM_SIZE = 4 * 1024 * 1024;
+
+    @Path("/test")
+    public static class AsyncResource {
+        @GET
+        public String get(@QueryParam("id") String id) {
+            return "GET" + id;
+        }
+
+        @GET
+        @Path("stream")
+        public StreamingOutput stream() {
+            return new StreamingOutput() {
+                @Override
+                public void write(OutputStream output) throws IOException, WebApplicationException {
+                    final byte[] block = new byte[8192];
+                    for (int written = 0; written < STREAM_SIZE; written += block.length) {
+                        for (int i = 0; i < block.length; i++) {
+                            block[i] = (byte) (written + i);
+                        }
+                        output.write(block);
+                    }
+                }
+            };
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(AsyncResource.class);
+    }
+
+    @Override
+    protected void configureClient(ClientConfig clientConfig) {
+        clientConfig.setProperty(NioConnectorProperties.MAX_CONNECTIONS_PER_HOST, 4);
+        clientConfig.setProperty(NioConnectorProperties.RESPONSE_BUFFER_SIZE, 16 * 1024);
+        clientConfig.connector(new NioConnector(clientConfig));
+    }
+
+    @Test
+    public void testManyConcurrentRequests() throws Exception {
+        final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+        for (int i = 0; i < 500; i++) {
+            responses.add(target("test").queryParam("id", i).request().async().get());
+        }
+
+        for (int i = 0; i < responses.size(); i++) {
+            final Response response = responses.get(i).get(30, TimeUnit.SECONDS);
+            assertEquals(200, response.getStatus());
+            assertEquals("GET" + i, response.readEntity(String.class));
+        }
+    }
+
+    @Test
+    public void testAsyncEntityRead() throws Exception {
+        final List<Future<String>> responses = new ArrayList<Future<String>>();
+        for (int i = 0; i < 100; i++) {
+            responses.add(target("test").queryParam("id", i).request().async().get(String.class));
+        }
+        // the entity larger than the response buffer is read while other responses share the selector thread
+        final Future<byte[]> stream = target("test/stream").request().async().get(byte[].class);
+
+        for (int i = 0; i < responses.size(); i++) {
+            assertEquals("GET" + i, responses.get(i).get(30, TimeUnit.SECONDS));
+        }
+        final byte[] entity = stream.get(30, TimeUnit.SECONDS);
+        assertEquals(STREAM_SIZE, entity.length);
+        for (int i = 0; i < entity.length; i++) {
+            assertEquals((byte) i, entity[i]);
+        }
+    }
+
+    @Test
+    public void testStreamedResponse() throws Exception {
+        final Response response = target("test/stream").request().get();
+        assertEquals(200, response.getStatus());
+
+        final InputStream in = response.readEntity(InputStream.class);
+        final byte[] buffer = new byte[1000];
+        int total = 0;
+        int reads = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                assertEquals((byte) (total + i), buffer[i]);
+            }
+            total += read;
+            if (++reads % 64 == 0) {
+                // consume slower than the server produces to exercise the read suspension
+                Thread.sleep(1);
+            }
+        }
+        in.close();
+        assertEquals(STREAM_SIZE, total);
+
+        // the connection used by the streamed response is reusable
+        assertEquals("GET1", target("test").queryParam("id", 1).request().get(String.class));
+    }
+
+    @Test
+    public void testAbortedStream() throws Exception {
+        final InputStream in = target("test/stream").request().get(InputStream.class);
+        assertEquals(0, in.read());
+        in.close();
+
+        assertEquals("GET2", target("test").queryParam("id", 2).request().get(String.class));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.ClientFactory;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+
+import org.glassfish.jersey.client.ClientConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the persistent connection reuse against a minimal HTTP server.
+ */
+public class KeepAliveTest {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private ServerSocket serverSocket;
+    private Thread serverThread;
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean closeAfterResponse;
+    private volatile boolean dropReusedRequests;
+    private final List<String> requests = new CopyOnWriteArrayList<String>();
+    private Client client;
+
+    @Before
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        final Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        serve(socket);
+                    }
+                } catch (IOException e) {
+                    // server socket closed
+                }
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        final ClientConfig config = new ClientConfig();
+        config.connector(new NioConnector(config));
+        client = ClientFactory.newClient(config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        serverSocket.close();
+        serverThread.join(5000);
+    }
+
+    private void serve(final Socket socket) {
+        try {
+            final InputStream in = socket.getInputStream();
+            final OutputStream out = socket.getOutputStream();
+            int request = 0;
+            String head;
+            while ((head = readRequestHead(in)) != null) {
+                requests.add(head.substring(0, head.indexOf(' ')));
+                if (request > 0 && dropReusedRequests) {
+                    // close the persistent connection without responding, as if it has timed out on the server
+                    break;
+                }
+                final String body = "response-" + (++request);
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length()
+                        + "\r\n\r\n" + body).getBytes(ASCII));
+                out.flush();
+                if (closeAfterResponse) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // connection reset
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static String readRequestHead(final InputStream in) throws IOException {
+        final StringBuilder head = new StringBuilder();
+        int matched = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            head.append((char) b);
+            matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1) ? matched + 1 : 0;
+            if (matched == 4) {
+                return head.toString();
+            }
+        }
+        return null;
+    }
+
+    private WebTarget target() {
+        return client.target("http://localhost:" + serverSocket.getLocalPort() + "/test");
+    }
+
+    private String get() {
+        return target().request().get(String.class);
+    }
+
+    @Test
+    public void testConnectionReused() {
+        assertEquals("response-1", get());
+        assertEquals("response-2", get());
+        assertEquals("response-3", get());
+        assertEquals(1, connections.get());
+    }
+
+    @Test
+    public void testConnectionClosedByServer() {
+        closeAfterResponse = true;
+        // every response closes the connection, so each request either discovers the closed connection
+        // early or is transparently retried on a new connection
+        for (int i = 0; i < 10; i++) {
+            assertEquals("response-1", get());
+        }
+        assertEquals(10, connections.get());
+    }
+
+    @Test
+    public void testIdempotentRequestRetriedOnStaleConnection() {
+        dropReusedRequests = true;
+        assertEquals("response-1", get());
+        // the request sent over the stale connection is retried on a new one
+        assertEquals("response-1", get());
+        assertEquals(Arrays.asList("GET", "GET", "GET"), requests);
+        assertEquals(2, connections.get());
+    }
+
+    @Test
+    public void testPostNotRetriedOnStaleConnection() {
+        dropReusedRequests = true;
+        assertEquals("response-1", get());
+        try {
+            target().request().post(Entity.text("entity"), String.class);
+            fail("POST request sent over a closed connection must not be retried.");
+        } catch (ClientException e) {
+            // expected
+        }
+        assertEquals(Arrays.asList("GET", "POST"), requests);
+        assertEquals(1, connections.get());
+    }
+}
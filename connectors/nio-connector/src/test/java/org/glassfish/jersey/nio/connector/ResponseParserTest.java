@@ -0,0 +1,191 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link ResponseParser} unit tests.
+ */
+public class ResponseParserTest {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    /**
+     * Parsed response summary.
+     */
+    private static class Parsed {
+        int heads;
+        int status;
+        boolean keepAlive;
+        boolean complete;
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Feed the parser with the response split into fragments of the given size.
+     */
+    private static Parsed parse(final String response, final int fragment, final boolean head) throws IOException {
+        final ResponseParser parser = new ResponseParser();
+        parser.reset(head);
+
+        final Parsed parsed = new Parsed();
+        final byte[] bytes = response.getBytes(ASCII);
+        for (int offset = 0; offset < bytes.length && !parsed.complete; offset += fragment) {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, Math.min(fragment, bytes.length - offset));
+            consume(parser, buffer, parsed);
+        }
+        return parsed;
+    }
+
+    private static void consume(final ResponseParser parser, final ByteBuffer buffer, final Parsed parsed) throws IOException {
+        while (true) {
+            switch (parser.next(buffer)) {
+                case ResponseParser.HEAD:
+                    parsed.heads++;
+                    parsed.status = parser.getStatus();
+                    parsed.keepAlive = parser.isKeepAlive();
+                    break;
+                case ResponseParser.CONTENT:
+                    parsed.content.write(parser.getContent());
+                    break;
+                case ResponseParser.COMPLETE:
+                    parsed.complete = true;
+                    return;
+                default:
+                    return;
+            }
+        }
+    }
+
+    @Test
+    public void testContentLength() throws IOException {
+        final String response = "HTTP/1.1 200 OK\r\nContent-Length: 11\r\nX-Test: a\r\n\r\nhello world";
+        for (int fragment = 1; fragment <= response.length(); fragment++) {
+            final Parsed parsed = parse(response, fragment, false);
+            assertEquals(1, parsed.heads);
+            assertEquals(200, parsed.status);
+            assertTrue(parsed.keepAlive);
+            assertTrue(parsed.complete);
+            assertEquals("hello world", parsed.content.toString("US-ASCII"));
+        }
+    }
+
+    @Test
+    public void testChunked() throws IOException {
+        final String response = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5;ext=1\r\nhello\r\n6\r\n world\r\n0\r\nX-Trailer: t\r\n\r\n";
+        for (int fragment = 1; fragment <= response.length(); fragment++) {
+            final Parsed parsed = parse(response, fragment, false);
+            assertTrue(parsed.complete);
+            assertTrue(parsed.keepAlive);
+            assertEquals("hello world", parsed.content.toString("US-ASCII"));
+        }
+    }
+
+    @Test
+    public void testInformationalResponseSkipped() throws IOException {
+        final Parsed parsed = parse("HTTP/1.1 100 Continue\r\n\r\nHTTP/1.1 204 No Content\r\n\r\n", 3, false);
+        assertEquals(1, parsed.heads);
+        assertEquals(204, parsed.status);
+        assertTrue(parsed.complete);
+    }
+
+    @Test
+    public void testHeadResponse() throws IOException {
+        final Parsed parsed = parse("HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\n", 5, true);
+        assertTrue(parsed.complete);
+        assertEquals(0, parsed.content.size());
+    }
+
+    @Test
+    public void testConnectionClose() throws IOException {
+        assertFalse(parse("HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: 0\r\n\r\n", 7, false).keepAlive);
+        assertFalse(parse("HTTP/1.0 200 OK\r\nContent-Length: 0\r\n\r\n", 7, false).keepAlive);
+        assertTrue(parse("HTTP/1.0 200 OK\r\nConnection: Keep-Alive\r\nContent-Length: 0\r\n\r\n", 7, false).keepAlive);
+    }
+
+    @Test
+    public void testBodyUntilClose() throws IOException {
+        final ResponseParser parser = new ResponseParser();
+        parser.reset(false);
+        final Parsed parsed = new Parsed();
+        consume(parser, ByteBuffer.wrap("HTTP/1.1 200 OK\r\n\r\nsome data".getBytes(ASCII)), parsed);
+
+        assertFalse(parsed.complete);
+        assertFalse(parsed.keepAlive);
+        assertEquals("some data", parsed.content.toString("US-ASCII"));
+        assertEquals(ResponseParser.COMPLETE, parser.endOfStream());
+    }
+
+    @Test
+    public void testPrematureEndOfStream() throws IOException {
+        final ResponseParser parser = new ResponseParser();
+        parser.reset(false);
+        assertTrue(parser.isPristine());
+        consume(parser, ByteBuffer.wrap("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nabc".getBytes(ASCII)), new Parsed());
+        assertFalse(parser.isPristine());
+        try {
+            parser.endOfStream();
+            fail("IOException expected.");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidStatusLine() throws IOException {
+        parse("FOO 200 OK\r\n\r\n", 100, false);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidChunkSize() throws IOException {
+        parse("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nxyz\r\n", 100, false);
+    }
+}
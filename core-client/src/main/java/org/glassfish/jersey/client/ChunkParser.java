@@ -60,6 +60,12 @@ import java.io.InputStream;
  * {@link javax.ws.rs.ext.MessageBodyReader} implementation is selected for de-serialization
  * of the chunk data.
  * </p>
+ * <p>
+ * The response entity input stream provided by the {@link org.glassfish.jersey.client.ChunkedInput} supports
+ * {@link java.io.InputStream#mark(int) marking}, so that a parser may read the stream ahead of the chunk
+ * boundary and then reset the stream to the end of the chunk, instead of keeping the data read ahead
+ * for the subsequent invocations.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -40,9 +40,11 @@
 
 package org.glassfish.jersey.client;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
@@ -71,6 +73,7 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
  */
 public class ChunkedInput<T> extends GenericType<T> implements Closeable {
     private static final Logger LOGGER = Logger.getLogger(ChunkedInput.class.getName());
+    private static final int READ_AHEAD_BUFFER_SIZE = 1024;
 
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private ChunkParser parser = createParser("\r\n");
@@ -85,6 +88,9 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
     /**
      * Create new chunk parser that will split the response entity input stream
      * based on a fixed boundary string.
+     * <p>
+     * The returned parser does not keep any state and can be shared by multiple chunked inputs.
+     * </p>
      *
      * @param boundary chunk boundary.
      * @return new fixed boundary string-based chunk parser.
@@ -96,6 +102,9 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
     /**
      * Create new chunk parser that will split the response entity input stream
      * based on a fixed boundary sequence of bytes.
+     * <p>
+     * The returned parser does not keep any state and can be shared by multiple chunked inputs.
+     * </p>
      *
      * @param boundary chunk boundary.
      * @return new fixed boundary sequence-based chunk parser.
@@ -104,41 +113,134 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         return new FixedBoundaryParser(boundary);
     }
 
+    /**
+     * Chunk parser that searches the data for the fixed chunk boundary using the Knuth-Morris-Pratt algorithm,
+     * so that each byte of the entity stream is examined only once, even if the boundary spans two reads.
+     * <p>
+     * The parser does not keep any state. Entity streams that {@link InputStream#markSupported() support marking}
+     * (such as the read-ahead stream of a {@link ChunkedInput}) are read in blocks; the stream is reset
+     * to the end of the chunk boundary once the boundary is found. Other streams are read byte by byte, so that
+     * no data following the chunk boundary are consumed.
+     * </p>
+     */
     private static class FixedBoundaryParser implements ChunkParser {
+        private static final int BLOCK_SIZE = 512;
+
         private final byte[] delimiter;
+        /**
+         * KMP failure function - length of the longest proper prefix of the delimiter that is also a suffix
+         * of the delimiter prefix of length {@code i + 1}.
+         */
+        private final int[] failure;
 
         public FixedBoundaryParser(byte[] boundary) {
             delimiter = Arrays.copyOf(boundary, boundary.length);
+            failure = new int[delimiter.length];
+            for (int i = 1, k = 0; i < delimiter.length; i++) {
+                while (k > 0 && delimiter[i] != delimiter[k]) {
+                    k = failure[k - 1];
+                }
+                if (delimiter[i] == delimiter[k]) {
+                    k++;
+                }
+                failure[i] = k;
+            }
+        }
+
+        /**
+         * Match the next byte against the delimiter.
+         *
+         * @param b       next byte.
+         * @param matched number of delimiter bytes matched by the preceding bytes.
+         * @return number of delimiter bytes matched including the next byte.
+         */
+        private int match(final byte b, int matched) {
+            while (matched > 0 && b != delimiter[matched]) {
+                matched = failure[matched - 1];
+            }
+            return (b == delimiter[matched]) ? matched + 1 : matched;
         }
 
         @Override
         public byte[] readChunk(InputStream in) throws IOException {
-            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-            final byte[] delimiterBuffer = new byte[delimiter.length];
+            return in.markSupported() ? readBlocks(in) : readBytes(in);
+        }
 
-            int data;
-            do {
-                int dPos = 0;
-                while ((data = in.read()) != -1) {
-                    final byte b = (byte) data;
-                    if (b == delimiter[dPos]) {
-                        delimiterBuffer[dPos++] = b;
-                        if (dPos == delimiter.length) {
-                            // found chunk delimiter
-                            break;
+        private byte[] readBlocks(final InputStream in) throws IOException {
+            final byte[] block = new byte[BLOCK_SIZE];
+            byte[] chunk = block;
+            int length = 0;
+            int matched = 0;
+
+            read:
+            while (true) {
+                in.mark(block.length);
+                final int read = in.read(block, 0, block.length);
+                if (read < 0) {
+                    return (length > 0) ? Arrays.copyOf(chunk, length) : null;
+                }
+
+                for (int i = 0; i < read; i++) {
+                    matched = match(block[i], matched);
+                    if (matched == delimiter.length) {
+                        // found chunk delimiter - consume the block data up to the end of the delimiter
+                        in.reset();
+                        skip(in, block, i + 1);
+
+                        final int chunkLength = length + i + 1 - delimiter.length;
+                        if (chunkLength > 0) {
+                            final byte[] result = Arrays.copyOf(chunk, chunkLength);
+                            if (chunk != block && chunkLength > length) {
+                                System.arraycopy(block, 0, result, length, chunkLength - length);
+                            }
+                            return result;
                         }
-                    } else if (dPos > 0) {
-                        buffer.write(delimiterBuffer, 0, dPos - 1);
-                        dPos = 0;
+                        // skip empty chunk
+                        length = 0;
+                        matched = 0;
+                        continue read;
                     }
-                    buffer.write(b);
                 }
-            } while (data != -1 && buffer.size() == 0);
 
-            if (buffer.size() > 0) {
-                return buffer.toByteArray();
+                if (chunk == block) {
+                    chunk = new byte[Math.max(block.length * 2, read)];
+                } else if (chunk.length - length < read) {
+                    chunk = Arrays.copyOf(chunk, Math.max(chunk.length * 2, length + read));
+                }
+                System.arraycopy(block, 0, chunk, length, read);
+                length += read;
+            }
+        }
+
+        private static void skip(final InputStream in, final byte[] buffer, int count) throws IOException {
+            while (count > 0) {
+                final int read = in.read(buffer, 0, count);
+                if (read < 0) {
+                    throw new EOFException();
+                }
+                count -= read;
+            }
+        }
+
+        private byte[] readBytes(final InputStream in) throws IOException {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int matched = 0;
+            int data;
+            while ((data = in.read()) != -1) {
+                final byte b = (byte) data;
+                buffer.write(b);
+                matched = match(b, matched);
+                if (matched == delimiter.length) {
+                    final int chunkLength = buffer.size() - delimiter.length;
+                    if (chunkLength > 0) {
+                        return Arrays.copyOf(buffer.toByteArray(), chunkLength);
+                    }
+                    // skip empty chunk
+                    buffer.reset();
+                    matched = 0;
+                }
             }
-            return null;
+            return (buffer.size() > 0) ? buffer.toByteArray() : null;
         }
     }
 
@@ -163,7 +265,9 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
             PropertiesDelegate propertiesDelegate) {
         super(chunkType);
 
-        this.inputStream = inputStream;
+        // the data read ahead by the chunk parser are kept in the buffer of this chunked input
+        this.inputStream = (inputStream == null || inputStream.markSupported())
+                ? inputStream : new BufferedInputStream(inputStream, READ_AHEAD_BUFFER_SIZE);
         this.annotations = annotations;
         this.mediaType = mediaType;
         this.headers = headers;
@@ -261,7 +365,7 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
 
     @Override
     public void close() {
-        if (!closed.compareAndSet(false, true)) {
+        if (closed.compareAndSet(false, true)) {
             if (inputStream != null) {
                 try {
                     inputStream.close();
@@ -281,6 +385,49 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         return closed.get();
     }
 
+    /**
+     * Copy the response entity data that can be read without blocking to the supplied buffer, without consuming
+     * the data. The data read ahead by the chunk parser are included.
+     *
+     * @param offset number of the available bytes to skip, counted from the current position in the response entity.
+     * @param buffer buffer to copy the data into.
+     * @return number of bytes copied to the buffer, {@code 0} if no more data can be read without blocking.
+     * @throws IOException in case the response entity stream has been closed or the operation failed.
+     */
+    protected int peek(final long offset, final byte[] buffer) throws IOException {
+        if (inputStream == null) {
+            return 0;
+        }
+        final int available = inputStream.available();
+        if (available <= offset) {
+            return 0;
+        }
+
+        final int count = (int) Math.min(buffer.length, available - offset);
+        inputStream.mark((int) offset + count);
+        try {
+            long skipped = 0;
+            while (skipped < offset) {
+                final long n = inputStream.skip(offset - skipped);
+                if (n <= 0) {
+                    return 0;
+                }
+                skipped += n;
+            }
+            int read = 0;
+            while (read < count) {
+                final int n = inputStream.read(buffer, read, count - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            return read;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
     /**
      * Read next chunk from the response stream and convert it to a Java instance
      * using the {@link #getChunkType() chunk media type}. The method returns {@code null}
@@ -40,29 +40,86 @@
 
 package org.glassfish.jersey.client;
 
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.ws.rs.core.Configuration;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.process.internal.ExecutorsFactory;
 import org.glassfish.jersey.spi.RequestExecutorsProvider;
 import org.glassfish.jersey.spi.ResponseExecutorsProvider;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * {@link ExecutorsFactory Executors factory} used on the client side for asynchronous request
  * processing.
+ * <p>
+ * Unless a custom {@link RequestExecutorsProvider} is registered, asynchronous requests are executed
+ * by a cached thread pool, optionally limited to {@link ClientProperties#ASYNC_THREADPOOL_SIZE} threads
+ * and {@link ClientProperties#ASYNC_THREADPOOL_QUEUE_CAPACITY} waiting requests.
+ * In both cases, the requests are routed through a {@link DestinationExecutor per-destination gate}
+ * that enforces the {@link ClientProperties#ASYNC_MAX_REQUESTS_PER_DESTINATION concurrent request limit}
+ * and the {@link ClientProperties#ASYNC_DESTINATION_QUEUE_CAPACITY queue capacity} configured for each
+ * destination.
+ * </p>
+ * <p>
+ * Destinations without any in-flight or queued requests for longer than
+ * {@link ClientProperties#ASYNC_DESTINATION_IDLE_TIMEOUT} are evicted (and their MBeans unregistered)
+ * while new requests are submitted, so that a client talking to many distinct hosts does not
+ * accumulate destination executors.
+ * </p>
  *
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 class ClientAsyncExecutorsFactory extends ExecutorsFactory<ClientRequest> {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientAsyncExecutorsFactory.class.getName());
+
+    private static final int DEFAULT_THREADPOOL_QUEUE_CAPACITY = 1000;
+    private static final int DEFAULT_DESTINATION_QUEUE_CAPACITY = Integer.MAX_VALUE;
+    private static final int DEFAULT_DESTINATION_IDLE_TIMEOUT = 60000;
+
     private final ExecutorService requestingExecutor;
     private final ExecutorService respondingExecutor;
 
+    private final int maxRequestsPerDestination;
+    private final int destinationQueueCapacity;
+    private final long destinationIdleTimeout;
+    private final boolean destinationMBeans;
+    private final ConcurrentMap<String, DestinationExecutor> destinations = Maps.newConcurrentMap();
+    /**
+     * MBean names of the destination executors, guarded by itself so that an MBean of a retired executor
+     * is unregistered before the MBean of its replacement is registered under the same name.
+     */
+    private final Map<DestinationExecutor, ObjectName> destinationMBeanNames = Maps.newHashMap();
+
+    private volatile ExecutorService defaultRequestingExecutor;
+    private volatile long nextEviction;
+
     /**
      * Creates a new instance.
      *
@@ -70,12 +127,30 @@ class ClientAsyncExecutorsFactory extends ExecutorsFactory<ClientRequest> {
      */
     public ClientAsyncExecutorsFactory(ServiceLocator locator) {
         super(locator);
+        final Configuration configuration = locator.getService(Configuration.class);
+        final Map<String, Object> properties = configuration == null ? null : configuration.getProperties();
+
+        this.maxRequestsPerDestination = getIntValue(properties, ClientProperties.ASYNC_MAX_REQUESTS_PER_DESTINATION, 0);
+        this.destinationQueueCapacity = getIntValue(properties, ClientProperties.ASYNC_DESTINATION_QUEUE_CAPACITY,
+                DEFAULT_DESTINATION_QUEUE_CAPACITY);
+        final int idleTimeout = getIntValue(properties, ClientProperties.ASYNC_DESTINATION_IDLE_TIMEOUT,
+                DEFAULT_DESTINATION_IDLE_TIMEOUT);
+        this.destinationIdleTimeout = TimeUnit.MILLISECONDS.toNanos(Math.max(idleTimeout, 0));
+        this.nextEviction = System.nanoTime() + destinationIdleTimeout;
+        this.destinationMBeans = properties != null
+                && PropertiesHelper.isProperty(properties, ClientProperties.FEATURE_ASYNC_DESTINATION_MBEANS);
+
+        final int threadPoolSize = getIntValue(properties, ClientProperties.ASYNC_THREADPOOL_SIZE, 0);
+        final int threadPoolQueueCapacity = getIntValue(properties, ClientProperties.ASYNC_THREADPOOL_QUEUE_CAPACITY,
+                DEFAULT_THREADPOOL_QUEUE_CAPACITY);
         this.requestingExecutor = getInitialRequestingExecutor(new RequestExecutorsProvider() {
 
             @Override
             public ExecutorService getRequestingExecutor() {
-                return Executors.newCachedThreadPool(
+                final ExecutorService executor = createRequestingExecutor(threadPoolSize, threadPoolQueueCapacity,
                         new ThreadFactoryBuilder().setNameFormat("jersey-client-async-executor-%d").build());
+                defaultRequestingExecutor = executor;
+                return executor;
             }
         });
         this.respondingExecutor = getInitialRespondingExecutor(new ResponseExecutorsProvider() {
@@ -87,6 +162,26 @@ class ClientAsyncExecutorsFactory extends ExecutorsFactory<ClientRequest> {
         });
     }
 
+    private static int getIntValue(final Map<String, Object> properties, final String name, final int defaultValue) {
+        return properties == null ? defaultValue : PropertiesHelper.getValue(properties, name, defaultValue);
+    }
+
+    private static ExecutorService createRequestingExecutor(final int threadPoolSize,
+                                                           final int queueCapacity,
+                                                           final ThreadFactory threadFactory) {
+        if (threadPoolSize <= 0) {
+            return Executors.newCachedThreadPool(threadFactory);
+        }
+
+        // requests rejected by the bounded pool fail fast, see DestinationExecutor
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize,
+                60L, TimeUnit.SECONDS,
+                (queueCapacity > 0) ? new LinkedBlockingQueue<Runnable>(queueCapacity) : new SynchronousQueue<Runnable>(),
+                threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public ExecutorService getRequestingExecutor(ClientRequest request) {
         return requestingExecutor;
@@ -96,4 +191,143 @@ class ClientAsyncExecutorsFactory extends ExecutorsFactory<ClientRequest> {
     public ExecutorService getRespondingExecutor(ClientRequest request) {
         return respondingExecutor;
     }
+
+    /**
+     * Get the executor gate of the request destination (scheme, host and port of the request URI).
+     * <p>
+     * An executor retired by an eviction of idle destinations is replaced with a new one. The returned
+     * executor may still be retired by a concurrent eviction, in which case it
+     * {@link DestinationExecutor#submit(DestinationExecutor.RequestTask) does not accept} the submitted task
+     * and a new executor has to be obtained.
+     * </p>
+     *
+     * @param request client request.
+     * @return destination executor of the request.
+     */
+    DestinationExecutor getDestinationExecutor(final ClientRequest request) {
+        evictIdleDestinations();
+
+        final String destination = destinationOf(request.getUri());
+
+        DestinationExecutor executor = destinations.get(destination);
+        while (executor == null || executor.isRetired()) {
+            final DestinationExecutor newExecutor = new DestinationExecutor(destination,
+                    getRequestingExecutor(request), maxRequestsPerDestination, destinationQueueCapacity);
+            final boolean installed = (executor == null)
+                    ? destinations.putIfAbsent(destination, newExecutor) == null
+                    : destinations.replace(destination, executor, newExecutor);
+            if (installed) {
+                if (destinationMBeans) {
+                    replaceMBean(executor, newExecutor);
+                }
+                return newExecutor;
+            }
+            executor = destinations.get(destination);
+        }
+        return executor;
+    }
+
+    /**
+     * Get the destination identifier of the URI in the {@code scheme://host:port} form.
+     *
+     * @param uri request URI.
+     * @return destination identifier.
+     */
+    static String destinationOf(final URI uri) {
+        final String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ENGLISH);
+        final String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ENGLISH);
+        int port = uri.getPort();
+        if (port < 0) {
+            port = "https".equals(scheme) ? 443 : ("http".equals(scheme) ? 80 : -1);
+        }
+        return scheme + "://" + host + ":" + port;
+    }
+
+    /**
+     * Evict the destinations that have been idle for longer than the destination idle timeout.
+     * The check runs at most once per idle timeout period.
+     */
+    private void evictIdleDestinations() {
+        final long now = System.nanoTime();
+        final long next = nextEviction;
+        if (now - next < 0) {
+            return;
+        }
+        synchronized (destinations) {
+            if (next != nextEviction) {
+                // another thread is already done with the eviction
+                return;
+            }
+            nextEviction = now + destinationIdleTimeout;
+        }
+
+        final long idleSince = now - destinationIdleTimeout;
+        for (final DestinationExecutor executor : destinations.values()) {
+            if (executor.retireIfIdle(idleSince)) {
+                // unregister first, so that a new executor of the destination can reuse the MBean name
+                replaceMBean(executor, null);
+                destinations.remove(executor.getDestination(), executor);
+            }
+        }
+    }
+
+    /**
+     * Unregister the MBean of a retired destination executor and register the MBean of its replacement.
+     *
+     * @param retired     retired destination executor, may be {@code null}.
+     * @param replacement new destination executor, may be {@code null}.
+     */
+    private void replaceMBean(final DestinationExecutor retired, final DestinationExecutor replacement) {
+        synchronized (destinationMBeanNames) {
+            if (retired != null) {
+                unregisterMBean(destinationMBeanNames.remove(retired));
+            }
+            if (replacement == null) {
+                return;
+            }
+            try {
+                final ObjectName name = new ObjectName("org.glassfish.jersey:type=ClientDestination,executor="
+                        + Integer.toHexString(System.identityHashCode(this))
+                        + ",name=" + ObjectName.quote(replacement.getDestination()));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(replacement, name);
+                destinationMBeanNames.put(replacement, name);
+            } catch (JMException ex) {
+                LOGGER.log(Level.WARNING,
+                        LocalizationMessages.DESTINATION_EXECUTOR_MBEAN_REGISTRATION_FAILED(replacement.getDestination()),
+                        ex);
+            }
+        }
+    }
+
+    /**
+     * Release the resources held by the executors factory: unregister the destination MBeans
+     * and shut down the default requesting executor, if used.
+     */
+    void close() {
+        synchronized (destinationMBeanNames) {
+            for (final ObjectName name : destinationMBeanNames.values()) {
+                unregisterMBean(name);
+            }
+            destinationMBeanNames.clear();
+        }
+
+        final ExecutorService executor = defaultRequestingExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static void unregisterMBean(final ObjectName name) {
+        if (name == null) {
+            return;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException ex) {
+            LOGGER.log(Level.FINE, LocalizationMessages.DESTINATION_EXECUTOR_MBEAN_UNREGISTRATION_FAILED(name), ex);
+        }
+    }
 }
@@ -60,7 +60,6 @@ import org.glassfish.jersey.model.internal.ComponentBag;
 
 import org.glassfish.hk2.api.DynamicConfiguration;
 import org.glassfish.hk2.api.ServiceLocator;
-import org.glassfish.hk2.api.ServiceLocatorFactory;
 
 /**
  * Jersey externalized implementation of client-side JAX-RS {@link javax.ws.rs.core.Configurable
@@ -112,7 +111,7 @@ public class ClientConfig implements Configurable<ClientConfig>, Configuration {
         private final Value<ClientRuntime> runtime = Values.lazy(new Value<ClientRuntime>() {
             @Override
             public ClientRuntime get() {
-                return initRuntime();
+                return acquireRuntime();
             }
         });
 
@@ -335,18 +334,43 @@ public class ClientConfig implements Configurable<ClientConfig>, Configuration {
         }
 
         /**
-         * Initialize the newly constructed client instance.
+         * Get a client runtime for the configuration state from the runtime cache of the parent
+         * client. Equal configuration states share the same runtime instance.
          */
-        private ClientRuntime initRuntime() {
+        private ClientRuntime acquireRuntime() {
             /**
              * Ensure that any attempt to add a new provider, feature, binder or modify the connector
-             * will cause a copy of the current state.
+             * will cause a copy of the current state. This also makes the state usable as an immutable
+             * runtime cache key.
              */
             markAsShared();
 
+            final CommonConfig commonConfig = this.commonConfig;
+            final Connector connector = this.connector;
+            return client.getRuntimeCache().acquire(this, this, new Value<ClientRuntime>() {
+                @Override
+                public ClientRuntime get() {
+                    return initRuntime(commonConfig, connector);
+                }
+            });
+        }
+
+        /**
+         * Initialize a new client runtime for the configuration state.
+         * <p>
+         * The method is static on purpose: the created runtime must not retain a reference
+         * to the configuration state, so that the state can be garbage collected once it is
+         * no longer used and the shared runtime can be released.
+         * </p>
+         *
+         * @param commonConfig configuration of the new runtime.
+         * @param connector    transport connector of the new runtime.
+         * @return new client runtime.
+         */
+        private static ClientRuntime initRuntime(final CommonConfig commonConfig, final Connector connector) {
             final ServiceLocator locator = Injections.createLocator(new ClientBinder());
 
-            final CommonConfig runtimeConfig = new CommonConfig(this.commonConfig);
+            final CommonConfig runtimeConfig = new CommonConfig(commonConfig);
             runtimeConfig.configureMetaProviders(locator);
 
             // Bind configuration.
@@ -364,19 +388,7 @@ public class ClientConfig implements Configurable<ClientConfig>, Configuration {
             // Bind providers.
             ProviderBinder.bindProviders(runtimeConfig.getComponentBag(), RuntimeType.CLIENT, null, locator);
 
-            final ClientRuntime runtime = new ClientRuntime(configuration, connector, locator);
-            client.addListener(new JerseyClient.LifecycleListener() {
-                @Override
-                public void onClose() {
-                    try {
-                        runtime.close();
-                    } finally {
-                        ServiceLocatorFactory.getInstance().destroy(locator.getName());
-                    }
-                }
-            });
-
-            return runtime;
+            return new ClientRuntime(configuration, connector, locator);
         }
 
         @Override
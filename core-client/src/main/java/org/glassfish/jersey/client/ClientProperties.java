@@ -94,16 +94,14 @@ public final class ClientProperties {
      *
      * The value MUST be an instance convertible to {@link java.lang.Integer}.
      * <p />
-     * If the property is absent then chunked encoding will not be used.
-     * A value &lt= 0 declares that chunked encoding will be used with
-     * the default chunk size. A value &gt 0 declares that chunked encoding
-     * will be used with the value as the declared chunk size.
+     * Request entities the size of which is not known in advance are streamed
+     * using the chunked transfer encoding. A value &gt 0 declares the size of
+     * the chunks, a value &lt= 0 declares that the default chunk size will be used.
      * <p />
-     * A default value is not set.
+     * The default value is {@code 4096}.
      * <p />
      * The name of the configuration property is <code>{@value}</code>.
      */
-    // TODO add support (ported from Jersey 1.x).
     @SuppressWarnings("HtmlTagCanBeJavadocTag")
     public static final String CHUNKED_ENCODING_SIZE =
             "jersey.config.client.chunkedEncodingSize";
@@ -129,23 +127,143 @@ public final class ClientProperties {
     /**
      * Asynchronous thread pool size.
      *
-     * The value MUST be an instance of {@link java.lang.Integer}.
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
      * <p />
      * If the property is absent then thread pool used for async requests will
      * be initialized as default cached thread pool, which creates new thread
      * for every new request, see {@link java.util.concurrent.Executors}. When
      * a value &gt; 0 is provided, the created cached thread pool limited to that
-     * number of threads will be utilized.
+     * number of threads will be utilized. Requests submitted while all the threads
+     * are busy wait for a free thread in a queue bounded by {@link #ASYNC_THREADPOOL_QUEUE_CAPACITY}.
+     * Once the queue is full, new requests fail fast with a {@link javax.ws.rs.client.ClientException}
+     * caused by a {@link java.util.concurrent.RejectedExecutionException}.
+     * <p />
+     * The property is ignored if a custom {@link org.glassfish.jersey.spi.RequestExecutorsProvider}
+     * is registered. Transport connectors that manage their own threads (e.g. Grizzly connector)
+     * may use the value to limit the size of their thread pools too.
      * <p />
      * A default value is not set.
      * <p />
      * The name of the configuration property is <code>{@value}</code>.
+     *
+     * @see #ASYNC_MAX_REQUESTS_PER_DESTINATION
      */
-    // TODO add support (ported from Jersey 1.x).
     @SuppressWarnings("HtmlTagCanBeJavadocTag")
     public static final String ASYNC_THREADPOOL_SIZE =
             "jersey.config.client.async.threadPoolSize";
 
+    /**
+     * Capacity of the queue of asynchronous requests waiting for a free thread of the thread pool
+     * limited by {@link #ASYNC_THREADPOOL_SIZE}.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The property is only used if {@link #ASYNC_THREADPOOL_SIZE} is set and no custom
+     * {@link org.glassfish.jersey.spi.RequestExecutorsProvider} is registered. A value of {@code 0}
+     * means requests are rejected as soon as all the threads are busy.
+     * <p />
+     * The default value is {@code 1000}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String ASYNC_THREADPOOL_QUEUE_CAPACITY =
+            "jersey.config.client.async.threadPoolQueueCapacity";
+
+    /**
+     * Maximum number of concurrently processed asynchronous requests per destination.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * A destination is identified by the scheme, host and port of the request URI. An asynchronous
+     * request occupies a destination slot from the moment its processing starts until the transport
+     * connector delivers the response or fails. Requests submitted while all the destination slots
+     * are occupied wait in a destination queue bounded by {@link #ASYNC_DESTINATION_QUEUE_CAPACITY}.
+     * Once the queue is full, new requests to the destination fail fast with a
+     * {@link javax.ws.rs.client.ClientException} caused by a
+     * {@link java.util.concurrent.RejectedExecutionException}, so that a slow destination cannot
+     * exhaust the threads of the client.
+     * A value &lt;= 0 means the number of concurrent requests per destination is not limited.
+     * <p />
+     * The default value is {@code 0} (not limited).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     *
+     * @see #ASYNC_THREADPOOL_SIZE
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String ASYNC_MAX_REQUESTS_PER_DESTINATION =
+            "jersey.config.client.async.maxRequestsPerDestination";
+
+    /**
+     * Capacity of the per-destination queue of asynchronous requests waiting for a free destination slot.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The property is only used if {@link #ASYNC_MAX_REQUESTS_PER_DESTINATION} is set. A value of
+     * {@code 0} means requests are rejected as soon as all the destination slots are occupied.
+     * <p />
+     * The default value is {@link Integer#MAX_VALUE} (not bounded).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String ASYNC_DESTINATION_QUEUE_CAPACITY =
+            "jersey.config.client.async.destinationQueueCapacity";
+
+    /**
+     * Time in milliseconds after which a destination without any in-flight or queued asynchronous
+     * requests is evicted from the client, together with its statistics MXBean (see
+     * {@link #FEATURE_ASYNC_DESTINATION_MBEANS}). A destination used again after eviction starts
+     * with fresh statistics.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * Idle destinations are evicted lazily, while new asynchronous requests are submitted.
+     * <p />
+     * The default value is {@code 60000} (1 minute).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String ASYNC_DESTINATION_IDLE_TIMEOUT =
+            "jersey.config.client.async.destinationIdleTimeout";
+
+    /**
+     * If {@code true} then the statistics of asynchronous requests processed for each destination
+     * (in-flight requests, queue depth, rejected request count, queue wait time) are exposed as JMX
+     * MXBeans registered in the platform MBean server under the
+     * {@code org.glassfish.jersey:type=ClientDestination} domain.
+     * <p />
+     * The default value is {@code false}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String FEATURE_ASYNC_DESTINATION_MBEANS =
+            "jersey.config.client.async.destination.mbean.enabled";
+
+    /**
+     * Maximum number of client runtimes cached by a single client instance.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * Web targets and invocation builders created by a client share a client runtime
+     * (service locator, message body workers, filters and transport connector) as long
+     * as their effective configurations are equal. Runtimes for distinct configurations
+     * are cached up to the configured limit; the least recently used runtime is evicted
+     * and released once it is no longer referenced by any configuration. The value is
+     * read when the first runtime of the client is initialized. Values &lt; 1 are treated
+     * as {@code 1}.
+     * <p />
+     * The default value is {@code 16}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String RUNTIME_CACHE_SIZE =
+            "jersey.config.client.runtimeCacheSize";
+
     /**
      * Support for specifying SSL configuration for HTTPS connections. Used only when making HTTPS requests.
      *
@@ -43,6 +43,8 @@ package org.glassfish.jersey.client;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ws.rs.client.ClientException;
 import javax.ws.rs.core.HttpHeaders;
@@ -57,6 +59,7 @@ import org.glassfish.jersey.process.internal.Stage;
 import org.glassfish.jersey.process.internal.Stages;
 
 import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.api.ServiceLocatorFactory;
 
 /**
  * Client-side request processing runtime.
@@ -73,6 +76,8 @@ class ClientRuntime {
     private final RequestScope requestScope;
     private final ClientAsyncExecutorsFactory asyncExecutorsFactory;
 
+    private final ServiceLocator locator;
+
     /**
      * Create new client request processing runtime.
      *
@@ -94,6 +99,7 @@ class ClientRuntime {
 
         this.config = config;
         this.connector = connector;
+        this.locator = locator;
 
         this.requestScope = locator.getService(RequestScope.class);
         this.asyncExecutorsFactory = new ClientAsyncExecutorsFactory(locator);
@@ -105,67 +111,100 @@ class ClientRuntime {
      * Both, the request processing as well as response callback invocation will be executed
      * in a context of an active {@link RequestScope.Instance request scope instance}.
      * </p>
+     * <p>
+     * The request is executed once a slot of the request {@link DestinationExecutor destination}
+     * is available. The slot is released as soon as the connector delivers the response or fails.
+     * If the request is rejected by the destination, the response callback is
+     * {@link ResponseCallback#failed(javax.ws.rs.client.ClientException) notified} immediately.
+     * </p>
      *
      * @param request  client request to be sent.
      * @param callback asynchronous response callback.
      */
     public void submit(final ClientRequest request, final ResponseCallback callback) {
-        submit(asyncExecutorsFactory.getRequestingExecutor(request), new Runnable() {
+        while (!submit(asyncExecutorsFactory.getDestinationExecutor(request), request, callback)) {
+            // the destination executor has been retired as idle in the meantime, the next one obtained
+            // replaces it in the destination map
+        }
+    }
+
+    private boolean submit(final DestinationExecutor destination,
+                           final ClientRequest request,
+                           final ResponseCallback callback) {
+        final AtomicBoolean slotReleased = new AtomicBoolean(false);
+        final Runnable releaseSlot = new Runnable() {
+            @Override
+            public void run() {
+                if (slotReleased.compareAndSet(false, true)) {
+                    destination.release();
+                }
+            }
+        };
+
+        return destination.submit(new DestinationExecutor.RequestTask() {
 
             @Override
             public void run() {
-                final RequestScope.Instance currentScopeInstance = requestScope.referenceCurrent();
-                final AsyncConnectorCallback connectorCallback = new AsyncConnectorCallback() {
+                requestScope.runInScope(new Runnable() {
 
                     @Override
-                    public void response(final ClientResponse response) {
-                        submit(asyncExecutorsFactory.getRespondingExecutor(request), currentScopeInstance, new Runnable() {
-                            @Override
-                            public void run() {
-                                final ClientResponse processedResponse;
-                                try {
-                                    processedResponse = Stages.process(response, responseProcessingRoot);
-                                } catch (Throwable throwable) {
-                                    failure(throwable);
-                                    return;
-                                }
-                                try {
-                                    callback.completed(processedResponse, requestScope);
-                                } finally {
-                                    currentScopeInstance.release();
-                                }
-                            }
-                        });
+                    public void run() {
+                        process(request, callback, releaseSlot);
                     }
+                });
+            }
+
+            @Override
+            public void rejected(final RejectedExecutionException cause) {
+                callback.failed(new ClientException(cause.getMessage(), cause));
+            }
+        });
+    }
 
+    private void process(final ClientRequest request, final ResponseCallback callback, final Runnable releaseSlot) {
+        final RequestScope.Instance currentScopeInstance = requestScope.referenceCurrent();
+        final AsyncConnectorCallback connectorCallback = new AsyncConnectorCallback() {
+
+            @Override
+            public void response(final ClientResponse response) {
+                releaseSlot.run();
+                submit(asyncExecutorsFactory.getRespondingExecutor(request), currentScopeInstance, new Runnable() {
                     @Override
-                    public void failure(Throwable failure) {
+                    public void run() {
+                        final ClientResponse processedResponse;
                         try {
-                            callback.failed(failure instanceof ClientException ?
-                                    (ClientException) failure : new ClientException(failure));
+                            processedResponse = Stages.process(response, responseProcessingRoot);
+                        } catch (Throwable throwable) {
+                            failure(throwable);
+                            return;
+                        }
+                        try {
+                            callback.completed(processedResponse, requestScope);
                         } finally {
                             currentScopeInstance.release();
                         }
                     }
-                };
-                try {
-                    connector.apply(addUserAgent(Stages.process(request, requestProcessingRoot), connector.getName()), connectorCallback);
-                } catch (AbortException aborted) {
-                    connectorCallback.response(aborted.getAbortResponse());
-                } catch (Throwable throwable) {
-                    connectorCallback.failure(throwable);
-                }
+                });
             }
-        });
-    }
 
-    private Future<?> submit(final ExecutorService executor, final Runnable task) {
-        return executor.submit(new Runnable() {
             @Override
-            public void run() {
-                requestScope.runInScope(task);
+            public void failure(Throwable failure) {
+                releaseSlot.run();
+                try {
+                    callback.failed(failure instanceof ClientException ?
+                            (ClientException) failure : new ClientException(failure));
+                } finally {
+                    currentScopeInstance.release();
+                }
             }
-        });
+        };
+        try {
+            connector.apply(addUserAgent(Stages.process(request, requestProcessingRoot), connector.getName()), connectorCallback);
+        } catch (AbortException aborted) {
+            connectorCallback.response(aborted.getAbortResponse());
+        } catch (Throwable throwable) {
+            connectorCallback.failure(throwable);
+        }
     }
 
     private Future<?> submit(final ExecutorService executor, final RequestScope.Instance scopeInstance, final Runnable task) {
@@ -239,6 +278,27 @@ class ClientRuntime {
         return config;
     }
 
+    /**
+     * Get the transport connector used by the runtime.
+     *
+     * @return client transport connector.
+     */
+    Connector getConnector() {
+        return connector;
+    }
+
+    /**
+     * Release the resources held by the runtime (executors, statistics MBeans and the HK2 service
+     * locator) except for the transport connector, which may be shared with other runtimes.
+     */
+    void release() {
+        try {
+            asyncExecutorsFactory.close();
+        } finally {
+            ServiceLocatorFactory.getInstance().destroy(locator.getName());
+        }
+    }
+
     /**
      * Close the client runtime and release the underlying transport connector.
      */
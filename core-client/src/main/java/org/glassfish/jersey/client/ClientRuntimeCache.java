@@ -0,0 +1,239 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.internal.util.collection.Value;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Bounded, reference-counted cache of {@link ClientRuntime client runtimes} shared
+ * by all the configuration snapshots of a single {@link JerseyClient} instance.
+ * <p>
+ * Runtimes are keyed by an effective configuration fingerprint, i.e. any configuration
+ * state that is {@link Object#equals(Object) equal} to the fingerprint of an already
+ * initialized runtime reuses the runtime (including its service locator, message body
+ * workers and transport connector) instead of bootstrapping a new one.
+ * </p>
+ * <p>
+ * Every configuration state that acquired a runtime holds a reference to it. A runtime
+ * evicted from the cache (once the cache exceeds its maximum size, the least recently
+ * used runtime is evicted) is released as soon as all the configuration states that
+ * reference it have been garbage collected. All remaining runtimes as well as all
+ * the transport connectors are released when the cache is {@link #close() closed}.
+ * </p>
+ */
+final class ClientRuntimeCache {
+
+    /**
+     * Default maximum number of cached client runtimes.
+     */
+    static final int DEFAULT_MAX_SIZE = 16;
+
+    private final int maxSize;
+    private final Map<Object, Entry> cache;
+    private final Set<Entry> live = Sets.newSetFromMap(new IdentityHashMap<Entry, Boolean>());
+    private final ReferenceQueue<Object> holders = new ReferenceQueue<Object>();
+    private boolean closed = false;
+
+    /**
+     * Cached client runtime entry.
+     */
+    private final class Entry {
+        private final ClientRuntime runtime;
+        private final Set<HolderReference> references = Sets.newHashSet();
+        private boolean evicted = false;
+
+        private Entry(final ClientRuntime runtime) {
+            this.runtime = runtime;
+        }
+
+        private void reference(final Object holder) {
+            references.add(new HolderReference(holder, this));
+        }
+
+        private void dereference(final HolderReference reference) {
+            if (references.remove(reference) && references.isEmpty() && evicted) {
+                release();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (references.isEmpty()) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (live.remove(this)) {
+                runtime.release();
+            }
+        }
+    }
+
+    /**
+     * Weak reference to a configuration state holding a cached runtime.
+     */
+    private final class HolderReference extends WeakReference<Object> {
+        private final Entry entry;
+
+        private HolderReference(final Object holder, final Entry entry) {
+            super(holder, holders);
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Create new client runtime cache.
+     *
+     * @param maxSize maximum number of runtimes kept in the cache. Values &lt; 1 are
+     *                treated as {@code 1}.
+     */
+    ClientRuntimeCache(final int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.cache = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+                if (size() > ClientRuntimeCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a client runtime for the given configuration fingerprint.
+     * <p>
+     * If there is a cached runtime for an equal fingerprint, the cached runtime is returned.
+     * Otherwise a new runtime is created using the supplied runtime factory and cached.
+     * In both cases the holder is registered as a new reference to the returned runtime.
+     * </p>
+     *
+     * @param fingerprint immutable effective configuration fingerprint.
+     * @param holder      object referencing the returned runtime.
+     * @param factory     factory used to create a new runtime in case of a cache miss.
+     * @return client runtime for the configuration fingerprint.
+     * @throws IllegalStateException in case the cache has been closed already.
+     */
+    synchronized ClientRuntime acquire(final Object fingerprint, final Object holder, final Value<ClientRuntime> factory)
+            throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("Client instance has been closed.");
+        }
+        expungeStaleReferences();
+
+        Entry entry = cache.get(fingerprint);
+        if (entry == null) {
+            entry = new Entry(factory.get());
+            live.add(entry);
+            cache.put(fingerprint, entry);
+        }
+        entry.reference(holder);
+        return entry.runtime;
+    }
+
+    /**
+     * Get the number of currently cached runtimes.
+     *
+     * @return number of cached runtimes.
+     */
+    synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of runtimes that have not been released yet, including the runtimes
+     * evicted from the cache that are still referenced.
+     *
+     * @return number of live runtimes.
+     */
+    synchronized int liveCount() {
+        expungeStaleReferences();
+        return live.size();
+    }
+
+    /**
+     * Close the cache and release all the live runtimes. Each distinct transport connector
+     * used by any of the runtimes is closed exactly once.
+     */
+    void close() {
+        final Entry[] entries;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            cache.clear();
+            entries = live.toArray(new Entry[live.size()]);
+            live.clear();
+        }
+
+        final Set<Connector> connectors = Sets.newSetFromMap(new IdentityHashMap<Connector, Boolean>());
+        for (final Entry entry : entries) {
+            try {
+                if (connectors.add(entry.runtime.getConnector())) {
+                    entry.runtime.close();
+                }
+            } finally {
+                entry.runtime.release();
+            }
+        }
+    }
+
+    private void expungeStaleReferences() {
+        Reference<?> reference;
+        while ((reference = holders.poll()) != null) {
+            final HolderReference holderReference = (HolderReference) reference;
+            holderReference.entry.dereference(holderReference);
+        }
+    }
+}
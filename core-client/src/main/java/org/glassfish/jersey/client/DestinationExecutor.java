@@ -0,0 +1,283 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+
+/**
+ * Gate limiting the number of concurrently processed asynchronous requests to a single
+ * destination (scheme, host and port).
+ * <p>
+ * Request tasks are executed using the shared client requesting executor. A request occupies
+ * a destination slot from the moment it is submitted for execution until the slot is
+ * {@link #release() released}. Tasks submitted while all the slots are occupied wait in a bounded
+ * destination queue; once the queue is full, new tasks are {@link RequestTask#rejected rejected}
+ * immediately.
+ * </p>
+ * <p>
+ * A destination executor that has been idle for some time may be {@link #retireIfIdle(long) retired}.
+ * A retired executor does not accept any new tasks, so that it can be safely discarded by its owner.
+ * </p>
+ */
+final class DestinationExecutor implements DestinationExecutorMXBean {
+
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    /**
+     * Asynchronous request task executed by the destination executor.
+     */
+    static interface RequestTask extends Runnable {
+
+        /**
+         * Invoked instead of {@link #run()} in case the task has been rejected. No destination slot
+         * is held by a rejected task.
+         *
+         * @param cause rejection cause.
+         */
+        public void rejected(RejectedExecutionException cause);
+    }
+
+    private final String destination;
+    private final Executor executor;
+    private final int maxConcurrentRequests;
+    private final int queueCapacity;
+
+    private final Queue<QueuedTask> queue = new LinkedList<QueuedTask>();
+    private int active = 0;
+    private int largestActive = 0;
+    private long idleSince = System.nanoTime();
+    private boolean retired = false;
+
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong dequeuedCount = new AtomicLong();
+    private final AtomicLong totalQueueWaitTime = new AtomicLong();
+
+    /**
+     * Create new destination executor.
+     *
+     * @param destination           destination identifier.
+     * @param executor              executor used to run the request tasks.
+     * @param maxConcurrentRequests maximum number of concurrently processed requests. Values &lt;= 0
+     *                              mean that the number of concurrent requests is not limited.
+     * @param queueCapacity         capacity of the queue of requests waiting for a free slot.
+     */
+    DestinationExecutor(final String destination,
+                        final Executor executor,
+                        final int maxConcurrentRequests,
+                        final int queueCapacity) {
+        this.destination = destination;
+        this.executor = executor;
+        this.maxConcurrentRequests = (maxConcurrentRequests > 0) ? maxConcurrentRequests : Integer.MAX_VALUE;
+        this.queueCapacity = Math.max(queueCapacity, 0);
+    }
+
+    /**
+     * Submit a request task for execution. The task is executed as soon as a destination slot is
+     * available. The slot has to be {@link #release() released} once the request processing
+     * for the destination is finished.
+     *
+     * @param task request task to be executed.
+     * @return {@code true} if the task has been accepted (i.e. executed, queued or rejected),
+     *         {@code false} if the executor has been {@link #retireIfIdle(long) retired} and the task
+     *         has to be submitted to a new destination executor.
+     */
+    boolean submit(final RequestTask task) {
+        boolean rejected = false;
+        synchronized (this) {
+            if (retired) {
+                return false;
+            } else if (active < maxConcurrentRequests) {
+                active++;
+                largestActive = Math.max(largestActive, active);
+            } else if (queue.size() < queueCapacity) {
+                queue.add(new QueuedTask(task));
+                return true;
+            } else {
+                rejected = true;
+            }
+        }
+
+        if (rejected) {
+            rejectedCount.incrementAndGet();
+            task.rejected(new RejectedExecutionException(
+                    LocalizationMessages.DESTINATION_QUEUE_FULL(destination, maxConcurrentRequests, queueCapacity)));
+        } else {
+            dispatch(task);
+        }
+        return true;
+    }
+
+    /**
+     * Retire the executor if there are no in-flight or queued tasks and no task has finished since
+     * the given time.
+     *
+     * @param idleSince {@link System#nanoTime() nano time} the executor has to be idle since to be retired.
+     * @return {@code true} if the executor has been retired, {@code false} otherwise.
+     */
+    synchronized boolean retireIfIdle(final long idleSince) {
+        if (!retired && active == 0 && this.idleSince - idleSince <= 0) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    /**
+     * Check if the executor has been {@link #retireIfIdle(long) retired}.
+     *
+     * @return {@code true} if the executor has been retired and does not accept any new tasks.
+     */
+    synchronized boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Release a destination slot previously occupied by a submitted request task. If there
+     * are any tasks waiting in the destination queue, the slot is handed over to the oldest one.
+     */
+    void release() {
+        dispatch(next(true));
+    }
+
+    private void dispatch(RequestTask task) {
+        while (task != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException ex) {
+                rejectedCount.incrementAndGet();
+                task.rejected(ex);
+                task = next(false);
+            }
+        }
+    }
+
+    /**
+     * Free the slot of a finished task and hand it over to the oldest queued task, if any.
+     *
+     * @param completed {@code true} if the finished task has completed, {@code false} if it has been rejected.
+     * @return queued task that took over the slot or {@code null} if the queue is empty.
+     */
+    private RequestTask next(final boolean completed) {
+        if (completed) {
+            completedCount.incrementAndGet();
+        }
+
+        final QueuedTask next;
+        synchronized (this) {
+            next = queue.poll();
+            if (next == null) {
+                if (--active == 0) {
+                    idleSince = System.nanoTime();
+                }
+                return null;
+            }
+        }
+        dequeuedCount.incrementAndGet();
+        totalQueueWaitTime.addAndGet(System.nanoTime() - next.queued);
+        return next.task;
+    }
+
+    @Override
+    public String getDestination() {
+        return destination;
+    }
+
+    @Override
+    public synchronized int getActiveRequestCount() {
+        return active;
+    }
+
+    @Override
+    public synchronized int getLargestActiveRequestCount() {
+        return largestActive;
+    }
+
+    @Override
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    @Override
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public long getCompletedRequestCount() {
+        return completedCount.get();
+    }
+
+    @Override
+    public long getRejectedRequestCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public double getAverageQueueWaitTime() {
+        final long count = dequeuedCount.get();
+        return (count == 0) ? 0 : totalQueueWaitTime.get() / NANOS_PER_MILLI / count;
+    }
+
+    /**
+     * Task waiting in the destination queue.
+     */
+    private static final class QueuedTask {
+
+        private final RequestTask task;
+        private final long queued;
+
+        private QueuedTask(final RequestTask task) {
+            this.task = task;
+            this.queued = System.nanoTime();
+        }
+    }
+}
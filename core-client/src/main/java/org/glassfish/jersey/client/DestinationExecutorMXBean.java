@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+/**
+ * JMX management interface exposing the statistics of asynchronous client requests
+ * processed for a single destination (scheme, host and port).
+ *
+ * @see ClientProperties#FEATURE_ASYNC_DESTINATION_MBEANS
+ */
+public interface DestinationExecutorMXBean {
+
+    /**
+     * Get the destination identifier in the {@code scheme://host:port} form.
+     *
+     * @return destination identifier.
+     */
+    public String getDestination();
+
+    /**
+     * Get the number of asynchronous requests to the destination that are currently in progress.
+     *
+     * @return number of in-flight requests.
+     */
+    public int getActiveRequestCount();
+
+    /**
+     * Get the largest number of asynchronous requests to the destination that have ever
+     * simultaneously been in progress.
+     *
+     * @return largest number of in-flight requests.
+     */
+    public int getLargestActiveRequestCount();
+
+    /**
+     * Get the maximum number of asynchronous requests to the destination that may be in progress
+     * at the same time.
+     *
+     * @return concurrent request limit, {@link Integer#MAX_VALUE} if not limited.
+     */
+    public int getMaxConcurrentRequests();
+
+    /**
+     * Get the number of requests waiting for a free destination slot.
+     *
+     * @return current queue depth.
+     */
+    public int getQueueSize();
+
+    /**
+     * Get the capacity of the destination queue.
+     *
+     * @return queue capacity.
+     */
+    public int getQueueCapacity();
+
+    /**
+     * Get the number of asynchronous requests to the destination that have completed, either
+     * successfully or with a failure.
+     *
+     * @return completed request count.
+     */
+    public long getCompletedRequestCount();
+
+    /**
+     * Get the number of asynchronous requests to the destination that were rejected because
+     * the destination queue was full or the client executor did not accept them.
+     *
+     * @return rejected request count.
+     */
+    public long getRejectedRequestCount();
+
+    /**
+     * Get the average time the queued requests spent waiting for a free destination slot.
+     *
+     * @return average queue wait time in milliseconds.
+     */
+    public double getAverageQueueWaitTime();
+}
@@ -77,6 +77,11 @@ import com.google.common.util.concurrent.MoreExecutors;
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 public class HttpUrlConnector extends RequestWriter implements Connector {
+    /**
+     * Default chunk size used for request entities of unknown size.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
     private final ConnectionFactory connectionFactory;
 
     /**
@@ -275,23 +280,14 @@ public class HttpUrlConnector extends RequestWriter implements Connector {
             writeRequestEntity(request, new RequestEntityWriterListener() {
                 @Override
                 public void onRequestEntitySize(long size) {
-                    if (size != -1 && size < Integer.MAX_VALUE) {
+                    // stream the entity instead of letting HttpURLConnection buffer it in memory
+                    if (size >= 0 && size <= Integer.MAX_VALUE) {
                         // HttpURLConnection uses the int type for content length
-
-                        // this just does not work for several consecutive requests.
-                        // another day wasted on HttpUrlConnection bug :/
-                        // uc.setFixedLengthStreamingMode((int)size);
+                        uc.setFixedLengthStreamingMode((int) size);
                     } else {
-                        // TODO (copied from Jersey 1.x) it appears HttpURLConnection has some bugs in
-                        // chunked encoding
-                        // uc.setChunkedStreamingMode(0);
-
-                        // TODO deal with chunked encoding
-//                        Integer chunkedEncodingSize = (Integer)request.getProperties().get(
-//                                ClientConfig.PROPERTY_CHUNKED_ENCODING_SIZE);
-//                        if (chunkedEncodingSize != null) {
-//                            uc.setChunkedStreamingMode(chunkedEncodingSize);
-//                        }
+                        final int chunkSize = PropertiesHelper.getValue(configurationProperties,
+                                ClientProperties.CHUNKED_ENCODING_SIZE, DEFAULT_CHUNK_SIZE);
+                        uc.setChunkedStreamingMode(chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE);
                     }
                 }
 
@@ -48,6 +48,10 @@ import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.Link;
 import javax.ws.rs.core.UriBuilder;
 
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.internal.util.collection.Value;
+import org.glassfish.jersey.internal.util.collection.Values;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
@@ -61,6 +65,13 @@ public class JerseyClient implements javax.ws.rs.client.Client {
     private final AtomicBoolean closedFlag = new AtomicBoolean(false);
     private final ClientConfig config;
     private final LinkedBlockingDeque<LifecycleListener> listeners = new LinkedBlockingDeque<LifecycleListener>();
+    private final Value<ClientRuntimeCache> runtimeCache = Values.lazy(new Value<ClientRuntimeCache>() {
+        @Override
+        public ClientRuntimeCache get() {
+            return new ClientRuntimeCache(PropertiesHelper.getValue(config.getProperties(),
+                    ClientProperties.RUNTIME_CACHE_SIZE, ClientRuntimeCache.DEFAULT_MAX_SIZE));
+        }
+    });
 
     /**
      * Client life-cycle event listener contract.
@@ -96,9 +107,13 @@ public class JerseyClient implements javax.ws.rs.client.Client {
     }
 
     private void release() {
-        LifecycleListener listener;
-        while ((listener = listeners.pollFirst()) != null) {
-            listener.onClose();
+        try {
+            LifecycleListener listener;
+            while ((listener = listeners.pollFirst()) != null) {
+                listener.onClose();
+            }
+        } finally {
+            runtimeCache.get().close();
         }
     }
 
@@ -112,6 +127,16 @@ public class JerseyClient implements javax.ws.rs.client.Client {
         listeners.push(listener);
     }
 
+    /**
+     * Get the cache of client runtimes shared by all configuration snapshots
+     * of this client instance.
+     *
+     * @return client runtime cache.
+     */
+    ClientRuntimeCache getRuntimeCache() {
+        return runtimeCache.get();
+    }
+
     /**
      * Check client state.
      *
@@ -0,0 +1,161 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2011-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@link ChunkedInput} chunk parsers.
+ */
+public class ChunkedInputTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Input stream that returns at most the given number of bytes per read.
+     */
+    private static class TrickleInputStream extends InputStream {
+        private final InputStream in;
+        private final int maxRead;
+
+        private TrickleInputStream(final String data, final int maxRead) {
+            this.in = new ByteArrayInputStream(data.getBytes(UTF8));
+            this.maxRead = maxRead;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return in.read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return in.read(b, off, Math.min(len, maxRead));
+        }
+    }
+
+    private static List<String> parse(final String boundary, final InputStream in) throws IOException {
+        final ChunkParser parser = ChunkedInput.createParser(boundary);
+        final List<String> chunks = new ArrayList<String>();
+        byte[] chunk;
+        while ((chunk = parser.readChunk(in)) != null) {
+            chunks.add(new String(chunk, UTF8));
+        }
+        return chunks;
+    }
+
+    private static void assertChunks(final String boundary, final String data, final String... expected)
+            throws IOException {
+        for (int maxRead : new int[]{1, 2, 3, 7, 4096}) {
+            assertEquals("Max read: " + maxRead,
+                    Arrays.asList(expected), parse(boundary, new TrickleInputStream(data, maxRead)));
+            // read-ahead stream of a chunked input
+            assertEquals("Buffered, max read: " + maxRead,
+                    Arrays.asList(expected), parse(boundary, new BufferedInputStream(new TrickleInputStream(data, maxRead))));
+        }
+    }
+
+    @Test
+    public void testFixedBoundaryParser() throws IOException {
+        assertChunks("\r\n", "one\r\ntwo\r\nthree\r\n", "one", "two", "three");
+        assertChunks("\r\n", "one\r\ntwo", "one", "two");
+        assertChunks("\r\n", "");
+    }
+
+    @Test
+    public void testFixedBoundaryParserSkipsEmptyChunks() throws IOException {
+        assertChunks("\n\n", "\n\none\n\n\n\ntwo\n\n", "one", "two");
+    }
+
+    @Test
+    public void testFixedBoundaryParserPartialBoundaryMatch() throws IOException {
+        assertChunks("\r\n", "a\rb\r\nc\r\r\n", "a\rb", "c\r");
+        assertChunks("abab", "xabaabab ababab", "xaba", " ", "ab");
+        assertChunks("aab", "aaab", "a");
+    }
+
+    @Test
+    public void testFixedBoundaryParserLargeChunk() throws IOException {
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            large.append((char) ('a' + i % 26));
+        }
+        assertChunks("--", large + "--" + large + "-", large.toString(), large + "-");
+    }
+
+    @Test
+    public void testFixedBoundaryParserShared() throws IOException {
+        final ChunkParser parser = ChunkedInput.createParser("\n");
+        final InputStream first = new BufferedInputStream(new TrickleInputStream("a\nb\nc\n", 4096));
+        final InputStream second = new BufferedInputStream(new TrickleInputStream("x\ny", 4096));
+
+        // the parser keeps no data read ahead, so it can read multiple streams at the same time
+        assertEquals("a", new String(parser.readChunk(first), UTF8));
+        assertEquals("x", new String(parser.readChunk(second), UTF8));
+        assertEquals("b", new String(parser.readChunk(first), UTF8));
+        assertEquals("y", new String(parser.readChunk(second), UTF8));
+        assertEquals("c", new String(parser.readChunk(first), UTF8));
+        assertNull(parser.readChunk(second));
+        assertNull(parser.readChunk(first));
+    }
+
+    @Test
+    public void testFixedBoundaryParserDoesNotConsumeNextChunk() throws IOException {
+        final ChunkParser parser = ChunkedInput.createParser("\n\n");
+        final InputStream in = new TrickleInputStream("one\n\ntwo", 4096);
+        assertEquals("one", new String(parser.readChunk(in), UTF8));
+
+        // a stream that does not support marking is not read past the chunk boundary
+        final byte[] rest = new byte[16];
+        assertEquals(3, in.read(rest));
+        assertEquals("two", new String(rest, 0, 3, UTF8));
+    }
+}
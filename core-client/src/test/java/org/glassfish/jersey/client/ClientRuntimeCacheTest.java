@@ -0,0 +1,191 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2011-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.ClientFactory;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link ClientRuntimeCache} unit tests.
+ */
+public class ClientRuntimeCacheTest {
+
+    private static class CountingConnector implements Connector {
+        private final AtomicInteger closed = new AtomicInteger(0);
+
+        @Override
+        public ClientResponse apply(ClientRequest request) {
+            throw new ClientException("test");
+        }
+
+        @Override
+        public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+            throw new ClientException("test-async");
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+
+    private final CountingConnector connector = new CountingConnector();
+    private JerseyClient client;
+
+    private JerseyClient createClient(int cacheSize) {
+        client = (JerseyClient) ClientFactory.newClient(new ClientConfig()
+                .connector(connector)
+                .setProperty(ClientProperties.RUNTIME_CACHE_SIZE, cacheSize));
+        return client;
+    }
+
+    private static ClientRuntime runtime(JerseyWebTarget target) {
+        return target.getConfiguration().getRuntime();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testEqualConfigurationsShareRuntime() {
+        final JerseyClient client = createClient(4);
+
+        final JerseyWebTarget plain = client.target("http://localhost/");
+        final JerseyWebTarget first = client.target("http://localhost/a").setProperty("name", "value");
+        final JerseyWebTarget second = client.target("http://localhost/b").setProperty("name", "value");
+
+        final ClientRuntime runtime = runtime(first);
+        assertSame(runtime, runtime(second));
+        assertSame(runtime, runtime(second.path("c")));
+        assertSame(runtime, runtime(first.path("d").request().getConfiguration()));
+        assertNotSame(runtime, runtime(plain));
+        assertSame(runtime(plain), runtime(client.target("http://localhost/e")));
+
+        assertEquals(2, client.getRuntimeCache().size());
+        assertEquals(2, client.getRuntimeCache().liveCount());
+    }
+
+    private static ClientRuntime runtime(ClientConfig config) {
+        return config.getRuntime();
+    }
+
+    @Test
+    public void testDifferentConfigurationsDoNotShareRuntime() {
+        final JerseyClient client = createClient(4);
+
+        final JerseyWebTarget first = client.target("http://localhost/").setProperty("name", "first");
+        final JerseyWebTarget second = client.target("http://localhost/").setProperty("name", "second");
+        final JerseyWebTarget third = client.target("http://localhost/").register(CustomConnectorTest.class);
+
+        assertNotSame(runtime(first), runtime(second));
+        assertNotSame(runtime(first), runtime(third));
+        assertNotSame(runtime(second), runtime(third));
+        assertEquals(3, client.getRuntimeCache().size());
+    }
+
+    @Test
+    public void testEvictedRuntimeIsReleasedWhenUnreferenced() throws Exception {
+        final JerseyClient client = createClient(1);
+
+        JerseyWebTarget first = client.target("http://localhost/").setProperty("name", "first");
+        final ClientRuntime firstRuntime = runtime(first);
+        final JerseyWebTarget second = client.target("http://localhost/").setProperty("name", "second");
+        runtime(second);
+
+        final ClientRuntimeCache cache = client.getRuntimeCache();
+        assertEquals(1, cache.size());
+        // evicted runtime is still referenced by the first target and must remain usable
+        assertEquals(2, cache.liveCount());
+        assertSame(firstRuntime, runtime(first));
+
+        // equal configuration created after the eviction gets a new runtime
+        assertNotSame(firstRuntime, runtime(client.target("http://localhost/").setProperty("name", "first")));
+
+        first = null;
+        for (int i = 0; i < 50 && cache.liveCount() > 2; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(2, cache.liveCount());
+        assertEquals(0, connector.closed.get());
+    }
+
+    @Test
+    public void testCloseReleasesRuntimesAndClosesConnectorOnce() {
+        final JerseyClient client = createClient(4);
+
+        runtime(client.target("http://localhost/").setProperty("name", "first"));
+        runtime(client.target("http://localhost/").setProperty("name", "second"));
+        final JerseyWebTarget pending = client.target("http://localhost/").setProperty("name", "third");
+
+        client.close();
+        assertEquals(0, client.getRuntimeCache().liveCount());
+        assertEquals(1, connector.closed.get());
+
+        try {
+            runtime(pending);
+            fail("IllegalStateException expected.");
+        } catch (IllegalStateException expected) {
+            // ok
+        }
+    }
+}
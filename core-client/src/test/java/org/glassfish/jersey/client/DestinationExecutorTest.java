@@ -0,0 +1,400 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2011-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.ClientFactory;
+import javax.ws.rs.core.Response;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * {@link DestinationExecutor} and per-destination asynchronous request limits tests.
+ */
+public class DestinationExecutorTest {
+
+    private static class RecordingTask implements DestinationExecutor.RequestTask {
+        private volatile boolean executed = false;
+        private volatile RejectedExecutionException rejection = null;
+
+        @Override
+        public void run() {
+            executed = true;
+        }
+
+        @Override
+        public void rejected(RejectedExecutionException cause) {
+            rejection = cause;
+        }
+    }
+
+    /**
+     * Connector that keeps all the asynchronous requests pending until released.
+     */
+    private static class PendingConnector implements Connector {
+        private final List<AsyncConnectorCallback> pending = Lists.newArrayList();
+        private final Semaphore started = new Semaphore(0);
+
+        @Override
+        public ClientResponse apply(ClientRequest request) {
+            throw new ClientException("sync");
+        }
+
+        @Override
+        public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+            synchronized (pending) {
+                pending.add(callback);
+            }
+            started.release();
+            return SettableFuture.create();
+        }
+
+        private void awaitStarted(int requests) throws InterruptedException {
+            assertTrue("Requests have not reached the connector.", started.tryAcquire(requests, 5, TimeUnit.SECONDS));
+        }
+
+        private void releaseAll() {
+            synchronized (pending) {
+                for (AsyncConnectorCallback callback : pending) {
+                    callback.failure(new ClientException("released"));
+                }
+                pending.clear();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+
+    @Test
+    public void testConcurrencyLimitAndQueue() {
+        final DestinationExecutor executor = new DestinationExecutor("http://localhost:80",
+                MoreExecutors.sameThreadExecutor(), 2, 1);
+
+        final RecordingTask first = new RecordingTask();
+        final RecordingTask second = new RecordingTask();
+        final RecordingTask queued = new RecordingTask();
+        final RecordingTask rejected = new RecordingTask();
+
+        executor.submit(first);
+        executor.submit(second);
+        executor.submit(queued);
+        executor.submit(rejected);
+
+        assertTrue(first.executed);
+        assertTrue(second.executed);
+        assertFalse(queued.executed);
+        assertFalse(rejected.executed);
+        assertNotNull(rejected.rejection);
+        assertEquals(2, executor.getActiveRequestCount());
+        assertEquals(1, executor.getQueueSize());
+        assertEquals(1, executor.getRejectedRequestCount());
+
+        executor.release();
+        assertTrue(queued.executed);
+        assertEquals(2, executor.getActiveRequestCount());
+        assertEquals(0, executor.getQueueSize());
+
+        executor.release();
+        executor.release();
+        assertEquals(0, executor.getActiveRequestCount());
+        assertEquals(2, executor.getLargestActiveRequestCount());
+        assertEquals(3, executor.getCompletedRequestCount());
+    }
+
+    @Test
+    public void testUnlimitedDestination() {
+        final DestinationExecutor executor = new DestinationExecutor("http://localhost:80",
+                MoreExecutors.sameThreadExecutor(), 0, 0);
+
+        for (int i = 0; i < 100; i++) {
+            final RecordingTask task = new RecordingTask();
+            executor.submit(task);
+            assertTrue(task.executed);
+        }
+        assertEquals(Integer.MAX_VALUE, executor.getMaxConcurrentRequests());
+        assertEquals(100, executor.getActiveRequestCount());
+        assertEquals(0, executor.getRejectedRequestCount());
+    }
+
+    @Test
+    public void testExecutorRejectionReleasesSlot() {
+        final Executor rejecting = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException("shut down");
+            }
+        };
+        final DestinationExecutor executor = new DestinationExecutor("http://localhost:80", rejecting, 1, 10);
+
+        final RecordingTask task = new RecordingTask();
+        executor.submit(task);
+
+        assertFalse(task.executed);
+        assertEquals("shut down", task.rejection.getMessage());
+        assertEquals(0, executor.getActiveRequestCount());
+        assertEquals(1, executor.getRejectedRequestCount());
+    }
+
+    @Test
+    public void testRetireIfIdle() {
+        final DestinationExecutor executor = new DestinationExecutor("http://localhost:80",
+                MoreExecutors.sameThreadExecutor(), 1, 1);
+
+        executor.submit(new RecordingTask());
+        assertFalse(executor.retireIfIdle(System.nanoTime()));
+
+        executor.release();
+        final long released = System.nanoTime();
+        assertFalse(executor.retireIfIdle(released - TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(executor.retireIfIdle(released));
+
+        final RecordingTask task = new RecordingTask();
+        assertFalse(executor.submit(task));
+        assertFalse(task.executed);
+        assertEquals(null, task.rejection);
+        assertEquals(0, executor.getActiveRequestCount());
+    }
+
+    @Test
+    public void testDestinationOf() {
+        assertEquals("http://localhost:80", ClientAsyncExecutorsFactory.destinationOf(URI.create("http://LocalHost/a")));
+        assertEquals("https://localhost:443", ClientAsyncExecutorsFactory.destinationOf(URI.create("https://localhost/")));
+        assertEquals("http://localhost:8080",
+                ClientAsyncExecutorsFactory.destinationOf(URI.create("HTTP://localhost:8080/a?b=c")));
+    }
+
+    @Test
+    public void testAsyncRequestsLimitedPerDestination() throws Exception {
+        final PendingConnector connector = new PendingConnector();
+        final JerseyClient client = (JerseyClient) ClientFactory.newClient(new ClientConfig()
+                .connector(connector)
+                .setProperty(ClientProperties.ASYNC_MAX_REQUESTS_PER_DESTINATION, 2)
+                .setProperty(ClientProperties.ASYNC_DESTINATION_QUEUE_CAPACITY, 1)
+                .setProperty(ClientProperties.FEATURE_ASYNC_DESTINATION_MBEANS, true));
+        try {
+            final JerseyWebTarget target = client.target("http://localhost:9998/");
+            final List<Future<Response>> accepted = Lists.newArrayList();
+            accepted.add(target.request().async().get());
+            accepted.add(target.request().async().get());
+            connector.awaitStarted(2);
+            accepted.add(target.request().async().get());
+
+            final Future<Response> rejected = target.request().async().get();
+            try {
+                rejected.get(5, TimeUnit.SECONDS);
+                fail("Request should have been rejected.");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof ClientException);
+                assertTrue(ex.getCause().getCause() instanceof RejectedExecutionException);
+            }
+
+            // other destinations are not affected
+            accepted.add(client.target("http://localhost:9999/").request().async().get());
+            connector.awaitStarted(1);
+
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName pattern = new ObjectName("org.glassfish.jersey:type=ClientDestination,name="
+                    + ObjectName.quote("http://localhost:9998") + ",*");
+            final ObjectName name = server.queryNames(pattern, null).iterator().next();
+            assertEquals(2, server.getAttribute(name, "ActiveRequestCount"));
+            assertEquals(1L, server.getAttribute(name, "RejectedRequestCount"));
+
+            // releasing the in-flight requests lets the queued one through
+            connector.releaseAll();
+            connector.awaitStarted(1);
+            assertEquals(1, server.getAttribute(name, "ActiveRequestCount"));
+            assertEquals(0, server.getAttribute(name, "QueueSize"));
+            connector.releaseAll();
+
+            for (Future<Response> future : accepted) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail("Request should have failed.");
+                } catch (ExecutionException ex) {
+                    assertEquals("released", ex.getCause().getMessage());
+                }
+            }
+
+            client.close();
+            assertTrue(server.queryNames(pattern, null).isEmpty());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testIdleDestinationEvicted() throws Exception {
+        final PendingConnector connector = new PendingConnector();
+        final JerseyClient client = (JerseyClient) ClientFactory.newClient(new ClientConfig()
+                .connector(connector)
+                .setProperty(ClientProperties.ASYNC_MAX_REQUESTS_PER_DESTINATION, 1)
+                .setProperty(ClientProperties.ASYNC_DESTINATION_IDLE_TIMEOUT, 0)
+                .setProperty(ClientProperties.FEATURE_ASYNC_DESTINATION_MBEANS, true));
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName first = new ObjectName("org.glassfish.jersey:type=ClientDestination,name="
+                    + ObjectName.quote("http://localhost:9998") + ",*");
+            final ObjectName second = new ObjectName("org.glassfish.jersey:type=ClientDestination,name="
+                    + ObjectName.quote("http://localhost:9999") + ",*");
+
+            final Future<Response> pending = client.target("http://localhost:9998/").request().async().get();
+            connector.awaitStarted(1);
+
+            // destination with an in-flight request is not evicted
+            final Future<Response> other = client.target("http://localhost:9999/").request().async().get();
+            connector.awaitStarted(1);
+            assertEquals(1, server.queryNames(first, null).size());
+            assertEquals(1, server.queryNames(second, null).size());
+
+            connector.releaseAll();
+            for (Future<Response> future : Lists.newArrayList(pending, other)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail("Request should have failed.");
+                } catch (ExecutionException ex) {
+                    assertEquals("released", ex.getCause().getMessage());
+                }
+            }
+
+            // idle destinations are evicted once a new request is submitted
+            final Future<Response> next = client.target("http://localhost:9999/").request().async().get();
+            connector.awaitStarted(1);
+            assertTrue(server.queryNames(first, null).isEmpty());
+            assertEquals(1, server.queryNames(second, null).size());
+            assertEquals(1, server.getAttribute(server.queryNames(second, null).iterator().next(), "ActiveRequestCount"));
+
+            connector.releaseAll();
+            try {
+                next.get(5, TimeUnit.SECONDS);
+                fail("Request should have failed.");
+            } catch (ExecutionException ex) {
+                assertEquals("released", ex.getCause().getMessage());
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testThreadPoolQueueBounded() throws Exception {
+        final Semaphore started = new Semaphore(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Connector blocking = new PendingConnector() {
+            @Override
+            public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+                started.release();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                callback.failure(new ClientException("released"));
+                return SettableFuture.create();
+            }
+        };
+        final JerseyClient client = (JerseyClient) ClientFactory.newClient(new ClientConfig()
+                .connector(blocking)
+                .setProperty(ClientProperties.ASYNC_THREADPOOL_SIZE, 1)
+                .setProperty(ClientProperties.ASYNC_THREADPOOL_QUEUE_CAPACITY, 1));
+        try {
+            final JerseyWebTarget target = client.target("http://localhost:9998/");
+            final List<Future<Response>> accepted = Lists.newArrayList();
+            accepted.add(target.request().async().get());
+            assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+            accepted.add(target.request().async().get());
+
+            // the only thread is busy and the queue is full
+            final Future<Response> rejected = target.request().async().get();
+            try {
+                rejected.get(5, TimeUnit.SECONDS);
+                fail("Request should have been rejected.");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof ClientException);
+                assertTrue(ex.getCause().getCause() instanceof RejectedExecutionException);
+            }
+
+            release.countDown();
+            for (Future<Response> future : accepted) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail("Request should have failed.");
+                } catch (ExecutionException ex) {
+                    assertEquals("released", ex.getCause().getMessage());
+                }
+            }
+        } finally {
+            release.countDown();
+            client.close();
+        }
+    }
+}
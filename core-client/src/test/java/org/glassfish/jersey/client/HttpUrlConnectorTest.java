@@ -0,0 +1,259 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2011-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientFactory;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link HttpUrlConnector} request entity streaming tests.
+ */
+public class HttpUrlConnectorTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Client client;
+
+    private final AtomicLong received = new AtomicLong();
+    private volatile String contentLength;
+    private volatile String transferEncoding;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+                transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+
+                final InputStream in = exchange.getRequestBody();
+                final byte[] buffer = new byte[8192];
+                long count = 0;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    count += read;
+                    received.addAndGet(read);
+                }
+
+                final byte[] response = Long.toString(count).getBytes("US-ASCII");
+                exchange.sendResponseHeaders(200, response.length);
+                final OutputStream out = exchange.getResponseBody();
+                out.write(response);
+                out.close();
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        client = ClientFactory.newClient(new ClientConfig().connector(new HttpUrlConnector()).getConfiguration());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private WebTarget target() {
+        return client.target("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @Test
+    public void testFixedLengthStreaming() {
+        final byte[] entity = new byte[1024 * 1024];
+
+        final String count = target().request().post(Entity.entity(entity, MediaType.APPLICATION_OCTET_STREAM), String.class);
+        assertEquals(Integer.toString(entity.length), count);
+        assertEquals(Integer.toString(entity.length), contentLength);
+        assertNull(transferEncoding);
+    }
+
+    @Test
+    public void testChunkedStreaming() {
+        final InputStream entity = new GeneratedInputStream(100000, null, 0);
+
+        final String count = target().request().post(Entity.entity(entity, MediaType.APPLICATION_OCTET_STREAM), String.class);
+        assertEquals("100000", count);
+        assertEquals("chunked", transferEncoding);
+    }
+
+    @Test
+    public void testChunkedEncodingSize() {
+        final WebTarget target = target();
+        target.setProperty(ClientProperties.CHUNKED_ENCODING_SIZE, 100);
+        final InputStream entity = new GeneratedInputStream(10000, null, 0);
+
+        assertEquals("10000", target.request().post(Entity.entity(entity, MediaType.APPLICATION_OCTET_STREAM), String.class));
+        assertEquals("chunked", transferEncoding);
+    }
+
+    @Test
+    public void testNonAsciiString() {
+        // the character count differs from the encoded byte count - the size must not be announced
+        final String entity = "žluťoučký kůň";
+
+        final String count = target().request().post(Entity.entity(entity, "text/plain; charset=UTF-8"), String.class);
+        assertEquals(Integer.toString(entity.getBytes(Charset.forName("UTF-8")).length), count);
+        assertEquals("chunked", transferEncoding);
+    }
+
+    @Test
+    public void testConsecutiveRequests() {
+        for (int i = 0; i < 20; i++) {
+            final byte[] fixed = new byte[i * 100];
+            assertEquals(Integer.toString(fixed.length),
+                    target().request().post(Entity.entity(fixed, MediaType.APPLICATION_OCTET_STREAM), String.class));
+            assertEquals(Integer.toString(fixed.length), contentLength);
+
+            final String text = "request " + i;
+            assertEquals(Integer.toString(text.length()), target().request().post(Entity.text(text), String.class));
+
+            assertEquals(Integer.toString(i * 10),
+                    target().request().post(Entity.entity(new GeneratedInputStream(i * 10, null, 0),
+                            MediaType.APPLICATION_OCTET_STREAM), String.class));
+        }
+    }
+
+    /**
+     * The entity production is paused until the server receives a part of the entity. Should the connector
+     * buffer the whole entity before sending it, the server would never receive any data and the test would fail.
+     */
+    @Test
+    public void testLargeEntityIsNotBuffered() throws Exception {
+        final long size = 64L * 1024 * 1024;
+        final CountDownLatch serverReceivedData = new CountDownLatch(1);
+        final Thread monitor = new Thread() {
+            @Override
+            public void run() {
+                while (received.get() < 1024 * 1024) {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                serverReceivedData.countDown();
+            }
+        };
+        monitor.setDaemon(true);
+        monitor.start();
+
+        final GeneratedInputStream entity = new GeneratedInputStream(size, serverReceivedData, 8 * 1024 * 1024);
+        final String count = target().request().post(Entity.entity(entity, MediaType.APPLICATION_OCTET_STREAM), String.class);
+
+        monitor.interrupt();
+        assertTrue("The entity was buffered by the connector before being sent.", entity.pauseSucceeded);
+        assertEquals(Long.toString(size), count);
+    }
+
+    /**
+     * Input stream producing the given number of bytes, optionally pausing at the given position until a latch is released.
+     */
+    private static class GeneratedInputStream extends InputStream {
+
+        private final long size;
+        private final CountDownLatch latch;
+        private final long pausePosition;
+        private long position;
+        private volatile boolean pauseSucceeded;
+
+        GeneratedInputStream(final long size, final CountDownLatch latch, final long pausePosition) {
+            this.size = size;
+            this.latch = latch;
+            this.pausePosition = pausePosition;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (position >= size) {
+                return -1;
+            }
+            if (latch != null && position >= pausePosition && !pauseSucceeded) {
+                try {
+                    pauseSucceeded = latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e.getMessage());
+                }
+                if (!pauseSucceeded) {
+                    throw new IOException("Server did not receive any data while the entity was being written.");
+                }
+            }
+            final int count = (int) Math.min(len, size - position);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) (position + i);
+            }
+            position += count;
+            return count;
+        }
+    }
+}
@@ -44,6 +44,8 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,6 +58,8 @@ import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.collection.ClassTypePair;
+import org.glassfish.jersey.internal.util.collection.Value;
+import org.glassfish.jersey.internal.util.collection.Values;
 import org.glassfish.jersey.spi.ExceptionMappers;
 
 import org.glassfish.hk2.api.ServiceLocator;
@@ -64,6 +68,12 @@ import org.glassfish.hk2.api.ServiceLocator;
  * {@link ExceptionMappers Exception mappers} implementation that aggregates
  * exception mappers and server as the main entry point for exception mapper
  * instance lookup.
+ * <p>
+ * The exception mapper resolved for a concrete exception type (including
+ * the information that no exception mapper is available for the type) is
+ * cached, so that the exception mapper type hierarchy distances are
+ * computed only once per exception type.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Santiago Pericas-Geertsen (Santiago.PericasGeertsen at oracle.com)
@@ -94,7 +104,13 @@ public class ExceptionMapperFactory implements ExceptionMappers {
         }
     }
 
-    private Set<ExceptionMapperType> exceptionMapperTypes = new LinkedHashSet<ExceptionMapperType>();
+    private final Set<ExceptionMapperType> exceptionMapperTypes = new LinkedHashSet<ExceptionMapperType>();
+    /**
+     * Exception mappers resolved for concrete exception types. The cache is bound to the
+     * (immutable) set of exception mapper types collected when the factory is created.
+     */
+    private final ConcurrentMap<Class<?>, Value<ExceptionMapper>> resolvedMappers =
+            new ConcurrentHashMap<Class<?>, Value<ExceptionMapper>>();
 
     /**
      * Create new exception mapper factory initialized with {@link ServiceLocator
@@ -116,6 +132,15 @@ public class ExceptionMapperFactory implements ExceptionMappers {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Throwable> ExceptionMapper<T> find(Class<T> type) {
+        Value<ExceptionMapper> resolved = resolvedMappers.get(type);
+        if (resolved == null) {
+            resolved = Values.of(resolve(type));
+            resolvedMappers.putIfAbsent(type, resolved);
+        }
+        return resolved.get();
+    }
+
+    private ExceptionMapper resolve(Class<?> type) {
         int distance = Integer.MAX_VALUE;
         ExceptionMapper selectedEm = null;
         for (ExceptionMapperType mapperType : exceptionMapperTypes) {
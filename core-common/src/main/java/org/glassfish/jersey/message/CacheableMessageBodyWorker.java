@@ -0,0 +1,65 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+/**
+ * Marker interface of {@link javax.ws.rs.ext.MessageBodyReader message body readers} and
+ * {@link javax.ws.rs.ext.MessageBodyWriter message body writers} whose
+ * {@link javax.ws.rs.ext.MessageBodyReader#isReadable(Class, java.lang.reflect.Type, java.lang.annotation.Annotation[],
+ * javax.ws.rs.core.MediaType) isReadable(...)} and
+ * {@link javax.ws.rs.ext.MessageBodyWriter#isWriteable(Class, java.lang.reflect.Type, java.lang.annotation.Annotation[],
+ * javax.ws.rs.core.MediaType) isWriteable(...)} answers are stable.
+ * <p>
+ * A message body worker implementing this interface declares that the result of the {@code isReadable(...)} or
+ * {@code isWriteable(...)} method depends only on the raw entity type, the generic entity type, the annotations and
+ * the media type passed to the method and that the same arguments always produce the same result. Jersey
+ * {@link MessageBodyWorkers message body workers} may then cache the reader or writer selected for a combination
+ * of these arguments and skip the {@code isReadable(...)} or {@code isWriteable(...)} invocations in the subsequent
+ * lookups.
+ * </p>
+ * <p>
+ * Note that the declaration is inherited by all the sub-classes of the implementing class. A sub-class that overrides
+ * the {@code isReadable(...)} or {@code isWriteable(...)} method must keep the answers stable too.
+ * </p>
+ *
+ * @see MessageProperties#WORKERS_LOOKUP_CACHE_DISABLE
+ */
+public interface CacheableMessageBodyWorker {
+}
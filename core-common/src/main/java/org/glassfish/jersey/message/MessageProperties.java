@@ -57,6 +57,42 @@ public final class MessageProperties {
      */
     public static final String JAXB_PROCESS_XML_ROOT_ELEMENT = "jersey.config.jaxb.collections.processXmlRootElement";
 
+    /**
+     * Maximum number of idle JAXB {@link javax.xml.bind.Marshaller marshallers} pooled for each JAXB-bound Java type
+     * by a JAXB-based message body writer. Marshallers are pooled only if they are created by Jersey from a
+     * {@link javax.xml.bind.JAXBContext} cached by Jersey, i.e. if they are not provided by a custom
+     * {@link javax.ws.rs.ext.ContextResolver}. Setting the property to {@code 0} disables the pooling.
+     * The property value is expected to be a non-negative integer.
+     * <p />
+     * The default value is <code>{@value #JAXB_MARSHALLER_POOL_SIZE_DEFAULT}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String JAXB_MARSHALLER_POOL_SIZE = "jersey.config.jaxb.marshallerPool.size";
+
+    /**
+     * The default maximum number ({@value}) of idle JAXB marshallers pooled for a JAXB-bound Java type.
+     */
+    public static final int JAXB_MARSHALLER_POOL_SIZE_DEFAULT = 16;
+
+    /**
+     * Maximum number of idle JAXB {@link javax.xml.bind.Unmarshaller unmarshallers} pooled for each JAXB-bound Java
+     * type by a JAXB-based message body reader. Unmarshallers are pooled only if they are created by Jersey from a
+     * {@link javax.xml.bind.JAXBContext} cached by Jersey, i.e. if they are not provided by a custom
+     * {@link javax.ws.rs.ext.ContextResolver}. Setting the property to {@code 0} disables the pooling.
+     * The property value is expected to be a non-negative integer.
+     * <p />
+     * The default value is <code>{@value #JAXB_UNMARSHALLER_POOL_SIZE_DEFAULT}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String JAXB_UNMARSHALLER_POOL_SIZE = "jersey.config.jaxb.unmarshallerPool.size";
+
+    /**
+     * The default maximum number ({@value}) of idle JAXB unmarshallers pooled for a JAXB-bound Java type.
+     */
+    public static final int JAXB_UNMARSHALLER_POOL_SIZE_DEFAULT = 16;
+
     /**
      * If set to {@code true} XML security features when parsing XML documents will be
      * disabled.
@@ -124,6 +160,45 @@ public final class MessageProperties {
      */
     public static final String LEGACY_WORKERS_ORDERING = "jersey.config.workers.legacyOrdering";
 
+    /**
+     * If set to {@code true}, the {@link javax.ws.rs.ext.MessageBodyReader MessageBodyReader} and
+     * {@link javax.ws.rs.ext.MessageBodyWriter MessageBodyWriter} selected for a particular combination of the raw
+     * entity type, generic entity type, annotations and media type will not be cached, and the
+     * {@code isReadable(...)} or {@code isWriteable(...)} methods of the candidate providers will be invoked on every
+     * lookup.
+     * <p />
+     * Only lookups that consulted {@link CacheableMessageBodyWorker cacheable message body workers} exclusively are
+     * cached. The property has no effect if {@link #LEGACY_WORKERS_ORDERING legacy workers ordering} is enabled.
+     * <p />
+     * The default value is {@code false}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String WORKERS_LOOKUP_CACHE_DISABLE = "jersey.config.workers.lookupCache.disable";
+
+    /**
+     * Maximum number of {@link javax.ws.rs.ext.MessageBodyReader MessageBodyReader} and
+     * {@link javax.ws.rs.ext.MessageBodyWriter MessageBodyWriter} lookup results cached by the message body workers.
+     * The lookup results are cached separately for readers and writers. The media type parameters (e.g. the charset
+     * sent by a client) are a part of the cache key, so once the cache is full, the least recently used lookup results
+     * are evicted.
+     * <p />
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * <p />
+     * A default value is {@value #WORKERS_LOOKUP_CACHE_SIZE_DEFAULT}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     *
+     * @see #WORKERS_LOOKUP_CACHE_DISABLE
+     */
+    public static final String WORKERS_LOOKUP_CACHE_SIZE = "jersey.config.workers.lookupCache.size";
+
+    /**
+     * Default value of the {@link #WORKERS_LOOKUP_CACHE_SIZE} property.
+     */
+    public static final int WORKERS_LOOKUP_CACHE_SIZE_DEFAULT = 1024;
+
     private MessageProperties() {
         // prevents instantiation
     }
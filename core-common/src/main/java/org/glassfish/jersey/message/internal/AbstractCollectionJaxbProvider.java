@@ -39,6 +39,7 @@
  */
 package org.glassfish.jersey.message.internal;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -53,7 +54,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Stack;
 import java.util.TreeSet;
 import java.util.logging.Level;
@@ -75,6 +79,8 @@ import javax.xml.bind.annotation.XmlType;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * Base class for implementing JAXB collection readers and writers.
  *
@@ -95,6 +101,13 @@ import javax.xml.stream.XMLStreamReader;
  * <code>T</code> must be a JAXB type annotated with
  * {@link XmlRootElement}.
  * <p>
+ * The provider also supports streaming of large collections: {@link Iterable Iterable&lt;T&gt;} and
+ * {@link Iterator Iterator&lt;T&gt;} entities are written element by element as the elements are pulled from
+ * the source (see {@link #writeElements writeElements(...)}), and an entity can be read as an {@code Iterator<T>}
+ * that lazily unmarshals the elements from the entity stream as they are requested. In both cases the memory
+ * required to process the entity does not depend on the number of elements. The lazily reading iterator is also
+ * {@link Closeable}; closing it releases the underlying entity stream.
+ * <p>
  * Implementing classes may extend this class to provide specific marshalling
  * and unmarshalling behaviour.
  * <p>
@@ -111,7 +124,8 @@ import javax.xml.stream.XMLStreamReader;
  * @author Paul Sandoz
  * @author Martin Matula
  */
-public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvider<Object> {
+public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvider<Object>
+        implements CacheableMessageBodyWorker {
 
     private static final Class<?>[] DEFAULT_IMPLS = new Class[]{
             ArrayList.class,
@@ -149,7 +163,7 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
-        if (verifyCollectionSubclass(type)) {
+        if (verifyCollectionSubclass(type) || Iterator.class == type) {
             return verifyGenericType(genericType) && isSupported(mediaType);
         } else if (type.isArray()) {
             return verifyArrayType(type) && isSupported(mediaType);
@@ -160,7 +174,7 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
 
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
-        if (Collection.class.isAssignableFrom(type)) {
+        if (Iterable.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type)) {
             return verifyGenericType(genericType) && isSupported(mediaType);
         } else if (type.isArray()) {
             return verifyArrayType(type) && isSupported(mediaType);
@@ -256,9 +270,6 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
             MultivaluedMap<String, Object> httpHeaders,
             OutputStream entityStream) throws IOException {
         try {
-            final Collection c = (type.isArray())
-                    ? Arrays.asList((Object[]) t)
-                    : (Collection) t;
             final Class elementType = getElementClass(type, genericType);
             final Charset charset = getCharset(mediaType);
             final String charsetName = charset.name();
@@ -269,7 +280,15 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
                 m.setProperty(Marshaller.JAXB_ENCODING, charsetName);
             }
             setHeader(m, annotations);
-            writeList(elementType, c, mediaType, charset, m, entityStream);
+            if (type.isArray()) {
+                writeList(elementType, Arrays.asList((Object[]) t), mediaType, charset, m, entityStream);
+            } else if (t instanceof Collection) {
+                writeList(elementType, (Collection<?>) t, mediaType, charset, m, entityStream);
+            } else {
+                final Iterator<?> elements = (t instanceof Iterator) ? (Iterator<?>) t : ((Iterable<?>) t).iterator();
+                writeElements(elementType, elements, mediaType, charset, m, entityStream);
+            }
+            releaseMarshaller(m);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
         }
@@ -292,6 +311,36 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
                                    Marshaller m, OutputStream entityStream)
             throws JAXBException, IOException;
 
+    /**
+     * Write JAXB objects provided by an iterator as child elements of the root element.
+     * <p>
+     * The method is used to write {@link Iterable} (other than {@link Collection}) and {@link Iterator} entities.
+     * The default implementation collects all the elements into a list and delegates to
+     * {@link #writeList(Class, Collection, MediaType, Charset, Marshaller, OutputStream) writeList(...)}. Implementing
+     * classes should override the method to marshal the elements one by one as they are pulled from the iterator,
+     * so that the memory needed to write the entity does not depend on the number of elements.
+     * </p>
+     *
+     * @param elementType the element type in the collection.
+     * @param elements the iterator providing the elements to be marshalled.
+     * @param mediaType the media type
+     * @param c the charset
+     * @param m the marshaller
+     * @param entityStream the output stream to marshall the elements
+     * @throws javax.xml.bind.JAXBException
+     * @throws IOException
+     */
+    protected void writeElements(Class<?> elementType, Iterator<?> elements,
+                                 MediaType mediaType, Charset c,
+                                 Marshaller m, OutputStream entityStream)
+            throws JAXBException, IOException {
+        final List<Object> list = new ArrayList<Object>();
+        while (elements.hasNext()) {
+            list.add(elements.next());
+        }
+        writeList(elementType, list, mediaType, c, m, entityStream);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public final Object readFrom(
@@ -311,7 +360,11 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
             final Class<?> elementType = getElementClass(type, genericType);
             final Unmarshaller u = getUnmarshaller(elementType, mediaType);
             final XMLStreamReader r = getXMLStreamReader(elementType, mediaType, u, entityStream);
-            boolean jaxbElement = false;
+            final ElementReader reader = new ElementReader(elementType, u, r);
+
+            if (Iterator.class.equals(type)) {
+                return new LazyElementIterator(reader, entityStream);
+            }
 
             Collection<Object> l = null;
             if (type.isArray()) {
@@ -335,39 +388,13 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
                 }
             }
 
-            // Move to root element
-            int event = r.next();
-            while (event != XMLStreamReader.START_ELEMENT) {
-                event = r.next();
-            }
-
-            // Move to first child (if any)
-            event = r.next();
-            while (event != XMLStreamReader.START_ELEMENT
-                    && event != XMLStreamReader.END_DOCUMENT) {
-                event = r.next();
-            }
-
-            while (event != XMLStreamReader.END_DOCUMENT) {
-                if (elementType.isAnnotationPresent(XmlRootElement.class)) {
-                    l.add(u.unmarshal(r));
-                } else if (elementType.isAnnotationPresent(XmlType.class)) {
-                    l.add(u.unmarshal(r, elementType).getValue());
-                } else {
-                    l.add(u.unmarshal(r, elementType));
-                    jaxbElement = true;
-                }
-
-                // Move to next peer (if any)
-                event = r.getEventType();
-                while (event != XMLStreamReader.START_ELEMENT
-                        && event != XMLStreamReader.END_DOCUMENT) {
-                    event = r.next();
-                }
+            while (reader.hasNext()) {
+                l.add(reader.next());
             }
+            releaseUnmarshaller(u);
 
             return (type.isArray())
-                    ? createArray(l, jaxbElement ? JAXBElement.class : elementType)
+                    ? createArray(l, reader.jaxbElement ? JAXBElement.class : elementType)
                     : l;
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
@@ -387,6 +414,123 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
         return array;
     }
 
+    /**
+     * Pulls the child elements of the root element from an {@link XMLStreamReader} one by one.
+     */
+    private static final class ElementReader {
+
+        private final Class<?> elementType;
+        private final Unmarshaller u;
+        private final XMLStreamReader r;
+        private int event;
+        private boolean jaxbElement = false;
+
+        private ElementReader(Class<?> elementType, Unmarshaller u, XMLStreamReader r) throws XMLStreamException {
+            this.elementType = elementType;
+            this.u = u;
+            this.r = r;
+
+            // Move to root element
+            event = r.next();
+            while (event != XMLStreamReader.START_ELEMENT) {
+                event = r.next();
+            }
+
+            // Move to first child (if any)
+            event = r.next();
+            while (event != XMLStreamReader.START_ELEMENT
+                    && event != XMLStreamReader.END_DOCUMENT) {
+                event = r.next();
+            }
+        }
+
+        private boolean hasNext() {
+            return event != XMLStreamReader.END_DOCUMENT;
+        }
+
+        private Object next() throws JAXBException, XMLStreamException {
+            final Object element;
+            if (elementType.isAnnotationPresent(XmlRootElement.class)) {
+                element = u.unmarshal(r);
+            } else if (elementType.isAnnotationPresent(XmlType.class)) {
+                element = u.unmarshal(r, elementType).getValue();
+            } else {
+                element = u.unmarshal(r, elementType);
+                jaxbElement = true;
+            }
+
+            // Move to next peer (if any)
+            event = r.getEventType();
+            while (event != XMLStreamReader.START_ELEMENT
+                    && event != XMLStreamReader.END_DOCUMENT) {
+                event = r.next();
+            }
+            return element;
+        }
+    }
+
+    /**
+     * Iterator lazily unmarshalling the collection elements from the entity stream.
+     * <p>
+     * Unmarshalling failures are reported as {@link WebApplicationException} in the same way as when
+     * the whole collection is read at once.
+     * </p>
+     */
+    private final class LazyElementIterator implements Iterator<Object>, Closeable {
+
+        private final ElementReader reader;
+        private final InputStream entityStream;
+        private boolean released = false;
+
+        private LazyElementIterator(ElementReader reader, InputStream entityStream) {
+            this.reader = reader;
+            this.entityStream = entityStream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = reader.hasNext();
+            if (!hasNext && !released) {
+                released = true;
+                releaseUnmarshaller(reader.u);
+            }
+            return hasNext;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            try {
+                return reader.next();
+            } catch (UnmarshalException ex) {
+                throw new WebApplicationException(ex, Status.BAD_REQUEST);
+            } catch (XMLStreamException ex) {
+                throw new WebApplicationException(ex, Status.BAD_REQUEST);
+            } catch (JAXBException ex) {
+                throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                reader.r.close();
+            } catch (XMLStreamException ex) {
+                throw new IOException(ex);
+            } finally {
+                entityStream.close();
+            }
+        }
+    }
+
     /**
      * Get the XMLStreamReader for unmarshalling.
      *
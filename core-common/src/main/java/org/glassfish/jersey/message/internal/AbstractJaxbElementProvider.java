@@ -59,6 +59,8 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.UnmarshalException;
 import javax.xml.bind.Unmarshaller;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * An abstract provider for {@link JAXBElement}.
  * <p>
@@ -78,7 +80,8 @@ import javax.xml.bind.Unmarshaller;
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
-public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<JAXBElement<?>> {
+public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<JAXBElement<?>>
+        implements CacheableMessageBodyWorker {
 
     public AbstractJaxbElementProvider(Providers ps) {
         super(ps);
@@ -116,7 +119,10 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
         final Class ta = (Class) pt.getActualTypeArguments()[0];
 
         try {
-            return readFrom(ta, mediaType, getUnmarshaller(ta, mediaType), entityStream);
+            final Unmarshaller u = getUnmarshaller(ta, mediaType);
+            final JAXBElement<?> entity = readFrom(ta, mediaType, u, entityStream);
+            releaseUnmarshaller(u);
+            return entity;
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
@@ -144,6 +150,7 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
             }
             setHeader(m, annotations);
             writeTo(t, mediaType, c, m, entityStream);
+            releaseMarshaller(m);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
         }
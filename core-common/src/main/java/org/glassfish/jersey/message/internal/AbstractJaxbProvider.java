@@ -41,8 +41,18 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.AccessibleObject;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -57,6 +67,9 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.PropertyException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapters;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 
@@ -68,8 +81,23 @@ import org.glassfish.jersey.message.XmlHeader;
 
 import org.xml.sax.InputSource;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 /**
  * A base class for implementing JAXB-based readers and writers.
+ * <p>
+ * JAXB contexts created by the provider are cached in a concurrent cache that does not prevent the JAXB-bound
+ * classes (and their class loaders) from being garbage collected. Marshallers and unmarshallers created from the
+ * cached contexts are kept in bounded per-type pools and reused once released via {@link #releaseMarshaller(Marshaller)}
+ * and {@link #releaseUnmarshaller(Unmarshaller)}. The pool sizes can be configured using
+ * {@link MessageProperties#JAXB_MARSHALLER_POOL_SIZE} and {@link MessageProperties#JAXB_UNMARSHALLER_POOL_SIZE}.
+ * Since the pooled instances reference their JAXB context, the pools are softly referenced just like the cached
+ * contexts.
+ * </p>
  *
  * @param <T> Java type supported by the provider.
  *
@@ -78,8 +106,19 @@ import org.xml.sax.InputSource;
  */
 public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWriterProvider<T> {
 
-    private static final Map<Class, JAXBContext> jaxbContexts =
-            new WeakHashMap<Class, JAXBContext>();
+    private static final Cache<Class, JAXBContext> jaxbContexts =
+            CacheBuilder.newBuilder().weakKeys().softValues().build();
+    private static final String JAXB_RI_XML_HEADERS = "com.sun.xml.bind.xmlHeaders";
+    private static final String JDK_JAXB_RI_XML_HEADERS = "com.sun.xml.internal.bind.xmlHeaders";
+
+    private final Cache<Class, Pool<Marshaller>> marshallerPools =
+            CacheBuilder.newBuilder().weakKeys().softValues().build();
+    private final Cache<Class, Pool<Unmarshaller>> unmarshallerPools =
+            CacheBuilder.newBuilder().weakKeys().softValues().build();
+    private final ConcurrentMap<Marshaller, Pool<Marshaller>> pooledMarshallers =
+            new MapMaker().weakKeys().weakValues().makeMap();
+    private final ConcurrentMap<Unmarshaller, Pool<Unmarshaller>> pooledUnmarshallers =
+            new MapMaker().weakKeys().weakValues().makeMap();
     private final Providers ps;
     private final boolean fixedMediaType;
     private final Value<ContextResolver<JAXBContext>> mtContext;
@@ -87,6 +126,8 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
     private final Value<ContextResolver<Marshaller>> mtMarshaller;
     private Value<Boolean> formattedOutput = Values.of(Boolean.FALSE);
     private Value<Boolean> xmlRootElementProcessing = Values.of(Boolean.FALSE);
+    private Value<Integer> marshallerPoolSize = Values.of(MessageProperties.JAXB_MARSHALLER_POOL_SIZE_DEFAULT);
+    private Value<Integer> unmarshallerPoolSize = Values.of(MessageProperties.JAXB_UNMARSHALLER_POOL_SIZE_DEFAULT);
 
     public AbstractJaxbProvider(final Providers ps) {
         this(ps, null);
@@ -143,12 +184,43 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
                 return PropertiesHelper.isProperty(config.getProperty(MessageProperties.JAXB_PROCESS_XML_ROOT_ELEMENT));
             }
         });
+
+        marshallerPoolSize = Values.lazy(new Value<Integer>() {
+
+            @Override
+            public Integer get() {
+                return PropertiesHelper.getValue(config.getProperties(), MessageProperties.JAXB_MARSHALLER_POOL_SIZE,
+                        MessageProperties.JAXB_MARSHALLER_POOL_SIZE_DEFAULT);
+            }
+        });
+
+        unmarshallerPoolSize = Values.lazy(new Value<Integer>() {
+
+            @Override
+            public Integer get() {
+                return PropertiesHelper.getValue(config.getProperties(), MessageProperties.JAXB_UNMARSHALLER_POOL_SIZE,
+                        MessageProperties.JAXB_UNMARSHALLER_POOL_SIZE_DEFAULT);
+            }
+        });
     }
 
     protected boolean isSupported(MediaType m) {
         return true;
     }
 
+    /**
+     * Get an unmarshaller for the given JAXB-bound type and media type.
+     * <p>
+     * An unmarshaller created from a JAXB context cached by the provider may be taken from a pool. Such unmarshaller
+     * should be returned back to the pool using {@link #releaseUnmarshaller(Unmarshaller)} once it has been used
+     * successfully.
+     * </p>
+     *
+     * @param type JAXB-bound type.
+     * @param mt media type.
+     * @return unmarshaller for the type.
+     * @throws JAXBException in case the unmarshaller cannot be created.
+     */
     protected final Unmarshaller getUnmarshaller(Class type, MediaType mt) throws JAXBException {
         if (fixedMediaType) {
             return getUnmarshaller(type);
@@ -162,7 +234,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        return getJAXBContext(type, mt).createUnmarshaller();
+        return createUnmarshaller(type, ps.getContextResolver(JAXBContext.class, mt));
     }
 
     private Unmarshaller getUnmarshaller(Class type) throws JAXBException {
@@ -174,9 +246,22 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        return getJAXBContext(type).createUnmarshaller();
+        return createUnmarshaller(type, mtContext.get());
     }
 
+    /**
+     * Get a marshaller for the given JAXB-bound type and media type.
+     * <p>
+     * A marshaller created from a JAXB context cached by the provider may be taken from a pool. Such marshaller
+     * should be returned back to the pool using {@link #releaseMarshaller(Marshaller)} once it has been used
+     * successfully.
+     * </p>
+     *
+     * @param type JAXB-bound type.
+     * @param mt media type.
+     * @return marshaller for the type.
+     * @throws JAXBException in case the marshaller cannot be created.
+     */
     protected final Marshaller getMarshaller(Class type, MediaType mt) throws JAXBException {
         if (fixedMediaType) {
             return getMarshaller(type);
@@ -190,12 +275,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        Marshaller m = getJAXBContext(type, mt).createMarshaller();
-        if (formattedOutput.get()) {
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
-        }
-        return m;
-
+        return createMarshaller(type, ps.getContextResolver(JAXBContext.class, mt));
     }
 
     private Marshaller getMarshaller(Class type) throws JAXBException {
@@ -207,45 +287,252 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        Marshaller m = getJAXBContext(type).createMarshaller();
+        return createMarshaller(type, mtContext.get());
+    }
+
+    private Unmarshaller createUnmarshaller(final Class type, final ContextResolver<JAXBContext> resolver)
+            throws JAXBException {
+        if (resolver != null) {
+            final JAXBContext c = resolver.getContext(type);
+            if (c != null) {
+                return c.createUnmarshaller();
+            }
+        }
+
+        final JAXBContext context = getStoredJaxbContext(type);
+        final int capacity = unmarshallerPoolSize.get();
+        if (capacity <= 0) {
+            return context.createUnmarshaller();
+        }
+
+        final Pool<Unmarshaller> pool = getPool(unmarshallerPools, type, context, capacity);
+        Unmarshaller u = pool.poll();
+        if (u == null) {
+            u = context.createUnmarshaller();
+            pooledUnmarshallers.put(u, pool);
+        }
+        return u;
+    }
+
+    private Marshaller createMarshaller(final Class type, final ContextResolver<JAXBContext> resolver)
+            throws JAXBException {
+        if (resolver != null) {
+            final JAXBContext c = resolver.getContext(type);
+            if (c != null) {
+                return newMarshaller(c);
+            }
+        }
+
+        final JAXBContext context = getStoredJaxbContext(type);
+        final int capacity = marshallerPoolSize.get();
+        if (capacity <= 0) {
+            return newMarshaller(context);
+        }
+
+        final Pool<Marshaller> pool = getPool(marshallerPools, type, context, capacity);
+        Marshaller m = pool.poll();
+        if (m == null) {
+            m = newMarshaller(context);
+            pooledMarshallers.put(m, pool);
+        }
+        return m;
+    }
+
+    private Marshaller newMarshaller(final JAXBContext context) throws JAXBException {
+        final Marshaller m = context.createMarshaller();
         if (formattedOutput.get()) {
             m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
         }
         return m;
     }
 
-    private JAXBContext getJAXBContext(Class type, MediaType mt) throws JAXBException {
-        final ContextResolver<JAXBContext> cr = ps.getContextResolver(JAXBContext.class, mt);
-        if (cr != null) {
-            JAXBContext c = cr.getContext(type);
-            if (c != null) {
-                return c;
+    private static <E> Pool<E> getPool(final Cache<Class, Pool<E>> pools,
+                                       final Class type,
+                                       final JAXBContext context,
+                                       final int capacity) {
+        Pool<E> pool = pools.getIfPresent(type);
+        if (pool == null || pool.context != context) {
+            // either a first use or the cached context has been reclaimed and re-created; stale pool is discarded.
+            pool = new Pool<E>(context, getAdapterTypes(type), capacity);
+            pools.put(type, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Get the adapter types declared by the {@link XmlJavaTypeAdapter} annotations of the JAXB-bound type,
+     * its super-types, their fields, methods and packages.
+     *
+     * @param type JAXB-bound type.
+     * @return weak references to the declared adapter types.
+     */
+    private static List<WeakReference<Class<? extends XmlAdapter>>> getAdapterTypes(final Class<?> type) {
+        final Set<Class<? extends XmlAdapter>> adapterTypes = new LinkedHashSet<Class<? extends XmlAdapter>>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (c.getPackage() != null) {
+                addAdapterTypes(adapterTypes, c.getPackage().getAnnotations());
+            }
+            addAdapterTypes(adapterTypes, c.getAnnotations());
+            for (AccessibleObject member : c.getDeclaredFields()) {
+                addAdapterTypes(adapterTypes, member.getAnnotations());
+            }
+            for (AccessibleObject member : c.getDeclaredMethods()) {
+                addAdapterTypes(adapterTypes, member.getAnnotations());
             }
         }
 
-        return getStoredJaxbContext(type);
+        final List<WeakReference<Class<? extends XmlAdapter>>> references =
+                new ArrayList<WeakReference<Class<? extends XmlAdapter>>>(adapterTypes.size());
+        for (Class<? extends XmlAdapter> adapterType : adapterTypes) {
+            references.add(new WeakReference<Class<? extends XmlAdapter>>(adapterType));
+        }
+        return references;
     }
 
-    private JAXBContext getJAXBContext(Class type) throws JAXBException {
-        final ContextResolver<JAXBContext> resolver = mtContext.get();
-        if (resolver != null) {
-            JAXBContext c = resolver.getContext(type);
-            if (c != null) {
-                return c;
+    private static void addAdapterTypes(final Set<Class<? extends XmlAdapter>> adapterTypes,
+                                        final Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof XmlJavaTypeAdapter) {
+                adapterTypes.add(((XmlJavaTypeAdapter) annotation).value());
+            } else if (annotation instanceof XmlJavaTypeAdapters) {
+                for (XmlJavaTypeAdapter adapter : ((XmlJavaTypeAdapters) annotation).value()) {
+                    adapterTypes.add(adapter.value());
+                }
             }
         }
+    }
+
+    /**
+     * Return a marshaller obtained from {@link #getMarshaller(Class, MediaType)} back to the pool.
+     * <p>
+     * The marshaller is reset to its initial configuration before it is pooled. Marshallers that have not been
+     * created from a JAXB context cached by the provider are ignored. The marshaller must not be used by the caller
+     * after it has been released.
+     * </p>
+     *
+     * @param m marshaller to be released, may be {@code null}.
+     */
+    protected final void releaseMarshaller(final Marshaller m) {
+        final Pool<Marshaller> pool = m == null ? null : pooledMarshallers.get(m);
+        if (pool == null) {
+            return;
+        }
+
+        if (!reset(m, pool) || !pool.offer(m)) {
+            pooledMarshallers.remove(m);
+        }
+    }
+
+    /**
+     * Return an unmarshaller obtained from {@link #getUnmarshaller(Class, MediaType)} back to the pool.
+     * <p>
+     * The unmarshaller is reset to its initial configuration before it is pooled. Unmarshallers that have not been
+     * created from a JAXB context cached by the provider are ignored. The unmarshaller must not be used by the caller
+     * after it has been released.
+     * </p>
+     *
+     * @param u unmarshaller to be released, may be {@code null}.
+     */
+    protected final void releaseUnmarshaller(final Unmarshaller u) {
+        final Pool<Unmarshaller> pool = u == null ? null : pooledUnmarshallers.get(u);
+        if (pool == null) {
+            return;
+        }
+
+        if (!reset(u, pool) || !pool.offer(u)) {
+            pooledUnmarshallers.remove(u);
+        }
+    }
+
+    private boolean reset(final Marshaller m, final Pool<Marshaller> pool) {
+        try {
+            m.setProperty(Marshaller.JAXB_ENCODING, UTF8.name());
+            m.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
+            m.setListener(null);
+            m.setEventHandler(null);
+            m.setSchema(null);
+            m.setAttachmentMarshaller(null);
+            for (WeakReference<Class<? extends XmlAdapter>> adapterType : pool.adapterTypes) {
+                clearAdapter(m, adapterType.get());
+            }
+        } catch (JAXBException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+
+        // an empty header is written as nothing, i.e. it is equivalent to no header being set
+        try {
+            m.setProperty(JAXB_RI_XML_HEADERS, "");
+        } catch (PropertyException e) {
+            try {
+                m.setProperty(JDK_JAXB_RI_XML_HEADERS, "");
+            } catch (PropertyException ex) {
+                // other jaxb implementation - xml headers are not supported so nothing to reset.
+            }
+        }
+        return true;
+    }
+
+    private static boolean reset(final Unmarshaller u, final Pool<Unmarshaller> pool) {
+        try {
+            u.setListener(null);
+            u.setEventHandler(null);
+            u.setSchema(null);
+            u.setAttachmentUnmarshaller(null);
+            for (WeakReference<Class<? extends XmlAdapter>> adapterType : pool.adapterTypes) {
+                clearAdapter(u, adapterType.get());
+            }
+        } catch (JAXBException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private static <A extends XmlAdapter> void clearAdapter(final Marshaller m, final Class<A> adapterType) {
+        if (adapterType != null) {
+            m.setAdapter(adapterType, null);
+        }
+    }
 
-        return getStoredJaxbContext(type);
+    private static <A extends XmlAdapter> void clearAdapter(final Unmarshaller u, final Class<A> adapterType) {
+        if (adapterType != null) {
+            u.setAdapter(adapterType, null);
+        }
     }
 
-    protected JAXBContext getStoredJaxbContext(Class type) throws JAXBException {
-        synchronized (jaxbContexts) {
-            JAXBContext c = jaxbContexts.get(type);
-            if (c == null) {
-                c = JAXBContext.newInstance(type);
-                jaxbContexts.put(type, c);
+    /**
+     * Get the JAXB context for the JAXB-bound type cached by the provider.
+     *
+     * @param type JAXB-bound type.
+     * @return cached JAXB context for the type.
+     * @throws JAXBException in case the JAXB context cannot be created.
+     */
+    protected JAXBContext getStoredJaxbContext(final Class type) throws JAXBException {
+        final JAXBContext context = jaxbContexts.getIfPresent(type);
+        if (context != null) {
+            return context;
+        }
+
+        try {
+            return jaxbContexts.get(type, new Callable<JAXBContext>() {
+
+                @Override
+                public JAXBContext call() throws JAXBException {
+                    return JAXBContext.newInstance(type);
+                }
+            });
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof JAXBException) {
+                throw (JAXBException) cause;
             }
-            return c;
+            throw new JAXBException(cause);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
         }
     }
 
@@ -273,11 +560,11 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             if (a instanceof XmlHeader) {
                 try {
                     // standalone jaxb ri
-                    m.setProperty("com.sun.xml.bind.xmlHeaders", ((XmlHeader) a).value());
+                    m.setProperty(JAXB_RI_XML_HEADERS, ((XmlHeader) a).value());
                 } catch (PropertyException e) {
                     try {
                         // jaxb ri from jdk
-                        m.setProperty("com.sun.xml.internal.bind.xmlHeaders", ((XmlHeader) a).value());
+                        m.setProperty(JDK_JAXB_RI_XML_HEADERS, ((XmlHeader) a).value());
                     } catch (PropertyException ex) {
                         // other jaxb implementation
                         Logger.getLogger(AbstractJaxbProvider.class.getName()).log(
@@ -288,4 +575,50 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
     }
+
+    /**
+     * Bounded pool of idle marshallers or unmarshallers created from the same JAXB context.
+     * <p>
+     * The pool does not reference the JAXB-bound type directly. The JAXB context and the pooled instances do,
+     * which is why the pools are softly referenced values of the pools caches.
+     * </p>
+     *
+     * @param <E> pooled instance type.
+     */
+    private static final class Pool<E> {
+
+        private final JAXBContext context;
+        /**
+         * Adapter types declared by the JAXB-bound type, cleared when a pooled instance is released.
+         */
+        private final List<WeakReference<Class<? extends XmlAdapter>>> adapterTypes;
+        private final int capacity;
+        private final Queue<E> idle = new ConcurrentLinkedQueue<E>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Pool(final JAXBContext context,
+                     final List<WeakReference<Class<? extends XmlAdapter>>> adapterTypes,
+                     final int capacity) {
+            this.context = context;
+            this.adapterTypes = adapterTypes;
+            this.capacity = capacity;
+        }
+
+        private E poll() {
+            final E instance = idle.poll();
+            if (instance != null) {
+                size.decrementAndGet();
+            }
+            return instance;
+        }
+
+        private boolean offer(final E instance) {
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                return false;
+            }
+            idle.offer(instance);
+            return true;
+        }
+    }
 }
@@ -101,6 +101,20 @@ public abstract class AbstractMessageReaderWriterProvider<T> implements
         return ReaderWriter.getCharset(m);
     }
 
+    /**
+     * Get the number of bytes a string is converted to when written using
+     * {@link #writeToAsString(String, OutputStream, MediaType)}, provided the number
+     * can be determined without actually encoding the string.
+     *
+     * @param s the string to be converted to bytes.
+     * @param type the media type that determines the character set defining
+     *        how to encode characters to bytes.
+     * @return the number of bytes or {@code -1} if the number cannot be cheaply determined.
+     */
+    public static long getSizeAsString(String s, MediaType type) {
+        return ReaderWriter.getSizeAsString(s, type);
+    }
+
     /**
      * Read the bytes of an input stream and convert to a string.
      *
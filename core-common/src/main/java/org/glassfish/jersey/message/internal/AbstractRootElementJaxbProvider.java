@@ -58,6 +58,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.transform.stream.StreamSource;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * An abstract provider for JAXB types that are annotated with
  * {@link XmlRootElement} or {@link XmlType}.
@@ -78,7 +80,8 @@ import javax.xml.transform.stream.StreamSource;
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
-public abstract class AbstractRootElementJaxbProvider extends AbstractJaxbProvider<Object> {
+public abstract class AbstractRootElementJaxbProvider extends AbstractJaxbProvider<Object>
+        implements CacheableMessageBodyWorker {
 
     public AbstractRootElementJaxbProvider(Providers ps) {
         super(ps);
@@ -113,7 +116,10 @@ public abstract class AbstractRootElementJaxbProvider extends AbstractJaxbProvid
             if (entityStream.isEmpty()) {
                 return null;
             }
-            return readFrom(type, mediaType, getUnmarshaller(type, mediaType), entityStream);
+            final Unmarshaller u = getUnmarshaller(type, mediaType);
+            final Object entity = readFrom(type, mediaType, u, entityStream);
+            releaseUnmarshaller(u);
+            return entity;
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
@@ -161,6 +167,7 @@ public abstract class AbstractRootElementJaxbProvider extends AbstractJaxbProvid
             }
             setHeader(m, annotations);
             writeTo(t, mediaType, c, m, entityStream);
+            releaseMarshaller(m);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
         }
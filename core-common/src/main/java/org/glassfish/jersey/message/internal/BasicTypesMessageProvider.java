@@ -58,6 +58,7 @@ import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
 
 /**
  * The basic types message body provider for {@link MediaType#TEXT_PLAIN} media type.
@@ -72,7 +73,8 @@ import org.glassfish.jersey.internal.util.ReflectionHelper;
 @Produces({"text/plain"})
 @Consumes({"text/plain"})
 @Singleton
-final class BasicTypesMessageProvider extends AbstractMessageReaderWriterProvider<Object> {
+final class BasicTypesMessageProvider extends AbstractMessageReaderWriterProvider<Object>
+        implements CacheableMessageBodyWorker {
 
     private static enum PrimitiveTypes {
         BYTE(Byte.class, byte.class) {
@@ -219,7 +221,7 @@ final class BasicTypesMessageProvider extends AbstractMessageReaderWriterProvide
 
     @Override
     public long getSize(Object t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return t.toString().length();
+        return getSizeAsString(t.toString(), mediaType);
     }
 
     @Override
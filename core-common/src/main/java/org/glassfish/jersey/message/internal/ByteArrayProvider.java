@@ -51,6 +51,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * Default Jersey byte array entity provider (reader and writer).
  *
@@ -59,7 +61,8 @@ import javax.ws.rs.core.MultivaluedMap;
  */
 @Produces({"application/octet-stream", "*/*"})
 @Consumes({"application/octet-stream", "*/*"})
-public final class ByteArrayProvider extends AbstractMessageReaderWriterProvider<byte[]> {
+public final class ByteArrayProvider extends AbstractMessageReaderWriterProvider<byte[]>
+        implements CacheableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -65,6 +65,8 @@ import javax.xml.transform.stream.StreamResult;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * Provider for marshalling/un-marshalling {@link Document XML document} instances.
  *
@@ -74,7 +76,8 @@ import org.xml.sax.SAXException;
 @Produces({"application/xml", "text/xml", "*/*"})
 @Consumes({"application/xml", "text/xml", "*/*"})
 @Singleton
-public final class DocumentProvider extends AbstractMessageReaderWriterProvider<Document> {
+public final class DocumentProvider extends AbstractMessageReaderWriterProvider<Document>
+        implements CacheableMessageBodyWorker {
 
     @Inject
     private Provider<DocumentBuilderFactory> dbf;
@@ -0,0 +1,371 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Input stream fed with blocks of data by a producer (typically a transport I/O thread) and read by a consumer
+ * (typically the application reading a response entity).
+ * <p>
+ * The producer never blocks: {@link #feed(byte[]) fed} blocks are queued until the consumer reads them.
+ * If the stream is created with a buffer limit, {@code feed} signals the producer to stop feeding once
+ * the limit is reached, and {@link #onDrained()} is invoked as soon as the consumer drains the buffer
+ * below half of the limit, so that the producer can implement non-blocking back-pressure (e.g. by suspending
+ * the reading of a connection). Closing the stream before it has been {@link #complete() completely fed}
+ * invokes {@link #onAbort()}.
+ * </p>
+ * <p>
+ * A consumer that must not block waiting for the data can register a {@link #setFeedListener(Runnable) feed listener}
+ * and read the stream only once it {@link #isReady() is ready}.
+ * </p>
+ */
+public class FeedableInputStream extends InputStream {
+
+    private final int bufferLimit;
+
+    private final Deque<byte[]> blocks = new ArrayDeque<byte[]>();
+    private int position;
+    private int buffered;
+
+    private boolean suspended;
+    private boolean complete;
+    private boolean closed;
+    private IOException failure;
+    private Runnable feedListener;
+
+    /**
+     * Create new feedable input stream buffering an unlimited amount of data.
+     */
+    public FeedableInputStream() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create new feedable input stream.
+     *
+     * @param bufferLimit number of buffered bytes at which the producer is signalled to stop feeding the stream.
+     */
+    public FeedableInputStream(final int bufferLimit) {
+        this.bufferLimit = bufferLimit;
+    }
+
+    /**
+     * Queue a block of data. Blocks fed after the stream has been closed are discarded.
+     *
+     * @param block block of data. The block must not be modified once fed.
+     * @return {@code true} if the producer may continue feeding the stream, {@code false} if the buffer limit
+     *         has been reached and the producer should stop feeding the stream until {@link #onDrained()} is invoked.
+     */
+    public boolean feed(final byte[] block) {
+        final boolean suspend;
+        final Runnable listener;
+        synchronized (this) {
+            if (closed || block.length == 0) {
+                return true;
+            }
+            blocks.addLast(block);
+            buffered += block.length;
+            notifyAll();
+
+            suspend = suspended = buffered >= bufferLimit;
+            listener = feedListener;
+        }
+
+        if (listener != null) {
+            listener.run();
+        }
+        return !suspend;
+    }
+
+    /**
+     * Mark the stream as completely fed. The consumer reaches the end of the stream once it reads all the data.
+     */
+    public void complete() {
+        final Runnable listener;
+        synchronized (this) {
+            complete = true;
+            notifyAll();
+            listener = feedListener;
+        }
+
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Fail the stream, unless it has been completely fed already. The failure is reported to the consumer
+     * once it reads all the data fed before the failure.
+     *
+     * @param cause failure cause reported to the consumer.
+     */
+    public void fail(final IOException cause) {
+        final Runnable listener;
+        synchronized (this) {
+            if (complete || failure != null) {
+                return;
+            }
+            failure = cause;
+            notifyAll();
+            listener = feedListener;
+        }
+
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Check whether the stream has been completely fed.
+     *
+     * @return {@code true} if the stream has been completely fed.
+     */
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Check whether no more data will be fed to the stream, i.e. whether the stream has been completely fed or failed.
+     *
+     * @return {@code true} if the stream has been completely fed or failed.
+     */
+    public synchronized boolean isFinished() {
+        return complete || failure != null;
+    }
+
+    /**
+     * Check whether the stream has been closed by the consumer.
+     *
+     * @return {@code true} if the stream has been closed.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Check whether the stream can be read without blocking, i.e. whether there are data buffered or the end
+     * of the stream (or a failure) has been reached.
+     *
+     * @return {@code true} if a read operation would not block.
+     */
+    public synchronized boolean isReady() {
+        return !blocks.isEmpty() || isFinished() || closed;
+    }
+
+    /**
+     * Set the listener invoked (outside of the stream lock) whenever the stream is fed, completed or failed.
+     * The listener is invoked immediately if the stream {@link #isReady() is ready} already.
+     * <p>
+     * The listener is invoked by the producer thread, so it should only signal the consumer to read the stream.
+     * </p>
+     *
+     * @param listener feed listener, may be {@code null}.
+     */
+    public void setFeedListener(final Runnable listener) {
+        final boolean ready;
+        synchronized (this) {
+            feedListener = listener;
+            ready = isReady();
+        }
+
+        if (ready && listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Get the feedable input stream wrapped by the (possibly nested) {@link EntityInputStream entity input streams}.
+     *
+     * @param stream entity input stream.
+     * @return wrapped feedable input stream or {@code null} if the stream does not wrap a feedable input stream.
+     */
+    public static FeedableInputStream unwrap(InputStream stream) {
+        while (stream instanceof EntityInputStream) {
+            stream = ((EntityInputStream) stream).getWrappedStream();
+        }
+        return (stream instanceof FeedableInputStream) ? (FeedableInputStream) stream : null;
+    }
+
+    /**
+     * Invoked (outside of the stream lock) once the consumer drains the buffer of a stream the producer has been
+     * signalled to stop feeding. Does nothing by default.
+     */
+    protected void onDrained() {
+        // no back-pressure by default
+    }
+
+    /**
+     * Invoked (outside of the stream lock) once the consumer closes the stream before it has been completely fed.
+     * Does nothing by default.
+     */
+    protected void onAbort() {
+        // nothing to abort by default
+    }
+
+    /**
+     * Wait for data to be available.
+     *
+     * @return {@code true} if there are data to be read, {@code false} if the end of the stream has been reached.
+     */
+    private boolean awaitData() throws IOException {
+        while (blocks.isEmpty()) {
+            if (closed) {
+                throw new IOException("Stream closed.");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (complete) {
+                return false;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Account for the consumed data.
+     *
+     * @return {@code true} if the producer should be notified that the buffer has been drained.
+     */
+    private boolean consumed(final int count) {
+        buffered -= count;
+        if (suspended && buffered <= bufferLimit / 2) {
+            suspended = false;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int value;
+        final boolean drained;
+        synchronized (this) {
+            if (!awaitData()) {
+                return -1;
+            }
+            final byte[] block = blocks.peekFirst();
+            value = block[position++] & 0xFF;
+            if (position == block.length) {
+                blocks.removeFirst();
+                position = 0;
+            }
+            drained = consumed(1);
+        }
+
+        if (drained) {
+            onDrained();
+        }
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int read = 0;
+        final boolean drained;
+        synchronized (this) {
+            if (!awaitData()) {
+                return -1;
+            }
+            while (read < len && !blocks.isEmpty()) {
+                final byte[] block = blocks.peekFirst();
+                final int count = Math.min(len - read, block.length - position);
+                System.arraycopy(block, position, b, off + read, count);
+                read += count;
+                position += count;
+                if (position == block.length) {
+                    blocks.removeFirst();
+                    position = 0;
+                }
+            }
+            drained = consumed(read);
+        }
+
+        if (drained) {
+            onDrained();
+        }
+        return read;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+        return buffered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        final boolean abort;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            abort = !complete;
+            blocks.clear();
+            buffered = 0;
+            notifyAll();
+        }
+
+        if (abort) {
+            onAbort();
+        }
+    }
+}
@@ -56,6 +56,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 
 /**
  * Provider for marshalling/un-marshalling of {@code application/octet-stream}
@@ -67,7 +69,8 @@ import javax.ws.rs.core.MultivaluedMap;
 @Produces({"application/octet-stream", "*/*"})
 @Consumes({"application/octet-stream", "*/*"})
 @Singleton
-public final class FileProvider extends AbstractMessageReaderWriterProvider<File> {
+public final class FileProvider extends AbstractMessageReaderWriterProvider<File>
+        implements CacheableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -54,6 +54,8 @@ import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * Provider for marshalling/un-marshalling of {@code application/x-www-form-urlencoded}
  * entity type to/from {@link MultivaluedMap multi-valued map} instance.
@@ -64,7 +66,8 @@ import javax.inject.Singleton;
 @Produces("application/x-www-form-urlencoded")
 @Consumes("application/x-www-form-urlencoded")
 @Singleton
-public final class FormMultivaluedMapProvider extends AbstractFormProvider<MultivaluedMap<String, String>> {
+public final class FormMultivaluedMapProvider extends AbstractFormProvider<MultivaluedMap<String, String>>
+        implements CacheableMessageBodyWorker {
 
     private final Type mapType;
 
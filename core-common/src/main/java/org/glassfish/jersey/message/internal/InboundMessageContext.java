@@ -48,6 +48,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -97,6 +98,8 @@ public class InboundMessageContext {
     private final MultivaluedMap<String, String> headers;
     private final EntityContent entityContent;
     private MessageBodyWorkers workers;
+    private Map<String, ParsedHeader> parsedHeaders;
+    private int headerParseCount;
 
     /**
      * Input stream and its state. State is represented by the {@link Type Type enum} and
@@ -256,6 +259,9 @@ public class InboundMessageContext {
         if (values.isEmpty()) {
             return "";
         }
+        if (values.size() == 1) {
+            return values.get(0);
+        }
 
         final Iterator<String> valuesIterator = values.iterator();
         StringBuilder buffer = new StringBuilder(valuesIterator.next());
@@ -311,55 +317,158 @@ public class InboundMessageContext {
         return this.headers;
     }
 
+    /**
+     * Get the typed view of a message header.
+     * <p>
+     * The typed view is parsed from the header values on the first access and memoized. The memoized view is
+     * re-parsed only when the values of the underlying header in the {@link #getHeaders() message headers map}
+     * change, so that modifications of the headers made e.g. by filters are always reflected.
+     * </p>
+     *
+     * @param name   header name.
+     * @param parser header parser used to parse the header values into the typed view.
+     * @return typed view of the header values.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T parsedHeader(final String name, final Function<InboundMessageContext, T> parser) {
+        final List<String> values = this.headers.get(name);
+
+        ParsedHeader parsed = (parsedHeaders == null) ? null : parsedHeaders.get(name);
+        if (parsed == null || !parsed.isParsedFrom(values)) {
+            final T value = parser.apply(this);
+            headerParseCount++;
+
+            if (parsedHeaders == null) {
+                parsedHeaders = new HashMap<String, ParsedHeader>();
+            }
+            parsed = new ParsedHeader(values, value);
+            parsedHeaders.put(name, parsed);
+        }
+
+        return (T) parsed.value;
+    }
+
+    /**
+     * Get the number of header values parsed by the typed header getters of this message context.
+     * <p>
+     * The typed header views are memoized, so the counter is increased only when a typed view of a header
+     * is accessed for the first time, or when the typed view is accessed again after the header values have
+     * changed. The counter is intended for diagnostic purposes only.
+     * </p>
+     *
+     * @return number of header parses performed in this message context.
+     */
+    public int getHeaderParseCount() {
+        return headerParseCount;
+    }
+
+    /**
+     * Typed view of a message header together with the header values the view has been parsed from.
+     */
+    private static final class ParsedHeader {
+
+        private final List<String> source;
+        private final Object value;
+
+        private ParsedHeader(final List<String> source, final Object value) {
+            this.source = (source == null) ? null : new ArrayList<String>(source);
+            this.value = value;
+        }
+
+        private boolean isParsedFrom(final List<String> values) {
+            return (source == null) ? values == null : source.equals(values);
+        }
+    }
+
+    // The memoized typed views are shared by all the calls of a getter, so the callers always get a copy
+    // unless the getter is documented to return a read-only view.
+
+    private static Date copyOf(final Date date) {
+        return (date == null) ? null : new Date(date.getTime());
+    }
+
+    private static <T> List<T> copyOf(final List<T> list) {
+        return (list == null) ? null : new ArrayList<T>(list);
+    }
+
+    private static <T> Set<T> copyOf(final Set<T> set) {
+        return (set == null) ? null : new HashSet<T>(set);
+    }
+
+    private static <V> Map<String, V> copyOf(final Map<String, V> map) {
+        return (map == null) ? null : new HashMap<String, V>(map);
+    }
+
     /**
      * Get message date.
      *
      * @return the message date, otherwise {@code null} if not present.
      */
     public Date getDate() {
-        return singleHeader(HttpHeaders.DATE, new Function<String, Date>() {
-            @Override
-            public Date apply(String input) {
-                try {
-                    return HttpHeaderReader.readDate(input);
-                } catch (ParseException ex) {
-                    throw new ProcessingException(ex);
-                }
-            }
-        }, false);
+        return copyOf(parsedHeader(HttpHeaders.DATE, DATE_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Date> DATE_PARSER = new Function<InboundMessageContext, Date>() {
+        @Override
+        public Date apply(InboundMessageContext context) {
+            return context.singleHeader(HttpHeaders.DATE, DATE_CONVERTER, false);
+        }
+    };
+
+    private static final Function<String, Date> DATE_CONVERTER = new Function<String, Date>() {
+        @Override
+        public Date apply(String input) {
+            try {
+                return HttpHeaderReader.readDate(input);
+            } catch (ParseException ex) {
+                throw new ProcessingException(ex);
+            }
+        }
+    };
+
     /**
      * Get If-Match header.
      *
      * @return the If-Match header value, otherwise {@code null} if not present.
      */
     public Set<MatchingEntityTag> getIfMatch() {
-        final String ifMatch = getHeaderString(HttpHeaders.IF_MATCH);
-        if (ifMatch == null || ifMatch.length() == 0) {
-            return null;
-        }
-        try {
-            return HttpHeaderReader.readMatchingEntityTag(ifMatch);
-        } catch (java.text.ParseException e) {
-            throw exception(HttpHeaders.IF_MATCH, ifMatch, e);
-        }
+        return copyOf(parsedHeader(HttpHeaders.IF_MATCH, IF_MATCH_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Set<MatchingEntityTag>> IF_MATCH_PARSER =
+            new Function<InboundMessageContext, Set<MatchingEntityTag>>() {
+                @Override
+                public Set<MatchingEntityTag> apply(InboundMessageContext context) {
+                    return context.readMatchingEntityTags(HttpHeaders.IF_MATCH);
+                }
+            };
+
     /**
      * Get If-None-Match header.
      *
      * @return the If-None-Match header value, otherwise {@code null} if not present.
      */
     public Set<MatchingEntityTag> getIfNoneMatch() {
-        final String ifNoneMatch = getHeaderString(HttpHeaders.IF_NONE_MATCH);
-        if (ifNoneMatch == null || ifNoneMatch.length() == 0) {
+        return copyOf(parsedHeader(HttpHeaders.IF_NONE_MATCH, IF_NONE_MATCH_PARSER));
+    }
+
+    private static final Function<InboundMessageContext, Set<MatchingEntityTag>> IF_NONE_MATCH_PARSER =
+            new Function<InboundMessageContext, Set<MatchingEntityTag>>() {
+                @Override
+                public Set<MatchingEntityTag> apply(InboundMessageContext context) {
+                    return context.readMatchingEntityTags(HttpHeaders.IF_NONE_MATCH);
+                }
+            };
+
+    private Set<MatchingEntityTag> readMatchingEntityTags(final String name) {
+        final String value = getHeaderString(name);
+        if (value == null || value.length() == 0) {
             return null;
         }
         try {
-            return HttpHeaderReader.readMatchingEntityTag(ifNoneMatch);
+            return Collections.unmodifiableSet(HttpHeaderReader.readMatchingEntityTag(value));
         } catch (java.text.ParseException e) {
-            throw exception(HttpHeaders.IF_NONE_MATCH, ifNoneMatch, e);
+            throw exception(name, value, e);
         }
     }
 
@@ -369,17 +478,27 @@ public class InboundMessageContext {
      * @return the language of the entity or {@code null} if not specified
      */
     public Locale getLanguage() {
-        return singleHeader(HttpHeaders.CONTENT_LANGUAGE, new Function<String, Locale>() {
-            @Override
-            public Locale apply(String input) {
-                try {
-                    return new LanguageTag(input).getAsLocale();
-                } catch (ParseException e) {
-                    throw new ProcessingException(e);
+        return parsedHeader(HttpHeaders.CONTENT_LANGUAGE, LANGUAGE_PARSER);
+    }
+
+    private static final Function<InboundMessageContext, Locale> LANGUAGE_PARSER =
+            new Function<InboundMessageContext, Locale>() {
+                @Override
+                public Locale apply(InboundMessageContext context) {
+                    return context.singleHeader(HttpHeaders.CONTENT_LANGUAGE, LANGUAGE_CONVERTER, false);
                 }
+            };
+
+    private static final Function<String, Locale> LANGUAGE_CONVERTER = new Function<String, Locale>() {
+        @Override
+        public Locale apply(String input) {
+            try {
+                return new LanguageTag(input).getAsLocale();
+            } catch (ParseException e) {
+                throw new ProcessingException(e);
             }
-        }, false);
-    }
+        }
+    };
 
     /**
      * Get Content-Length value.
@@ -388,17 +507,27 @@ public class InboundMessageContext {
      *         cases returns -1.
      */
     public int getLength() {
-        return singleHeader(HttpHeaders.CONTENT_LENGTH, new Function<String, Integer>() {
-            @Override
-            public Integer apply(String input) {
-                try {
-                    return (input != null && input.length() > 0) ? Integer.parseInt(input) : -1;
-                } catch (NumberFormatException ex) {
-                    throw new ProcessingException(ex);
+        return parsedHeader(HttpHeaders.CONTENT_LENGTH, LENGTH_PARSER);
+    }
+
+    private static final Function<InboundMessageContext, Integer> LENGTH_PARSER =
+            new Function<InboundMessageContext, Integer>() {
+                @Override
+                public Integer apply(InboundMessageContext context) {
+                    return context.singleHeader(HttpHeaders.CONTENT_LENGTH, LENGTH_CONVERTER, true);
                 }
+            };
+
+    private static final Function<String, Integer> LENGTH_CONVERTER = new Function<String, Integer>() {
+        @Override
+        public Integer apply(String input) {
+            try {
+                return (input != null && input.length() > 0) ? Integer.parseInt(input) : -1;
+            } catch (NumberFormatException ex) {
+                throw new ProcessingException(ex);
             }
-        }, true);
-    }
+        }
+    };
 
     /**
      * Get the media type of the entity.
@@ -407,17 +536,27 @@ public class InboundMessageContext {
      *         message entity).
      */
     public MediaType getMediaType() {
-        return singleHeader(HttpHeaders.CONTENT_TYPE, new Function<String, MediaType>() {
-            @Override
-            public MediaType apply(String input) {
-                try {
-                    return MediaType.valueOf(input);
-                } catch (IllegalArgumentException iae) {
-                    throw new ProcessingException(iae);
+        return parsedHeader(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_PARSER);
+    }
+
+    private static final Function<InboundMessageContext, MediaType> MEDIA_TYPE_PARSER =
+            new Function<InboundMessageContext, MediaType>() {
+                @Override
+                public MediaType apply(InboundMessageContext context) {
+                    return context.singleHeader(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_CONVERTER, false);
                 }
+            };
+
+    private static final Function<String, MediaType> MEDIA_TYPE_CONVERTER = new Function<String, MediaType>() {
+        @Override
+        public MediaType apply(String input) {
+            try {
+                return MediaType.valueOf(input);
+            } catch (IllegalArgumentException iae) {
+                throw new ProcessingException(iae);
             }
-        }, false);
-    }
+        }
+    };
 
     /**
      * Get a list of media types that are acceptable for a request.
@@ -426,19 +565,28 @@ public class InboundMessageContext {
      *         to their q-value, with highest preference first.
      */
     public List<AcceptableMediaType> getQualifiedAcceptableMediaTypes() {
-        final String value = getHeaderString(HttpHeaders.ACCEPT);
-
-        if (value == null || value.length() == 0) {
-            return Collections.unmodifiableList(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST);
-        }
-
-        try {
-            return Collections.unmodifiableList(HttpHeaderReader.readAcceptMediaType(value));
-        } catch (ParseException e) {
-            throw exception(HttpHeaders.ACCEPT, value, e);
-        }
+        // the parsed list is read-only and can be shared without copying
+        return parsedHeader(HttpHeaders.ACCEPT, ACCEPTABLE_MEDIA_TYPES_PARSER);
     }
 
+    private static final Function<InboundMessageContext, List<AcceptableMediaType>> ACCEPTABLE_MEDIA_TYPES_PARSER =
+            new Function<InboundMessageContext, List<AcceptableMediaType>>() {
+                @Override
+                public List<AcceptableMediaType> apply(InboundMessageContext context) {
+                    final String value = context.getHeaderString(HttpHeaders.ACCEPT);
+
+                    if (value == null || value.length() == 0) {
+                        return Collections.unmodifiableList(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST);
+                    }
+
+                    try {
+                        return Collections.unmodifiableList(HttpHeaderReader.readAcceptMediaType(value));
+                    } catch (ParseException e) {
+                        throw exception(HttpHeaders.ACCEPT, value, e);
+                    }
+                }
+            };
+
     /**
      * Get a list of languages that are acceptable for the message.
      *
@@ -446,19 +594,28 @@ public class InboundMessageContext {
      *         to their q-value, with highest preference first.
      */
     public List<AcceptableLanguageTag> getQualifiedAcceptableLanguages() {
-        final String value = getHeaderString(HttpHeaders.ACCEPT_LANGUAGE);
-
-        if (value == null || value.length() == 0) {
-            return Collections.singletonList(new AcceptableLanguageTag("*", null));
-        }
-
-        try {
-            return Collections.unmodifiableList(HttpHeaderReader.readAcceptLanguage(value));
-        } catch (ParseException e) {
-            throw exception(HttpHeaders.ACCEPT_LANGUAGE, value, e);
-        }
+        // the parsed list is read-only and can be shared without copying
+        return parsedHeader(HttpHeaders.ACCEPT_LANGUAGE, ACCEPTABLE_LANGUAGES_PARSER);
     }
 
+    private static final Function<InboundMessageContext, List<AcceptableLanguageTag>> ACCEPTABLE_LANGUAGES_PARSER =
+            new Function<InboundMessageContext, List<AcceptableLanguageTag>>() {
+                @Override
+                public List<AcceptableLanguageTag> apply(InboundMessageContext context) {
+                    final String value = context.getHeaderString(HttpHeaders.ACCEPT_LANGUAGE);
+
+                    if (value == null || value.length() == 0) {
+                        return Collections.singletonList(new AcceptableLanguageTag("*", null));
+                    }
+
+                    try {
+                        return Collections.unmodifiableList(HttpHeaderReader.readAcceptLanguage(value));
+                    } catch (ParseException e) {
+                        throw exception(HttpHeaders.ACCEPT_LANGUAGE, value, e);
+                    }
+                }
+            };
+
     /**
      * Get the list of language tag from the "Accept-Charset" of an HTTP request.
      *
@@ -466,17 +623,17 @@ public class InboundMessageContext {
      *         is ordered with the highest quality acceptable charset occurring first.
      */
     public List<AcceptableToken> getQualifiedAcceptCharset() {
-        final String acceptCharset = getHeaderString(HttpHeaders.ACCEPT_CHARSET);
-        try {
-            if (acceptCharset == null || acceptCharset.length() == 0) {
-                return Collections.singletonList(new AcceptableToken("*"));
-            }
-            return HttpHeaderReader.readAcceptToken(acceptCharset);
-        } catch (java.text.ParseException e) {
-            throw exception(HttpHeaders.ACCEPT_CHARSET, acceptCharset, e);
-        }
+        return copyOf(parsedHeader(HttpHeaders.ACCEPT_CHARSET, ACCEPT_CHARSET_PARSER));
     }
 
+    private static final Function<InboundMessageContext, List<AcceptableToken>> ACCEPT_CHARSET_PARSER =
+            new Function<InboundMessageContext, List<AcceptableToken>>() {
+                @Override
+                public List<AcceptableToken> apply(InboundMessageContext context) {
+                    return context.readAcceptTokens(HttpHeaders.ACCEPT_CHARSET);
+                }
+            };
+
     /**
      * Get the list of language tag from the "Accept-Charset" of an HTTP request.
      *
@@ -484,14 +641,26 @@ public class InboundMessageContext {
      *         is ordered with the highest quality acceptable charset occurring first.
      */
     public List<AcceptableToken> getQualifiedAcceptEncoding() {
-        final String acceptEncoding = getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        return copyOf(parsedHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING_PARSER));
+    }
+
+    private static final Function<InboundMessageContext, List<AcceptableToken>> ACCEPT_ENCODING_PARSER =
+            new Function<InboundMessageContext, List<AcceptableToken>>() {
+                @Override
+                public List<AcceptableToken> apply(InboundMessageContext context) {
+                    return context.readAcceptTokens(HttpHeaders.ACCEPT_ENCODING);
+                }
+            };
+
+    private List<AcceptableToken> readAcceptTokens(final String name) {
+        final String value = getHeaderString(name);
         try {
-            if (acceptEncoding == null || acceptEncoding.length() == 0) {
+            if (value == null || value.length() == 0) {
                 return Collections.singletonList(new AcceptableToken("*"));
             }
-            return HttpHeaderReader.readAcceptToken(acceptEncoding);
+            return Collections.unmodifiableList(HttpHeaderReader.readAcceptToken(value));
         } catch (java.text.ParseException e) {
-            throw exception("Accept-Encoding", acceptEncoding, e);
+            throw exception(name, value, e);
         }
     }
 
@@ -501,20 +670,28 @@ public class InboundMessageContext {
      * @return a read-only map of cookie name (String) to {@link javax.ws.rs.core.Cookie}.
      */
     public Map<String, Cookie> getRequestCookies() {
-        List<String> cookies = this.headers.get(HttpHeaders.COOKIE);
-        if (cookies == null || cookies.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        Map<String, Cookie> result = new HashMap<String, Cookie>();
-        for (String cookie : cookies) {
-            if (cookie != null) {
-                result.putAll(HttpHeaderReader.readCookies(cookie));
-            }
-        }
-        return result;
+        return copyOf(parsedHeader(HttpHeaders.COOKIE, REQUEST_COOKIES_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Map<String, Cookie>> REQUEST_COOKIES_PARSER =
+            new Function<InboundMessageContext, Map<String, Cookie>>() {
+                @Override
+                public Map<String, Cookie> apply(InboundMessageContext context) {
+                    List<String> cookies = context.headers.get(HttpHeaders.COOKIE);
+                    if (cookies == null || cookies.isEmpty()) {
+                        return Collections.emptyMap();
+                    }
+
+                    Map<String, Cookie> result = new HashMap<String, Cookie>();
+                    for (String cookie : cookies) {
+                        if (cookie != null) {
+                            result.putAll(HttpHeaderReader.readCookies(cookie));
+                        }
+                    }
+                    return Collections.unmodifiableMap(result);
+                }
+            };
+
     /**
      * Get the allowed HTTP methods from the Allow HTTP header.
      *
@@ -522,88 +699,123 @@ public class InboundMessageContext {
      *         strings.
      */
     public Set<String> getAllowedMethods() {
-        final String allowed = getHeaderString(HttpHeaders.ALLOW);
-        if (allowed == null || allowed.length() == 0) {
-            return Collections.emptySet();
-        }
-        try {
-            return new HashSet<String>(HttpHeaderReader.readStringList(allowed.toUpperCase()));
-        } catch (java.text.ParseException e) {
-            throw exception(HttpHeaders.ALLOW, allowed, e);
-        }
+        return copyOf(parsedHeader(HttpHeaders.ALLOW, ALLOWED_METHODS_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Set<String>> ALLOWED_METHODS_PARSER =
+            new Function<InboundMessageContext, Set<String>>() {
+                @Override
+                public Set<String> apply(InboundMessageContext context) {
+                    final String allowed = context.getHeaderString(HttpHeaders.ALLOW);
+                    if (allowed == null || allowed.length() == 0) {
+                        return Collections.emptySet();
+                    }
+                    try {
+                        return Collections.unmodifiableSet(
+                                new HashSet<String>(HttpHeaderReader.readStringList(allowed.toUpperCase())));
+                    } catch (java.text.ParseException e) {
+                        throw exception(HttpHeaders.ALLOW, allowed, e);
+                    }
+                }
+            };
+
     /**
      * Get any new cookies set on the response message.
      *
      * @return a read-only map of cookie name (String) to a {@link javax.ws.rs.core.NewCookie new cookie}.
      */
     public Map<String, NewCookie> getResponseCookies() {
-        List<String> cookies = this.headers.get(HttpHeaders.SET_COOKIE);
-        if (cookies == null || cookies.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        Map<String, NewCookie> result = new HashMap<String, NewCookie>();
-        for (String cookie : cookies) {
-            if (cookie != null) {
-                NewCookie newCookie = HttpHeaderReader.readNewCookie(cookie);
-                result.put(newCookie.getName(), newCookie);
-            }
-        }
-        return result;
+        return copyOf(parsedHeader(HttpHeaders.SET_COOKIE, RESPONSE_COOKIES_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Map<String, NewCookie>> RESPONSE_COOKIES_PARSER =
+            new Function<InboundMessageContext, Map<String, NewCookie>>() {
+                @Override
+                public Map<String, NewCookie> apply(InboundMessageContext context) {
+                    List<String> cookies = context.headers.get(HttpHeaders.SET_COOKIE);
+                    if (cookies == null || cookies.isEmpty()) {
+                        return Collections.emptyMap();
+                    }
+
+                    Map<String, NewCookie> result = new HashMap<String, NewCookie>();
+                    for (String cookie : cookies) {
+                        if (cookie != null) {
+                            NewCookie newCookie = HttpHeaderReader.readNewCookie(cookie);
+                            result.put(newCookie.getName(), newCookie);
+                        }
+                    }
+                    return Collections.unmodifiableMap(result);
+                }
+            };
+
     /**
      * Get the entity tag.
      *
      * @return the entity tag, otherwise {@code null} if not present.
      */
     public EntityTag getEntityTag() {
-        return singleHeader(HttpHeaders.ETAG, new Function<String, EntityTag>() {
-            @Override
-            public EntityTag apply(String value) {
-                return EntityTag.valueOf(value);
-            }
-        }, false);
+        return parsedHeader(HttpHeaders.ETAG, ENTITY_TAG_PARSER);
     }
 
+    private static final Function<InboundMessageContext, EntityTag> ENTITY_TAG_PARSER =
+            new Function<InboundMessageContext, EntityTag>() {
+                @Override
+                public EntityTag apply(InboundMessageContext context) {
+                    return context.singleHeader(HttpHeaders.ETAG, ENTITY_TAG_CONVERTER, false);
+                }
+            };
+
+    private static final Function<String, EntityTag> ENTITY_TAG_CONVERTER = new Function<String, EntityTag>() {
+        @Override
+        public EntityTag apply(String value) {
+            return EntityTag.valueOf(value);
+        }
+    };
+
     /**
      * Get the last modified date.
      *
      * @return the last modified date, otherwise {@code null} if not present.
      */
     public Date getLastModified() {
-        return singleHeader(HttpHeaders.LAST_MODIFIED, new Function<String, Date>() {
-            @Override
-            public Date apply(String input) {
-                try {
-                    return HttpHeaderReader.readDate(input);
-                } catch (ParseException e) {
-                    throw new ProcessingException(e);
-                }
-            }
-        }, false);
+        return copyOf(parsedHeader(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Date> LAST_MODIFIED_PARSER =
+            new Function<InboundMessageContext, Date>() {
+                @Override
+                public Date apply(InboundMessageContext context) {
+                    return context.singleHeader(HttpHeaders.LAST_MODIFIED, DATE_CONVERTER, false);
+                }
+            };
+
     /**
      * Get the location.
      *
      * @return the location URI, otherwise {@code null} if not present.
      */
     public URI getLocation() {
-        return singleHeader(HttpHeaders.LOCATION, new Function<String, URI>() {
-            @Override
-            public URI apply(String value) {
-                try {
-                    return URI.create(value);
-                } catch (IllegalArgumentException ex) {
-                    throw new ProcessingException(ex);
-                }
-            }
-        }, false);
+        return parsedHeader(HttpHeaders.LOCATION, LOCATION_PARSER);
     }
 
+    private static final Function<InboundMessageContext, URI> LOCATION_PARSER = new Function<InboundMessageContext, URI>() {
+        @Override
+        public URI apply(InboundMessageContext context) {
+            return context.singleHeader(HttpHeaders.LOCATION, LOCATION_CONVERTER, false);
+        }
+    };
+
+    private static final Function<String, URI> LOCATION_CONVERTER = new Function<String, URI>() {
+        @Override
+        public URI apply(String value) {
+            try {
+                return URI.create(value);
+            } catch (IllegalArgumentException ex) {
+                throw new ProcessingException(ex);
+            }
+        }
+    };
+
     /**
      * Get the links attached to the message as header.
      *
@@ -611,22 +823,30 @@ public class InboundMessageContext {
      *         returns {@code null}.
      */
     public Set<Link> getLinks() {
-        List<String> links = this.headers.get(HttpHeaders.LINK);
-        if (links == null || links.isEmpty()) {
-            return Collections.emptySet();
-        }
-
-        try {
-            Set<Link> result = new HashSet<Link>(links.size());
-            for (String l : links) {
-                result.add(Link.valueOf(l));
-            }
-            return result;
-        } catch (IllegalArgumentException e) {
-            throw exception(HttpHeaders.LINK, links, e);
-        }
+        return copyOf(parsedHeader(HttpHeaders.LINK, LINKS_PARSER));
     }
 
+    private static final Function<InboundMessageContext, Set<Link>> LINKS_PARSER =
+            new Function<InboundMessageContext, Set<Link>>() {
+                @Override
+                public Set<Link> apply(InboundMessageContext context) {
+                    List<String> links = context.headers.get(HttpHeaders.LINK);
+                    if (links == null || links.isEmpty()) {
+                        return Collections.emptySet();
+                    }
+
+                    try {
+                        Set<Link> result = new HashSet<Link>(links.size());
+                        for (String l : links) {
+                            result.add(Link.valueOf(l));
+                        }
+                        return Collections.unmodifiableSet(result);
+                    } catch (IllegalArgumentException e) {
+                        throw exception(HttpHeaders.LINK, links, e);
+                    }
+                }
+            };
+
     /**
      * Check if link for relation exists.
      *
@@ -635,7 +855,7 @@ public class InboundMessageContext {
      *         otherwise.
      */
     public boolean hasLink(String relation) {
-        for (Link link : getLinks()) {
+        for (Link link : parsedHeader(HttpHeaders.LINK, LINKS_PARSER)) {
             List<String> relations = LinkProvider.getLinkRelations(link.getRel());
 
             if (relations != null && relations.contains(relation)) {
@@ -652,7 +872,7 @@ public class InboundMessageContext {
      * @return the link for the relation, otherwise {@code null} if not present.
      */
     public Link getLink(String relation) {
-        for (Link link : getLinks()) {
+        for (Link link : parsedHeader(HttpHeaders.LINK, LINKS_PARSER)) {
             List<String> relations = LinkProvider.getLinkRelations(link.getRel());
             if (relations != null && relations.contains(relation)) {
                 return link;
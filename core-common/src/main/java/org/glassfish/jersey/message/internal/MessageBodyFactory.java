@@ -81,6 +81,9 @@ import org.glassfish.jersey.internal.util.KeyComparatorLinkedHashMap;
 import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper.DeclaringClassInterfacePair;
+import org.glassfish.jersey.internal.util.collection.Value;
+import org.glassfish.jersey.internal.util.collection.Values;
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.message.MessageProperties;
 import org.glassfish.jersey.model.internal.RankedComparator;
@@ -89,6 +92,8 @@ import org.glassfish.hk2.api.ServiceLocator;
 
 import org.jvnet.hk2.annotations.Optional;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 /**
@@ -145,8 +150,11 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             };
 
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation[0];
+
     private final ServiceLocator locator;
     private final Boolean legacyProviderOrdering;
+    private final boolean lookupCacheEnabled;
 
     private List<ReaderInterceptor> readerInterceptors;
     private List<WriterInterceptor> writerInterceptors;
@@ -164,6 +172,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private final Map<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyWriter>>> mbwLookupCache =
             new ConcurrentHashMap<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyWriter>>>();
 
+    private final Cache<WorkerLookupKey, Value<MessageBodyReader>> mbrResolvedCache;
+    private final Cache<WorkerLookupKey, Value<MessageBodyWriter>> mbwResolvedCache;
 
     @Override
     public List<ReaderInterceptor> getReaderInterceptors() {
@@ -179,12 +189,14 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         final T provider;
         final List<MediaType> types;
         final Boolean custom;
+        final boolean cacheable;
         Class<?> providerClassParam = null;
 
         private MessageBodyWorkerPair(T provider, List<MediaType> types, Boolean custom) {
             this.provider = provider;
             this.types = types;
             this.custom = custom;
+            this.cacheable = provider instanceof CacheableMessageBodyWorker;
         }
     }
 
@@ -199,6 +211,15 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         this.locator = locator;
         this.legacyProviderOrdering = configuration != null
                         && PropertiesHelper.isProperty(configuration.getProperty(MessageProperties.LEGACY_WORKERS_ORDERING));
+        this.lookupCacheEnabled = configuration == null
+                || !PropertiesHelper.isProperty(configuration.getProperty(MessageProperties.WORKERS_LOOKUP_CACHE_DISABLE));
+
+        final int lookupCacheSize = configuration == null
+                ? MessageProperties.WORKERS_LOOKUP_CACHE_SIZE_DEFAULT
+                : Math.max(0, PropertiesHelper.getValue(configuration.getProperties(),
+                        MessageProperties.WORKERS_LOOKUP_CACHE_SIZE, MessageProperties.WORKERS_LOOKUP_CACHE_SIZE_DEFAULT));
+        this.mbrResolvedCache = CacheBuilder.newBuilder().maximumSize(lookupCacheSize).build();
+        this.mbwResolvedCache = CacheBuilder.newBuilder().maximumSize(lookupCacheSize).build();
 
         initReaders();
         initWriters();
@@ -430,6 +451,102 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
     }
 
+    /**
+     * Key of the resolved message body worker caches.
+     * <p>
+     * Media types are compared using a case-sensitive comparison of their types, sub-types and parameters and
+     * annotations are compared by identity first, to keep the key comparison cheap. Semantically equal keys that
+     * differ in case only result in separate cache entries resolved to the same worker.
+     * </p>
+     */
+    private static final class WorkerLookupKey {
+
+        private final Class<?> rawType;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final int hash;
+
+        private WorkerLookupKey(Class<?> rawType, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            this.rawType = rawType;
+            this.genericType = genericType;
+            this.annotations = (annotations == null) ? EMPTY_ANNOTATIONS : annotations;
+            this.mediaType = mediaType;
+            this.hash = hash(rawType, genericType, this.annotations, mediaType);
+        }
+
+        private static int hash(Class<?> rawType, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            int result = rawType.hashCode();
+            result = 31 * result + (genericType != null ? genericType.hashCode() : 0);
+            for (Annotation annotation : annotations) {
+                // annotation hash codes are computed reflectively, annotation type is good enough here
+                result = 31 * result + (annotation != null ? annotation.annotationType().hashCode() : 0);
+            }
+            if (mediaType != null) {
+                result = 31 * result + mediaType.getType().hashCode();
+                result = 31 * result + mediaType.getSubtype().hashCode();
+                result = 31 * result + mediaType.getParameters().hashCode();
+            }
+            return result;
+        }
+
+        /**
+         * Get a copy of the key that does not share the annotations array with the caller.
+         *
+         * @return key copy safe to be stored in a cache.
+         */
+        private WorkerLookupKey copy() {
+            return new WorkerLookupKey(rawType, genericType, annotations.clone(), mediaType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WorkerLookupKey)) {
+                return false;
+            }
+
+            final WorkerLookupKey that = (WorkerLookupKey) o;
+            return hash == that.hash
+                    && rawType == that.rawType
+                    && (genericType == that.genericType || (genericType != null && genericType.equals(that.genericType)))
+                    && mediaTypeEquals(mediaType, that.mediaType)
+                    && annotationsEqual(annotations, that.annotations);
+        }
+
+        private static boolean mediaTypeEquals(MediaType mt1, MediaType mt2) {
+            if (mt1 == mt2) {
+                return true;
+            }
+            return mt1 != null && mt2 != null
+                    && mt1.getType().equals(mt2.getType())
+                    && mt1.getSubtype().equals(mt2.getSubtype())
+                    && mt1.getParameters().equals(mt2.getParameters());
+        }
+
+        private static boolean annotationsEqual(Annotation[] as1, Annotation[] as2) {
+            if (as1 == as2) {
+                return true;
+            }
+            if (as1.length != as2.length) {
+                return false;
+            }
+            for (int i = 0; i < as1.length; i++) {
+                if (as1[i] != as2[i] && (as1[i] == null || !as1[i].equals(as2[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     private void initInterceptors() {
         // TODO: only "global" interceptors should be taken into account here ?
 
@@ -648,7 +765,16 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            MediaType mediaType,
                                                            List<MessageBodyWorkerPair<MessageBodyReader>> workers) {
 
-        List<MessageBodyWorkerPair<MessageBodyReader>> readers = mbrLookupCache.get(new TypeMediaTypePair(c, mediaType));
+        final WorkerLookupKey lookupKey = lookupCacheEnabled ? new WorkerLookupKey(c, t, as, mediaType) : null;
+        if (lookupKey != null) {
+            final Value<MessageBodyReader> resolved = mbrResolvedCache.getIfPresent(lookupKey);
+            if (resolved != null) {
+                return resolved.get();
+            }
+        }
+
+        final TypeMediaTypePair candidatesKey = new TypeMediaTypePair(c, mediaType);
+        List<MessageBodyWorkerPair<MessageBodyReader>> readers = mbrLookupCache.get(candidatesKey);
         if(readers == null) {
             readers = new ArrayList<MessageBodyWorkerPair<MessageBodyReader>>();
 
@@ -658,20 +784,24 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             }
             Collections.sort(readers, new WorkerComparator<MessageBodyReader>(c, mediaType));
-            mbrLookupCache.put(new TypeMediaTypePair(c, mediaType), readers);
-        }
-
-        if(readers.isEmpty()) {
-            return null;
+            mbrLookupCache.put(candidatesKey, readers);
         }
 
+        MessageBodyReader reader = null;
+        // the lookup result may be cached only if all the consulted readers declare their answers stable
+        boolean cacheable = true;
         for(MessageBodyWorkerPair<MessageBodyReader> mbwp : readers) {
+            cacheable &= mbwp.cacheable;
             if(mbwp.provider.isReadable(c, t, as, mediaType)) {
-                return mbwp.provider;
+                reader = mbwp.provider;
+                break;
             }
         }
 
-        return null;
+        if (lookupKey != null && cacheable) {
+            mbrResolvedCache.put(lookupKey.copy(), Values.of(reader));
+        }
+        return reader;
     }
 
 
@@ -725,7 +855,16 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            MediaType mediaType,
                                                            List<MessageBodyWorkerPair<MessageBodyWriter>> workers) {
 
-        List<MessageBodyWorkerPair<MessageBodyWriter>> writers = mbwLookupCache.get(new TypeMediaTypePair(c, mediaType));
+        final WorkerLookupKey lookupKey = lookupCacheEnabled ? new WorkerLookupKey(c, t, as, mediaType) : null;
+        if (lookupKey != null) {
+            final Value<MessageBodyWriter> resolved = mbwResolvedCache.getIfPresent(lookupKey);
+            if (resolved != null) {
+                return resolved.get();
+            }
+        }
+
+        final TypeMediaTypePair candidatesKey = new TypeMediaTypePair(c, mediaType);
+        List<MessageBodyWorkerPair<MessageBodyWriter>> writers = mbwLookupCache.get(candidatesKey);
         if(writers == null) {
 
             writers = new ArrayList<MessageBodyWorkerPair<MessageBodyWriter>>();
@@ -736,21 +875,24 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             }
             Collections.sort(writers, new WorkerComparator<MessageBodyWriter>(c, mediaType));
-            mbwLookupCache.put(new TypeMediaTypePair(c, mediaType), writers);
+            mbwLookupCache.put(candidatesKey, writers);
         }
 
-        if(writers.isEmpty()) {
-            return null;
-        }
-
-
+        MessageBodyWriter writer = null;
+        // the lookup result may be cached only if all the consulted writers declare their answers stable
+        boolean cacheable = true;
         for(MessageBodyWorkerPair<MessageBodyWriter> mbwp : writers) {
+            cacheable &= mbwp.cacheable;
             if(mbwp.provider.isWriteable(c, t, as, mediaType)) {
-                return mbwp.provider;
+                writer = mbwp.provider;
+                break;
             }
         }
 
-        return null;
+        if (lookupKey != null && cacheable) {
+            mbwResolvedCache.put(lookupKey.copy(), Values.of(writer));
+        }
+        return writer;
     }
 
     @SuppressWarnings("unchecked")
@@ -56,6 +56,8 @@ import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  *
  * @author Paul Sandoz
@@ -63,7 +65,8 @@ import javax.inject.Singleton;
 @Produces({"text/plain", "*/*"})
 @Consumes({"text/plain", "*/*"})
 @Singleton
-public final class ReaderProvider extends AbstractMessageReaderWriterProvider<Reader> {
+public final class ReaderProvider extends AbstractMessageReaderWriterProvider<Reader>
+        implements CacheableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
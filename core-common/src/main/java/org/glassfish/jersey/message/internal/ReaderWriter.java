@@ -141,6 +141,34 @@ public final class ReaderWriter {
         return (name == null) ? UTF8 : Charset.forName(name);
     }
 
+    /**
+     * Get the number of bytes a string is converted to when written using
+     * {@link #writeToAsString(String, OutputStream, MediaType)}, provided the number
+     * can be determined without actually encoding the string.
+     * <p>
+     * The size is known for strings consisting solely of US-ASCII characters that are
+     * encoded using one of the ASCII compatible character sets ({@code UTF-8},
+     * {@code ISO-8859-1} or {@code US-ASCII}).
+     * </p>
+     *
+     * @param s the string to be converted to bytes.
+     * @param type the media type that determines the character set defining
+     *        how to encode characters to bytes.
+     * @return the number of bytes or {@code -1} if the number cannot be cheaply determined.
+     */
+    public static long getSizeAsString(String s, MediaType type) {
+        final String charset = getCharset(type).name();
+        if (!"UTF-8".equals(charset) && !"ISO-8859-1".equals(charset) && !"US-ASCII".equals(charset)) {
+            return -1;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return -1;
+            }
+        }
+        return s.length();
+    }
+
     /**
      * Read the bytes of an input stream and convert to a string.
      *
@@ -183,6 +211,13 @@ public final class ReaderWriter {
      */
     public static void writeToAsString(String s, OutputStream out,
             MediaType type) throws IOException {
+        if (s.length() <= BUFFER_SIZE) {
+            // encoding a short string at once is considerably cheaper than allocating the writer buffers
+            out.write(s.getBytes(getCharset(type)));
+            out.flush();
+            return;
+        }
+
         Writer osw = new BufferedWriter(new OutputStreamWriter(out,
                 getCharset(type)));
         osw.write(s, 0, s.length()); // MUCH faster than BufferedWriter.write(s) on JDK 1.6
@@ -59,6 +59,8 @@ import javax.imageio.ImageReader;
 import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageInputStream;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * Provider for marshalling/un-marshalling of graphical image data represented as
  * {@code image/*, application/x-www-form-urlencoded} entity types to
@@ -71,7 +73,8 @@ import javax.imageio.stream.ImageInputStream;
 @Produces("image/*")
 @Consumes({"image/*", "application/octet-stream"})
 @Singleton
-public final class RenderedImageProvider extends AbstractMessageReaderWriterProvider<RenderedImage> {
+public final class RenderedImageProvider extends AbstractMessageReaderWriterProvider<RenderedImage>
+        implements CacheableMessageBodyWorker {
 
     private static final MediaType IMAGE_MEDIA_TYPE = new MediaType("image", "*");
 
@@ -50,6 +50,8 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.MessageBodyWriter;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  * Message body writer that supports {@link StreamingOutput streaming output} marshalling.
  *
@@ -57,7 +59,7 @@ import javax.ws.rs.ext.MessageBodyWriter;
  */
 @Produces({"application/octet-stream", "*/*"})
 @Singleton
-public final class StreamingOutputProvider implements MessageBodyWriter<StreamingOutput> {
+public final class StreamingOutputProvider implements MessageBodyWriter<StreamingOutput>, CacheableMessageBodyWorker {
 
     @Override
     public boolean isWriteable(Class<?> t, Type gt, Annotation[] as, MediaType mediaType) {
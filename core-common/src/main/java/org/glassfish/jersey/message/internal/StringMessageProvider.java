@@ -52,6 +52,8 @@ import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+
 /**
  *
  * @author Paul Sandoz
@@ -59,7 +61,8 @@ import javax.inject.Singleton;
 @Produces({"text/plain", "*/*"})
 @Consumes({"text/plain", "*/*"})
 @Singleton
-final class StringMessageProvider extends AbstractMessageReaderWriterProvider<String> {
+final class StringMessageProvider extends AbstractMessageReaderWriterProvider<String>
+        implements CacheableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
@@ -84,7 +87,7 @@ final class StringMessageProvider extends AbstractMessageReaderWriterProvider<St
 
     @Override
     public long getSize(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return s.length();
+        return getSizeAsString(s, mediaType);
     }
 
     @Override
@@ -134,7 +134,7 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor impleme
                 effectiveInterceptors.add(interceptor);
             }
         }
-        effectiveInterceptors.add(new TerminalWriterInterceptor(workers, sizeCallback, writeEntity));
+        effectiveInterceptors.add(new TerminalWriterInterceptor(workers, sizeCallback, writeEntity, entityStream));
 
         this.iterator = effectiveInterceptors.iterator();
     }
@@ -196,18 +196,27 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor impleme
      * 1. choose the appropriate {@link MessageBodyWriter} <br>
      * 2. if callback is defined then it retrieves size and passes it to the callback <br>
      * 3. writes the entity to the output stream <br>
-     *
+     * <p>
+     * The size reported by the message body writer is passed to the callback only if no interceptor
+     * replaced the original entity output stream, since a replaced stream (e.g. a compressing one)
+     * may change the number of bytes actually written. The size is only requested by the client runtime,
+     * which uses it to choose the streaming mode of the request entity; the server runtime does not supply
+     * a size callback.
+     * </p>
      */
     private static class TerminalWriterInterceptor implements WriterInterceptor {
         private final MessageBodyWorkers workers;
         private final MessageBodySizeCallback sizeCallback;
         private final boolean writeEntity;
+        private final OutputStream originalStream;
 
-        public TerminalWriterInterceptor(MessageBodyWorkers workers, MessageBodySizeCallback sizeCallback, boolean writeEntity) {
+        public TerminalWriterInterceptor(MessageBodyWorkers workers, MessageBodySizeCallback sizeCallback, boolean writeEntity,
+                                         OutputStream originalStream) {
             super();
             this.workers = workers;
             this.sizeCallback = sizeCallback;
             this.writeEntity = writeEntity;
+            this.originalStream = originalStream;
         }
 
         @Override
@@ -221,10 +230,9 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor impleme
                         context.getMediaType(), context.getType(), context.getGenericType()));
             }
             if (sizeCallback != null) {
-//                long size = writer.getSize(context.getEntity(), context.getType(), context.getGenericType(),
-//                        context.getAnnotations(), context.getMediaType());
-                // TODO try computing the value and then call the callback
-                sizeCallback.onRequestEntitySize(-1);
+                final long size = context.getOutputStream() != originalStream ? -1 : writer.getSize(context.getEntity(),
+                        context.getType(), context.getGenericType(), context.getAnnotations(), context.getMediaType());
+                sizeCallback.onRequestEntitySize(size < 0 ? -1 : size);
             }
 
             if(writeEntity) {
@@ -310,4 +310,28 @@ public final class ContractProvider implements Scoped, NameBound {
     public Set<Class<? extends Annotation>> getNameBindings() {
         return nameBindings;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ContractProvider)) return false;
+
+        ContractProvider that = (ContractProvider) o;
+
+        if (defaultPriority != that.defaultPriority) return false;
+        if (scope != that.scope) return false;
+        if (!contracts.equals(that.contracts)) return false;
+        if (!nameBindings.equals(that.nameBindings)) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = contracts.hashCode();
+        result = 31 * result + defaultPriority;
+        result = 31 * result + nameBindings.hashCode();
+        result = 31 * result + (scope != null ? scope.hashCode() : 0);
+        return result;
+    }
 }
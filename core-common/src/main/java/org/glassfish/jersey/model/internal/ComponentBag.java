@@ -63,6 +63,7 @@ import org.glassfish.hk2.utilities.Binder;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -616,6 +617,37 @@ public class ComponentBag {
         this.models.clear();
     }
 
+    /**
+     * Component bags are equal if they use the same registration strategy and contain
+     * the same component classes and instances registered in the same order and with
+     * equal contract provider models.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ComponentBag)) return false;
+
+        ComponentBag that = (ComponentBag) o;
+
+        if (registrationStrategy != that.registrationStrategy) return false;
+        if (!Iterables.elementsEqual(classes, that.classes)) return false;
+        if (!Iterables.elementsEqual(instances, that.instances)) return false;
+        if (models.size() != that.models.size()) return false;
+        for (Map.Entry<Class<?>, ContractProvider> entry : models.entrySet()) {
+            if (!entry.getValue().equals(that.models.get(entry.getKey()))) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = registrationStrategy.hashCode();
+        result = 31 * result + classes.hashCode();
+        result = 31 * result + instances.hashCode();
+        return result;
+    }
+
     /**
      * Immutable version of {@link org.glassfish.jersey.model.internal.ComponentBag}.
      *
@@ -40,6 +40,7 @@
 package org.glassfish.jersey.process.internal;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -137,10 +138,19 @@ public class RequestScope implements Context<RequestScoped> {
 
     private static final ExtendedLogger logger = new ExtendedLogger(Logger.getLogger(RequestScope.class.getName()), Level.FINEST);
 
+    /**
+     * Placeholder stored in the scope instance for {@code null} inhabitants.
+     */
+    private static final Object NULL_VALUE = new Object();
+
     /**
      * A thread local copy of the current scope instance.
      */
     private ThreadLocal<Instance> currentScopeInstance = new ThreadLocal<Instance>();
+    /**
+     * Dense slot indices of the request-scoped descriptors managed by this scope.
+     */
+    private final DescriptorSlots descriptorSlots = new DescriptorSlots();
 
     @Override
     public Class<? extends Annotation> getScope() {
@@ -270,7 +280,7 @@ public class RequestScope implements Context<RequestScoped> {
      * @return New suspended request scope instance.
      */
     public Instance createInstance() {
-        return new Instance();
+        return new Instance(descriptorSlots);
     }
 
     /**
@@ -437,16 +447,21 @@ public class RequestScope implements Context<RequestScoped> {
 
         private final LazyUid id = new LazyUid();
         /**
-         * A map of injectable instances in this scope.
+         * Slot indices of the request-scoped descriptors.
+         */
+        private final DescriptorSlots slots;
+        /**
+         * Injectable instances in this scope, indexed by the descriptor slot indices.
          */
-        private final Map<ActiveDescriptor<?>, Object> store;
+        private Object[] store;
         /**
          * Holds the number of snapshots of this scope.
          */
         private final AtomicInteger referenceCounter;
 
-        private Instance() {
-            this.store = new HashMap<ActiveDescriptor<?>, Object>();
+        private Instance(final DescriptorSlots slots) {
+            this.slots = slots;
+            this.store = new Object[slots.size()];
             this.referenceCounter = new AtomicInteger(1);
         }
 
@@ -473,7 +488,7 @@ public class RequestScope implements Context<RequestScoped> {
          */
         @SuppressWarnings("unchecked")
         <T> T get(ActiveDescriptor<T> descriptor) {
-            return (T) store.get(descriptor);
+            return (T) unmask(valueAt(slots.slotOf(descriptor)));
         }
 
         /**
@@ -485,15 +500,20 @@ public class RequestScope implements Context<RequestScoped> {
          * @return old inhabitant previously stored for the given descriptor or
          *         {@code null} if none stored.
          */
-        @SuppressWarnings("unchecked")
         <T> T put(ActiveDescriptor<T> descriptor, T value) {
-            checkState(!store.containsKey(descriptor),
+            final int slot = slots.slotOf(descriptor);
+            final Object old = valueAt(slot);
+            checkState(old == null,
                     "An instance for the descriptor %s was already seeded in this scope. Old instance: %s New instance: %s",
                     descriptor,
-                    store.get(descriptor),
+                    unmask(old),
                     value);
 
-            return (T) store.put(descriptor, value);
+            if (slot >= store.length) {
+                store = Arrays.copyOf(store, Math.max(slot + 1, slots.size()));
+            }
+            store[slot] = (value == null) ? NULL_VALUE : value;
+            return null;
         }
 
         /**
@@ -502,11 +522,22 @@ public class RequestScope implements Context<RequestScoped> {
          * @param descriptor key for the value to be removed.
          */
         void remove(ActiveDescriptor<?> descriptor) {
-            store.remove(descriptor);
+            final int slot = slots.slotOf(descriptor);
+            if (slot < store.length) {
+                store[slot] = null;
+            }
         }
 
         private <T> boolean contains(ActiveDescriptor<T> provider) {
-            return store.containsKey(provider);
+            return valueAt(slots.slotOf(provider)) != null;
+        }
+
+        private Object valueAt(final int slot) {
+            return (slot < store.length) ? store[slot] : null;
+        }
+
+        private static Object unmask(final Object value) {
+            return (value == NULL_VALUE) ? null : value;
         }
 
         /**
@@ -517,7 +548,7 @@ public class RequestScope implements Context<RequestScoped> {
         public void release() {
             if (referenceCounter.decrementAndGet() < 1) {
                 try {
-                    store.clear();
+                    Arrays.fill(store, null);
                 } finally {
                     logger.debugLog("Released scope instance {0}", this);
                 }
@@ -526,8 +557,123 @@ public class RequestScope implements Context<RequestScoped> {
 
         @Override
         public String toString() {
+            int size = 0;
+            for (Object value : store) {
+                if (value != null) {
+                    size++;
+                }
+            }
             return Objects.toStringHelper(this).add("id", id.value()).add("referenceCounter", referenceCounter.get())
-                    .add("store size", store.size()).toString();
+                    .add("store size", size).toString();
+        }
+    }
+
+    /**
+     * Assigns dense integer slot indices to the request-scoped descriptors, so that the
+     * {@link Instance scope instances} can store the inhabitants in a plain array.
+     * <p>
+     * A slot index is assigned to a descriptor the first time the descriptor is looked up in the scope
+     * and remains stable for the lifetime of the request scope. Descriptors that are {@link Object#equals(Object)
+     * equal} share the same slot. Lookups of already known descriptors use a lock-free copy-on-write identity
+     * hash table and do not need to compute the descriptor hash code, which is comparatively expensive for
+     * HK2 descriptors.
+     * </p>
+     */
+    private static final class DescriptorSlots {
+
+        /**
+         * Open-addressing identity hash table; {@code keys} and {@code values} have the same power-of-two length.
+         */
+        private static final class Table {
+            private final Object[] keys;
+            private final int[] values;
+            private final int size;
+
+            private Table(final int capacity, final int size) {
+                this.keys = new Object[capacity];
+                this.values = new int[capacity];
+                this.size = size;
+            }
+
+            private int find(final Object key) {
+                final int mask = keys.length - 1;
+                int i = System.identityHashCode(key) & mask;
+                Object k;
+                while ((k = keys[i]) != null) {
+                    if (k == key) {
+                        return values[i];
+                    }
+                    i = (i + 1) & mask;
+                }
+                return -1;
+            }
+
+            private void insert(final Object key, final int value) {
+                final int mask = keys.length - 1;
+                int i = System.identityHashCode(key) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = value;
+            }
+
+            private Table with(final Object key, final int value) {
+                final int capacity = (size + 1) * 2 > keys.length ? keys.length * 2 : keys.length;
+                final Table table = new Table(capacity, size + 1);
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] != null) {
+                        table.insert(keys[i], values[i]);
+                    }
+                }
+                table.insert(key, value);
+                return table;
+            }
+        }
+
+        private volatile Table table = new Table(16, 0);
+        private volatile int slotCount = 0;
+        /**
+         * Equality-based descriptor slot index, guarded by {@code this}.
+         */
+        private final Map<ActiveDescriptor<?>, Integer> slotsByDescriptor = new HashMap<ActiveDescriptor<?>, Integer>();
+
+        /**
+         * Get the slot index of the descriptor, assigning a new one if the descriptor has not been seen yet.
+         *
+         * @param descriptor request-scoped descriptor.
+         * @return descriptor slot index.
+         */
+        int slotOf(final ActiveDescriptor<?> descriptor) {
+            final int slot = table.find(descriptor);
+            return (slot >= 0) ? slot : register(descriptor);
+        }
+
+        private synchronized int register(final ActiveDescriptor<?> descriptor) {
+            int slot = table.find(descriptor);
+            if (slot >= 0) {
+                return slot;
+            }
+
+            final Integer existing = slotsByDescriptor.get(descriptor);
+            if (existing != null) {
+                slot = existing;
+            } else {
+                slot = slotCount;
+                slotsByDescriptor.put(descriptor, slot);
+                slotCount = slot + 1;
+            }
+            table = table.with(descriptor, slot);
+            return slot;
+        }
+
+        /**
+         * Get the number of assigned slots.
+         *
+         * @return number of assigned slots.
+         */
+        int size() {
+            return slotCount;
         }
     }
 }
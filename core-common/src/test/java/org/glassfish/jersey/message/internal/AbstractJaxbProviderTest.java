@@ -46,15 +46,42 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.XMLConstants;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import javax.xml.validation.SchemaFactory;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.model.internal.CommonConfig;
+import org.glassfish.jersey.model.internal.ComponentBag;
+
 import org.glassfish.hk2.api.ServiceLocator;
 import org.junit.Before;
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class AbstractJaxbProviderTest {
     private ServiceLocator serviceLocator;
@@ -74,4 +101,201 @@ public class AbstractJaxbProviderTest {
 
         TransformerFactory.newInstance().newTransformer().transform(saxSource, new StreamResult(new ByteArrayOutputStream()));
     }
+
+    @Test
+    public void testJaxbContextIsSharedByProviders() throws Exception {
+        assertSame(new TestProvider().getStoredJaxbContext(Bean.class),
+                new TestProvider().getStoredJaxbContext(Bean.class));
+    }
+
+    @Test
+    public void testReleasedMarshallerIsResetAndReused() throws Exception {
+        final TestProvider provider = new TestProvider();
+
+        final Marshaller m = provider.marshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        m.setListener(new Marshaller.Listener() {
+        });
+        provider.release(m);
+
+        final Marshaller pooled = provider.marshaller();
+        assertSame(m, pooled);
+        assertEquals(Boolean.FALSE, pooled.getProperty(Marshaller.JAXB_FRAGMENT));
+        assertEquals("UTF-8", pooled.getProperty(Marshaller.JAXB_ENCODING));
+        assertNull(pooled.getListener());
+    }
+
+    @Test
+    public void testReleasedMarshallerSchemaAndAdaptersAreCleared() throws Exception {
+        final TestProvider provider = new TestProvider();
+
+        final Marshaller m = provider.marshaller();
+        m.setSchema(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema());
+        m.setAdapter(new ValueAdapter());
+        provider.release(m);
+
+        final Marshaller pooled = provider.marshaller();
+        assertSame(m, pooled);
+        assertNull(pooled.getSchema());
+        assertNull(pooled.getAdapter(ValueAdapter.class));
+    }
+
+    @Test
+    public void testMarshallerInUseIsNotShared() throws Exception {
+        final TestProvider provider = new TestProvider();
+
+        final Marshaller m = provider.marshaller();
+        assertNotSame(m, provider.marshaller());
+    }
+
+    @Test
+    public void testReleasedUnmarshallerIsResetAndReused() throws Exception {
+        final TestProvider provider = new TestProvider();
+
+        final Unmarshaller u = provider.unmarshaller();
+        u.setListener(new Unmarshaller.Listener() {
+        });
+        provider.release(u);
+
+        final Unmarshaller pooled = provider.unmarshaller();
+        assertSame(u, pooled);
+        assertNull(pooled.getListener());
+    }
+
+    @Test
+    public void testReleasedUnmarshallerSchemaAndAdaptersAreCleared() throws Exception {
+        final TestProvider provider = new TestProvider();
+
+        final Unmarshaller u = provider.unmarshaller();
+        u.setSchema(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema());
+        u.setAdapter(new ValueAdapter());
+        provider.release(u);
+
+        final Unmarshaller pooled = provider.unmarshaller();
+        assertSame(u, pooled);
+        assertNull(pooled.getSchema());
+        assertNull(pooled.getAdapter(ValueAdapter.class));
+    }
+
+    @Test
+    public void testPoolingDisabled() throws Exception {
+        final TestProvider provider = new TestProvider();
+        provider.setConfiguration(new CommonConfig(null, ComponentBag.INCLUDE_ALL)
+                .setProperty(MessageProperties.JAXB_MARSHALLER_POOL_SIZE, 0)
+                .setProperty(MessageProperties.JAXB_UNMARSHALLER_POOL_SIZE, "0"));
+
+        final Marshaller m = provider.marshaller();
+        provider.release(m);
+        assertNotSame(m, provider.marshaller());
+
+        final Unmarshaller u = provider.unmarshaller();
+        provider.release(u);
+        assertNotSame(u, provider.unmarshaller());
+    }
+
+    @Test
+    public void testPoolIsBounded() throws Exception {
+        final TestProvider provider = new TestProvider();
+        provider.setConfiguration(new CommonConfig(null, ComponentBag.INCLUDE_ALL)
+                .setProperty(MessageProperties.JAXB_MARSHALLER_POOL_SIZE, 1));
+
+        final Marshaller first = provider.marshaller();
+        final Marshaller second = provider.marshaller();
+        provider.release(first);
+        provider.release(second);
+
+        assertSame(first, provider.marshaller());
+        assertNotSame(second, provider.marshaller());
+    }
+
+    @XmlRootElement
+    public static class Bean {
+
+        @XmlJavaTypeAdapter(ValueAdapter.class)
+        public String value;
+    }
+
+    public static class ValueAdapter extends XmlAdapter<String, String> {
+
+        @Override
+        public String unmarshal(final String value) {
+            return value;
+        }
+
+        @Override
+        public String marshal(final String value) {
+            return value;
+        }
+    }
+
+    private static class TestProvider extends AbstractJaxbProvider<Object> {
+
+        TestProvider() {
+            super(new NoProviders());
+        }
+
+        Marshaller marshaller() throws Exception {
+            return getMarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        }
+
+        Unmarshaller unmarshaller() throws Exception {
+            return getUnmarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        }
+
+        void release(final Marshaller m) {
+            releaseMarshaller(m);
+        }
+
+        void release(final Unmarshaller u) {
+            releaseUnmarshaller(u);
+        }
+
+        @Override
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                               MultivaluedMap<String, String> httpHeaders, InputStream entityStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class NoProviders implements Providers {
+
+        @Override
+        public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations,
+                                                             MediaType mediaType) {
+            return null;
+        }
+
+        @Override
+        public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type, Type genericType, Annotation[] annotations,
+                                                             MediaType mediaType) {
+            return null;
+        }
+
+        @Override
+        public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+            return null;
+        }
+
+        @Override
+        public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
+            return null;
+        }
+    }
 }
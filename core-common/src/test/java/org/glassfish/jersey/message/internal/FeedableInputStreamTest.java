@@ -0,0 +1,196 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link FeedableInputStream} tests.
+ */
+public class FeedableInputStreamTest {
+
+    @Test
+    public void testReadFedBlocks() throws IOException {
+        final FeedableInputStream in = new FeedableInputStream();
+        assertTrue(in.feed("abc".getBytes()));
+        assertTrue(in.feed("def".getBytes()));
+        in.complete();
+
+        assertEquals('a', in.read());
+        final byte[] buffer = new byte[10];
+        assertEquals(5, in.read(buffer, 0, buffer.length));
+        assertEquals("bcdef", new String(buffer, 0, 5));
+        assertEquals(-1, in.read());
+        assertEquals(-1, in.read(buffer, 0, buffer.length));
+    }
+
+    @Test
+    public void testBackPressure() throws IOException {
+        final AtomicInteger drained = new AtomicInteger();
+        final FeedableInputStream in = new FeedableInputStream(4) {
+            @Override
+            protected void onDrained() {
+                drained.incrementAndGet();
+            }
+        };
+
+        assertTrue(in.feed("ab".getBytes()));
+        assertFalse(in.feed("cd".getBytes()));
+        assertEquals(4, in.available());
+
+        assertEquals('a', in.read());
+        assertEquals(0, drained.get());
+        assertEquals('b', in.read());
+        assertEquals(1, drained.get());
+
+        // the producer is notified only once per suspension
+        assertEquals('c', in.read());
+        assertEquals(1, drained.get());
+    }
+
+    @Test
+    public void testFailureReportedAfterFedData() throws IOException {
+        final FeedableInputStream in = new FeedableInputStream();
+        in.feed("a".getBytes());
+        in.fail(new IOException("failed"));
+
+        assertEquals('a', in.read());
+        try {
+            in.read();
+            fail("Reading of the failed stream should have failed.");
+        } catch (IOException e) {
+            assertEquals("failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCloseBeforeComplete() throws IOException {
+        final AtomicInteger aborted = new AtomicInteger();
+        final FeedableInputStream in = new FeedableInputStream() {
+            @Override
+            protected void onAbort() {
+                aborted.incrementAndGet();
+            }
+        };
+        in.feed("a".getBytes());
+        in.close();
+        in.close();
+
+        assertTrue(in.isClosed());
+        assertEquals(1, aborted.get());
+        // blocks fed after the stream has been closed are discarded
+        assertTrue(in.feed("b".getBytes()));
+        try {
+            in.read();
+            fail("Reading of the closed stream should have failed.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBlockedReadWokenUp() throws Exception {
+        final FeedableInputStream in = new FeedableInputStream();
+        final Thread producer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                in.feed("x".getBytes());
+                in.complete();
+            }
+        };
+        producer.start();
+
+        assertEquals('x', in.read());
+        assertEquals(-1, in.read());
+        producer.join();
+    }
+
+    @Test
+    public void testFeedListener() throws IOException {
+        final AtomicInteger notified = new AtomicInteger();
+        final Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                notified.incrementAndGet();
+            }
+        };
+        final FeedableInputStream in = new FeedableInputStream();
+        in.setFeedListener(listener);
+        assertFalse(in.isReady());
+        assertEquals(0, notified.get());
+
+        in.feed("a".getBytes());
+        assertEquals(1, notified.get());
+        assertTrue(in.isReady());
+        assertEquals('a', in.read());
+        assertFalse(in.isReady());
+
+        in.complete();
+        assertEquals(2, notified.get());
+        assertTrue(in.isReady());
+
+        // a listener set on a ready stream is notified immediately
+        in.setFeedListener(listener);
+        assertEquals(3, notified.get());
+    }
+
+    @Test
+    public void testUnwrap() {
+        final FeedableInputStream in = new FeedableInputStream();
+        assertSame(in, FeedableInputStream.unwrap(in));
+        assertSame(in, FeedableInputStream.unwrap(new EntityInputStream(new EntityInputStream(in))));
+        assertNull(FeedableInputStream.unwrap(new EntityInputStream(new ByteArrayInputStream(new byte[0]))));
+    }
+}
@@ -44,6 +44,7 @@ import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
@@ -56,7 +57,9 @@ import org.glassfish.jersey.internal.TestRuntimeDelegate;
 
 import org.junit.Test;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import junit.framework.Assert;
 import static junit.framework.Assert.assertEquals;
@@ -214,4 +217,75 @@ public class InboundMessageContextTest {
         Assert.assertTrue(allowedMethods.contains("CCC"));
         Assert.assertTrue(allowedMethods.contains("DDD"));
     }
+
+    @Test
+    public void testParsedHeadersMemoized() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.ACCEPT, "application/xml, text/plain;q=0.5");
+        r.header(HttpHeaders.COOKIE, "oreo=chocolate");
+
+        final List<AcceptableMediaType> acceptable = r.getQualifiedAcceptableMediaTypes();
+        assertEquals(2, acceptable.size());
+        assertEquals(acceptable, r.getQualifiedAcceptableMediaTypes());
+        assertEquals(r.getRequestCookies(), r.getRequestCookies());
+        assertEquals(2, r.getHeaderParseCount());
+    }
+
+    @Test
+    public void testParsedHeadersInvalidatedOnChange() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.ACCEPT, "application/xml");
+        assertEquals(1, r.getQualifiedAcceptableMediaTypes().size());
+
+        r.header(HttpHeaders.ACCEPT, "text/plain");
+        assertEquals(2, r.getQualifiedAcceptableMediaTypes().size());
+
+        r.getHeaders().putSingle(HttpHeaders.ACCEPT, "application/json");
+        assertEquals("application/json", r.getQualifiedAcceptableMediaTypes().get(0).toString());
+
+        r.getHeaders().get(HttpHeaders.ACCEPT).set(0, "text/html");
+        assertEquals("text/html", r.getQualifiedAcceptableMediaTypes().get(0).toString());
+
+        r.remove(HttpHeaders.ACCEPT);
+        assertEquals(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST, r.getQualifiedAcceptableMediaTypes());
+        assertEquals(5, r.getHeaderParseCount());
+    }
+
+    @Test
+    public void testParsedCollectionsNotSharedUnlessReadOnly() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.ACCEPT, "application/xml");
+        r.header(HttpHeaders.ACCEPT_CHARSET, "utf-8");
+        r.header(HttpHeaders.ALLOW, "GET,POST");
+        r.header(HttpHeaders.COOKIE, "oreo=chocolate");
+
+        final List<AcceptableMediaType> acceptable = r.getQualifiedAcceptableMediaTypes();
+        assertSame(acceptable, r.getQualifiedAcceptableMediaTypes());
+        try {
+            acceptable.clear();
+            fail("Acceptable media types list is expected to be read-only.");
+        } catch (UnsupportedOperationException expected) {
+            // ok
+        }
+
+        r.getQualifiedAcceptCharset().clear();
+        assertEquals(1, r.getQualifiedAcceptCharset().size());
+        r.getAllowedMethods().remove("GET");
+        assertTrue(r.getAllowedMethods().contains("GET"));
+        r.getRequestCookies().clear();
+        assertEquals(1, r.getRequestCookies().size());
+
+        assertEquals(4, r.getHeaderParseCount());
+    }
+
+    @Test
+    public void testParsedDateNotShared() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.DATE, "Tue, 29 Jan 2002 22:14:02 -0500");
+
+        final Date date = r.getDate();
+        date.setTime(0);
+        assertFalse(r.getDate().getTime() == 0);
+        assertEquals(1, r.getHeaderParseCount());
+    }
 }
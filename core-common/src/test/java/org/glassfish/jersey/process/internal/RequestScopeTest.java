@@ -182,6 +182,71 @@ public class RequestScopeTest {
         assertNull(instance.get(inhab));
     }
 
+    @Test
+    public void testInstanceGrowsWithNewDescriptors() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance first = requestScope.createInstance();
+        final TestProvider[] inhabs = new TestProvider[50];
+        for (int i = 0; i < inhabs.length; i++) {
+            inhabs[i] = new TestProvider("inhab" + i);
+            inhabs[i].setName("inhab" + i);
+            first.put(inhabs[i], String.valueOf(i));
+        }
+        for (int i = 0; i < inhabs.length; i++) {
+            assertEquals(String.valueOf(i), first.get(inhabs[i]));
+        }
+
+        final Instance second = requestScope.createInstance();
+        assertNull(second.get(inhabs[0]));
+        second.put(inhabs[49], "x");
+        assertEquals("x", second.get(inhabs[49]));
+        assertEquals("49", first.get(inhabs[49]));
+
+        first.remove(inhabs[10]);
+        assertNull(first.get(inhabs[10]));
+        first.put(inhabs[10], "y");
+        assertEquals("y", first.get(inhabs[10]));
+
+        first.release();
+        assertNull(first.get(inhabs[0]));
+        second.release();
+    }
+
+    @Test
+    public void testEqualDescriptorsShareInhabitant() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final TestProvider inhab = new TestProvider("a");
+        final TestProvider equalInhab = new TestProvider("a");
+        assertEquals(inhab, equalInhab);
+
+        instance.put(inhab, "1");
+        assertEquals("1", instance.get(equalInhab));
+        try {
+            instance.put(equalInhab, "2");
+            fail("Inhabitant already seeded for an equal descriptor.");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        instance.release();
+    }
+
+    @Test
+    public void testNullInhabitant() {
+        final RequestScope requestScope = new RequestScope();
+        requestScope.runInScope(new Runnable() {
+            @Override
+            public void run() {
+                final TestProvider inhab = new TestProvider("a");
+                assertFalse(requestScope.containsKey(inhab));
+                requestScope.suspendCurrent().put(inhab, null);
+                assertTrue(requestScope.containsKey(inhab));
+                requestScope.destroyOne(inhab);
+                assertFalse(requestScope.containsKey(inhab));
+            }
+        });
+    }
+
     /**
      * Test request scope inhabitant.
      *
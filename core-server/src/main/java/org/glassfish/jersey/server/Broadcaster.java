@@ -40,23 +40,72 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Used for broadcasting response chunks to multiple {@link ChunkedOutput} instances.
+ * <p>
+ * By default, chunks are written to the registered chunked outputs one after another on the thread that invokes
+ * {@link #broadcast(Object)}. A broadcaster created with an {@link Executor} (see
+ * {@link #Broadcaster(Executor, int, OverflowPolicy)}) broadcasts asynchronously instead: each chunked output gets
+ * a bounded queue of pending chunks that is drained by the executor, so that a slow subscriber does not delay
+ * the delivery to the other subscribers. What happens when a queue of a subscriber is full is determined by
+ * the {@link OverflowPolicy overflow policy} of the broadcaster.
+ * </p>
  *
  * @param <T> broadcast type.
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
  */
-public class Broadcaster<T> implements BroadcasterListener<T> {
+public class Broadcaster<T> implements BroadcasterEvictionListener<T> {
+
+    /**
+     * Determines what happens with a chunk broadcast to a subscriber whose queue of pending chunks is full
+     * in the asynchronous broadcasting mode.
+     */
+    public static enum OverflowPolicy {
+        /**
+         * Discard the oldest chunk pending in the queue of the subscriber to make room for the new chunk.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the new chunk, the chunks already pending in the queue of the subscriber are kept.
+         */
+        DROP_NEWEST,
+        /**
+         * Evict the subscriber from the broadcaster and close its {@link ChunkedOutput}. Registered
+         * {@link BroadcasterEvictionListener eviction listeners} are notified via
+         * {@link BroadcasterEvictionListener#onEvict(ChunkedOutput)}.
+         */
+        DISCONNECT
+    }
+
+    private static final Runnable NO_OP = new Runnable() {
+        @Override
+        public void run() {
+            // nothing to do
+        }
+    };
 
     private final ConcurrentSkipListSet<BroadcasterListener<T>> listeners =
             new ConcurrentSkipListSet<BroadcasterListener<T>> (new Comparator<BroadcasterListener<T>>() {
@@ -74,6 +123,15 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
         }
     });
 
+    private final Executor executor;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final ConcurrentMap<ChunkedOutput<T>, Subscriber> subscribers =
+            new ConcurrentHashMap<ChunkedOutput<T>, Subscriber>();
+    private final AtomicInteger queuedChunks = new AtomicInteger();
+    private final AtomicLong droppedChunks = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+
     /**
      * Creates a new instance.
      * If this constructor is called by a subclass, it assumes the the reason for the subclass to exist is to implement
@@ -98,6 +156,57 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
         if (subclass != getClass()) {
             listeners.add(this);
         }
+        this.executor = null;
+        this.queueCapacity = 0;
+        this.overflowPolicy = null;
+    }
+
+    /**
+     * Creates a new instance that broadcasts chunks asynchronously.
+     * <p>
+     * Each registered {@link ChunkedOutput} gets a queue of pending chunks bounded by {@code queueCapacity};
+     * the queues are drained by the supplied {@code executor}. When the queue of a chunked output is full,
+     * the broadcast chunk is handled according to the {@code overflowPolicy}.
+     * </p>
+     * If this constructor is called by a subclass, it assumes the the reason for the subclass to exist is to implement
+     * the {@link BroadcasterListener} methods, so it adds the newly created instance as the listener. To avoid this,
+     * subclasses may call {@link #Broadcaster(Class, Executor, int, OverflowPolicy)} passing their class as an argument.
+     *
+     * @param executor       executor used to write the queued chunks to the chunked outputs. The executor
+     *                       may be shared by multiple broadcasters.
+     * @param queueCapacity  maximum number of chunks pending in the queue of a single chunked output.
+     * @param overflowPolicy policy applied when a chunk is broadcast to a chunked output with a full queue.
+     */
+    public Broadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        this(Broadcaster.class, executor, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * Can be used by subclasses to create an asynchronously broadcasting instance while overriding the default
+     * functionality of adding self to the set of {@link BroadcasterListener listeners}.
+     *
+     * @param subclass       subclass of Broadcaster that should not be registered as a listener - if creating
+     *                       a direct instance of this subclass, this constructor will not register the new instance
+     *                       as a listener.
+     * @param executor       executor used to write the queued chunks to the chunked outputs.
+     * @param queueCapacity  maximum number of chunks pending in the queue of a single chunked output.
+     * @param overflowPolicy policy applied when a chunk is broadcast to a chunked output with a full queue.
+     * @see #Broadcaster(Executor, int, OverflowPolicy)
+     */
+    protected Broadcaster(final Class<? extends Broadcaster> subclass,
+                          final Executor executor,
+                          final int queueCapacity,
+                          final OverflowPolicy overflowPolicy) {
+        Preconditions.checkNotNull(executor, "Broadcaster executor must not be null.");
+        Preconditions.checkArgument(queueCapacity > 0, "Broadcaster queue capacity must be positive.");
+        Preconditions.checkNotNull(overflowPolicy, "Broadcaster overflow policy must not be null.");
+
+        if (subclass != getClass()) {
+            listeners.add(this);
+        }
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
     }
 
     /**
@@ -108,7 +217,11 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * the list of registered chunked responses.
      */
     public final boolean add(final ChunkedOutput<T> chunkedOutput) {
-        return chunkedOutputs.add(chunkedOutput);
+        final boolean added = chunkedOutputs.add(chunkedOutput);
+        if (added && executor != null) {
+            subscribers.put(chunkedOutput, new Subscriber(chunkedOutput));
+        }
+        return added;
     }
 
     /**
@@ -121,6 +234,10 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * of registered chunked responses.
      */
     public final boolean remove(final ChunkedOutput<T> chunkedOutput) {
+        final Subscriber subscriber = subscribers.remove(chunkedOutput);
+        if (subscriber != null) {
+            subscriber.discard();
+        }
         return chunkedOutputs.remove(chunkedOutput);
     }
 
@@ -149,22 +266,76 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
 
     /**
      * Broadcast a chunk to all registered {@link ChunkedOutput} instances.
+     * <p>
+     * The chunk is serialized only once for all the chunked outputs that share the same message body workers,
+     * writer interceptors, media type and entity annotations; the serialized bytes are then written to each
+     * of those outputs. Chunked outputs whose writer interceptors replace the entity stream (e.g. to compress
+     * the response) serialize the chunk individually. Message body writers used to serialize broadcast chunks
+     * are therefore expected to produce the same bytes for the same chunk regardless of the request a particular
+     * chunked output is bound to.
+     * </p>
      *
      * @param chunk chunk to be sent.
      */
     public void broadcast(final T chunk) {
-        forEachChunkedResponse(new Task<ChunkedOutput<T>>() {
+        prepareBroadcast(chunk).run();
+    }
+
+    /**
+     * Prepare broadcasting of a chunk to the {@link ChunkedOutput} instances registered at the moment of the call.
+     * <p>
+     * In the asynchronous broadcasting mode, the chunk is queued for all the registered chunked outputs right away
+     * and the returned task does nothing. In the synchronous mode, the returned task writes the chunk to the chunked
+     * outputs registered when this method was called; chunked outputs registered later do not receive the chunk.
+     * Subclasses can use this method to fix the set of the chunk recipients atomically with their own bookkeeping,
+     * without holding a lock while the chunk is being written.
+     * </p>
+     *
+     * @param chunk chunk to be sent.
+     * @return task that broadcasts the chunk.
+     */
+    protected final Runnable prepareBroadcast(final T chunk) {
+        if (executor != null) {
+            final Envelope<T> envelope = new Envelope<T>(chunk, false);
+            for (Subscriber subscriber : subscribers.values()) {
+                subscriber.enqueue(envelope);
+            }
+            return NO_OP;
+        }
+
+        final List<ChunkedOutput<T>> recipients = new ArrayList<ChunkedOutput<T>>(chunkedOutputs);
+        return new Runnable() {
             @Override
-            public void run(final ChunkedOutput<T> cr) throws IOException {
-                cr.write(chunk);
+            public void run() {
+                final Map<ChunkedOutput.SerializationKey, ChunkedOutput.SerializedChunk> serialized =
+                        new HashMap<ChunkedOutput.SerializationKey, ChunkedOutput.SerializedChunk>();
+
+                forEachChunkedResponse(recipients, new Task<ChunkedOutput<T>>() {
+                    @Override
+                    public void run(final ChunkedOutput<T> cr) throws IOException {
+                        cr.write(chunk, serialized);
+                    }
+                });
             }
-        });
+        };
     }
 
     /**
      * Close all registered {@link ChunkedOutput} instances.
+     * <p>
+     * In the asynchronous broadcasting mode, the chunked outputs are closed once the chunks pending in their
+     * queues are written.
+     * </p>
      */
     public void closeAll() {
+        if (executor != null) {
+            final Envelope<T> close = new Envelope<T>(null, true);
+            for (Subscriber subscriber : subscribers.values()) {
+                subscriber.enqueueClose(close);
+            }
+            return;
+        }
+
         forEachChunkedResponse(new Task<ChunkedOutput<T>>() {
             @Override
             public void run(final ChunkedOutput<T> cr) throws IOException {
@@ -197,10 +368,81 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
     public void onClose(final ChunkedOutput<T> chunkedOutput) {
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Can be implemented by subclasses to handle the event of {@link ChunkedOutput} being evicted from the broadcaster
+     * because it did not keep up with the broadcast chunks.
+     *
+     * @param chunkedOutput instance that was evicted.
+     */
+    @Override
+    public void onEvict(final ChunkedOutput<T> chunkedOutput) {
+    }
+
+    /**
+     * Get the total number of chunks currently waiting in the queues of all the registered chunked outputs
+     * to be written. Always {@code 0} for a synchronously broadcasting instance.
+     *
+     * @return number of queued chunks.
+     */
+    public int getQueuedChunkCount() {
+        return queuedChunks.get();
+    }
+
+    /**
+     * Get the number of chunks currently waiting in the longest queue of a registered chunked output.
+     * Always {@code 0} for a synchronously broadcasting instance.
+     *
+     * @return maximum queue depth.
+     */
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (Subscriber subscriber : subscribers.values()) {
+            max = Math.max(max, subscriber.depth());
+        }
+        return max;
+    }
+
+    /**
+     * Get the number of chunks that have been discarded so far because they did not fit into a full queue
+     * of a chunked output (or have been pushed out of it) according to the {@link OverflowPolicy overflow policy}.
+     *
+     * @return number of dropped chunks.
+     */
+    public long getDroppedChunkCount() {
+        return droppedChunks.get();
+    }
+
+    /**
+     * Get the number of chunked outputs that have been evicted so far according to
+     * the {@link OverflowPolicy#DISCONNECT} overflow policy.
+     *
+     * @return number of evicted subscribers.
+     */
+    public long getEvictedSubscriberCount() {
+        return evictedSubscribers.get();
+    }
+
     private static interface Task<T> {
         void run(T parameter) throws IOException;
     }
 
+    private void forEachChunkedResponse(final List<ChunkedOutput<T>> recipients, final Task<ChunkedOutput<T>> t) {
+        for (ChunkedOutput<T> chunkedOutput : recipients) {
+            if (!chunkedOutput.isClosed()) {
+                try {
+                    t.run(chunkedOutput);
+                } catch (Exception e) {
+                    fireOnException(chunkedOutput, e);
+                }
+            }
+            if (chunkedOutput.isClosed() && chunkedOutputs.remove(chunkedOutput)) {
+                fireOnClose(chunkedOutput);
+            }
+        }
+    }
+
     private void forEachChunkedResponse(final Task<ChunkedOutput<T>> t) {
         for (Iterator<ChunkedOutput<T>> iterator = chunkedOutputs.iterator(); iterator.hasNext();) {
             ChunkedOutput<T> chunkedOutput = iterator.next();
@@ -247,4 +489,180 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
             }
         });
     }
+
+    private void fireOnEvict(final ChunkedOutput<T> chunkedOutput) {
+        forEachListener(new Task<BroadcasterListener<T>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void run(BroadcasterListener<T> parameter) throws IOException {
+                if (parameter instanceof BroadcasterEvictionListener) {
+                    ((BroadcasterEvictionListener<T>) parameter).onEvict(chunkedOutput);
+                }
+            }
+        });
+    }
+
+    /**
+     * A chunk broadcast asynchronously, shared by the queues of all the subscribers.
+     */
+    private static final class Envelope<T> {
+
+        private final T chunk;
+        private final boolean close;
+        private final Map<ChunkedOutput.SerializationKey, ChunkedOutput.SerializedChunk> serialized =
+                new ConcurrentHashMap<ChunkedOutput.SerializationKey, ChunkedOutput.SerializedChunk>();
+
+        private Envelope(final T chunk, final boolean close) {
+            this.chunk = chunk;
+            this.close = close;
+        }
+    }
+
+    /**
+     * Bounded queue of chunks pending for a single chunked output, drained by the broadcaster executor.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final ChunkedOutput<T> output;
+        private final Queue<Envelope<T>> queue = new ArrayDeque<Envelope<T>>();
+        private int pending = 0;
+        private boolean scheduled = false;
+        private boolean closing = false;
+        private boolean discarded = false;
+
+        private Subscriber(final ChunkedOutput<T> output) {
+            this.output = output;
+        }
+
+        private void enqueue(final Envelope<T> envelope) {
+            boolean evict = false;
+            synchronized (this) {
+                if (discarded || closing) {
+                    return;
+                }
+                if (pending >= queueCapacity) {
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            queue.poll();
+                            pending--;
+                            queuedChunks.decrementAndGet();
+                            droppedChunks.incrementAndGet();
+                            break;
+                        case DROP_NEWEST:
+                            droppedChunks.incrementAndGet();
+                            return;
+                        case DISCONNECT:
+                            evict = true;
+                            break;
+                    }
+                }
+                if (!evict) {
+                    queue.add(envelope);
+                    pending++;
+                    queuedChunks.incrementAndGet();
+                }
+            }
+
+            if (evict) {
+                evict();
+            } else {
+                schedule();
+            }
+        }
+
+        private void enqueueClose(final Envelope<T> close) {
+            synchronized (this) {
+                if (discarded || closing) {
+                    return;
+                }
+                // the close request does not count against the queue capacity
+                closing = true;
+                queue.add(close);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled || queue.isEmpty()) {
+                    return;
+                }
+                scheduled = true;
+            }
+            executor.execute(this);
+        }
+
+        private synchronized int depth() {
+            return pending;
+        }
+
+        private synchronized void discard() {
+            discarded = true;
+            queuedChunks.addAndGet(-pending);
+            pending = 0;
+            queue.clear();
+        }
+
+        private void evict() {
+            if (subscribers.remove(output, this)) {
+                discard();
+                chunkedOutputs.remove(output);
+                evictedSubscribers.incrementAndGet();
+                fireOnEvict(output);
+
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            output.close();
+                        } catch (Exception e) {
+                            fireOnException(output, e);
+                        }
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final Envelope<T> envelope;
+                synchronized (this) {
+                    envelope = queue.poll();
+                    if (envelope == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (!envelope.close) {
+                        pending--;
+                        queuedChunks.decrementAndGet();
+                    }
+                }
+
+                if (!output.isClosed()) {
+                    try {
+                        if (envelope.close) {
+                            output.close();
+                        } else {
+                            output.write(envelope.chunk, envelope.serialized);
+                        }
+                    } catch (Exception e) {
+                        fireOnException(output, e);
+                    }
+                }
+
+                if (output.isClosed()) {
+                    if (subscribers.remove(output, this)) {
+                        discard();
+                        chunkedOutputs.remove(output);
+                        fireOnClose(output);
+                    }
+                    synchronized (this) {
+                        scheduled = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+/**
+ * {@link BroadcasterListener Broadcaster listener} that is also notified about the chunked outputs evicted from
+ * an asynchronously broadcasting {@link Broadcaster}.
+ *
+ * To listen to the eviction events, implementation of this interface needs to register with a particular
+ * {@link Broadcaster} instance using {@link Broadcaster#addBroadcasterListener(BroadcasterListener)}.
+ */
+public interface BroadcasterEvictionListener<T> extends BroadcasterListener<T> {
+
+    /**
+     * Called when the chunkedOutput has been evicted from an asynchronously broadcasting {@link Broadcaster}
+     * because its queue of pending chunks overflowed and the broadcaster
+     * {@link Broadcaster.OverflowPolicy#DISCONNECT disconnects} slow subscribers. The chunked output is closed
+     * by the broadcaster after this method is called.
+     *
+     * @param chunkedOutput instance that has been evicted.
+     */
+    void onEvict(ChunkedOutput<T> chunkedOutput);
+}
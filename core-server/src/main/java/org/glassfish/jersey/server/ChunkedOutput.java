@@ -39,19 +39,42 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Provider;
 
+import org.glassfish.jersey.internal.util.collection.StringKeyIgnoreCaseMultivaluedMap;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.WriterInterceptorExecutor;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.process.AsyncContext;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Used for sending messages in "typed" chunks. Useful for long running processes,
  * which needs to produce partial responses.
@@ -62,10 +85,36 @@ import org.glassfish.jersey.server.internal.process.AsyncContext;
  */
 // TODO:  something like prequel/sequel - usable for EventChannelWriter and XML related writers
 public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
-    private final BlockingDeque<T> queue = new LinkedBlockingDeque<T>();
+    /**
+     * Caches whether a chunked output class customizes {@link #write(Object)} (and must not share serialized chunks).
+     */
+    private static final ConcurrentMap<Class<?>, Boolean> WRITE_OVERRIDDEN = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Queued chunks - either instances of {@code T} or {@link SerializedChunk pre-serialized chunks}.
+     */
+    private final BlockingDeque<Object> queue = new LinkedBlockingDeque<Object>();
 
     private volatile boolean closed = false;
     private boolean flushing = false;
+    private volatile FlushPolicy flushPolicy = FlushPolicy.IMMEDIATE;
+    /**
+     * Entity stream that defers the flushes requested by the message body writers and interceptors;
+     * {@code null} if the chunks are flushed immediately.
+     */
+    private FlushControlStream flushControl;
+    /**
+     * Number of chunks written since the last flush. Accessed only by the thread flushing the queue.
+     */
+    private int unflushedChunks = 0;
+    /**
+     * Set if the delayed flush has been due while another thread was flushing the queue.
+     */
+    private volatile boolean flushDue = false;
+    /**
+     * Pending delayed flush. Guarded by {@code this}.
+     */
+    private Future<?> delayedFlush;
     private volatile ContainerRequest requestContext;
     private volatile ContainerResponse responseContext;
     private volatile ServerRuntime.ConnectionCallbackRunner connectionCallbackRunner;
@@ -86,6 +135,35 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         super(chunkType);
     }
 
+    /**
+     * Set the policy that decides when the chunks written to the underlying entity stream are flushed
+     * to the client.
+     * <p>
+     * By default, each chunk is {@link FlushPolicy#immediate() flushed immediately}. A coalescing flush policy
+     * lets the container buffer several chunks and send them in fewer writes and network packets, at the cost
+     * of a bounded delay. The chunks are always flushed when the chunked output is closed. The flush policy
+     * must be set before the chunked output is returned from the resource method.
+     * </p>
+     *
+     * @param flushPolicy flush policy, must not be {@code null}.
+     * @throws IllegalStateException in case the chunked output has already been bound to a response.
+     */
+    public void setFlushPolicy(final FlushPolicy flushPolicy) throws IllegalStateException {
+        Preconditions.checkNotNull(flushPolicy, "Flush policy must not be null.");
+        Preconditions.checkState(responseContext == null, LocalizationMessages.CHUNKED_OUTPUT_FLUSH_POLICY_FIXED());
+        this.flushPolicy = flushPolicy;
+    }
+
+    /**
+     * Get the flush policy of this chunked output.
+     *
+     * @return flush policy.
+     * @see #setFlushPolicy(FlushPolicy)
+     */
+    public FlushPolicy getFlushPolicy() {
+        return flushPolicy;
+    }
+
     /**
      * Write a chunk.
      *
@@ -104,13 +182,109 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         flushQueue();
     }
 
+    /**
+     * Write a chunk that is shared with other chunked outputs (e.g. by a {@link Broadcaster}).
+     * <p>
+     * If possible, the chunk is not serialized by this chunked output. Instead, the chunk bytes are looked up
+     * in (or serialized into) the supplied map under a key that identifies all the inputs of the serialization
+     * (message body workers, writer interceptors, chunk type, media type and entity annotations), so that
+     * chunked outputs producing identical bytes serialize the chunk only once. The chunk falls back to the
+     * regular {@link #write(Object) per-output serialization} if the output has not been bound to a response yet
+     * if the writer interceptors replace the entity stream (e.g. to encode the response entity) or if the chunked
+     * output class customizes {@link #write(Object)}.
+     * </p>
+     *
+     * @param chunk a chunk instance to be written.
+     * @param serialized map of chunks serialized so far, shared by the outputs the chunk is written to.
+     * @throws IOException if this response is closed or when encountered any problem during serializing or writing a chunk.
+     */
+    void write(final T chunk, final Map<SerializationKey, SerializedChunk> serialized) throws IOException {
+        final SerializationKey key = (chunk == null) ? null : serializationKey(chunk);
+        if (key == null) {
+            write(chunk);
+            return;
+        }
+
+        SerializedChunk serializedChunk = serialized.get(key);
+        if (serializedChunk == null) {
+            serializedChunk = serialize(chunk);
+            serialized.put(key, serializedChunk);
+        }
+
+        if (serializedChunk == SerializedChunk.NOT_SHAREABLE) {
+            write(chunk);
+            return;
+        }
+
+        if (closed) {
+            throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+        }
+        queue.add(serializedChunk);
+        flushQueue();
+    }
+
+    private SerializationKey serializationKey(final T chunk) {
+        final ContainerRequest request = requestContext;
+        final ContainerResponse response = responseContext;
+        if (request == null || response == null || isWriteOverridden()) {
+            return null;
+        }
+
+        return new SerializationKey(request.getWorkers(),
+                request.getPropertiesDelegate().getProperty(WriterInterceptorExecutor.INTERCEPTORS),
+                chunk.getClass(),
+                getType(),
+                response.getMediaType(),
+                response.getEntityAnnotations());
+    }
+
+    private boolean isWriteOverridden() {
+        final Class<?> outputClass = getClass();
+        Boolean overridden = WRITE_OVERRIDDEN.get(outputClass);
+        if (overridden == null) {
+            try {
+                overridden = outputClass.getMethod("write", Object.class).getDeclaringClass() != ChunkedOutput.class;
+            } catch (NoSuchMethodException e) {
+                overridden = true;
+            }
+            WRITE_OVERRIDDEN.put(outputClass, overridden);
+        }
+        return overridden;
+    }
+
+    private SerializedChunk serialize(final T chunk) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            final OutputStream stream = requestContext.getWorkers().writeTo(
+                    chunk,
+                    chunk.getClass(),
+                    getType(),
+                    responseContext.getEntityAnnotations(),
+                    responseContext.getMediaType(),
+                    // headers are already committed, writer modifications would be ignored anyway
+                    new StringKeyIgnoreCaseMultivaluedMap<Object>(),
+                    requestContext.getPropertiesDelegate(),
+                    buffer,
+                    null,
+                    true);
+            if (stream != buffer) {
+                // entity stream has been replaced by an interceptor - the serialized bytes cannot be shared
+                return SerializedChunk.NOT_SHAREABLE;
+            }
+        } catch (Exception e) {
+            // let each output fail (and get closed) the same way as if the chunk was not shared
+            return SerializedChunk.NOT_SHAREABLE;
+        }
+        return new SerializedChunk(buffer.toByteArray());
+    }
+
     private void flushQueue() throws IOException {
         if (requestContext == null || responseContext == null) {
             return;
         }
 
         Exception ex = null;
-        T t;
+        Object t;
         boolean shouldClose;
 
         synchronized (this) {
@@ -135,7 +309,10 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         try {
             while (t != null) {
                 try {
-                    responseContext.setEntityStream(requestContext.getWorkers().writeTo(
+                    if (t instanceof SerializedChunk) {
+                        ((SerializedChunk) t).writeTo(responseContext.getEntityStream());
+                    } else {
+                        responseContext.setEntityStream(requestContext.getWorkers().writeTo(
                             t,
                             t.getClass(),
                             getType(),
@@ -148,6 +325,10 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                             // TODO: (MM) should intercept only for the very first chunk!
                             // TODO: from then on the stream is already wrapped by interceptor streams
                             true));
+                    }
+                    if (flushControl != null) {
+                        chunkWritten();
+                    }
                 } catch (IOException ioe) {
                     connectionCallbackRunner.onDisconnect(asyncContext.get());
                     throw ioe;
@@ -167,6 +348,10 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                             // the flushing flag at the very end (to make sure it is unset only if no
                             // exception is thrown)
                             responseContext.commitStream();
+                            if (flushDue) {
+                                flushDue = false;
+                                flush();
+                            }
                             // if closing, we keep the "flushing" flag set, since no other thread needs to flush
                             // this queue anymore - finally clause will take care of closing the stream
                             flushing = shouldClose;
@@ -182,6 +367,7 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
             ex = e;
         } finally {
             if (shouldClose) {
+                cancelDelayedFlush();
                 try {
                     responseContext.close();
                 } catch (Exception e) {
@@ -201,6 +387,95 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         }
     }
 
+    /**
+     * Flush the chunks written since the last flush through the entity stream (including any writer interceptor
+     * streams) to the container. Must be called by the thread flushing the queue.
+     *
+     * @throws IOException in case flushing the entity stream fails.
+     */
+    private void flush() throws IOException {
+        unflushedChunks = 0;
+        flushControl.flushThrough(responseContext.getEntityStream());
+    }
+
+    /**
+     * Flush the written chunks if required by the flush policy, or schedule the delayed flush for the first
+     * unflushed chunk. Must be called by the thread flushing the queue.
+     *
+     * @throws IOException in case flushing the entity stream fails.
+     */
+    private void chunkWritten() throws IOException {
+        unflushedChunks++;
+        if (flushDue || flushPolicy.isReached(unflushedChunks, flushControl.unflushedBytes)) {
+            flushDue = false;
+            flush();
+        } else if (unflushedChunks == 1 && flushPolicy.maxDelay > 0) {
+            scheduleDelayedFlush();
+        }
+    }
+
+    private synchronized void scheduleDelayedFlush() {
+        if (delayedFlush == null && !closed) {
+            delayedFlush = FlushPolicy.SCHEDULER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flushDelayed();
+                }
+            }, flushPolicy.maxDelay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Delayed flush of the chunks that have not been flushed within the maximum delay.
+     */
+    private void flushDelayed() {
+        synchronized (this) {
+            delayedFlush = null;
+            if (flushing) {
+                // the thread flushing the queue will flush the stream once the queue is drained
+                flushDue = true;
+                return;
+            }
+            if (closed || unflushedChunks == 0) {
+                return;
+            }
+            flushing = true;
+        }
+
+        try {
+            flush();
+        } catch (IOException e) {
+            closed = true;
+            connectionCallbackRunner.onDisconnect(asyncContext.get());
+            try {
+                responseContext.close();
+            } catch (Exception ignored) {
+                // the connection is broken already
+            }
+            return;
+        } finally {
+            synchronized (this) {
+                if (!closed) {
+                    flushing = false;
+                }
+            }
+        }
+
+        try {
+            // write any chunks queued while the stream was being flushed
+            flushQueue();
+        } catch (IOException e) {
+            // the chunked output has been closed already
+        }
+    }
+
+    private synchronized void cancelDelayedFlush() {
+        if (delayedFlush != null) {
+            delayedFlush.cancel(false);
+            delayedFlush = null;
+        }
+    }
+
     /**
      * Close this response - it will be finalized and underlying connections will be closed
      * or made available for another response.
@@ -257,6 +532,278 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         this.responseContext = responseContext;
         this.connectionCallbackRunner = connectionCallbackRunner;
         this.asyncContext = asyncContext;
+        if (!flushPolicy.isImmediate()) {
+            flushControl = new FlushControlStream(responseContext.getEntityStream());
+            responseContext.setEntityStream(flushControl);
+        }
         flushQueue();
     }
+
+    /**
+     * Policy that decides when the chunks written by a {@link ChunkedOutput chunked output} are flushed
+     * to the client.
+     * <p>
+     * A coalescing policy flushes the written chunks once the number of the unflushed chunks or bytes reaches
+     * the configured threshold, or once the oldest unflushed chunk has waited for the configured maximum delay,
+     * whichever comes first. The delayed flushes of all chunked outputs are run by a single shared timer thread.
+     * Note that without the maximum delay, the last chunks written before a pause in the stream are not flushed
+     * until more chunks are written or the chunked output is closed.
+     * </p>
+     * <p>
+     * Example: {@code FlushPolicy.afterBytes(8192).orAfterDelay(50, TimeUnit.MILLISECONDS)}.
+     * </p>
+     */
+    public static final class FlushPolicy {
+
+        private static final FlushPolicy IMMEDIATE = new FlushPolicy(1, 0, 0);
+
+        /**
+         * Timer shared by all the chunked outputs for the delayed flushes.
+         */
+        private static final ScheduledExecutorService SCHEDULER;
+
+        static {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                    new ThreadFactoryBuilder().setNameFormat("jersey-chunked-output-flush-%d").setDaemon(true).build());
+            scheduler.setRemoveOnCancelPolicy(true);
+            SCHEDULER = scheduler;
+        }
+
+        private final int maxChunks;
+        private final long maxBytes;
+        private final long maxDelay;
+
+        private FlushPolicy(final int maxChunks, final long maxBytes, final long maxDelay) {
+            this.maxChunks = maxChunks;
+            this.maxBytes = maxBytes;
+            this.maxDelay = maxDelay;
+        }
+
+        /**
+         * Get the policy that flushes each chunk immediately once it is written. This is the default policy.
+         *
+         * @return immediate flush policy.
+         */
+        public static FlushPolicy immediate() {
+            return IMMEDIATE;
+        }
+
+        /**
+         * Get a policy that flushes the chunks once the given number of chunks has been written since the last flush.
+         *
+         * @param chunks number of chunks, must be positive.
+         * @return coalescing flush policy.
+         */
+        public static FlushPolicy afterChunks(final int chunks) {
+            return new FlushPolicy(0, 0, 0).orAfterChunks(chunks);
+        }
+
+        /**
+         * Get a policy that flushes the chunks once at least the given number of bytes has been written since the last
+         * flush.
+         *
+         * @param bytes number of bytes, must be positive.
+         * @return coalescing flush policy.
+         */
+        public static FlushPolicy afterBytes(final long bytes) {
+            return new FlushPolicy(0, 0, 0).orAfterBytes(bytes);
+        }
+
+        /**
+         * Get a policy that flushes the chunks once the oldest unflushed chunk has waited for the given delay.
+         *
+         * @param delay maximum delay, must be positive.
+         * @param unit  time unit of the delay argument.
+         * @return coalescing flush policy.
+         */
+        public static FlushPolicy afterDelay(final long delay, final TimeUnit unit) {
+            return new FlushPolicy(0, 0, 0).orAfterDelay(delay, unit);
+        }
+
+        /**
+         * Get a policy that flushes the chunks also once the given number of chunks has been written since the last flush.
+         *
+         * @param chunks number of chunks, must be positive.
+         * @return coalescing flush policy.
+         */
+        public FlushPolicy orAfterChunks(final int chunks) {
+            Preconditions.checkArgument(chunks > 0, "Number of chunks must be positive.");
+            return new FlushPolicy(chunks, maxBytes, maxDelay);
+        }
+
+        /**
+         * Get a policy that flushes the chunks also once at least the given number of bytes has been written since
+         * the last flush.
+         *
+         * @param bytes number of bytes, must be positive.
+         * @return coalescing flush policy.
+         */
+        public FlushPolicy orAfterBytes(final long bytes) {
+            Preconditions.checkArgument(bytes > 0, "Number of bytes must be positive.");
+            return new FlushPolicy(maxChunks, bytes, maxDelay);
+        }
+
+        /**
+         * Get a policy that flushes the chunks also once the oldest unflushed chunk has waited for the given delay.
+         *
+         * @param delay maximum delay, must be positive.
+         * @param unit  time unit of the delay argument.
+         * @return coalescing flush policy.
+         */
+        public FlushPolicy orAfterDelay(final long delay, final TimeUnit unit) {
+            Preconditions.checkArgument(delay > 0, "Flush delay must be positive.");
+            return new FlushPolicy(maxChunks, maxBytes, unit.toNanos(delay));
+        }
+
+        private boolean isImmediate() {
+            return maxChunks == 1;
+        }
+
+        private boolean isReached(final int chunks, final long bytes) {
+            return (maxChunks > 0 && chunks >= maxChunks) || (maxBytes > 0 && bytes >= maxBytes);
+        }
+
+        @Override
+        public String toString() {
+            return "FlushPolicy{maxChunks=" + maxChunks + ", maxBytes=" + maxBytes + ", maxDelay=" + maxDelay + "ns}";
+        }
+    }
+
+    /**
+     * Entity stream placed below the writer interceptor streams that ignores the flushes requested by the message
+     * body writers and interceptors, so that the container can coalesce the chunks.
+     */
+    private static final class FlushControlStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private long unflushedBytes = 0;
+        private boolean flushEnabled = false;
+
+        private FlushControlStream(final OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            delegate.write(b);
+            unflushedBytes++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            delegate.write(b, off, len);
+            unflushedBytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (flushEnabled) {
+                delegate.flush();
+            }
+        }
+
+        /**
+         * Flush the supplied entity stream together with this stream and the underlying container stream.
+         *
+         * @param entityStream current entity stream (possibly wrapping this stream).
+         * @throws IOException in case flushing fails.
+         */
+        private void flushThrough(final OutputStream entityStream) throws IOException {
+            unflushedBytes = 0;
+            flushEnabled = true;
+            try {
+                entityStream.flush();
+            } finally {
+                flushEnabled = false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Identifies the inputs of a chunk serialization that may differ between chunked outputs.
+     */
+    static final class SerializationKey {
+
+        private final MessageBodyWorkers workers;
+        private final List<Object> interceptors;
+        private final Class<?> rawType;
+        private final Type type;
+        private final MediaType mediaType;
+        private final List<Annotation> annotations;
+        private final int hashCode;
+
+        private SerializationKey(final MessageBodyWorkers workers,
+                                 final Object interceptors,
+                                 final Class<?> rawType,
+                                 final Type type,
+                                 final MediaType mediaType,
+                                 final Annotation[] annotations) {
+            this.workers = workers;
+            this.interceptors = (interceptors instanceof Collection)
+                    ? new ArrayList<Object>((Collection<?>) interceptors) : Collections.emptyList();
+            this.rawType = rawType;
+            this.type = type;
+            this.mediaType = mediaType;
+            this.annotations = (annotations == null)
+                    ? Collections.<Annotation>emptyList() : Arrays.asList(annotations);
+
+            int result = System.identityHashCode(workers);
+            result = 31 * result + this.interceptors.hashCode();
+            result = 31 * result + rawType.hashCode();
+            result = 31 * result + (type != null ? type.hashCode() : 0);
+            result = 31 * result + (mediaType != null ? mediaType.hashCode() : 0);
+            this.hashCode = 31 * result + this.annotations.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SerializationKey)) {
+                return false;
+            }
+
+            final SerializationKey other = (SerializationKey) o;
+            return workers == other.workers
+                    && rawType == other.rawType
+                    && (type == null ? other.type == null : type.equals(other.type))
+                    && (mediaType == null ? other.mediaType == null : mediaType.equals(other.mediaType))
+                    && interceptors.equals(other.interceptors)
+                    && annotations.equals(other.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Immutable bytes of a chunk serialized once and written to multiple chunked outputs.
+     */
+    static final class SerializedChunk {
+
+        /**
+         * Marks a chunk that cannot be serialized once and shared.
+         */
+        static final SerializedChunk NOT_SHAREABLE = new SerializedChunk(new byte[0]);
+
+        private final byte[] bytes;
+
+        private SerializedChunk(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private void writeTo(final OutputStream out) throws IOException {
+            out.write(bytes);
+            // flush the same way as a message body writer does, unless the flush policy coalesces the flushes
+            out.flush();
+        }
+    }
 }
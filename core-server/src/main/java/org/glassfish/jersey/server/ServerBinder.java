@@ -65,9 +65,11 @@ import org.glassfish.jersey.server.internal.JerseyResourceContext;
 import org.glassfish.jersey.server.internal.JsonWithPaddingInterceptor;
 import org.glassfish.jersey.server.internal.inject.CloseableServiceBinder;
 import org.glassfish.jersey.server.internal.inject.ParameterInjectionBinder;
+import org.glassfish.jersey.server.internal.monitoring.MonitoringStatistics;
 import org.glassfish.jersey.server.internal.process.RespondingContext;
 import org.glassfish.jersey.server.internal.routing.RouterBinder;
 import org.glassfish.jersey.server.model.internal.ResourceModelBinder;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 import org.glassfish.jersey.server.spi.ContainerProvider;
 
 import org.glassfish.hk2.api.Factory;
@@ -163,5 +165,8 @@ public class ServerBinder extends AbstractBinder {
         bind(JsonWithPaddingInterceptor.class).to(WriterInterceptor.class).in(Singleton.class);
 
         bindAsContract(ReferencesInitializer.class);
+
+        // monitoring statistics
+        bindAsContract(MonitoringStatistics.class).to(ContainerLifecycleListener.class).in(Singleton.class);
     }
 }
@@ -39,15 +39,27 @@
  */
 package org.glassfish.jersey.server;
 
+import java.lang.management.ManagementFactory;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.Configuration;
 
 import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.process.internal.ExecutorsFactory;
+import org.glassfish.jersey.server.internal.LocalizationMessages;
+import org.glassfish.jersey.server.internal.process.ManagedAsyncExecutor;
 import org.glassfish.jersey.spi.RequestExecutorsProvider;
 import org.glassfish.jersey.spi.ResponseExecutorsProvider;
 
+import org.glassfish.hk2.api.PreDestroy;
 import org.glassfish.hk2.api.ServiceLocator;
 
 import com.google.common.util.concurrent.MoreExecutors;
@@ -58,12 +70,30 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
  *
  * The class returns the {@link java.util.concurrent.ExecutorService requesting executor} based on the request
  * data.
+ * <p>
+ * Unless a custom {@link RequestExecutorsProvider} is registered, {@link ManagedAsync managed asynchronous}
+ * resource methods are executed by a {@link ManagedAsyncExecutor} configured via the
+ * {@code ServerProperties.MANAGED_ASYNC_EXECUTOR_*} properties. By default, the executor is bounded both
+ * in the number of threads and in the number of queued tasks; tasks submitted to a saturated executor are
+ * rejected. If the
+ * {@link ServerProperties#FEATURE_VIRTUAL_THREADS virtual threads mode} is enabled, a virtual-thread-per-task
+ * executor is used instead and the requesting executor is also used to
+ * {@link #getProcessingExecutor(ContainerRequest) dispatch the request processing} from the container threads.
+ * </p>
  *
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
  */
-class ServerExecutorsFactory extends ExecutorsFactory<ContainerRequest> {
+class ServerExecutorsFactory extends ExecutorsFactory<ContainerRequest> implements PreDestroy {
+
+    private static final Logger LOGGER = Logger.getLogger(ServerExecutorsFactory.class.getName());
+
     private final ExecutorService requestingExecutor;
     private final ExecutorService respondingExecutor;
+    private volatile boolean virtualThreads;
+
+    private volatile ExecutorService defaultRequestingExecutor;
+    private volatile ManagedAsyncExecutor managedAsyncExecutor;
+    private volatile ObjectName managedAsyncExecutorName;
 
 
     /**
@@ -72,14 +102,30 @@ class ServerExecutorsFactory extends ExecutorsFactory<ContainerRequest> {
      * @param locator HK2 service locator.
      */
     @Inject
-    public ServerExecutorsFactory(ServiceLocator locator) {
+    public ServerExecutorsFactory(final ServiceLocator locator) {
         super(locator);
+        final Configuration configuration = locator.getService(Configuration.class);
+        final Map<String, Object> properties = configuration == null ? null : configuration.getProperties();
+
+        this.virtualThreads = isVirtualThreadsEnabled(properties);
         this.requestingExecutor = getInitialRequestingExecutor(new RequestExecutorsProvider() {
 
             @Override
             public ExecutorService getRequestingExecutor() {
-                return Executors.newCachedThreadPool(
-                        new ThreadFactoryBuilder().setNameFormat("jersey-server-managed-async-executor-%d").build());
+                ExecutorService executor = null;
+                if (virtualThreads) {
+                    executor = VirtualThreads.newVirtualThreadPerTaskExecutor("jersey-server-virtual-");
+                    if (executor == null) {
+                        LOGGER.warning(LocalizationMessages.VIRTUAL_THREADS_EXECUTOR_CREATION_FAILED(
+                                ServerProperties.FEATURE_VIRTUAL_THREADS));
+                        virtualThreads = false;
+                    }
+                }
+                if (executor == null) {
+                    executor = createManagedAsyncExecutor(properties);
+                }
+                defaultRequestingExecutor = executor;
+                return executor;
             }
         });
         this.respondingExecutor = getInitialRespondingExecutor(new ResponseExecutorsProvider() {
@@ -91,6 +137,91 @@ class ServerExecutorsFactory extends ExecutorsFactory<ContainerRequest> {
         });
     }
 
+    private static boolean isVirtualThreadsEnabled(final Map<String, Object> properties) {
+        if (properties == null || !PropertiesHelper.isProperty(properties, ServerProperties.FEATURE_VIRTUAL_THREADS)) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            LOGGER.warning(LocalizationMessages.VIRTUAL_THREADS_NOT_SUPPORTED(ServerProperties.FEATURE_VIRTUAL_THREADS));
+            return false;
+        }
+        return true;
+    }
+
+    private ExecutorService createManagedAsyncExecutor(final Map<String, Object> properties) {
+        final ManagedAsyncExecutor executor = new ManagedAsyncExecutor(
+                getIntValue(properties, ServerProperties.MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE,
+                        ServerProperties.MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE_DEFAULT),
+                getIntValue(properties, ServerProperties.MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE,
+                        ServerProperties.MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE_DEFAULT),
+                getIntValue(properties, ServerProperties.MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY,
+                        ServerProperties.MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY_DEFAULT),
+                getIntValue(properties, ServerProperties.MANAGED_ASYNC_EXECUTOR_KEEP_ALIVE,
+                        ServerProperties.MANAGED_ASYNC_EXECUTOR_KEEP_ALIVE_DEFAULT),
+                new ThreadFactoryBuilder().setNameFormat("jersey-server-managed-async-executor-%d").build());
+        managedAsyncExecutor = executor;
+
+        if (properties != null && PropertiesHelper.isProperty(properties,
+                ServerProperties.FEATURE_MANAGED_ASYNC_EXECUTOR_MBEAN)) {
+            registerMBean(executor);
+        }
+        return executor;
+    }
+
+    private static int getIntValue(final Map<String, Object> properties, final String name, final int defaultValue) {
+        return properties == null ? defaultValue : PropertiesHelper.getValue(properties, name, defaultValue);
+    }
+
+    private void registerMBean(final ManagedAsyncExecutor executor) {
+        try {
+            final ObjectName name = new ObjectName("org.glassfish.jersey:type=ManagedAsyncExecutor,name="
+                    + ObjectName.quote(Integer.toHexString(System.identityHashCode(executor))));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(executor, name);
+            managedAsyncExecutorName = name;
+        } catch (JMException ex) {
+            LOGGER.log(Level.WARNING, LocalizationMessages.MANAGED_ASYNC_EXECUTOR_MBEAN_REGISTRATION_FAILED(), ex);
+        }
+    }
+
+    /**
+     * Get the default managed asynchronous executor, if used.
+     *
+     * @return default managed asynchronous executor or {@code null} if a custom requesting executor is used.
+     */
+    ManagedAsyncExecutor getManagedAsyncExecutor() {
+        return managedAsyncExecutor;
+    }
+
+    @Override
+    public void preDestroy() {
+        final ObjectName name = managedAsyncExecutorName;
+        if (name != null) {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException ex) {
+                LOGGER.log(Level.FINE, LocalizationMessages.MANAGED_ASYNC_EXECUTOR_MBEAN_UNREGISTRATION_FAILED(), ex);
+            }
+        }
+        final ExecutorService executor = defaultRequestingExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Get the executor the request processing should be dispatched to from the container thread.
+     *
+     * @param request request to be processed.
+     * @return request processing executor or {@code null} if the request should be processed
+     *         on the container thread.
+     */
+    ExecutorService getProcessingExecutor(final ContainerRequest request) {
+        return virtualThreads ? requestingExecutor : null;
+    }
+
     @Override
     public ExecutorService getRequestingExecutor(ContainerRequest request) {
         return requestingExecutor;
@@ -271,6 +271,319 @@ public final class ServerProperties {
     public static final String FEATURE_OUTPUT_VALIDATION_ERROR_ENTITY
             = "jersey.config.server.validation.enableOutputValidationErrorEntity";
 
+    /**
+     * Maximum number of resource method selections cached by a single resource method selecting
+     * router. The selected resource method and the effective response media type are cached
+     * for each distinct combination of the HTTP method, {@code Content-Type} media type (without
+     * parameters) and acceptable media types, so that the method selection algorithm does not need
+     * to be re-run for repeating request shapes. Once the cache is full, the least recently used
+     * selections are evicted. Value of {@code 0} disables the caching.
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #METHOD_SELECTION_CACHE_SIZE_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String METHOD_SELECTION_CACHE_SIZE = "jersey.config.server.methodSelection.cacheSize";
+
+    /**
+     * Default value of the {@link #METHOD_SELECTION_CACHE_SIZE} property.
+     */
+    public static final int METHOD_SELECTION_CACHE_SIZE_DEFAULT = 64;
+
+    /**
+     * Maximum number of sub-resource runtime models cached by a single sub-resource locator.
+     * <p>
+     * The resource model of a sub-resource returned from a sub-resource locator is built, processed by
+     * {@link org.glassfish.jersey.server.model.ModelProcessor model processors}, validated and compiled into
+     * a request router when the locator returns an instance of the sub-resource class for the first time.
+     * The compiled router is then cached per sub-resource class and re-used for any subsequent request routed
+     * through the same sub-resource locator to an instance of the same class. Once the cache is full, the router
+     * of the least recently used sub-resource class is evicted. Value of {@code 0} disables the caching.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #SUBRESOURCE_LOCATOR_CACHE_SIZE_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #FEATURE_DISABLE_SUBRESOURCE_LOCATOR_CACHE
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String SUBRESOURCE_LOCATOR_CACHE_SIZE = "jersey.config.server.subresource.cache.size";
+
+    /**
+     * Default value of the {@link #SUBRESOURCE_LOCATOR_CACHE_SIZE} property.
+     */
+    public static final int SUBRESOURCE_LOCATOR_CACHE_SIZE_DEFAULT = 64;
+
+    /**
+     * If {@code true} then disable caching of the sub-resource runtime models built for the resources
+     * returned from sub-resource locators.
+     * <p>
+     * The caching should be disabled in applications with sub-resource locators that return instances of
+     * dynamically generated classes, so that the generated classes (and their class loaders) are not retained
+     * by the cache.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #SUBRESOURCE_LOCATOR_CACHE_SIZE
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String FEATURE_DISABLE_SUBRESOURCE_LOCATOR_CACHE = "jersey.config.server.subresource.cache.disable";
+
+    /**
+     * Core pool size of the executor used to run {@link org.glassfish.jersey.server.ManagedAsync managed asynchronous}
+     * resource methods.
+     * <p>
+     * The property is ignored if a custom {@link org.glassfish.jersey.spi.RequestExecutorsProvider} is registered.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE
+     * @see #MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE = "jersey.config.server.managedAsync.corePoolSize";
+
+    /**
+     * Default value of the {@link #MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE} property.
+     */
+    public static final int MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE_DEFAULT = 16;
+
+    /**
+     * Maximum pool size of the executor used to run {@link org.glassfish.jersey.server.ManagedAsync managed asynchronous}
+     * resource methods.
+     * <p>
+     * The property is ignored if a custom {@link org.glassfish.jersey.spi.RequestExecutorsProvider} is registered.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE
+     * @see #MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE = "jersey.config.server.managedAsync.maxPoolSize";
+
+    /**
+     * Default value of the {@link #MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE} property.
+     */
+    public static final int MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE_DEFAULT = 64;
+
+    /**
+     * Capacity of the task queue of the executor used to run {@link org.glassfish.jersey.server.ManagedAsync
+     * managed asynchronous} resource methods.
+     * <p>
+     * Tasks are queued once all the core threads are busy. New threads (up to the
+     * {@link #MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE maximum pool size}) are only started when the queue is full.
+     * Value of {@code 0} means tasks are handed over to the pool threads directly, without queueing.
+     * When both the pool and the queue are exhausted, the request is not processed and
+     * a {@link javax.ws.rs.core.Response.Status#SERVICE_UNAVAILABLE 503 (Service Unavailable)}
+     * response is returned instead.
+     * </p>
+     * <p>
+     * The property is ignored if a custom {@link org.glassfish.jersey.spi.RequestExecutorsProvider} is registered.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY = "jersey.config.server.managedAsync.queueCapacity";
+
+    /**
+     * Default value of the {@link #MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY} property.
+     */
+    public static final int MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY_DEFAULT = 1024;
+
+    /**
+     * Time in seconds for which the idle threads of the executor used to run
+     * {@link org.glassfish.jersey.server.ManagedAsync managed asynchronous} resource methods are kept alive.
+     * A positive value applies to the core threads as well, so that an idle application does not keep
+     * any executor threads.
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #MANAGED_ASYNC_EXECUTOR_KEEP_ALIVE_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MANAGED_ASYNC_EXECUTOR_KEEP_ALIVE = "jersey.config.server.managedAsync.keepAlive";
+
+    /**
+     * Default value of the {@link #MANAGED_ASYNC_EXECUTOR_KEEP_ALIVE} property.
+     */
+    public static final int MANAGED_ASYNC_EXECUTOR_KEEP_ALIVE_DEFAULT = 60;
+
+    /**
+     * If {@code true} then the statistics of the executor used to run {@link org.glassfish.jersey.server.ManagedAsync
+     * managed asynchronous} resource methods (queue depth, active threads, rejected task count, task latency)
+     * are exposed as a JMX MXBean registered in the platform MBean server under the
+     * {@code org.glassfish.jersey:type=ManagedAsyncExecutor} domain.
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String FEATURE_MANAGED_ASYNC_EXECUTOR_MBEAN = "jersey.config.server.managedAsync.mbean.enabled";
+
+    /**
+     * If {@code true} then the request processing is dispatched from the container thread onto a
+     * virtual-thread-per-task executor.
+     * <p>
+     * In this mode, the default {@link org.glassfish.jersey.spi.RequestExecutorsProvider requesting executor} is
+     * a virtual-thread-per-task executor which is used to run both the request processing and the
+     * {@link org.glassfish.jersey.server.ManagedAsync managed asynchronous} resource methods. The container
+     * response is suspended before the processing is dispatched, so that the container I/O threads are released
+     * immediately and blocking resource methods do not occupy them. The {@code MANAGED_ASYNC_EXECUTOR_*}
+     * properties are ignored in this mode. If a custom requesting executor provider is registered, the executor
+     * it provides is used for the dispatch instead.
+     * </p>
+     * <p>
+     * Virtual threads require a Java platform that supports them. On older platforms the property is ignored
+     * and a warning is logged.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String FEATURE_VIRTUAL_THREADS = "jersey.config.server.virtualThreads.enabled";
+
+    /**
+     * If {@code true} then the per-application, per-resource and per-resource method request execution
+     * statistics (request counts, error counts and execution time histograms) are collected and exposed
+     * as JMX MXBeans registered in the platform MBean server under the {@code org.glassfish.jersey} domain.
+     * <p>
+     * The statistics are updated using striped counters and sliding window histograms to keep the overhead
+     * of the monitoring low, yet the monitoring should only be enabled when the statistics are needed.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #MONITORING_STATISTICS_WINDOW_SIZE
+     * @see #MONITORING_STATISTICS_APPLICATION_NAME
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String FEATURE_MONITORING_STATISTICS = "jersey.config.server.monitoring.statistics.enabled";
+
+    /**
+     * Size of the sliding window (in seconds) the monitoring statistics windowed values, such as the execution
+     * time percentiles, are aggregated over.
+     * <p>
+     * The property value MUST be an instance of {@link Integer} type or a {@code String} convertible
+     * to {@code Integer} type.
+     * </p>
+     * <p>
+     * A default value is {@value #MONITORING_STATISTICS_WINDOW_SIZE_DEFAULT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #FEATURE_MONITORING_STATISTICS
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MONITORING_STATISTICS_WINDOW_SIZE = "jersey.config.server.monitoring.statistics.windowSize";
+
+    /**
+     * Default value of the {@link #MONITORING_STATISTICS_WINDOW_SIZE} property.
+     */
+    public static final int MONITORING_STATISTICS_WINDOW_SIZE_DEFAULT = 60;
+
+    /**
+     * Name of the application used in the names of the monitoring statistics MBeans. The name should be unique
+     * among the applications deployed in the JVM; if an application with the same name has already registered
+     * its statistics, a numeric suffix is appended to the name.
+     * <p>
+     * The default value is the fully qualified class name of the JAX-RS {@link javax.ws.rs.core.Application application}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     *
+     * @see #FEATURE_MONITORING_STATISTICS
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String MONITORING_STATISTICS_APPLICATION_NAME =
+            "jersey.config.server.monitoring.statistics.applicationName";
+
+    /**
+     * If {@code true} then disable the generation of direct resource method invokers.
+     * <p>
+     * By default, Jersey generates a dedicated invoker class for every public resource method that is
+     * invoked using the default invocation handler, so that the resource method is called directly instead
+     * of using Java reflection. Resource methods with a custom invocation handler provided by a registered
+     * {@link org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider} are always
+     * invoked using the custom handler. Setting this property to {@code true} makes Jersey invoke all the
+     * remaining resource methods using reflection too.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String FEATURE_DISABLE_GENERATED_METHOD_INVOKERS = "jersey.config.server.resource.generatedInvokers.disable";
+
     private ServerProperties() {
         // prevents instantiation
     }
@@ -48,7 +48,10 @@ import java.util.Date;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -74,7 +77,6 @@ import org.glassfish.jersey.internal.util.Producer;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.internal.util.collection.Refs;
 import org.glassfish.jersey.internal.util.collection.Value;
-import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.message.internal.HeaderValueException;
 import org.glassfish.jersey.message.internal.OutboundMessageContext;
 import org.glassfish.jersey.process.internal.ExecutorsFactory;
@@ -83,6 +85,8 @@ import org.glassfish.jersey.process.internal.Stage;
 import org.glassfish.jersey.process.internal.Stages;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.inject.ExtractorException;
+import org.glassfish.jersey.server.internal.monitoring.ExecutionStatistics;
+import org.glassfish.jersey.server.internal.monitoring.MonitoringStatistics;
 import org.glassfish.jersey.server.internal.process.AsyncContext;
 import org.glassfish.jersey.server.internal.process.Endpoint;
 import org.glassfish.jersey.server.internal.process.MappableException;
@@ -112,6 +116,7 @@ class ServerRuntime {
     private final Provider<Ref<Value<AsyncContext>>> asyncContextFactoryProvider;
     private final Provider<AsyncContext> asyncContextProvider;
     private final ExecutorsFactory<ContainerRequest> asyncExecutorsFactory;
+    private final ExecutionStatistics applicationStatistics;
 
     /**
      * Server-side request processing runtime builder.
@@ -131,6 +136,8 @@ class ServerRuntime {
         private Provider<AsyncContext> asyncContextProvider;
         @Inject
         private ExecutorsFactory<ContainerRequest> asyncExecutorsFactory;
+        @Inject
+        private MonitoringStatistics monitoringStatistics;
 
         /**
          * Create new server-side request processing runtime.
@@ -147,7 +154,8 @@ class ServerRuntime {
                     closeableServiceProvider,
                     asyncContextRefProvider,
                     asyncContextProvider,
-                    asyncExecutorsFactory);
+                    asyncExecutorsFactory,
+                    monitoringStatistics.getApplicationStatistics());
         }
     }
 
@@ -158,7 +166,8 @@ class ServerRuntime {
                           Provider<CloseableService> closeableServiceProvider,
                           Provider<Ref<Value<AsyncContext>>> asyncContextFactoryProvider,
                           Provider<AsyncContext> asyncContextProvider,
-                          ExecutorsFactory<ContainerRequest> asyncExecutorsFactory) {
+                          ExecutorsFactory<ContainerRequest> asyncExecutorsFactory,
+                          ExecutionStatistics applicationStatistics) {
         this.requestProcessingRoot = requestProcessingRoot;
         this.locator = locator;
         this.requestScope = requestScope;
@@ -167,6 +176,7 @@ class ServerRuntime {
         this.asyncContextFactoryProvider = asyncContextFactoryProvider;
         this.asyncContextProvider = asyncContextProvider;
         this.asyncExecutorsFactory = asyncExecutorsFactory;
+        this.applicationStatistics = applicationStatistics;
     }
 
     /**
@@ -176,6 +186,33 @@ class ServerRuntime {
      */
     public void process(final ContainerRequest request) {
         request.checkState();
+        final long start = System.nanoTime();
+
+        final ExecutorService processingExecutor = (asyncExecutorsFactory instanceof ServerExecutorsFactory)
+                ? ((ServerExecutorsFactory) asyncExecutorsFactory).getProcessingExecutor(request) : null;
+        if (processingExecutor != null) {
+            final DispatchedResponseWriter dispatchedWriter = new DispatchedResponseWriter(request.getResponseWriter());
+            if (dispatchedWriter.suspendContainer()) {
+                request.setWriter(dispatchedWriter);
+                try {
+                    processingExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            processInScope(request, start);
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    // process on the container thread; the response writer is already suspended
+                    processInScope(request, start);
+                }
+                return;
+            }
+        }
+
+        processInScope(request, start);
+    }
+
+    private void processInScope(final ContainerRequest request, final long start) {
         requestScope.runInScope(new Runnable() {
             @Override
             public void run() {
@@ -184,7 +221,9 @@ class ServerRuntime {
                         locator.<RespondingContext>getService(RespondingContext.class),
                         exceptionMappers,
                         closeableServiceProvider,
-                        asyncContextProvider);
+                        asyncContextProvider,
+                        applicationStatistics,
+                        start);
 
                 final AsyncResponderHolder asyncResponderHolder = new AsyncResponderHolder(
                         responder, locator, requestScope, requestScope.referenceCurrent(), asyncExecutorsFactory);
@@ -214,6 +253,80 @@ class ServerRuntime {
         });
     }
 
+    /**
+     * Response writer used when the request processing is dispatched from the container thread.
+     * <p>
+     * The underlying container response writer is suspended indefinitely before the request processing is
+     * dispatched. Any subsequent suspend request issued by the asynchronous request processing (e.g. on
+     * {@link AsyncResponse#setTimeout(long, TimeUnit)}) only updates the suspend timeout and the timeout handler
+     * of the already suspended container response writer.
+     * </p>
+     */
+    private static class DispatchedResponseWriter implements ContainerResponseWriter {
+
+        private final ContainerResponseWriter delegate;
+
+        private final AtomicBoolean suspended = new AtomicBoolean(false);
+        private volatile ContainerResponseWriter.TimeoutHandler timeoutHandler;
+
+        private DispatchedResponseWriter(final ContainerResponseWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Suspend the underlying container response writer.
+         *
+         * @return {@code true} if the container response writer has been suspended, {@code false} otherwise.
+         */
+        private boolean suspendContainer() {
+            return delegate.suspend(AsyncResponse.NO_TIMEOUT, TimeUnit.SECONDS, new ContainerResponseWriter.TimeoutHandler() {
+                @Override
+                public void onTimeout(final ContainerResponseWriter responseWriter) {
+                    final ContainerResponseWriter.TimeoutHandler handler = timeoutHandler;
+                    if (handler != null) {
+                        handler.onTimeout(DispatchedResponseWriter.this);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public OutputStream writeResponseStatusAndHeaders(final long contentLength, final ContainerResponse responseContext)
+                throws ContainerException {
+            return delegate.writeResponseStatusAndHeaders(contentLength, responseContext);
+        }
+
+        @Override
+        public boolean suspend(final long timeOut,
+                               final TimeUnit timeUnit,
+                               final ContainerResponseWriter.TimeoutHandler timeoutHandler) {
+            if (!suspended.compareAndSet(false, true)) {
+                return false;
+            }
+            this.timeoutHandler = timeoutHandler;
+            delegate.setSuspendTimeout(timeOut, timeUnit);
+            return true;
+        }
+
+        @Override
+        public void setSuspendTimeout(final long timeOut, final TimeUnit timeUnit) throws IllegalStateException {
+            if (!suspended.get()) {
+                throw new IllegalStateException(LocalizationMessages.SUSPEND_NOT_SUSPENDED());
+            }
+            delegate.setSuspendTimeout(timeOut, timeUnit);
+        }
+
+        @Override
+        public void commit() {
+            delegate.commit();
+        }
+
+        @Override
+        public void failure(final Throwable error) {
+            delegate.failure(error);
+        }
+    }
+
     private static class AsyncResponderHolder implements Value<AsyncContext> {
 
         private final Responder responder;
@@ -263,6 +376,8 @@ class ServerRuntime {
         private final ExceptionMappers exceptionMappers;
         private final Provider<CloseableService> closeableService;
         private final Provider<AsyncContext> asyncContext;
+        private final ExecutionStatistics statistics;
+        private final long start;
 
 
         private final CompletionCallbackRunner completionCallbackRunner = new CompletionCallbackRunner();
@@ -273,13 +388,17 @@ class ServerRuntime {
                          final RespondingContext respondingCtx,
                          final ExceptionMappers exceptionMappers,
                          final Provider<CloseableService> closeableService,
-                         final Provider<AsyncContext> asyncContext) {
+                         final Provider<AsyncContext> asyncContext,
+                         final ExecutionStatistics statistics,
+                         final long start) {
 
             this.request = request;
             this.respondingCtx = respondingCtx;
             this.exceptionMappers = exceptionMappers;
             this.closeableService = closeableService;
             this.asyncContext = asyncContext;
+            this.statistics = statistics;
+            this.start = start;
         }
 
         public void process(ContainerResponse response) {
@@ -293,6 +412,7 @@ class ServerRuntime {
 
             // no-exception zone
             // the methods below are guaranteed to not throw any exceptions
+            record(response.getStatus() >= 500);
             completionCallbackRunner.onComplete(null);
             release(response);
         }
@@ -306,6 +426,7 @@ class ServerRuntime {
                 try {
                     request.getResponseWriter().failure(error);
                 } finally {
+                    record(true);
                     completionCallbackRunner.onComplete(error);
                 }
             } finally {
@@ -313,6 +434,12 @@ class ServerRuntime {
             }
         }
 
+        private void record(final boolean error) {
+            if (statistics != null) {
+                statistics.record(System.nanoTime() - start, error);
+            }
+        }
+
         private ContainerResponse convertResponse(Response exceptionResponse) {
             final ContainerResponse containerResponse = new ContainerResponse(request, exceptionResponse);
             containerResponse.setMappedFromException(true);
@@ -371,25 +498,8 @@ class ServerRuntime {
             throw throwable;
         }
 
-        /**
-         * Used to set proper Content-Length header to outgoing {@link Response}s.
-         */
-        private static class MessageBodySizeCallback implements MessageBodyWorkers.MessageBodySizeCallback {
-            private long size = -1;
-
-            @Override
-            public void onRequestEntitySize(long size) throws IOException {
-                this.size = size;
-            }
-
-            public long getSize() {
-                return size;
-            }
-        }
-
         private ContainerResponse writeResponse(final ContainerResponse response) {
             final ContainerResponseWriter writer = request.getResponseWriter();
-            final MessageBodySizeCallback messageBodySizeCallback = new MessageBodySizeCallback();
 
             if (!response.hasEntity()) {
                 writer.writeResponseStatusAndHeaders(0, response);
@@ -404,13 +514,9 @@ class ServerRuntime {
 
                     @Override
                     public void commit() throws IOException {
-                        final long size;
-                        if (response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING) != null) {
-                            size = -1;
-                        } else {
-                            size = messageBodySizeCallback.getSize();
-                        }
-                        output = writer.writeResponseStatusAndHeaders(size, response);
+                        // the size reported by the message body writer is not used for the response entity,
+                        // the container decides on the transfer coding based on the written entity
+                        output = writer.writeResponseStatusAndHeaders(-1, response);
                     }
 
                     @Override
@@ -428,7 +534,7 @@ class ServerRuntime {
                             response.getHeaders(),
                             request.getPropertiesDelegate(),
                             response.getEntityStream(),
-                            messageBodySizeCallback,
+                            null,
                             true,
                             !request.getMethod().equals(HttpMethod.HEAD)));
                 } catch (IOException ioe) {
@@ -550,6 +656,15 @@ class ServerRuntime {
 
         @Override
         public void invokeManaged(final Producer<Response> producer) {
+            try {
+                submitManaged(producer);
+            } catch (RejectedExecutionException ex) {
+                // managed async executor is saturated
+                resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+            }
+        }
+
+        private void submitManaged(final Producer<Response> producer) {
             asyncExecutorsFactory.getRequestingExecutor(responder.request).submit(new Runnable() {
                 @Override
                 public void run() {
@@ -0,0 +1,163 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request execution statistics.
+ * <p>
+ * The statistics are updated using {@link StripedCounter striped counters} and a
+ * {@link SlidingWindowHistogram sliding window histogram} so that recording an execution does not
+ * require any locking.
+ * </p>
+ */
+public class ExecutionStatistics implements ExecutionStatisticsMXBean {
+
+    private static final double MICROS_PER_MILLI = 1000d;
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    private final StripedCounter requestCount = new StripedCounter();
+    private final StripedCounter errorCount = new StripedCounter();
+    private final StripedCounter totalTime = new StripedCounter();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final SlidingWindowHistogram histogram;
+
+    /**
+     * Create new execution statistics.
+     *
+     * @param windowSize size of the sliding window in seconds.
+     */
+    ExecutionStatistics(final int windowSize) {
+        this.histogram = new SlidingWindowHistogram(windowSize, Math.min(windowSize, 12), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Record an execution.
+     *
+     * @param durationNanos execution time in nanoseconds.
+     * @param error         {@code true} if the execution failed, {@code false} otherwise.
+     */
+    public void record(final long durationNanos, final boolean error) {
+        requestCount.increment();
+        if (error) {
+            errorCount.increment();
+        }
+        totalTime.add(durationNanos);
+
+        long max;
+        do {
+            max = maxTime.get();
+        } while (durationNanos > max && !maxTime.compareAndSet(max, durationNanos));
+
+        histogram.record(durationNanos, error, System.currentTimeMillis());
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public double getAverageTime() {
+        final long count = requestCount.sum();
+        return (count == 0) ? 0 : totalTime.sum() / NANOS_PER_MILLI / count;
+    }
+
+    @Override
+    public double getMaxTime() {
+        return maxTime.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getWindowSize() {
+        return histogram.getWindowMillis();
+    }
+
+    @Override
+    public long getWindowRequestCount() {
+        return SlidingWindowHistogram.requestCount(histogram.snapshot(System.currentTimeMillis()));
+    }
+
+    @Override
+    public long getWindowErrorCount() {
+        return SlidingWindowHistogram.errorCount(histogram.snapshot(System.currentTimeMillis()));
+    }
+
+    @Override
+    public double[] getHistogramBounds() {
+        final double[] bounds = new double[SlidingWindowHistogram.BUCKET_BOUNDS.length];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = SlidingWindowHistogram.BUCKET_BOUNDS[i] / MICROS_PER_MILLI;
+        }
+        return bounds;
+    }
+
+    @Override
+    public long[] getWindowHistogram() {
+        return SlidingWindowHistogram.buckets(histogram.snapshot(System.currentTimeMillis()));
+    }
+
+    @Override
+    public double getWindow50thPercentile() {
+        return percentile(50);
+    }
+
+    @Override
+    public double getWindow95thPercentile() {
+        return percentile(95);
+    }
+
+    @Override
+    public double getWindow99thPercentile() {
+        return percentile(99);
+    }
+
+    private double percentile(final double percentile) {
+        final long micros = SlidingWindowHistogram.percentile(histogram.snapshot(System.currentTimeMillis()), percentile);
+        return (micros == Long.MAX_VALUE) ? Double.POSITIVE_INFINITY : micros / MICROS_PER_MILLI;
+    }
+}
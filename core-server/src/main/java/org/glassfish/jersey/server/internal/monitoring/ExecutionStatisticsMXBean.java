@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+/**
+ * JMX management interface of the {@link ExecutionStatistics request execution statistics} collected for
+ * an application, a resource or a resource method.
+ * <p>
+ * The lifetime statistics cover all the executions recorded since the application has been started.
+ * The window statistics only cover the executions recorded within the last
+ * {@link #getWindowSize() window size} milliseconds. All times are in milliseconds.
+ * </p>
+ */
+public interface ExecutionStatisticsMXBean {
+
+    /**
+     * Get the total number of recorded executions.
+     *
+     * @return total execution count.
+     */
+    public long getRequestCount();
+
+    /**
+     * Get the total number of recorded failed executions.
+     *
+     * @return total failed execution count.
+     */
+    public long getErrorCount();
+
+    /**
+     * Get the average execution time.
+     *
+     * @return average execution time in milliseconds.
+     */
+    public double getAverageTime();
+
+    /**
+     * Get the maximum execution time.
+     *
+     * @return maximum execution time in milliseconds.
+     */
+    public double getMaxTime();
+
+    /**
+     * Get the size of the sliding window the window statistics are aggregated over.
+     *
+     * @return sliding window size in milliseconds.
+     */
+    public long getWindowSize();
+
+    /**
+     * Get the number of executions recorded within the sliding window.
+     *
+     * @return window execution count.
+     */
+    public long getWindowRequestCount();
+
+    /**
+     * Get the number of failed executions recorded within the sliding window.
+     *
+     * @return window failed execution count.
+     */
+    public long getWindowErrorCount();
+
+    /**
+     * Get the upper bounds of the execution time histogram buckets. The last histogram bucket, which is not
+     * included in the returned array, is unbounded.
+     *
+     * @return histogram bucket upper bounds in milliseconds.
+     */
+    public double[] getHistogramBounds();
+
+    /**
+     * Get the execution time histogram aggregated over the sliding window.
+     *
+     * @return execution counts per {@link #getHistogramBounds() histogram bucket}.
+     */
+    public long[] getWindowHistogram();
+
+    /**
+     * Get the estimated median execution time within the sliding window.
+     *
+     * @return median execution time in milliseconds.
+     */
+    public double getWindow50thPercentile();
+
+    /**
+     * Get the estimated 95th percentile of the execution time within the sliding window.
+     *
+     * @return 95th percentile of the execution time in milliseconds.
+     */
+    public double getWindow95thPercentile();
+
+    /**
+     * Get the estimated 99th percentile of the execution time within the sliding window.
+     *
+     * @return 99th percentile of the execution time in milliseconds.
+     */
+    public double getWindow99thPercentile();
+}
@@ -0,0 +1,290 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Configuration;
+
+import javax.inject.Inject;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.internal.LocalizationMessages;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+
+import org.glassfish.hk2.api.PreDestroy;
+
+/**
+ * Application monitoring statistics registry.
+ * <p>
+ * If the {@link ServerProperties#FEATURE_MONITORING_STATISTICS monitoring statistics} are enabled, the registry
+ * provides {@link ExecutionStatistics execution statistics} for the application, for each resource class and for
+ * each resource method, and exposes them as platform MXBeans under the {@code org.glassfish.jersey} domain.
+ * The statistics are disabled by default, in which case the registry does not provide any statistics.
+ * </p>
+ * <p>
+ * The MBeans are named after the {@link ServerProperties#MONITORING_STATISTICS_APPLICATION_NAME application name}
+ * and are unregistered when the container is shut down or when the application is destroyed, whichever comes first.
+ * </p>
+ */
+public class MonitoringStatistics implements ContainerLifecycleListener, PreDestroy {
+
+    private static final Logger LOGGER = Logger.getLogger(MonitoringStatistics.class.getName());
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final String applicationName;
+    private final ExecutionStatistics applicationStatistics;
+    private final ConcurrentMap<ObjectName, ExecutionStatistics> registered =
+            new ConcurrentHashMap<ObjectName, ExecutionStatistics>();
+
+    /**
+     * Create new monitoring statistics registry.
+     *
+     * @param configuration application configuration.
+     * @param application   JAX-RS application.
+     */
+    @Inject
+    public MonitoringStatistics(final Configuration configuration, final Application application) {
+        this.enabled = PropertiesHelper.isProperty(configuration.getProperties(),
+                ServerProperties.FEATURE_MONITORING_STATISTICS);
+        this.windowSize = Math.max(1, PropertiesHelper.getValue(configuration.getProperties(),
+                ServerProperties.MONITORING_STATISTICS_WINDOW_SIZE, ServerProperties.MONITORING_STATISTICS_WINDOW_SIZE_DEFAULT));
+
+        if (enabled) {
+            final String name = PropertiesHelper.getValue(configuration.getProperties(),
+                    ServerProperties.MONITORING_STATISTICS_APPLICATION_NAME, application.getClass().getName());
+            this.applicationName = reserveApplicationName(name);
+            this.applicationStatistics = register(name("ApplicationStatistics"));
+        } else {
+            this.applicationName = null;
+            this.applicationStatistics = null;
+        }
+    }
+
+    /**
+     * Register the application statistics MBean under the first free application name derived from the configured
+     * one, so that several applications with the same name deployed in one JVM do not clash.
+     */
+    private String reserveApplicationName(final String name) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (int i = 1; ; i++) {
+            final String candidate = (i == 1) ? name : name + "-" + i;
+            final ObjectName objectName = applicationStatisticsName(candidate);
+            if (objectName == null) {
+                return candidate;
+            }
+            final ExecutionStatistics statistics = new ExecutionStatistics(windowSize);
+            try {
+                server.registerMBean(statistics, objectName);
+            } catch (InstanceAlreadyExistsException ex) {
+                continue;
+            } catch (JMException ex) {
+                LOGGER.log(Level.WARNING,
+                        LocalizationMessages.MONITORING_STATISTICS_MBEAN_REGISTRATION_FAILED(objectName), ex);
+            }
+            registered.put(objectName, statistics);
+            return candidate;
+        }
+    }
+
+    private ObjectName applicationStatisticsName(final String applicationName) {
+        final String name = name("ApplicationStatistics", applicationName);
+        try {
+            return new ObjectName(name);
+        } catch (JMException ex) {
+            LOGGER.log(Level.WARNING, LocalizationMessages.MONITORING_STATISTICS_MBEAN_REGISTRATION_FAILED(name), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Get the application name the statistics MBeans are registered under.
+     *
+     * @return application name or {@code null} if the monitoring statistics are disabled.
+     */
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    /**
+     * Check whether the monitoring statistics are enabled.
+     *
+     * @return {@code true} if the monitoring statistics are enabled, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the application-wide request execution statistics.
+     *
+     * @return application statistics or {@code null} if the monitoring statistics are disabled.
+     */
+    public ExecutionStatistics getApplicationStatistics() {
+        return applicationStatistics;
+    }
+
+    /**
+     * Get the execution statistics aggregated for all resource methods handled by the given resource class.
+     *
+     * @param resourceClass resource (handler) class.
+     * @return resource statistics or {@code null} if the monitoring statistics are disabled.
+     */
+    public ExecutionStatistics getResourceStatistics(final Class<?> resourceClass) {
+        if (!enabled) {
+            return null;
+        }
+        return register(name("ResourceStatistics") + ",resource=" + ObjectName.quote(resourceClass.getName()));
+    }
+
+    /**
+     * Get the execution statistics of the given resource method.
+     *
+     * @param method resource method.
+     * @return resource method statistics or {@code null} if the monitoring statistics are disabled.
+     */
+    public ExecutionStatistics getResourceMethodStatistics(final ResourceMethod method) {
+        if (!enabled) {
+            return null;
+        }
+        final Invocable invocable = method.getInvocable();
+        final Method handlingMethod = invocable.getHandlingMethod();
+
+        final StringBuilder methodName = new StringBuilder();
+        if (method.getHttpMethod() != null) {
+            methodName.append(method.getHttpMethod()).append(' ');
+        }
+        methodName.append(handlingMethod.getName()).append('(');
+        final Class<?>[] parameterTypes = handlingMethod.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                methodName.append(',');
+            }
+            methodName.append(parameterTypes[i].getSimpleName());
+        }
+        methodName.append(')');
+
+        return register(name("ResourceMethodStatistics")
+                + ",resource=" + ObjectName.quote(invocable.getHandler().getHandlerClass().getName())
+                + ",method=" + ObjectName.quote(methodName.toString()));
+    }
+
+    private String name(final String type) {
+        return name(type, applicationName);
+    }
+
+    private static String name(final String type, final String applicationName) {
+        return "org.glassfish.jersey:type=" + type + ",application=" + ObjectName.quote(applicationName);
+    }
+
+    private ExecutionStatistics register(final String name) {
+        final ObjectName objectName;
+        try {
+            objectName = new ObjectName(name);
+        } catch (JMException ex) {
+            LOGGER.log(Level.WARNING, LocalizationMessages.MONITORING_STATISTICS_MBEAN_REGISTRATION_FAILED(name), ex);
+            return new ExecutionStatistics(windowSize);
+        }
+
+        ExecutionStatistics statistics = registered.get(objectName);
+        if (statistics == null) {
+            final ExecutionStatistics created = new ExecutionStatistics(windowSize);
+            statistics = registered.putIfAbsent(objectName, created);
+            if (statistics == null) {
+                statistics = created;
+                try {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(created, objectName);
+                } catch (JMException ex) {
+                    LOGGER.log(Level.WARNING, LocalizationMessages.MONITORING_STATISTICS_MBEAN_REGISTRATION_FAILED(name), ex);
+                }
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public void onStartup(final Container container) {
+        // nothing to do
+    }
+
+    @Override
+    public void onReload(final Container container) {
+        // nothing to do
+    }
+
+    @Override
+    public void onShutdown(final Container container) {
+        unregister();
+    }
+
+    @Override
+    public void preDestroy() {
+        unregister();
+    }
+
+    private void unregister() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered.keySet()) {
+            try {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException ex) {
+                LOGGER.log(Level.FINE, LocalizationMessages.MONITORING_STATISTICS_MBEAN_UNREGISTRATION_FAILED(name), ex);
+            }
+        }
+        registered.clear();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram aggregated over a sliding time window.
+ * <p>
+ * The window is divided into a fixed number of time slots, each holding a latency histogram with
+ * {@link #BUCKET_BOUNDS predefined buckets}, a request count and an error count. Slots are recycled
+ * as the time advances, so the recorded data are only retained for the duration of the window.
+ * The histogram is updated without locking; when a slot is recycled, concurrent updates to the recycled
+ * slot may get lost. The provided statistics are therefore approximate.
+ * </p>
+ */
+final class SlidingWindowHistogram {
+
+    /**
+     * Upper bounds (inclusive) of the histogram buckets in microseconds. The last bucket is unbounded.
+     */
+    static final long[] BUCKET_BOUNDS = {
+            100, 250, 500,
+            1000, 2500, 5000,
+            10000, 25000, 50000,
+            100000, 250000, 500000,
+            1000000, 2500000, 5000000,
+            10000000
+    };
+
+    private static final int BUCKETS = BUCKET_BOUNDS.length + 1;
+    private static final int REQUEST_COUNT = BUCKETS;
+    private static final int ERROR_COUNT = BUCKETS + 1;
+    private static final int SLOT_SIZE = BUCKETS + 2;
+
+    private final long slotMillis;
+    private final Slot[] slots;
+
+    /**
+     * Slot of the sliding window.
+     */
+    private static final class Slot {
+
+        private volatile long epoch = -1;
+        private final AtomicLongArray values = new AtomicLongArray(SLOT_SIZE);
+
+        private Slot acquire(final long currentEpoch) {
+            if (epoch != currentEpoch) {
+                synchronized (this) {
+                    if (epoch != currentEpoch) {
+                        for (int i = 0; i < SLOT_SIZE; i++) {
+                            values.set(i, 0);
+                        }
+                        epoch = currentEpoch;
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Create new sliding window histogram.
+     *
+     * @param window    size of the sliding window.
+     * @param slotCount number of slots the window is divided into.
+     * @param unit      time unit of the window size.
+     */
+    SlidingWindowHistogram(final long window, final int slotCount, final TimeUnit unit) {
+        this.slotMillis = Math.max(unit.toMillis(window) / slotCount, 1);
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Get the size of the sliding window.
+     *
+     * @return size of the sliding window in milliseconds.
+     */
+    long getWindowMillis() {
+        return slotMillis * slots.length;
+    }
+
+    /**
+     * Record a request execution.
+     *
+     * @param durationNanos request execution time in nanoseconds.
+     * @param error         {@code true} if the execution failed.
+     * @param nowMillis     current time in milliseconds.
+     */
+    void record(final long durationNanos, final boolean error, final long nowMillis) {
+        final long currentEpoch = nowMillis / slotMillis;
+        final Slot slot = slots[(int) (currentEpoch % slots.length)].acquire(currentEpoch);
+
+        slot.values.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(durationNanos)));
+        slot.values.incrementAndGet(REQUEST_COUNT);
+        if (error) {
+            slot.values.incrementAndGet(ERROR_COUNT);
+        }
+    }
+
+    private static int bucket(final long micros) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (micros <= BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS.length;
+    }
+
+    /**
+     * Take a snapshot of the histogram aggregated over the current sliding window.
+     *
+     * @param nowMillis current time in milliseconds.
+     * @return aggregated histogram snapshot. The array contains the bucket counts followed by the request
+     *         count and the error count.
+     */
+    long[] snapshot(final long nowMillis) {
+        final long currentEpoch = nowMillis / slotMillis;
+        final long[] result = new long[SLOT_SIZE];
+        for (Slot slot : slots) {
+            final long epoch = slot.epoch;
+            if (epoch >= 0 && currentEpoch - epoch < slots.length) {
+                for (int i = 0; i < SLOT_SIZE; i++) {
+                    result[i] += slot.values.get(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the bucket counts from the snapshot.
+     *
+     * @param snapshot histogram snapshot.
+     * @return bucket counts.
+     */
+    static long[] buckets(final long[] snapshot) {
+        final long[] buckets = new long[BUCKETS];
+        System.arraycopy(snapshot, 0, buckets, 0, BUCKETS);
+        return buckets;
+    }
+
+    /**
+     * Get the request count from the snapshot.
+     *
+     * @param snapshot histogram snapshot.
+     * @return request count.
+     */
+    static long requestCount(final long[] snapshot) {
+        return snapshot[REQUEST_COUNT];
+    }
+
+    /**
+     * Get the error count from the snapshot.
+     *
+     * @param snapshot histogram snapshot.
+     * @return error count.
+     */
+    static long errorCount(final long[] snapshot) {
+        return snapshot[ERROR_COUNT];
+    }
+
+    /**
+     * Estimate the latency percentile from the snapshot as the upper bound of the bucket
+     * that contains the percentile.
+     *
+     * @param snapshot   histogram snapshot.
+     * @param percentile requested percentile, between {@code 0} and {@code 100}.
+     * @return estimated percentile in microseconds, {@code 0} if there are no data in the snapshot or
+     *         {@link Long#MAX_VALUE} if the percentile falls into the unbounded bucket.
+     */
+    static long percentile(final long[] snapshot, final double percentile) {
+        final long count = snapshot[REQUEST_COUNT];
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return BUCKET_BOUNDS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.process;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, instrumented thread pool executor used to run {@link org.glassfish.jersey.server.ManagedAsync
+ * managed asynchronous} resource methods.
+ * <p>
+ * Besides the standard {@link ThreadPoolExecutor} statistics, the executor keeps track of the number of
+ * rejected tasks and of the task latency (time between the task submission and completion) so that it can be
+ * sized based on the observed load. Tasks that cannot be accepted because both the pool and the queue are exhausted
+ * are rejected with a {@link RejectedExecutionException}.
+ * </p>
+ */
+public class ManagedAsyncExecutor extends ThreadPoolExecutor implements ManagedAsyncExecutorMXBean {
+
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    private final int queueCapacity;
+
+    private final AtomicLong rejectedTaskCount = new AtomicLong();
+    private final AtomicLong timedTaskCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final AtomicLong totalQueueWaitTime = new AtomicLong();
+
+    /**
+     * Create new managed asynchronous executor.
+     *
+     * @param corePoolSize      number of threads to keep in the pool even if they are idle.
+     * @param maximumPoolSize   maximum number of threads in the pool. If smaller than {@code corePoolSize},
+     *                          {@code corePoolSize} is used instead.
+     * @param queueCapacity     capacity of the task queue. If {@code 0}, tasks are handed over to the pool
+     *                          threads directly.
+     * @param keepAliveSeconds  time in seconds for which the idle threads are kept in the pool. If positive,
+     *                          the timeout applies to the core threads too.
+     * @param threadFactory     factory used to create new pool threads.
+     */
+    public ManagedAsyncExecutor(final int corePoolSize,
+                                final int maximumPoolSize,
+                                final int queueCapacity,
+                                final long keepAliveSeconds,
+                                final ThreadFactory threadFactory) {
+        super(corePoolSize,
+                Math.max(Math.max(corePoolSize, maximumPoolSize), 1),
+                keepAliveSeconds,
+                TimeUnit.SECONDS,
+                createQueue(queueCapacity),
+                threadFactory);
+        this.queueCapacity = Math.max(queueCapacity, 0);
+        if (keepAliveSeconds > 0) {
+            allowCoreThreadTimeOut(true);
+        }
+    }
+
+    private static BlockingQueue<Runnable> createQueue(final int capacity) {
+        return (capacity > 0) ? new LinkedBlockingQueue<Runnable>(capacity) : new SynchronousQueue<Runnable>();
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        try {
+            super.execute(new TimedTask(command));
+        } catch (RejectedExecutionException ex) {
+            if (!isShutdown()) {
+                rejectedTaskCount.incrementAndGet();
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void beforeExecute(final Thread thread, final Runnable task) {
+        super.beforeExecute(thread, task);
+        if (task instanceof TimedTask) {
+            totalQueueWaitTime.addAndGet(System.nanoTime() - ((TimedTask) task).submitted);
+        }
+    }
+
+    @Override
+    protected void afterExecute(final Runnable task, final Throwable throwable) {
+        super.afterExecute(task, throwable);
+        if (task instanceof TimedTask) {
+            final long latency = System.nanoTime() - ((TimedTask) task).submitted;
+
+            timedTaskCount.incrementAndGet();
+            totalLatency.addAndGet(latency);
+            long max;
+            do {
+                max = maxLatency.get();
+            } while (latency > max && !maxLatency.compareAndSet(max, latency));
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejectedTaskCount.get();
+    }
+
+    @Override
+    public double getAverageTaskLatency() {
+        final long count = timedTaskCount.get();
+        return (count == 0) ? 0 : totalLatency.get() / NANOS_PER_MILLI / count;
+    }
+
+    @Override
+    public double getMaxTaskLatency() {
+        return maxLatency.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getAverageQueueWaitTime() {
+        final long count = timedTaskCount.get();
+        return (count == 0) ? 0 : totalQueueWaitTime.get() / NANOS_PER_MILLI / count;
+    }
+
+    /**
+     * Task wrapper that records the task submission time.
+     */
+    private static final class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submitted;
+
+        private TimedTask(final Runnable task) {
+            this.task = task;
+            this.submitted = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.process;
+
+/**
+ * JMX management interface of the {@link ManagedAsyncExecutor executor} used to run
+ * {@link org.glassfish.jersey.server.ManagedAsync managed asynchronous} resource methods.
+ */
+public interface ManagedAsyncExecutorMXBean {
+
+    /**
+     * Get the number of tasks waiting in the executor queue.
+     *
+     * @return current queue depth.
+     */
+    public int getQueueSize();
+
+    /**
+     * Get the capacity of the executor queue.
+     *
+     * @return queue capacity, {@code 0} if tasks are handed over to the pool threads directly.
+     */
+    public int getQueueCapacity();
+
+    /**
+     * Get the approximate number of threads that are actively executing tasks.
+     *
+     * @return number of active threads.
+     */
+    public int getActiveCount();
+
+    /**
+     * Get the current number of threads in the pool.
+     *
+     * @return current pool size.
+     */
+    public int getPoolSize();
+
+    /**
+     * Get the largest number of threads that have ever simultaneously been in the pool.
+     *
+     * @return largest pool size.
+     */
+    public int getLargestPoolSize();
+
+    /**
+     * Get the core number of threads.
+     *
+     * @return core pool size.
+     */
+    public int getCorePoolSize();
+
+    /**
+     * Get the maximum allowed number of threads.
+     *
+     * @return maximum pool size.
+     */
+    public int getMaximumPoolSize();
+
+    /**
+     * Get the number of tasks that have completed execution.
+     *
+     * @return completed task count.
+     */
+    public long getCompletedTaskCount();
+
+    /**
+     * Get the number of tasks that were rejected by the executor because both the pool and the queue
+     * were exhausted.
+     *
+     * @return rejected task count.
+     */
+    public long getRejectedTaskCount();
+
+    /**
+     * Get the average task latency, i.e. the time elapsed between the task submission and the task
+     * completion, including the time the task spent waiting in the queue.
+     *
+     * @return average task latency in milliseconds.
+     */
+    public double getAverageTaskLatency();
+
+    /**
+     * Get the maximum task latency observed so far.
+     *
+     * @return maximum task latency in milliseconds.
+     */
+    public double getMaxTaskLatency();
+
+    /**
+     * Get the average time the tasks spent waiting in the queue before their execution was started.
+     *
+     * @return average queue wait time in milliseconds.
+     */
+    public double getAverageQueueWaitTime();
+}
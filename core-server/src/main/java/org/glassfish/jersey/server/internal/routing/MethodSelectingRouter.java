@@ -39,9 +39,11 @@
  */
 package org.glassfish.jersey.server.internal.routing;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -49,6 +51,7 @@ import java.util.logging.Logger;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -56,9 +59,11 @@ import javax.ws.rs.core.Response.Status;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.process.RespondingContext;
 import org.glassfish.jersey.server.model.Invocable;
@@ -66,6 +71,10 @@ import org.glassfish.jersey.server.model.Parameter;
 import org.glassfish.jersey.server.model.ResourceMethod;
 
 import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Sets;
 
 /**
@@ -75,6 +84,11 @@ import com.google.common.collect.Sets;
  * The method selection algorithm selects the handling method based on the HTTP request
  * method name, requested media type as well as defined resource method media type
  * capabilities.
+ * <p>
+ * The result of the method selection is cached per distinct combination of the HTTP request
+ * method name, {@code Content-Type} and {@code Accept} header values. The maximum number of cached
+ * selections per router is configurable via {@link ServerProperties#METHOD_SELECTION_CACHE_SIZE}.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -89,12 +103,19 @@ final class MethodSelectingRouter implements Router {
     private final Map<String, List<ConsumesProducesAcceptor>> consumesProducesAcceptors;
     private final Router router;
 
+    private final Cache<RequestShape, MethodSelection> selectionCache;
+    private final MethodSelectionCacheStatistics selectionCacheStatistics;
+
     /**
      * Injectable builder of a {@link MethodSelectingRouter} instance.
      */
     static class Builder {
         @Inject
         private Provider<RespondingContext> respondingContextFactory;
+        @Inject
+        private Configuration configuration;
+        @Inject
+        private MethodSelectionCacheStatistics selectionCacheStatistics;
 
         /**
          * Create a new {@link MethodSelectingRouter} for all the methods on the same path.
@@ -109,19 +130,37 @@ final class MethodSelectingRouter implements Router {
         public MethodSelectingRouter build(
                 final MessageBodyWorkers workers, final List<MethodAcceptorPair> methodAcceptorPairs) {
 
+            final int selectionCacheSize = PropertiesHelper.getValue(configuration.getProperties(),
+                    ServerProperties.METHOD_SELECTION_CACHE_SIZE, ServerProperties.METHOD_SELECTION_CACHE_SIZE_DEFAULT);
+
             return new MethodSelectingRouter(respondingContextFactory,
                     workers,
-                    methodAcceptorPairs);
+                    methodAcceptorPairs,
+                    selectionCacheSize,
+                    selectionCacheStatistics);
         }
     }
 
     private MethodSelectingRouter(
             Provider<RespondingContext> respondingContextFactory,
             MessageBodyWorkers msgWorkers,
-            List<MethodAcceptorPair> methodAcceptorPairs) {
+            List<MethodAcceptorPair> methodAcceptorPairs,
+            int selectionCacheSize,
+            final MethodSelectionCacheStatistics selectionCacheStatistics) {
         this.respondingContextFactory = respondingContextFactory;
         this.workers = msgWorkers;
 
+        this.selectionCache = (selectionCacheSize > 0) ? CacheBuilder.newBuilder()
+                .maximumSize(selectionCacheSize)
+                .removalListener(new RemovalListener<RequestShape, MethodSelection>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<RequestShape, MethodSelection> notification) {
+                        selectionCacheStatistics.evicted();
+                    }
+                })
+                .<RequestShape, MethodSelection>build() : null;
+        this.selectionCacheStatistics = selectionCacheStatistics;
+
         this.consumesProducesAcceptors = new HashMap<String, List<ConsumesProducesAcceptor>>();
 
         for (final MethodAcceptorPair methodAcceptorPair : methodAcceptorPairs) {
@@ -301,6 +340,69 @@ final class MethodSelectingRouter implements Router {
     }
 
 
+    /**
+     * Request properties that determine the result of the resource method selection.
+     * <p>
+     * The header values are normalized, so that requests differing only in the header formatting
+     * or in the {@code Content-Type} parameters (e.g. {@code charset} or {@code boundary}), which do not
+     * affect the method selection, share the same cache entry.
+     * </p>
+     */
+    private static final class RequestShape {
+
+        private final String method;
+        private final MediaType contentType;
+        private final List<MediaType> accept;
+        private final int hashCode;
+
+        RequestShape(ContainerRequest requestContext) {
+            this.method = requestContext.getMethod();
+            final MediaType requestType = requestContext.getMediaType();
+            this.contentType = (requestType == null) ? null : new MediaType(
+                    requestType.getType().toLowerCase(Locale.ENGLISH), requestType.getSubtype().toLowerCase(Locale.ENGLISH));
+            this.accept = new ArrayList<MediaType>(requestContext.getAcceptableMediaTypes());
+
+            int hash = method.hashCode();
+            hash = 31 * hash + (contentType != null ? contentType.hashCode() : 0);
+            hash = 31 * hash + accept.hashCode();
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RequestShape)) {
+                return false;
+            }
+            final RequestShape other = (RequestShape) o;
+            return hashCode == other.hashCode
+                    && method.equals(other.method)
+                    && (contentType == null ? other.contentType == null : contentType.equals(other.contentType))
+                    && accept.equals(other.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cached result of the resource method selection.
+     */
+    private static final class MethodSelection {
+
+        private final MethodAcceptorPair methodAcceptorPair;
+        private final MediaType effectiveResponseType;
+
+        MethodSelection(MethodAcceptorPair methodAcceptorPair, MediaType effectiveResponseType) {
+            this.methodAcceptorPair = methodAcceptorPair;
+            this.effectiveResponseType = effectiveResponseType;
+        }
+    }
+
     private Router createInternalRouter() {
         return new Router() {
 
@@ -381,6 +483,22 @@ final class MethodSelectingRouter implements Router {
             throw new WebApplicationException(
                     Response.status(Status.METHOD_NOT_ALLOWED).allow(consumesProducesAcceptors.keySet()).build());
         }
+
+        // the method selection depends only on the request method, content type and acceptable types
+        final RequestShape requestShape;
+        if (selectionCache != null) {
+            requestShape = new RequestShape(requestContext);
+            final MethodSelection cached = selectionCache.getIfPresent(requestShape);
+            if (cached != null) {
+                selectionCacheStatistics.hit();
+                pushEffectiveResponseType(cached.effectiveResponseType);
+                return cached.methodAcceptorPair.router;
+            }
+            selectionCacheStatistics.miss();
+        } else {
+            requestShape = null;
+        }
+
         List<ConsumesProducesAcceptor> satisfyingAcceptors = new LinkedList<ConsumesProducesAcceptor>();
         for (ConsumesProducesAcceptor cpi : acceptors) {
             if (cpi.isConsumable(requestContext)) {
@@ -418,35 +536,51 @@ final class MethodSelectingRouter implements Router {
                 reportMethodSelectionAmbiguity(acceptableMediaTypes, selected, methodSelector.sameFitnessAcceptors);
             }
 
-            respondingContextFactory.get().push(
-                    new Function<ContainerResponse, ContainerResponse>() {
-                        @Override
-                        public ContainerResponse apply(final ContainerResponse responseContext) {
-                            // we only need to compute and set the effective media type if it hasn't been set already
-                            // and either there is an entity, or we are responding to a HEAD request
-                            if (responseContext.getMediaType() == null &&
-                                    (responseContext.hasEntity() ||
-                                            HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
-                                MediaType effectiveResponseType = selected.produces.getCombinedMediaType();
-                                if (isWildcard(effectiveResponseType)) {
-                                    if (effectiveResponseType.isWildcardType() || effectiveResponseType.getType()
-                                            .equalsIgnoreCase("application")) {
-                                        effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
-                                    } else {
-                                        throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
-                                    }
-                                }
-                                responseContext.setMediaType(effectiveResponseType);
-                            }
-                            return responseContext;
-                        }
-                    });
+            final MediaType effectiveResponseType = selected.produces.getCombinedMediaType();
+            if (requestShape != null) {
+                cacheSelection(requestShape, new MethodSelection(selected.methodAcceptorPair, effectiveResponseType));
+            }
+
+            pushEffectiveResponseType(effectiveResponseType);
             return selected.methodAcceptorPair.router;
         }
 
         throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
     }
 
+    private void cacheSelection(final RequestShape requestShape, final MethodSelection selection) {
+        // least recently used selections are evicted once the cache is full
+        if (selectionCache.asMap().putIfAbsent(requestShape, selection) == null) {
+            selectionCacheStatistics.cached();
+        }
+    }
+
+    private void pushEffectiveResponseType(final MediaType selectedResponseType) {
+        respondingContextFactory.get().push(
+                new Function<ContainerResponse, ContainerResponse>() {
+                    @Override
+                    public ContainerResponse apply(final ContainerResponse responseContext) {
+                        // we only need to compute and set the effective media type if it hasn't been set already
+                        // and either there is an entity, or we are responding to a HEAD request
+                        if (responseContext.getMediaType() == null &&
+                                (responseContext.hasEntity() ||
+                                        HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
+                            MediaType effectiveResponseType = selectedResponseType;
+                            if (isWildcard(effectiveResponseType)) {
+                                if (effectiveResponseType.isWildcardType() || effectiveResponseType.getType()
+                                        .equalsIgnoreCase("application")) {
+                                    effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+                                } else {
+                                    throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
+                                }
+                            }
+                            responseContext.setMediaType(effectiveResponseType);
+                        }
+                        return responseContext;
+                    }
+                });
+    }
+
     private boolean isWildcard(final MediaType effectiveResponseType) {
         return effectiveResponseType.isWildcardType() || effectiveResponseType.isWildcardSubtype();
     }
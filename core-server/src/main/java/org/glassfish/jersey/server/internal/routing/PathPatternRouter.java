@@ -81,11 +81,16 @@ class PathPatternRouter implements Router {
     }
 
     private final Provider<RoutingContext> contextProvider;
-    private final List<Route<PathPattern>> acceptedRoutes;
+    private final PathPatternTrie acceptedRoutes;
 
     /**
      * Constructs route methodAcceptorPair that uses {@link PathPattern} instances for
      * patch matching.
+     * <p>
+     * The routes are compiled into a {@link PathPatternTrie literal path segment trie}
+     * so that only the routes whose literal path segments match the request path
+     * are matched using the path pattern regular expressions.
+     * </p>
      *
      * @param provider {@link RoutingContext} injection provider.
      * @param routes   next-level request routers to be returned in case the router matching
@@ -95,7 +100,7 @@ class PathPatternRouter implements Router {
                               final List<Route<PathPattern>> routes) {
 
         this.contextProvider = provider;
-        this.acceptedRoutes = routes;
+        this.acceptedRoutes = PathPatternTrie.compile(routes);
     }
 
     @Override
@@ -104,7 +109,7 @@ class PathPatternRouter implements Router {
         // Peek at matching information to obtain path to match
         String path = rc.getFinalMatchingGroup();
 
-        for (final Route<PathPattern> acceptedRoute : acceptedRoutes) {
+        for (final Route<PathPattern> acceptedRoute : acceptedRoutes.candidates(path)) {
             final MatchResult m = acceptedRoute.routingPattern().match(path);
             if (m != null) {
                 // Push match result information and rest of path to match
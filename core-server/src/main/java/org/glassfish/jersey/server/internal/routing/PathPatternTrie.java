@@ -0,0 +1,215 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Literal path segment trie compiled from a list of {@link PathPattern path pattern}
+ * routes.
+ * <p>
+ * Every route is stored in the trie node reached by following the leading literal
+ * (non-templated) segments of the route path template. A request path lookup walks the
+ * trie along the request path segments and returns the routes collected on the way, in
+ * the original route order. Since a route can only match a request path that starts with
+ * all the literal segments of the route path template, the returned routes are the only
+ * candidates that need to be matched against the request path using the (regular expression
+ * based) {@link PathPattern#match(CharSequence) path pattern matching}. The relative order
+ * of the routes, which typically reflects the {@link PathPattern#COMPARATOR path pattern
+ * precedence}, is preserved.
+ * </p>
+ */
+final class PathPatternTrie {
+
+    private static final class Node {
+
+        /**
+         * Indexes of routes stored in this node.
+         */
+        private final List<Integer> routeIndexes = Lists.newArrayList();
+        /**
+         * Child nodes mapped by literal path segment, {@code null} if the node is a leaf.
+         */
+        private Map<String, Node> children;
+        /**
+         * Candidate routes of this node and all its ancestors in the original route order.
+         */
+        private List<Route<PathPattern>> candidates;
+
+        private Node child(final String segment) {
+            if (children == null) {
+                children = Maps.newHashMap();
+            }
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node();
+                children.put(segment, child);
+            }
+            return child;
+        }
+    }
+
+    private final Node root;
+
+    /**
+     * Compile the path pattern routes into a new literal path segment trie.
+     *
+     * @param routes path pattern routes in the order in which they should be matched.
+     * @return compiled path pattern trie.
+     */
+    static PathPatternTrie compile(final List<Route<PathPattern>> routes) {
+        final Node root = new Node();
+        int index = 0;
+        for (Route<PathPattern> route : routes) {
+            Node node = root;
+            for (String segment : literalSegments(route.routingPattern().getTemplate().getTemplate())) {
+                node = node.child(segment);
+            }
+            node.routeIndexes.add(index++);
+        }
+
+        computeCandidates(root, Collections.<Integer>emptyList(), Lists.newArrayList(routes));
+        return new PathPatternTrie(root);
+    }
+
+    private PathPatternTrie(final Node root) {
+        this.root = root;
+    }
+
+    private static void computeCandidates(final Node node,
+                                          final List<Integer> parentIndexes,
+                                          final List<Route<PathPattern>> routes) {
+        // both lists are sorted, merge them to retain the original route order
+        final List<Integer> indexes = new ArrayList<Integer>(parentIndexes.size() + node.routeIndexes.size());
+        int i = 0;
+        int j = 0;
+        while (i < parentIndexes.size() || j < node.routeIndexes.size()) {
+            if (j == node.routeIndexes.size()
+                    || (i < parentIndexes.size() && parentIndexes.get(i) < node.routeIndexes.get(j))) {
+                indexes.add(parentIndexes.get(i++));
+            } else {
+                indexes.add(node.routeIndexes.get(j++));
+            }
+        }
+
+        final List<Route<PathPattern>> candidates = new ArrayList<Route<PathPattern>>(indexes.size());
+        for (Integer index : indexes) {
+            candidates.add(routes.get(index));
+        }
+        node.candidates = candidates;
+
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                computeCandidates(child, indexes, routes);
+            }
+        }
+    }
+
+    /**
+     * Get the leading literal segments of a path template. The literal segment extraction
+     * stops at the first segment that is empty, contains a template variable or contains
+     * a character that may be percent-encoded in the path pattern regular expression.
+     *
+     * @param template path template.
+     * @return leading literal segments of the path template.
+     */
+    static List<String> literalSegments(final String template) {
+        final List<String> segments = Lists.newArrayList();
+        if (template == null || template.isEmpty() || template.charAt(0) != '/') {
+            return segments;
+        }
+
+        int start = 1;
+        while (start < template.length()) {
+            int end = start;
+            while (end < template.length() && template.charAt(end) != '/') {
+                if (!isLiteralSegmentCharacter(template.charAt(end))) {
+                    return segments;
+                }
+                end++;
+            }
+            if (end == start) {
+                return segments;
+            }
+            segments.add(template.substring(start, end));
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static boolean isLiteralSegmentCharacter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    /**
+     * Get the candidate routes for the un-matched right-hand request path.
+     *
+     * @param path un-matched right-hand request path.
+     * @return candidate routes that may match the path, in the original route order.
+     */
+    List<Route<PathPattern>> candidates(final String path) {
+        Node node = root;
+        if (path != null && !path.isEmpty() && path.charAt(0) == '/') {
+            int start = 1;
+            while (node.children != null && start <= path.length()) {
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = path.length();
+                }
+                final Node child = node.children.get(path.substring(start, end));
+                if (child == null) {
+                    break;
+                }
+                node = child;
+                start = end + 1;
+            }
+        }
+        return node.candidates;
+    }
+}
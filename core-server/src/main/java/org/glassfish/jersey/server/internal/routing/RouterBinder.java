@@ -45,6 +45,7 @@ import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.UriInfo;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.process.internal.RequestScoped;
@@ -112,6 +113,7 @@ public class RouterBinder extends AbstractBinder {
         bindAsContract(PathPatternRouter.Builder.class);
         bindAsContract(PushMethodHandlerRouter.Builder.class);
         bindAsContract(MethodSelectingRouter.Builder.class);
+        bindAsContract(MethodSelectionCacheStatistics.class).in(Singleton.class);
         bindAsContract(RoutingStage.Builder.class);
         bindAsContract(RoutedInflectorExtractorStage.class);
     }
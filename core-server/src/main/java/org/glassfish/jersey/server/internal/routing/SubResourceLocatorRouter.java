@@ -53,9 +53,11 @@ import org.glassfish.jersey.internal.Errors;
 import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.inject.Injections;
 import org.glassfish.jersey.internal.inject.Providers;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.model.internal.RankedComparator;
 import org.glassfish.jersey.model.internal.RankedProvider;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.JerseyResourceContext;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.process.MappableException;
@@ -71,12 +73,19 @@ import org.glassfish.jersey.server.spi.internal.ParameterValueHelper;
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.api.ServiceLocator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * An methodAcceptorPair to accept sub-resource requests.
  * It first retrieves the sub-resource instance by invoking the given model method.
  * Then the {@link RuntimeModelBuilder} is used to generate corresponding methodAcceptorPair.
  * Finally the generated methodAcceptorPair is invoked to return the request methodAcceptorPair chain.
  * <p/>
+ * The generated sub-resource methodAcceptorPair is cached per sub-resource class (see
+ * {@link ServerProperties#SUBRESOURCE_LOCATOR_CACHE_SIZE} and
+ * {@link ServerProperties#FEATURE_DISABLE_SUBRESOURCE_LOCATOR_CACHE}).
+ * <p/>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  */
@@ -88,6 +97,7 @@ class SubResourceLocatorRouter implements Router {
     private final RuntimeModelBuilder runtimeModelBuilderOriginal;
     private final JerseyResourceContext resourceContext;
 
+    private final Cache<Class<?>, Router> routerCache;
 
     /**
      * Create a new sub-resource locator router.
@@ -105,6 +115,14 @@ class SubResourceLocatorRouter implements Router {
         this.locatorModel = locatorModel;
         this.valueProviders = ParameterValueHelper.createValueProviders(locator, locatorModel.getInvocable());
         this.resourceContext = locator.getService(JerseyResourceContext.class);
+
+        final Configuration configuration = locator.getService(Configuration.class);
+        final boolean cacheDisabled = PropertiesHelper.isProperty(
+                configuration.getProperty(ServerProperties.FEATURE_DISABLE_SUBRESOURCE_LOCATOR_CACHE));
+        final int routerCacheSize = cacheDisabled ? 0 : PropertiesHelper.getValue(configuration.getProperties(),
+                ServerProperties.SUBRESOURCE_LOCATOR_CACHE_SIZE, ServerProperties.SUBRESOURCE_LOCATOR_CACHE_SIZE_DEFAULT);
+        this.routerCache = (routerCacheSize > 0)
+                ? CacheBuilder.newBuilder().maximumSize(routerCacheSize).<Class<?>, Router>build() : null;
     }
 
     @Override
@@ -122,10 +140,25 @@ class SubResourceLocatorRouter implements Router {
         }
         resourceContext.bindResourceIfSingleton(subResource);
 
+        final Class<?> subResourceClass = subResource.getClass();
+        Router subResourceAcceptor = (routerCache != null) ? routerCache.getIfPresent(subResourceClass) : null;
+        if (subResourceAcceptor == null) {
+            subResourceAcceptor = createSubResourceAcceptor(subResourceClass);
+            if (routerCache != null) {
+                // least recently used routers are evicted once the cache is full
+                routerCache.put(subResourceClass, subResourceAcceptor);
+            }
+        }
+
+        routingCtx.pushMatchedResource(subResource);
+        return Continuation.of(request, subResourceAcceptor);
+    }
+
+    private Router createSubResourceAcceptor(final Class<?> subResourceClass) {
         Resource subResourceModel;
 
         // TODO: what to do with the issues?
-        final Resource.Builder builder = Resource.builder(subResource.getClass());
+        final Resource.Builder builder = Resource.builder(subResourceClass);
         if (builder == null) {
             // resource is empty
             throw new NotFoundException();
@@ -142,10 +175,7 @@ class SubResourceLocatorRouter implements Router {
         final RuntimeModelBuilder runtimeModelBuilder = runtimeModelBuilderOriginal.copy();
         runtimeModelBuilder.process(subResourceModel, true);
 
-        // TODO: implement generated sub-resource methodAcceptorPair caching
-        routingCtx.pushMatchedResource(subResource);
-        Router subResourceAcceptor = runtimeModelBuilder.buildModel(true);
-        return Continuation.of(request, subResourceAcceptor);
+        return runtimeModelBuilder.buildModel(true);
     }
 
     private Resource processSubResource(Resource subResourceModel) {
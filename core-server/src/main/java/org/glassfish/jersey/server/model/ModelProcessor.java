@@ -82,6 +82,11 @@ public interface ModelProcessor {
     /**
      * Process {@code subResource} which is created from sub resource locator. Returning input {@code subResource} will
      * cause no effect on the final sub resource model.
+     * <p>
+     * Note that the processed sub resource model is by default cached per sub resource class and the method is
+     * therefore typically invoked only once for each sub resource class returned from a sub resource locator
+     * (see {@link org.glassfish.jersey.server.ServerProperties#SUBRESOURCE_LOCATOR_CACHE_SIZE}).
+     * </p>
      *
      * @param subResource {@link Resource Sub resource} which is based on sub resource returned from sub resource locator.
      * @param configuration Runtime configuration.
@@ -75,6 +75,8 @@ import org.glassfish.jersey.model.internal.RankedProvider;
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.internal.monitoring.ExecutionStatistics;
+import org.glassfish.jersey.server.internal.monitoring.MonitoringStatistics;
 import org.glassfish.jersey.server.internal.process.AsyncContext;
 import org.glassfish.jersey.server.internal.process.Endpoint;
 import org.glassfish.jersey.server.internal.process.RespondingContext;
@@ -109,6 +111,8 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
     private final List<RankedProvider<ContainerResponseFilter>> responseFilters = Lists.newArrayList();
     private final List<RankedProvider<ReaderInterceptor>> readerInterceptors;
     private final List<RankedProvider<WriterInterceptor>> writerInterceptors;
+    private final ExecutionStatistics resourceStatistics;
+    private final ExecutionStatistics methodStatistics;
 
     /**
      * Resource method invoker "assisted" injection helper.
@@ -132,6 +136,8 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
         private ServiceLocator locator;
         @Inject
         private Configuration globalConfig;
+        @Inject
+        private MonitoringStatistics monitoringStatistics;
 
         /**
          * Build a new resource method invoker instance.
@@ -171,7 +177,8 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
                     nameBoundWriterInterceptors,
                     dynamicFeatures,
                     locator,
-                    globalConfig);
+                    globalConfig,
+                    monitoringStatistics);
         }
     }
 
@@ -190,7 +197,8 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
             MultivaluedMap<Class<? extends Annotation>, RankedProvider<WriterInterceptor>> nameBoundWriterInterceptors,
             Iterable<DynamicFeature> dynamicFeatures,
             ServiceLocator locator,
-            Configuration globalConfig) {
+            Configuration globalConfig,
+            MonitoringStatistics monitoringStatistics) {
 
         this.routingContextProvider = routingContextProvider;
         this.asyncContextProvider = asyncContextProvider;
@@ -203,6 +211,14 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
         this.resourceMethod = invocable.getHandlingMethod();
         this.resourceClass = invocable.getHandler().getHandlerClass();
 
+        if (monitoringStatistics.isEnabled()) {
+            this.resourceStatistics = monitoringStatistics.getResourceStatistics(resourceClass);
+            this.methodStatistics = monitoringStatistics.getResourceMethodStatistics(method);
+        } else {
+            this.resourceStatistics = null;
+            this.methodStatistics = null;
+        }
+
         // Configure dynamic features.
         final ResourceMethodConfig config = new ResourceMethodConfig(globalConfig.getProperties());
         for (final DynamicFeature dynamicFeature : dynamicFeatures) {
@@ -312,6 +328,20 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
         }
     }
 
+    private Response dispatchMonitored(final Object resource, final ContainerRequest requestContext) {
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final Response response = dispatcher.dispatch(resource, requestContext);
+            failed = response != null && response.getStatus() >= 500;
+            return response;
+        } finally {
+            final long duration = System.nanoTime() - start;
+            methodStatistics.record(duration, failed);
+            resourceStatistics.record(duration, failed);
+        }
+    }
+
     @Override
     public Method getResourceMethod() {
         return resourceMethod;
@@ -355,7 +385,8 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
     }
 
     private Response invoke(ContainerRequest requestContext, Object resource) {
-        final Response jaxrsResponse = dispatcher.dispatch(resource, requestContext);
+        final Response jaxrsResponse = (methodStatistics == null)
+                ? dispatcher.dispatch(resource, requestContext) : dispatchMonitored(resource, requestContext);
 
         respondingContextProvider.get().push(new Function<ContainerResponse, ContainerResponse>() {
             @Override
@@ -65,6 +65,11 @@ import com.google.common.collect.Sets;
  * Abstract resource method dispatcher that provides skeleton implementation of
  * dispatching requests to a particular {@link Method Java method} using supplied
  * {@link InvocationHandler Java method invocation handler}.
+ * <p>
+ * In case the supplied invocation handler is a {@link GeneratedInvocationHandler generated invocation handler},
+ * the dispatcher bypasses the handler and invokes the Java method via the generated
+ * {@link JavaMethodInvoker direct method invoker}.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -75,6 +80,7 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
 
     private final Method method;
     private final InvocationHandler methodHandler;
+    private final JavaMethodInvoker methodInvoker;
 
     /**
      * Initialize common java resource method dispatcher structures.
@@ -85,6 +91,8 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
     AbstractJavaResourceMethodDispatcher(Invocable resourceMethod, InvocationHandler methodHandler) {
         this.method = resourceMethod.getHandlingMethod();
         this.methodHandler = methodHandler;
+        this.methodInvoker = (methodHandler instanceof GeneratedInvocationHandler)
+                ? ((GeneratedInvocationHandler) methodHandler).getInvoker() : null;
     }
 
     @Override
@@ -122,7 +130,8 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
             // Validate resource class & method input parameters.
             validateInput(validator, resource, args);
 
-            final Object invocationResult = methodHandler.invoke(resource, method, args);
+            final Object invocationResult = (methodInvoker != null)
+                    ? invokeDirectly(resource, args) : methodHandler.invoke(resource, method, args);
 
             // Validate response entity.
             validateResult(validator, resource, invocationResult);
@@ -149,6 +158,30 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
         }
     }
 
+    /**
+     * Invoke the underlying Java method via the generated direct method invoker.
+     * <p>
+     * Exceptions thrown from the invoked method are handled the same way as the
+     * {@link InvocationTargetException} causes in case of a reflective method invocation.
+     * </p>
+     *
+     * @param resource resource class instance.
+     * @param args     input argument values for the invoked Java method.
+     * @return invocation result.
+     * @throws ProcessingException (possibly {@link MappableException mappable})
+     *                             container exception in case the invocation failed.
+     */
+    private Object invokeDirectly(final Object resource, final Object[] args) throws ProcessingException {
+        try {
+            return methodInvoker.invoke(resource, args);
+        } catch (ProcessingException ex) {
+            throw ex;
+        } catch (Throwable t) {
+            // exception potentially mappable
+            throw new MappableException(t);
+        }
+    }
+
     /**
      * Validates resource class instance and input parameters of the {@code method}. {@link ConstraintViolationException} raised
      * from this method should be mapped to HTTP 400 status.
@@ -0,0 +1,312 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.internal.LocalizationMessages;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Resource method invocation handler backed by a {@link JavaMethodInvoker direct method invoker}
+ * generated for a single public resource {@link Method Java method}.
+ * <p>
+ * The generated invoker class casts the target instance and the argument values to the types declared by the
+ * resource method and invokes the method directly, which lets the JIT compiler inline the resource method
+ * invocation into the dispatching code. {@link AbstractJavaResourceMethodDispatcher Jersey resource method
+ * dispatchers} detect this handler and call the generated invoker directly. For any other caller, the handler
+ * behaves exactly like the default reflective invocation handler, i.e. exceptions thrown from the resource
+ * method are wrapped in an {@link InvocationTargetException}.
+ * </p>
+ * <p>
+ * Invokers can be generated only for public methods declared on public classes with public parameter types.
+ * For any other method the reflective invocation has to be used instead.
+ * </p>
+ */
+final class GeneratedInvocationHandler implements InvocationHandler {
+
+    private static final Logger LOGGER = Logger.getLogger(GeneratedInvocationHandler.class.getName());
+
+    private static final String INVOKER_INTERFACE_NAME = Type.getInternalName(JavaMethodInvoker.class);
+    private static final String INVOKE_METHOD_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String INVOKER_CLASS_NAME_PREFIX = GeneratedInvocationHandler.class.getName() + "$Invoker$";
+    private static final AtomicLong INVOKER_CLASS_COUNTER = new AtomicLong();
+
+    /**
+     * Primitive wrapper class internal names indexed by the {@link Type#getSort() ASM type sort}.
+     */
+    private static final String[] WRAPPER_NAMES = new String[]{
+            null,
+            "java/lang/Boolean",
+            "java/lang/Character",
+            "java/lang/Byte",
+            "java/lang/Short",
+            "java/lang/Integer",
+            "java/lang/Float",
+            "java/lang/Long",
+            "java/lang/Double"
+    };
+    /**
+     * Primitive value accessor method names indexed by the {@link Type#getSort() ASM type sort}.
+     */
+    private static final String[] UNBOXING_METHOD_NAMES = new String[]{
+            null,
+            "booleanValue",
+            "charValue",
+            "byteValue",
+            "shortValue",
+            "intValue",
+            "floatValue",
+            "longValue",
+            "doubleValue"
+    };
+
+    private final Method method;
+    private final JavaMethodInvoker invoker;
+
+    private GeneratedInvocationHandler(final Method method, final JavaMethodInvoker invoker) {
+        this.method = method;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Generate a direct invoker for the supplied Java method and create a new invocation handler backed
+     * by the generated invoker.
+     *
+     * @param method      Java method to generate the invoker for.
+     * @param classLoader class loader to define the generated invoker class in. The loader must be
+     *                    {@link InvokerClassLoader#InvokerClassLoader(ClassLoader) created} for the class loader
+     *                    of the class declaring the method.
+     * @return new invocation handler backed by the generated invoker or {@code null} in case the invoker
+     *         cannot be generated for the method.
+     */
+    static GeneratedInvocationHandler create(final Method method, final InvokerClassLoader classLoader) {
+        if (!isSupported(method)) {
+            return null;
+        }
+
+        try {
+            return new GeneratedInvocationHandler(method, generateInvoker(method, classLoader));
+        } catch (Exception ex) {
+            LOGGER.log(Level.FINE, LocalizationMessages.GENERATED_METHOD_INVOKER_FAILED(method), ex);
+        } catch (LinkageError error) {
+            LOGGER.log(Level.FINE, LocalizationMessages.GENERATED_METHOD_INVOKER_FAILED(method), error);
+        }
+        return null;
+    }
+
+    /**
+     * Get the generated direct invoker of the Java method.
+     *
+     * @return generated direct method invoker.
+     */
+    JavaMethodInvoker getInvoker() {
+        return invoker;
+    }
+
+    @Override
+    public Object invoke(final Object target, final Method method, final Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
+        if (method != this.method && !this.method.equals(method)) {
+            return method.invoke(target, args);
+        }
+
+        try {
+            return invoker.invoke(target, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static boolean isSupported(final Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) || !isPublic(method.getDeclaringClass())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isPublic(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+    }
+
+    private static JavaMethodInvoker generateInvoker(final Method method, final InvokerClassLoader classLoader)
+            throws Exception {
+        final String className = INVOKER_CLASS_NAME_PREFIX + INVOKER_CLASS_COUNTER.incrementAndGet();
+        final byte[] bytecode = generateInvokerClass(className.replace('.', '/'), method);
+
+        return (JavaMethodInvoker) classLoader.define(className, bytecode).newInstance();
+    }
+
+    private static byte[] generateInvokerClass(final String className, final Method method) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String ownerName = Type.getInternalName(declaringClass);
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                className, null, "java/lang/Object", new String[]{INVOKER_INTERFACE_NAME});
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_METHOD_DESCRIPTOR, null,
+                new String[]{"java/lang/Exception"});
+        mv.visitCode();
+        if (!isStatic) {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, ownerName);
+        }
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+            unbox(mv, Type.getType(parameterTypes[i]));
+        }
+
+        final int invokeOpcode;
+        if (isStatic) {
+            invokeOpcode = Opcodes.INVOKESTATIC;
+        } else if (declaringClass.isInterface()) {
+            invokeOpcode = Opcodes.INVOKEINTERFACE;
+        } else {
+            invokeOpcode = Opcodes.INVOKEVIRTUAL;
+        }
+        mv.visitMethodInsn(invokeOpcode, ownerName, method.getName(), Type.getMethodDescriptor(method));
+
+        box(mv, Type.getType(method.getReturnType()));
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(final MethodVisitor mv, final int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+
+    private static void unbox(final MethodVisitor mv, final Type type) {
+        final int sort = type.getSort();
+        if (sort == Type.ARRAY || sort == Type.OBJECT) {
+            if (!"java/lang/Object".equals(type.getInternalName())) {
+                mv.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+            }
+            return;
+        }
+
+        // numeric primitives are unboxed via java.lang.Number to support the same widening conversions as reflection
+        final String ownerName = (sort == Type.BOOLEAN || sort == Type.CHAR) ? WRAPPER_NAMES[sort] : "java/lang/Number";
+        mv.visitTypeInsn(Opcodes.CHECKCAST, ownerName);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ownerName, UNBOXING_METHOD_NAMES[sort], "()" + type.getDescriptor());
+    }
+
+    private static void box(final MethodVisitor mv, final Type type) {
+        final int sort = type.getSort();
+        if (sort == Type.VOID) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else if (sort != Type.ARRAY && sort != Type.OBJECT) {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, WRAPPER_NAMES[sort], "valueOf",
+                    "(" + type.getDescriptor() + ")L" + WRAPPER_NAMES[sort] + ";");
+        }
+    }
+
+    /**
+     * Class loader defining the generated invoker classes of the resource classes loaded by a single class loader.
+     * <p>
+     * The loader delegates to the class loader of the resource classes so that the generated
+     * invokers can link against the resource methods, and resolves the {@link JavaMethodInvoker}
+     * interface to the one loaded by Jersey regardless of the resource class loader visibility.
+     * </p>
+     */
+    static final class InvokerClassLoader extends ClassLoader {
+
+        /**
+         * Create new invoker class loader.
+         *
+         * @param parent class loader of the resource classes.
+         */
+        InvokerClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (JavaMethodInvoker.class.getName().equals(name)) {
+                return JavaMethodInvoker.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        private synchronized Class<?> define(final String name, final byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
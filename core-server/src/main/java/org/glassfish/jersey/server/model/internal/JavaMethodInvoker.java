@@ -0,0 +1,67 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model.internal;
+
+/**
+ * Direct invoker of a single resource {@link java.lang.reflect.Method Java method}.
+ * <p>
+ * Implementations of this interface are generated at resource model build time by
+ * {@link GeneratedInvocationHandler} for every public resource method that is invoked
+ * using the default reflective invocation handler. Unlike {@link java.lang.reflect.Method#invoke(Object, Object...)},
+ * the generated invoker calls the resource method directly and does not wrap any exception thrown from
+ * the invoked method.
+ * </p>
+ * <p>
+ * This interface is public only to make it visible to the generated invoker classes. It is not
+ * intended to be used or implemented by Jersey users.
+ * </p>
+ */
+public interface JavaMethodInvoker {
+
+    /**
+     * Invoke the bound Java method on the supplied target instance.
+     *
+     * @param target target instance the method should be invoked on. Ignored for static methods.
+     * @param args   method argument values.
+     * @return invocation result; {@code null} for {@code void} methods, primitive results are boxed.
+     * @throws Exception any exception thrown from the invoked method.
+     */
+    public Object invoke(Object target, Object[] args) throws Exception;
+}
@@ -40,14 +40,23 @@
 package org.glassfish.jersey.server.model.internal;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.ws.rs.core.Configuration;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.inject.Providers;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.model.Invocable;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodDispatcher;
@@ -55,7 +64,13 @@ import org.glassfish.jersey.server.spi.internal.ResourceMethodDispatcher;
 import org.glassfish.hk2.api.ServiceLocator;
 
 /**
- *
+ * An injectable {@link ResourceMethodDispatcher.Provider resource method dispatcher provider} factory.
+ * <p />
+ * When invoked, the factory iterates over the registered {@link ResourceMethodDispatcher.Provider resource method
+ * dispatcher providers} and returns the first non-null dispatcher retrieved from the providers. Unless disabled
+ * via {@link ServerProperties#FEATURE_DISABLE_GENERATED_METHOD_INVOKERS}, the default reflective invocation handler
+ * is replaced with a {@link GeneratedInvocationHandler handler backed by a generated direct method invoker} before
+ * the dispatcher is created. Custom invocation handlers are always passed to the dispatcher providers unchanged.
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -65,18 +80,36 @@ public final class ResourceMethodDispatcherFactory implements ResourceMethodDisp
 
     private static final Logger LOGGER = Logger.getLogger(ResourceMethodDispatcherFactory.class.getName());
     private final Set<ResourceMethodDispatcher.Provider> providers;
+    private final boolean generatedInvokersEnabled;
+    /**
+     * Generated invocation handlers live as long as the application, so that an invoker is generated only once
+     * for each resource method, even for resource methods of sub-resources built while processing requests.
+     */
+    private final ConcurrentMap<Method, GeneratedInvocationHandler> generatedHandlers =
+            new ConcurrentHashMap<Method, GeneratedInvocationHandler>();
+    /**
+     * Generated invoker classes are defined in a single class loader per resource class loader.
+     */
+    private final Map<ClassLoader, GeneratedInvocationHandler.InvokerClassLoader> invokerClassLoaders =
+            new HashMap<ClassLoader, GeneratedInvocationHandler.InvokerClassLoader>();
 
     @Inject
     ResourceMethodDispatcherFactory(ServiceLocator locator) {
         providers = Providers.getProviders(locator, ResourceMethodDispatcher.Provider.class);
+
+        final Configuration configuration = locator.getService(Configuration.class);
+        generatedInvokersEnabled = configuration == null || !PropertiesHelper.isProperty(
+                configuration.getProperty(ServerProperties.FEATURE_DISABLE_GENERATED_METHOD_INVOKERS));
     }
 
     // ResourceMethodDispatchProvider
     @Override
     public ResourceMethodDispatcher create(Invocable resourceMethod, InvocationHandler handler) {
+        final InvocationHandler invocationHandler = getInvocationHandler(resourceMethod, handler);
+
         for (ResourceMethodDispatcher.Provider provider : providers) {
             try {
-                ResourceMethodDispatcher dispatcher = provider.create(resourceMethod, handler);
+                ResourceMethodDispatcher dispatcher = provider.create(resourceMethod, invocationHandler);
                 if (dispatcher != null) {
                     return dispatcher;
                 }
@@ -89,4 +122,51 @@ public final class ResourceMethodDispatcherFactory implements ResourceMethodDisp
 
         return null;
     }
+
+    /**
+     * Get the invocation handler to be used by the dispatcher of the resource method.
+     *
+     * @param resourceMethod resource method to be dispatched.
+     * @param handler        invocation handler created for the resource method.
+     * @return generated invocation handler if the supplied handler is the default reflective one and a direct method
+     *         invoker can be generated for the resource method, the supplied handler otherwise.
+     */
+    InvocationHandler getInvocationHandler(Invocable resourceMethod, InvocationHandler handler) {
+        if (!generatedInvokersEnabled || handler != ResourceMethodInvocationHandlerFactory.DEFAULT_HANDLER) {
+            return handler;
+        }
+
+        final Method method = resourceMethod.getHandlingMethod();
+        GeneratedInvocationHandler generatedHandler = generatedHandlers.get(method);
+        if (generatedHandler == null) {
+            generatedHandler = generateInvocationHandler(method);
+            if (generatedHandler == null) {
+                return handler;
+            }
+        }
+        return generatedHandler;
+    }
+
+    private synchronized GeneratedInvocationHandler generateInvocationHandler(final Method method) {
+        GeneratedInvocationHandler generatedHandler = generatedHandlers.get(method);
+        if (generatedHandler != null) {
+            return generatedHandler;
+        }
+
+        ClassLoader resourceClassLoader = method.getDeclaringClass().getClassLoader();
+        if (resourceClassLoader == null) {
+            resourceClassLoader = ClassLoader.getSystemClassLoader();
+        }
+        GeneratedInvocationHandler.InvokerClassLoader invokerClassLoader = invokerClassLoaders.get(resourceClassLoader);
+        if (invokerClassLoader == null) {
+            invokerClassLoader = new GeneratedInvocationHandler.InvokerClassLoader(resourceClassLoader);
+            invokerClassLoaders.put(resourceClassLoader, invokerClassLoader);
+        }
+
+        generatedHandler = GeneratedInvocationHandler.create(method, invokerClassLoader);
+        if (generatedHandler != null) {
+            generatedHandlers.put(method, generatedHandler);
+        }
+        return generatedHandler;
+    }
 }
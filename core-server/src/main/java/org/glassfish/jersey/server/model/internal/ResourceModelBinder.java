@@ -39,6 +39,8 @@
  */
 package org.glassfish.jersey.server.model.internal;
 
+import javax.inject.Singleton;
+
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.server.internal.routing.RuntimeModelBuilder;
 import org.glassfish.jersey.server.model.ModelProcessor;
@@ -60,7 +62,7 @@ public class ResourceModelBinder extends AbstractBinder {
 
         // Resource method invocation bindings
         bindAsContract(ResourceMethodInvoker.Builder.class);
-        bindAsContract(ResourceMethodDispatcherFactory.class);
+        bindAsContract(ResourceMethodDispatcherFactory.class).in(Singleton.class);
         bindAsContract(ResourceMethodInvocationHandlerFactory.class);
 
         // Dispatcher providers
@@ -39,7 +39,11 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -56,12 +60,14 @@ import javax.ws.rs.core.FeatureContext;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.server.model.ModelValidationException;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
@@ -396,4 +402,78 @@ public class ApplicationHandlerTest {
         assertEquals(200, response.getStatus());
         assertEquals("2", response.getEntity());
     }
+
+    /**
+     * Response writer that records the response content length reported by the runtime.
+     */
+    private static class ContentLengthRecordingWriter implements ContainerResponseWriter {
+
+        private volatile long contentLength = Long.MIN_VALUE;
+
+        @Override
+        public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse responseContext) {
+            this.contentLength = contentLength;
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
+            return false;
+        }
+
+        @Override
+        public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void failure(Throwable error) {
+        }
+    }
+
+    @Path("/sized")
+    public static class SizedEntityResource {
+
+        @GET
+        public byte[] get() {
+            return new byte[]{1, 2, 3};
+        }
+    }
+
+    @Test
+    public void testResponseEntitySizeNotReported() throws Exception {
+        final ApplicationHandler handler = createApplication(SizedEntityResource.class);
+        final ContentLengthRecordingWriter writer = new ContentLengthRecordingWriter();
+        final ContainerRequest request = RequestContextBuilder.from("/sized", "GET").build();
+        request.setWriter(writer);
+        request.setSecurityContext(new SecurityContext() {
+            @Override
+            public Principal getUserPrincipal() {
+                return null;
+            }
+
+            @Override
+            public boolean isUserInRole(String role) {
+                return false;
+            }
+
+            @Override
+            public boolean isSecure() {
+                return false;
+            }
+
+            @Override
+            public String getAuthenticationScheme() {
+                return null;
+            }
+        });
+
+        handler.handle(request);
+
+        // the message body writer size is used for the client requests only
+        assertEquals(-1, writer.contentLength);
+    }
 }
@@ -0,0 +1,375 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link Broadcaster} - serializing a broadcast chunk only once for all the chunked outputs
+ * that would produce the same bytes and the asynchronous broadcasting with bounded subscriber queues.
+ */
+public class BroadcasterTest {
+
+    private static final int SUBSCRIBERS = 5;
+
+    public static class Message {
+
+        private final String text;
+
+        public Message(String text) {
+            this.text = text;
+        }
+    }
+
+    @Produces("text/plain")
+    public static class MessageWriter implements MessageBodyWriter<Message> {
+
+        private static final AtomicInteger WRITES = new AtomicInteger();
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == Message.class;
+        }
+
+        @Override
+        public long getSize(Message message, Class<?> type, Type genericType, Annotation[] annotations,
+                            MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Message message, Class<?> type, Type genericType, Annotation[] annotations,
+                            MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            WRITES.incrementAndGet();
+            entityStream.write((message.text + ";").getBytes("UTF-8"));
+        }
+    }
+
+    public static class StreamReplacingInterceptor implements WriterInterceptor {
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+            context.setOutputStream(new FilterOutputStream(context.getOutputStream()));
+            context.proceed();
+        }
+    }
+
+    public static class CustomChunkedOutput extends ChunkedOutput<Message> {
+
+        public CustomChunkedOutput() {
+            super(Message.class);
+        }
+
+        @Override
+        public void write(Message chunk) throws IOException {
+            super.write(new Message("custom-" + chunk.text));
+        }
+    }
+
+    @Path("/")
+    @Produces("text/plain")
+    public static class Resource {
+
+        static volatile Broadcaster<Message> broadcaster;
+
+        @GET
+        @Path("plain")
+        public ChunkedOutput<Message> plain() {
+            final ChunkedOutput<Message> output = new ChunkedOutput<Message>(Message.class);
+            broadcaster.add(output);
+            return output;
+        }
+
+        @GET
+        @Path("custom")
+        public ChunkedOutput<Message> custom() {
+            final ChunkedOutput<Message> output = new CustomChunkedOutput();
+            broadcaster.add(output);
+            return output;
+        }
+    }
+
+    /**
+     * Executor that runs the submitted tasks only when asked to.
+     */
+    private static class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Container stream that remembers the bytes that have been flushed to the client.
+     */
+    private static class FlushTrackingStream extends ByteArrayOutputStream {
+
+        private volatile String flushed = "";
+
+        @Override
+        public synchronized void flush() throws IOException {
+            super.flush();
+            flushed = toString("UTF-8");
+        }
+    }
+
+    private static class Subscriptions {
+
+        private final List<FlushTrackingStream> streams = new ArrayList<FlushTrackingStream>();
+        private final List<Future<ContainerResponse>> responses = new ArrayList<Future<ContainerResponse>>();
+
+        Subscriptions(final ResourceConfig config, final String path, final int count, final Broadcaster<Message> broadcaster) {
+            Resource.broadcaster = broadcaster;
+            MessageWriter.WRITES.set(0);
+
+            final ApplicationHandler app = new ApplicationHandler(config);
+            for (int i = 0; i < count; i++) {
+                final FlushTrackingStream stream = new FlushTrackingStream();
+                streams.add(stream);
+                responses.add(app.apply(RequestContextBuilder.from(path, "GET").build(), stream));
+            }
+        }
+
+        List<String> received() throws Exception {
+            final List<String> result = new ArrayList<String>();
+            for (int i = 0; i < streams.size(); i++) {
+                assertEquals(200, responses.get(i).get().getStatus());
+                result.add(streams.get(i).toString("UTF-8"));
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void testBroadcastChunksFlushedBeforeClose() throws Exception {
+        final Broadcaster<Message> broadcaster = new Broadcaster<Message>();
+        final Subscriptions subscriptions =
+                new Subscriptions(new ResourceConfig(Resource.class, MessageWriter.class), "/plain", SUBSCRIBERS, broadcaster);
+
+        broadcaster.broadcast(new Message("a"));
+        broadcaster.broadcast(new Message("b"));
+
+        assertEquals(2, MessageWriter.WRITES.get());
+        for (FlushTrackingStream stream : subscriptions.streams) {
+            assertEquals("a;b;", stream.flushed);
+        }
+
+        broadcaster.closeAll();
+        subscriptions.received();
+    }
+
+    private static List<String> broadcast(final ResourceConfig config, final String path) throws Exception {
+        final Broadcaster<Message> broadcaster = new Broadcaster<Message>();
+        final Subscriptions subscriptions = new Subscriptions(config, path, SUBSCRIBERS, broadcaster);
+
+        broadcaster.broadcast(new Message("a"));
+        broadcaster.broadcast(new Message("b"));
+        broadcaster.closeAll();
+
+        return subscriptions.received();
+    }
+
+    private static String broadcastAsync(final Broadcaster.OverflowPolicy policy,
+                                         final ManualExecutor executor,
+                                         final Broadcaster<Message> broadcaster) throws Exception {
+        final Subscriptions subscriptions =
+                new Subscriptions(new ResourceConfig(Resource.class, MessageWriter.class), "/plain", 1, broadcaster);
+
+        broadcaster.broadcast(new Message("a"));
+        broadcaster.broadcast(new Message("b"));
+        broadcaster.broadcast(new Message("c"));
+        if (policy != Broadcaster.OverflowPolicy.DISCONNECT) {
+            assertEquals(2, broadcaster.getQueuedChunkCount());
+            assertEquals(2, broadcaster.getMaxQueueDepth());
+            assertEquals(1, broadcaster.getDroppedChunkCount());
+        }
+
+        broadcaster.closeAll();
+        executor.runAll();
+
+        assertEquals(0, broadcaster.getQueuedChunkCount());
+        return subscriptions.received().get(0);
+    }
+
+    @Test
+    public void testChunkSerializedOnce() throws Exception {
+        final List<String> received = broadcast(new ResourceConfig(Resource.class, MessageWriter.class), "/plain");
+
+        assertEquals(2, MessageWriter.WRITES.get());
+        for (String entity : received) {
+            assertEquals("a;b;", entity);
+        }
+    }
+
+    @Test
+    public void testChunkSerializedPerOutputWhenStreamReplaced() throws Exception {
+        final List<String> received = broadcast(
+                new ResourceConfig(Resource.class, MessageWriter.class, StreamReplacingInterceptor.class), "/plain");
+
+        assertEquals(2 * SUBSCRIBERS + 2, MessageWriter.WRITES.get());
+        for (String entity : received) {
+            assertEquals("a;b;", entity);
+        }
+    }
+
+    @Test
+    public void testCustomWriteNotBypassed() throws Exception {
+        final List<String> received = broadcast(new ResourceConfig(Resource.class, MessageWriter.class), "/custom");
+
+        assertEquals(2 * SUBSCRIBERS, MessageWriter.WRITES.get());
+        for (String entity : received) {
+            assertEquals("custom-a;custom-b;", entity);
+        }
+    }
+
+    @Test
+    public void testAsyncBroadcast() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final Broadcaster<Message> broadcaster =
+                new Broadcaster<Message>(executor, 10, Broadcaster.OverflowPolicy.DISCONNECT);
+        final Subscriptions subscriptions =
+                new Subscriptions(new ResourceConfig(Resource.class, MessageWriter.class), "/plain", SUBSCRIBERS, broadcaster);
+
+        broadcaster.broadcast(new Message("a"));
+        broadcaster.broadcast(new Message("b"));
+        assertEquals(0, MessageWriter.WRITES.get());
+        assertEquals(2 * SUBSCRIBERS, broadcaster.getQueuedChunkCount());
+
+        broadcaster.closeAll();
+        executor.runAll();
+
+        assertEquals(2, MessageWriter.WRITES.get());
+        for (String entity : subscriptions.received()) {
+            assertEquals("a;b;", entity);
+        }
+    }
+
+    @Test
+    public void testAsyncBroadcastDropOldest() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final Broadcaster<Message> broadcaster =
+                new Broadcaster<Message>(executor, 2, Broadcaster.OverflowPolicy.DROP_OLDEST);
+
+        assertEquals("b;c;", broadcastAsync(Broadcaster.OverflowPolicy.DROP_OLDEST, executor, broadcaster));
+    }
+
+    @Test
+    public void testAsyncBroadcastDropNewest() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final Broadcaster<Message> broadcaster =
+                new Broadcaster<Message>(executor, 2, Broadcaster.OverflowPolicy.DROP_NEWEST);
+
+        assertEquals("a;b;", broadcastAsync(Broadcaster.OverflowPolicy.DROP_NEWEST, executor, broadcaster));
+    }
+
+    @Test
+    public void testAsyncBroadcastDisconnect() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<ChunkedOutput<Message>> evicted = new ArrayList<ChunkedOutput<Message>>();
+        final Broadcaster<Message> broadcaster =
+                new Broadcaster<Message>(executor, 2, Broadcaster.OverflowPolicy.DISCONNECT) {
+                    @Override
+                    public void onEvict(ChunkedOutput<Message> chunkedOutput) {
+                        assertFalse(chunkedOutput.isClosed());
+                        evicted.add(chunkedOutput);
+                    }
+                };
+        final List<ChunkedOutput<Message>> notified = new ArrayList<ChunkedOutput<Message>>();
+        broadcaster.addBroadcasterListener(new BroadcasterEvictionListener<Message>() {
+            @Override
+            public void onEvict(ChunkedOutput<Message> chunkedOutput) {
+                notified.add(chunkedOutput);
+            }
+
+            @Override
+            public void onException(ChunkedOutput<Message> chunkedOutput, Exception exception) {
+            }
+
+            @Override
+            public void onClose(ChunkedOutput<Message> chunkedOutput) {
+            }
+        });
+
+        assertEquals("", broadcastAsync(Broadcaster.OverflowPolicy.DISCONNECT, executor, broadcaster));
+        assertEquals(1, evicted.size());
+        assertEquals(evicted, notified);
+        assertTrue(evicted.get(0).isClosed());
+        assertEquals(1, broadcaster.getEvictedSubscriberCount());
+        assertEquals(0, MessageWriter.WRITES.get());
+    }
+}
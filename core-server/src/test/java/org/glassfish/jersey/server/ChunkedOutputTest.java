@@ -39,14 +39,19 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
 
 import org.junit.Test;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
 /**
@@ -79,6 +84,51 @@ public class ChunkedOutputTest {
         }
     }
 
+    @Path("/")
+    @Produces("text/plain")
+    public static class Resource {
+
+        static volatile ChunkedOutput.FlushPolicy flushPolicy;
+        static volatile ChunkedOutput<String> output;
+
+        @GET
+        public ChunkedOutput<String> get() {
+            output = new ChunkedOutput<String>(String.class);
+            output.setFlushPolicy(flushPolicy);
+            return output;
+        }
+    }
+
+    /**
+     * Container stream that counts the flushes.
+     */
+    private static class FlushCountingStream extends ByteArrayOutputStream {
+
+        private volatile int flushes = 0;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+    private FlushCountingStream stream;
+    private Future<ContainerResponse> response;
+
+    private ChunkedOutput<String> open(final ChunkedOutput.FlushPolicy flushPolicy) {
+        Resource.flushPolicy = flushPolicy;
+        stream = new FlushCountingStream();
+        response = new ApplicationHandler(new ResourceConfig(Resource.class))
+                .apply(RequestContextBuilder.from("/", "GET").build(), stream);
+        return Resource.output;
+    }
+
+    private void closeAndCheck(final ChunkedOutput<String> output, final String expected) throws Exception {
+        output.close();
+        assertEquals(200, response.get().getStatus());
+        assertEquals(expected, stream.toString("UTF-8"));
+    }
+
     @Test
     public void testChunkedResponse() throws Exception {
         final ResourceConfig resourceConfig = new ResourceConfig(MyResource.class, ChunkedResponseWriter.class);
@@ -87,4 +137,71 @@ public class ChunkedOutputTest {
         ContainerResponse response = applicationHandler.apply(RequestContextBuilder.from("/test", "GET").build()).get();
         assertEquals(200, response.getStatus());
     }
+
+    @Test
+    public void testImmediateFlush() throws Exception {
+        final ChunkedOutput<String> output = open(ChunkedOutput.FlushPolicy.immediate());
+        for (int i = 0; i < 3; i++) {
+            final int flushes = stream.flushes;
+            output.write("chunk" + i);
+            assertTrue(stream.flushes > flushes);
+        }
+        closeAndCheck(output, "chunk0chunk1chunk2");
+    }
+
+    @Test
+    public void testFlushAfterChunks() throws Exception {
+        final ChunkedOutput<String> output = open(ChunkedOutput.FlushPolicy.afterChunks(3));
+        final int flushes = stream.flushes;
+        output.write("a");
+        output.write("b");
+        assertEquals(flushes, stream.flushes);
+        output.write("c");
+        assertEquals(flushes + 1, stream.flushes);
+        output.write("d");
+        assertEquals(flushes + 1, stream.flushes);
+        closeAndCheck(output, "abcd");
+    }
+
+    @Test
+    public void testFlushAfterBytes() throws Exception {
+        final ChunkedOutput<String> output = open(ChunkedOutput.FlushPolicy.afterBytes(10));
+        final int flushes = stream.flushes;
+        output.write("12345");
+        output.write("6789");
+        assertEquals(flushes, stream.flushes);
+        output.write("0");
+        assertEquals(flushes + 1, stream.flushes);
+        closeAndCheck(output, "1234567890");
+    }
+
+    @Test
+    public void testFlushAfterDelay() throws Exception {
+        final ChunkedOutput<String> output = open(
+                ChunkedOutput.FlushPolicy.afterChunks(100).orAfterDelay(50, TimeUnit.MILLISECONDS));
+        final int flushes = stream.flushes;
+        output.write("a");
+        output.write("b");
+        assertEquals(flushes, stream.flushes);
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (stream.flushes == flushes) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Delayed flush has not been performed.");
+            }
+            Thread.sleep(10);
+        }
+        assertEquals(flushes + 1, stream.flushes);
+        closeAndCheck(output, "ab");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFlushPolicyFixedOnceBound() throws Exception {
+        final ChunkedOutput<String> output = open(ChunkedOutput.FlushPolicy.immediate());
+        try {
+            output.setFlushPolicy(ChunkedOutput.FlushPolicy.afterChunks(2));
+        } finally {
+            output.close();
+        }
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests streaming of JAXB collections provided as {@link Iterable} or {@link Iterator} entities.
+ */
+public class JaxbCollectionStreamingTest {
+
+    private static final int COUNT = 1000;
+
+    @XmlRootElement
+    public static class Bean {
+
+        public int value;
+
+        public Bean() {
+        }
+
+        public Bean(int value) {
+            this.value = value;
+        }
+    }
+
+    @Path("/")
+    @Produces(MediaType.APPLICATION_XML)
+    @Consumes(MediaType.APPLICATION_XML)
+    public static class Resource {
+
+        private static final AtomicInteger PULLED = new AtomicInteger();
+
+        @GET
+        @Path("iterator")
+        public Iterator<Bean> getIterator() {
+            return new Iterator<Bean>() {
+
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < COUNT;
+                }
+
+                @Override
+                public Bean next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    PULLED.incrementAndGet();
+                    return new Bean(next++);
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @GET
+        @Path("iterable")
+        public Iterable<Bean> getIterable() {
+            return new Iterable<Bean>() {
+
+                @Override
+                public Iterator<Bean> iterator() {
+                    return Arrays.asList(new Bean(1), new Bean(2)).iterator();
+                }
+            };
+        }
+
+        @POST
+        @Path("sum")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String sum(Iterator<Bean> beans) {
+            long sum = 0;
+            int count = 0;
+            while (beans.hasNext()) {
+                sum += beans.next().value;
+                count++;
+            }
+            return count + ":" + sum;
+        }
+    }
+
+    private static String apply(ApplicationHandler app, ContainerRequest request) throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        assertEquals(200, app.apply(request, baos).get().getStatus());
+        return baos.toString("UTF-8");
+    }
+
+    @Test
+    public void testWriteIterator() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+        Resource.PULLED.set(0);
+
+        final String xml = apply(app, RequestContextBuilder.from("/iterator", "GET").build());
+
+        assertEquals(COUNT, Resource.PULLED.get());
+        assertEquals(COUNT, xml.split("<bean>").length - 1);
+        assertTrue(xml.contains("_Beans><bean><value>0</value></bean><bean><value>1</value></bean>"));
+        assertTrue(xml.endsWith("<bean><value>" + (COUNT - 1) + "</value></bean></jaxbCollectionStreamingTest_Beans>"));
+    }
+
+    @Test
+    public void testWriteIterable() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        final String xml = apply(app, RequestContextBuilder.from("/iterable", "GET").build());
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<jaxbCollectionStreamingTest_Beans><bean><value>1</value></bean><bean><value>2</value></bean>"
+                + "</jaxbCollectionStreamingTest_Beans>", xml);
+    }
+
+    @Test
+    public void testReadIterator() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>");
+        long sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            xml.append("<bean><value>").append(i).append("</value></bean>");
+            sum += i;
+        }
+        xml.append("</beans>");
+
+        final String result = apply(app, RequestContextBuilder.from("/sum", "POST")
+                .entity(xml.toString()).type(MediaType.APPLICATION_XML).build());
+
+        assertEquals(COUNT + ":" + sum, result);
+    }
+
+    @Test
+    public void testReadEmptyCollectionIterator() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        final String result = apply(app, RequestContextBuilder.from("/sum", "POST")
+                .entity("<beans/>").type(MediaType.APPLICATION_XML).build());
+
+        assertEquals("0:0", result);
+    }
+}
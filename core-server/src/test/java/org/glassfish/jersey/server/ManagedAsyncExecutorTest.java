@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.process.internal.ExecutorsFactory;
+import org.glassfish.jersey.server.internal.process.ManagedAsyncExecutor;
+
+import org.glassfish.hk2.api.TypeLiteral;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the bounded {@link ManagedAsyncExecutor managed async executor} configuration.
+ */
+public class ManagedAsyncExecutorTest {
+
+    private static volatile CountDownLatch started;
+    private static volatile CountDownLatch release;
+
+    @Path("blocking")
+    public static class BlockingResource {
+
+        @GET
+        @ManagedAsync
+        public void get(@Suspended AsyncResponse asyncResponse) throws InterruptedException {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            asyncResponse.resume("done");
+        }
+    }
+
+    private static ManagedAsyncExecutor getExecutor(ApplicationHandler application) {
+        final ExecutorsFactory<ContainerRequest> factory = application.getServiceLocator().getService(
+                new TypeLiteral<ExecutorsFactory<ContainerRequest>>() {
+                }.getType());
+        return ((ServerExecutorsFactory) factory).getManagedAsyncExecutor();
+    }
+
+    @Test
+    public void testDefaultConfiguration() {
+        final ManagedAsyncExecutor executor = getExecutor(new ApplicationHandler(new ResourceConfig(BlockingResource.class)));
+
+        assertNotNull(executor);
+        assertEquals(ServerProperties.MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE_DEFAULT, executor.getCorePoolSize());
+        assertEquals(ServerProperties.MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE_DEFAULT, executor.getMaximumPoolSize());
+        assertEquals(ServerProperties.MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY_DEFAULT, executor.getQueueCapacity());
+        assertTrue(executor.getMaximumPoolSize() < Integer.MAX_VALUE);
+        assertTrue(executor.getQueueCapacity() > 0 && executor.getQueueCapacity() < Integer.MAX_VALUE);
+        assertTrue(executor.allowsCoreThreadTimeOut());
+    }
+
+    @Test
+    public void testRejectedRequestMappedTo503() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(BlockingResource.class)
+                .setProperty(ServerProperties.MANAGED_ASYNC_EXECUTOR_CORE_POOL_SIZE, 1)
+                .setProperty(ServerProperties.MANAGED_ASYNC_EXECUTOR_MAX_POOL_SIZE, 1)
+                .setProperty(ServerProperties.MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY, 1));
+        final ManagedAsyncExecutor executor = getExecutor(application);
+
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        try {
+            final Future<ContainerResponse> first = application.apply(RequestContextBuilder.from("/blocking", "GET").build());
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            final Future<ContainerResponse> queued = application.apply(RequestContextBuilder.from("/blocking", "GET").build());
+            assertEquals(1, executor.getQueueSize());
+
+            final ContainerResponse rejected = application.apply(RequestContextBuilder.from("/blocking", "GET").build()).get();
+            assertEquals(503, rejected.getStatus());
+            assertEquals(1, executor.getRejectedTaskCount());
+
+            release.countDown();
+            assertEquals("done", first.get(10, TimeUnit.SECONDS).getEntity());
+            assertEquals("done", queued.get(10, TimeUnit.SECONDS).getEntity());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testMBeanRegistration() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(BlockingResource.class)
+                .setProperty(ServerProperties.MANAGED_ASYNC_EXECUTOR_QUEUE_CAPACITY, 5)
+                .setProperty(ServerProperties.FEATURE_MANAGED_ASYNC_EXECUTOR_MBEAN, true));
+        final ManagedAsyncExecutor executor = getExecutor(application);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("org.glassfish.jersey:type=ManagedAsyncExecutor,name="
+                + ObjectName.quote(Integer.toHexString(System.identityHashCode(executor))));
+
+        assertTrue(server.isRegistered(name));
+        assertEquals(5, server.getAttribute(name, "QueueCapacity"));
+
+        application.getServiceLocator().shutdown();
+        assertTrue(executor.isShutdown());
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.message.CacheableMessageBodyWorker;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.MessageProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests caching of the message body writers resolved by {@link MessageBodyWorkers}.
+ */
+public class MessageBodyWorkersLookupCacheTest {
+
+    public static class CachedBean {
+    }
+
+    public static class UncachedBean {
+    }
+
+    public abstract static class CountingWriter<T> implements MessageBodyWriter<T> {
+
+        private final AtomicInteger counter;
+
+        protected CountingWriter(AtomicInteger counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            counter.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public long getSize(T t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(T t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            // not used
+        }
+    }
+
+    private static final AtomicInteger CACHED_CHECKS = new AtomicInteger();
+    private static final AtomicInteger UNCACHED_CHECKS = new AtomicInteger();
+
+    @Produces("text/plain")
+    public static class CachedBeanWriter extends CountingWriter<CachedBean> implements CacheableMessageBodyWorker {
+
+        public CachedBeanWriter() {
+            super(CACHED_CHECKS);
+        }
+    }
+
+    @Produces("text/plain")
+    public static class UncachedBeanWriter extends CountingWriter<UncachedBean> {
+
+        public UncachedBeanWriter() {
+            super(UNCACHED_CHECKS);
+        }
+    }
+
+    private static MessageBodyWorkers createWorkers(ResourceConfig resourceConfig) {
+        resourceConfig.register(CachedBeanWriter.class).register(UncachedBeanWriter.class);
+        return new ApplicationHandler(resourceConfig).getServiceLocator().getService(MessageBodyWorkers.class);
+    }
+
+    private static MessageBodyWriter<?> lookup(MessageBodyWorkers workers, Class<?> type, MediaType mediaType) {
+        return workers.getMessageBodyWriter(type, type, new Annotation[0], mediaType);
+    }
+
+    @Test
+    public void testCacheableWriterResolvedOnce() {
+        final MessageBodyWorkers workers = createWorkers(new ResourceConfig());
+
+        final int checks = CACHED_CHECKS.get();
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertTrue(lookup(workers, CachedBean.class, MediaType.valueOf("text/plain")) instanceof CachedBeanWriter);
+        assertEquals(checks + 1, CACHED_CHECKS.get());
+
+        // different lookup signature
+        assertTrue(lookup(workers, CachedBean.class, MediaType.valueOf("text/plain;charset=UTF-8"))
+                instanceof CachedBeanWriter);
+        assertEquals(checks + 2, CACHED_CHECKS.get());
+    }
+
+    @Test
+    public void testUnresolvedLookupCached() {
+        final MessageBodyWorkers workers = createWorkers(new ResourceConfig());
+
+        assertNull(lookup(workers, CachedBean.class, MediaType.APPLICATION_SVG_XML_TYPE));
+        assertNull(lookup(workers, CachedBean.class, MediaType.APPLICATION_SVG_XML_TYPE));
+    }
+
+    @Test
+    public void testNonCacheableWriterAlwaysConsulted() {
+        final MessageBodyWorkers workers = createWorkers(new ResourceConfig());
+
+        final int checks = UNCACHED_CHECKS.get();
+        assertTrue(lookup(workers, UncachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof UncachedBeanWriter);
+        assertTrue(lookup(workers, UncachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof UncachedBeanWriter);
+        assertEquals(checks + 2, UNCACHED_CHECKS.get());
+    }
+
+    @Test
+    public void testLookupCacheDisabled() {
+        final MessageBodyWorkers workers = createWorkers(
+                new ResourceConfig().setProperty(MessageProperties.WORKERS_LOOKUP_CACHE_DISABLE, true));
+
+        final int checks = CACHED_CHECKS.get();
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertEquals(checks + 2, CACHED_CHECKS.get());
+    }
+
+    @Test
+    public void testLookupCacheSizeLimit() {
+        final MessageBodyWorkers workers = createWorkers(
+                new ResourceConfig().setProperty(MessageProperties.WORKERS_LOOKUP_CACHE_SIZE, 1));
+        final MediaType utf8 = MediaType.valueOf("text/plain;charset=UTF-8");
+
+        final int checks = CACHED_CHECKS.get();
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertEquals(checks + 1, CACHED_CHECKS.get());
+
+        // evicts the text/plain lookup result
+        assertTrue(lookup(workers, CachedBean.class, utf8) instanceof CachedBeanWriter);
+        assertTrue(lookup(workers, CachedBean.class, utf8) instanceof CachedBeanWriter);
+        assertEquals(checks + 2, CACHED_CHECKS.get());
+
+        assertTrue(lookup(workers, CachedBean.class, MediaType.TEXT_PLAIN_TYPE) instanceof CachedBeanWriter);
+        assertEquals(checks + 3, CACHED_CHECKS.get());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the {@link ServerProperties#FEATURE_VIRTUAL_THREADS virtual threads} request processing mode.
+ */
+public class VirtualThreadsTest {
+
+    @Path("threads")
+    public static class ThreadResource {
+
+        @GET
+        @Path("sync")
+        public String sync() {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("managed")
+        @ManagedAsync
+        public String managed() {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("timeout")
+        public void timeout(@Suspended AsyncResponse asyncResponse) {
+            asyncResponse.setTimeout(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ApplicationHandler createApplication() {
+        return new ApplicationHandler(new ResourceConfig(ThreadResource.class)
+                .setProperty(ServerProperties.FEATURE_VIRTUAL_THREADS, true));
+    }
+
+    private static ContainerResponse get(final ApplicationHandler application, final String path) throws Exception {
+        return application.apply(RequestContextBuilder.from(path, "GET").build()).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRequestProcessingDispatched() throws Exception {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+        final ApplicationHandler application = createApplication();
+
+        assertTrue(get(application, "/threads/sync").getEntity().toString().startsWith("jersey-server-virtual-"));
+        assertTrue(get(application, "/threads/managed").getEntity().toString().startsWith("jersey-server-virtual-"));
+    }
+
+    @Test
+    public void testAsyncTimeoutDispatched() throws Exception {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+
+        assertEquals(503, get(createApplication(), "/threads/timeout").getStatus());
+    }
+
+    @Test
+    public void testUnsupportedPlatformFallback() throws Exception {
+        Assume.assumeTrue(!VirtualThreads.isSupported());
+        final ApplicationHandler application = createApplication();
+
+        assertEquals(Thread.currentThread().getName(), get(application, "/threads/sync").getEntity());
+        assertEquals(503, get(application, "/threads/timeout").getStatus());
+
+        // managed async methods fall back to the default managed async executor
+        final ContainerResponse managed = get(application, "/threads/managed");
+        assertEquals(200, managed.getStatus());
+        assertTrue(managed.getEntity().toString().startsWith("jersey-server-managed-async-executor-"));
+    }
+}
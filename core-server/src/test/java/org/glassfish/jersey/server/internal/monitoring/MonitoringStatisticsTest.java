@@ -0,0 +1,204 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.internal.ConfigHelper;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the application, resource and resource method {@link MonitoringStatistics monitoring statistics}.
+ */
+public class MonitoringStatisticsTest {
+
+    @Path("monitored")
+    public static class MonitoredResource {
+
+        @GET
+        public String get(@QueryParam("fail") boolean fail) {
+            if (fail) {
+                throw new InternalServerErrorException();
+            }
+            return "ok";
+        }
+
+        @GET
+        @Path("other")
+        public String other() {
+            return "other";
+        }
+    }
+
+    private static void get(final ApplicationHandler application, final String path) throws Exception {
+        application.apply(RequestContextBuilder.from(path, "GET").build()).get(10, TimeUnit.SECONDS);
+    }
+
+    private static Set<ObjectName> query(final MonitoringStatistics statistics, final String type) throws Exception {
+        return query(statistics, type, "");
+    }
+
+    private static Set<ObjectName> query(final MonitoringStatistics statistics, final String type, final String properties)
+            throws Exception {
+        return ManagementFactory.getPlatformMBeanServer().queryNames(new ObjectName("org.glassfish.jersey:type=" + type
+                + ",application=" + ObjectName.quote(String.valueOf(statistics.getApplicationName()))
+                + properties + ",*"), null);
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(MonitoredResource.class));
+        final MonitoringStatistics statistics = application.getServiceLocator().getService(MonitoringStatistics.class);
+
+        get(application, "/monitored");
+
+        assertFalse(statistics.isEnabled());
+        assertNull(statistics.getApplicationStatistics());
+        assertTrue(query(statistics, "ApplicationStatistics").isEmpty());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(MonitoredResource.class)
+                .setProperty(ServerProperties.FEATURE_MONITORING_STATISTICS, true));
+        final MonitoringStatistics statistics = application.getServiceLocator().getService(MonitoringStatistics.class);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        get(application, "/monitored");
+        get(application, "/monitored");
+        get(application, "/monitored?fail=true");
+        get(application, "/monitored/other");
+        get(application, "/missing");
+
+        final ExecutionStatistics applicationStatistics = statistics.getApplicationStatistics();
+        assertEquals(5, applicationStatistics.getRequestCount());
+        assertEquals(1, applicationStatistics.getErrorCount());
+        assertEquals(5, applicationStatistics.getWindowRequestCount());
+
+        final String resource = ",resource=" + ObjectName.quote(MonitoredResource.class.getName());
+
+        final Set<ObjectName> resources = query(statistics, "ResourceStatistics", resource);
+        assertEquals(1, resources.size());
+        assertEquals(4L, server.getAttribute(resources.iterator().next(), "RequestCount"));
+
+        final Set<ObjectName> methods = query(statistics, "ResourceMethodStatistics", resource);
+        assertEquals(2, methods.size());
+        for (ObjectName method : methods) {
+            if (method.getKeyProperty("method").contains("GET get(")) {
+                assertEquals(3L, server.getAttribute(method, "RequestCount"));
+                assertEquals(1L, server.getAttribute(method, "ErrorCount"));
+            } else {
+                assertEquals(1L, server.getAttribute(method, "RequestCount"));
+                assertEquals(0L, server.getAttribute(method, "ErrorCount"));
+            }
+        }
+
+        application.getServiceLocator().shutdown();
+        assertTrue(query(statistics, "*").isEmpty());
+    }
+
+    @Test
+    public void testApplicationName() throws Exception {
+        final ApplicationHandler first = new ApplicationHandler(new ResourceConfig(MonitoredResource.class)
+                .setProperty(ServerProperties.FEATURE_MONITORING_STATISTICS, true)
+                .setProperty(ServerProperties.MONITORING_STATISTICS_APPLICATION_NAME, "monitored-app"));
+        final ApplicationHandler second = new ApplicationHandler(new ResourceConfig(MonitoredResource.class)
+                .setProperty(ServerProperties.FEATURE_MONITORING_STATISTICS, true)
+                .setProperty(ServerProperties.MONITORING_STATISTICS_APPLICATION_NAME, "monitored-app"));
+        try {
+            final MonitoringStatistics firstStatistics = first.getServiceLocator().getService(MonitoringStatistics.class);
+            final MonitoringStatistics secondStatistics = second.getServiceLocator().getService(MonitoringStatistics.class);
+
+            assertEquals("monitored-app", firstStatistics.getApplicationName());
+            assertEquals("monitored-app-2", secondStatistics.getApplicationName());
+            assertEquals(1, query(firstStatistics, "ApplicationStatistics").size());
+            assertEquals(1, query(secondStatistics, "ApplicationStatistics").size());
+        } finally {
+            first.getServiceLocator().shutdown();
+            second.getServiceLocator().shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultApplicationName() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(MonitoredResource.class)
+                .setProperty(ServerProperties.FEATURE_MONITORING_STATISTICS, true));
+        try {
+            final MonitoringStatistics statistics = application.getServiceLocator().getService(MonitoringStatistics.class);
+            assertTrue(statistics.getApplicationName().startsWith(ResourceConfig.class.getName()));
+        } finally {
+            application.getServiceLocator().shutdown();
+        }
+    }
+
+    @Test
+    public void testUnregisteredOnContainerShutdown() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(MonitoredResource.class)
+                .setProperty(ServerProperties.FEATURE_MONITORING_STATISTICS, true));
+        final MonitoringStatistics statistics = application.getServiceLocator().getService(MonitoringStatistics.class);
+
+        get(application, "/monitored");
+        assertFalse(query(statistics, "*").isEmpty());
+
+        ConfigHelper.getContainerLifecycleListener(application).onShutdown(null);
+        assertTrue(query(statistics, "*").isEmpty());
+
+        application.getServiceLocator().shutdown();
+    }
+}
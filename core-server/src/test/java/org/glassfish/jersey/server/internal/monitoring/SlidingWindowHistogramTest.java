@@ -0,0 +1,99 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link SlidingWindowHistogram} unit tests.
+ */
+public class SlidingWindowHistogramTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testPercentiles() {
+        final SlidingWindowHistogram histogram = new SlidingWindowHistogram(10, 10, TimeUnit.SECONDS);
+        for (int i = 0; i < 90; i++) {
+            histogram.record(MILLI, false, 0);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(20 * MILLI, false, 0);
+        }
+        histogram.record(20000 * MILLI, true, 0);
+
+        final long[] snapshot = histogram.snapshot(0);
+        assertEquals(100, SlidingWindowHistogram.requestCount(snapshot));
+        assertEquals(1, SlidingWindowHistogram.errorCount(snapshot));
+        assertEquals(1000, SlidingWindowHistogram.percentile(snapshot, 50));
+        assertEquals(25000, SlidingWindowHistogram.percentile(snapshot, 95));
+        assertEquals(25000, SlidingWindowHistogram.percentile(snapshot, 99));
+        assertEquals(Long.MAX_VALUE, SlidingWindowHistogram.percentile(snapshot, 100));
+    }
+
+    @Test
+    public void testWindowSliding() {
+        final SlidingWindowHistogram histogram = new SlidingWindowHistogram(10, 10, TimeUnit.SECONDS);
+        histogram.record(MILLI, false, 0);
+        histogram.record(MILLI, false, 5000);
+        histogram.record(MILLI, false, 9999);
+
+        assertEquals(3, SlidingWindowHistogram.requestCount(histogram.snapshot(9999)));
+        assertEquals(2, SlidingWindowHistogram.requestCount(histogram.snapshot(10000)));
+        assertEquals(1, SlidingWindowHistogram.requestCount(histogram.snapshot(15000)));
+        assertEquals(0, SlidingWindowHistogram.requestCount(histogram.snapshot(20000)));
+
+        // slot recycled
+        histogram.record(MILLI, true, 20000);
+        final long[] snapshot = histogram.snapshot(20000);
+        assertEquals(1, SlidingWindowHistogram.requestCount(snapshot));
+        assertEquals(1, SlidingWindowHistogram.errorCount(snapshot));
+    }
+
+    @Test
+    public void testEmpty() {
+        final SlidingWindowHistogram histogram = new SlidingWindowHistogram(60, 12, TimeUnit.SECONDS);
+        assertEquals(60000, histogram.getWindowMillis());
+        assertEquals(0, SlidingWindowHistogram.percentile(histogram.snapshot(System.currentTimeMillis()), 99));
+    }
+}
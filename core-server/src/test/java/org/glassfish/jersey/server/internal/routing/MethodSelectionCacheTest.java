@@ -0,0 +1,187 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the resource method selection caching in {@link MethodSelectingRouter}.
+ */
+public class MethodSelectionCacheTest {
+
+    @Path("resource")
+    public static class Resource {
+
+        @GET
+        @Produces("text/plain")
+        public String getPlain() {
+            return "plain";
+        }
+
+        @GET
+        @Produces("text/html")
+        public String getHtml() {
+            return "html";
+        }
+
+        @POST
+        public String post(String entity) {
+            return entity;
+        }
+    }
+
+    private ContainerResponse get(ApplicationHandler application, String accept)
+            throws ExecutionException, InterruptedException {
+        return application.apply(RequestContextBuilder.from("/resource", "GET").accept(accept).build()).get();
+    }
+
+    @Test
+    public void testCachedSelection() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class));
+        final MethodSelectionCacheStatistics statistics =
+                application.getServiceLocator().getService(MethodSelectionCacheStatistics.class);
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = get(application, "text/plain");
+            assertEquals("plain", response.getEntity());
+            assertEquals(MediaType.TEXT_PLAIN_TYPE, response.getMediaType());
+
+            response = get(application, "text/html");
+            assertEquals("html", response.getEntity());
+            assertEquals(MediaType.TEXT_HTML_TYPE, response.getMediaType());
+        }
+
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(4, statistics.getHitCount());
+        assertEquals(2, statistics.getSize());
+
+        // not acceptable responses are not cached
+        assertEquals(406, get(application, "application/xml").getStatus());
+        assertEquals(406, get(application, "application/xml").getStatus());
+        assertEquals(4, statistics.getMissCount());
+        assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    public void testCacheSizeLimit() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .setProperty(ServerProperties.METHOD_SELECTION_CACHE_SIZE, 1));
+        final MethodSelectionCacheStatistics statistics =
+                application.getServiceLocator().getService(MethodSelectionCacheStatistics.class);
+
+        assertEquals("plain", get(application, "text/plain").getEntity());
+        assertEquals("html", get(application, "text/html").getEntity());
+        assertEquals("html", get(application, "text/html").getEntity());
+        assertEquals("plain", get(application, "text/plain").getEntity());
+
+        assertEquals(3, statistics.getMissCount());
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSelectionEvicted() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .setProperty(ServerProperties.METHOD_SELECTION_CACHE_SIZE, 1));
+        final MethodSelectionCacheStatistics statistics =
+                application.getServiceLocator().getService(MethodSelectionCacheStatistics.class);
+
+        assertEquals("plain", get(application, "text/plain").getEntity());
+        // the html selection replaces the plain one in the full cache
+        assertEquals("html", get(application, "text/html").getEntity());
+        assertEquals("html", get(application, "text/html").getEntity());
+        assertEquals("html", get(application, "text/html").getEntity());
+
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void testNormalizedRequestShape() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class));
+        final MethodSelectionCacheStatistics statistics =
+                application.getServiceLocator().getService(MethodSelectionCacheStatistics.class);
+
+        assertEquals("plain", get(application, "text/plain").getEntity());
+        assertEquals("plain", get(application, "TEXT/Plain").getEntity());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getHitCount());
+
+        // content type parameters do not affect the method selection
+        for (String charset : new String[] {"UTF-8", "ISO-8859-1", "US-ASCII"}) {
+            final ContainerResponse response = application.apply(RequestContextBuilder.from("/resource", "POST")
+                    .accept("text/plain").type("text/plain;charset=" + charset).entity("posted").build()).get();
+            assertEquals("posted", response.getEntity());
+        }
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(3, statistics.getHitCount());
+        assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    public void testCacheDisabled() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .setProperty(ServerProperties.METHOD_SELECTION_CACHE_SIZE, 0));
+        final MethodSelectionCacheStatistics statistics =
+                application.getServiceLocator().getService(MethodSelectionCacheStatistics.class);
+
+        assertEquals("plain", get(application, "text/plain").getEntity());
+        assertEquals("plain", get(application, "text/plain").getEntity());
+
+        assertEquals(0, statistics.getMissCount());
+        assertEquals(0, statistics.getHitCount());
+    }
+}
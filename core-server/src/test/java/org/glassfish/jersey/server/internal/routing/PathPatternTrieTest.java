@@ -0,0 +1,165 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.glassfish.hk2.api.Factory;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.Lists;
+
+/**
+ * {@link PathPatternTrie} unit tests.
+ */
+public class PathPatternTrieTest {
+
+    @Test
+    public void testLiteralSegments() {
+        assertEquals(Arrays.asList("a", "b"), PathPatternTrie.literalSegments("/a/b"));
+        assertEquals(Arrays.asList("a", "b"), PathPatternTrie.literalSegments("/a/b/"));
+        assertEquals(Arrays.asList("a"), PathPatternTrie.literalSegments("/a/b{id}"));
+        assertEquals(Arrays.asList("a"), PathPatternTrie.literalSegments("/a/{id}/c"));
+        assertEquals(Arrays.asList("a"), PathPatternTrie.literalSegments("/a/b c"));
+        assertEquals(Arrays.asList("a"), PathPatternTrie.literalSegments("/a//c"));
+        assertEquals(Collections.<String>emptyList(), PathPatternTrie.literalSegments("/{id}"));
+        assertEquals(Collections.<String>emptyList(), PathPatternTrie.literalSegments("/"));
+        assertEquals(Collections.<String>emptyList(), PathPatternTrie.literalSegments(""));
+    }
+
+    @Test
+    public void testCandidatesRetainRouteOrder() {
+        final List<Route<PathPattern>> routes = routes("/a/b/c", "/a/{x}", "/{x}/b", "/a/b", "/d", "/{x}");
+        final PathPatternTrie trie = PathPatternTrie.compile(routes);
+
+        assertEquals(Arrays.asList(routes.get(0), routes.get(1), routes.get(2), routes.get(3), routes.get(5)),
+                trie.candidates("/a/b/c"));
+        assertEquals(Arrays.asList(routes.get(1), routes.get(2), routes.get(3), routes.get(5)),
+                trie.candidates("/a/b"));
+        assertEquals(Arrays.asList(routes.get(1), routes.get(2), routes.get(5)), trie.candidates("/a/x"));
+        assertEquals(Arrays.asList(routes.get(2), routes.get(4), routes.get(5)), trie.candidates("/d/e"));
+        assertEquals(Arrays.asList(routes.get(2), routes.get(5)), trie.candidates("/e"));
+        assertEquals(Arrays.asList(routes.get(2), routes.get(5)), trie.candidates(""));
+        assertEquals(Arrays.asList(routes.get(2), routes.get(5)), trie.candidates(null));
+    }
+
+    private static List<Route<PathPattern>> routes(String... templates) {
+        final List<Route<PathPattern>> routes = Lists.newArrayList();
+        for (String template : templates) {
+            routes.add(Route.of(new PathPattern(template), Collections.<Factory<Router>>emptyList()));
+        }
+        return routes;
+    }
+
+    @Path("a")
+    public static class ResourceA {
+
+        @GET
+        @Path("b")
+        public String getB() {
+            return "a-b";
+        }
+
+        @GET
+        @Path("{x}")
+        public String getX(@PathParam("x") String x) {
+            return "a-" + x;
+        }
+    }
+
+    @Path("{x}")
+    public static class ResourceX {
+
+        @GET
+        @Path("b")
+        public String getB(@PathParam("x") String x) {
+            return x + "-b";
+        }
+
+        @GET
+        public String get(@PathParam("x") String x) {
+            return x;
+        }
+    }
+
+    @Path("a/b/c")
+    public static class ResourceABC {
+
+        @GET
+        public String get() {
+            return "a-b-c";
+        }
+    }
+
+    @Test
+    public void testRoutingPrecedence() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(
+                new ResourceConfig(ResourceA.class, ResourceX.class, ResourceABC.class));
+
+        assertEquals("a-b", get(application, "/a/b"));
+        assertEquals("a-z", get(application, "/a/z"));
+        assertEquals("a-b-c", get(application, "/a/b/c"));
+        assertEquals("z-b", get(application, "/z/b"));
+        assertEquals("z", get(application, "/z"));
+        assertEquals(404, application.apply(RequestContextBuilder.from("/a/b/d", "GET").build()).get().getStatus());
+    }
+
+    private static String get(ApplicationHandler application, String path)
+            throws ExecutionException, InterruptedException {
+        final ContainerResponse response = application.apply(RequestContextBuilder.from(path, "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        return (String) response.getEntity();
+    }
+}
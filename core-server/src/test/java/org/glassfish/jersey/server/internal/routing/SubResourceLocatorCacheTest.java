@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.ModelProcessor;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceModel;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the sub-resource runtime model caching in {@link SubResourceLocatorRouter}.
+ */
+public class SubResourceLocatorCacheTest {
+
+    private static final AtomicInteger processedSubResources = new AtomicInteger();
+
+    public static class CountingModelProcessor implements ModelProcessor {
+
+        @Override
+        public ResourceModel processResourceModel(ResourceModel resourceModel, Configuration configuration) {
+            return resourceModel;
+        }
+
+        @Override
+        public Resource processSubResource(Resource subResource, Configuration configuration) {
+            processedSubResources.incrementAndGet();
+            return subResource;
+        }
+    }
+
+    @Path("root")
+    public static class RootResource {
+
+        @Path("a/{name}")
+        public Object getA(@PathParam("name") String name) {
+            return new SubResourceA(name);
+        }
+
+        @Path("any/{name}")
+        public Object getAny(@PathParam("name") String name) {
+            return name.startsWith("a") ? new SubResourceA(name) : new SubResourceB(name);
+        }
+    }
+
+    public static class SubResourceA {
+
+        private final String name;
+
+        public SubResourceA(String name) {
+            this.name = name;
+        }
+
+        @GET
+        public String get() {
+            return "a:" + name;
+        }
+
+        @Path("child")
+        public SubResourceB getChild() {
+            return new SubResourceB(name);
+        }
+    }
+
+    public static class SubResourceB {
+
+        private final String name;
+
+        public SubResourceB(String name) {
+            this.name = name;
+        }
+
+        @GET
+        public String get() {
+            return "b:" + name;
+        }
+    }
+
+    @Before
+    public void resetCounter() {
+        processedSubResources.set(0);
+    }
+
+    private static String get(ApplicationHandler application, String path)
+            throws ExecutionException, InterruptedException {
+        final ContainerResponse response = application.apply(RequestContextBuilder.from(path, "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        return (String) response.getEntity();
+    }
+
+    @Test
+    public void testSubResourceModelCached() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(
+                new ResourceConfig(RootResource.class, CountingModelProcessor.class));
+
+        assertEquals("a:x", get(application, "/root/a/x"));
+        assertEquals("a:y", get(application, "/root/a/y"));
+        assertEquals(1, processedSubResources.get());
+
+        assertEquals("b:x", get(application, "/root/a/x/child"));
+        assertEquals("b:y", get(application, "/root/a/y/child"));
+        assertEquals(2, processedSubResources.get());
+
+        assertEquals("a:a1", get(application, "/root/any/a1"));
+        assertEquals("b:b1", get(application, "/root/any/b1"));
+        assertEquals("a:a2", get(application, "/root/any/a2"));
+        assertEquals("b:b2", get(application, "/root/any/b2"));
+        assertEquals(4, processedSubResources.get());
+    }
+
+    @Test
+    public void testCacheSizeLimit() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(
+                new ResourceConfig(RootResource.class, CountingModelProcessor.class)
+                        .setProperty(ServerProperties.SUBRESOURCE_LOCATOR_CACHE_SIZE, 1));
+
+        // each sub-resource class evicts the router of the other one from the full cache
+        assertEquals("a:a1", get(application, "/root/any/a1"));
+        assertEquals("b:b1", get(application, "/root/any/b1"));
+        assertEquals("a:a2", get(application, "/root/any/a2"));
+        assertEquals("b:b2", get(application, "/root/any/b2"));
+        assertEquals(4, processedSubResources.get());
+
+        // the most recently used sub-resource class remains cached
+        assertEquals("b:b3", get(application, "/root/any/b3"));
+        assertEquals("b:b4", get(application, "/root/any/b4"));
+        assertEquals(4, processedSubResources.get());
+    }
+
+    @Test
+    public void testCacheDisabled() throws ExecutionException, InterruptedException {
+        final ApplicationHandler application = new ApplicationHandler(
+                new ResourceConfig(RootResource.class, CountingModelProcessor.class)
+                        .setProperty(ServerProperties.FEATURE_DISABLE_SUBRESOURCE_LOCATOR_CACHE, true));
+
+        assertEquals("a:x", get(application, "/root/a/x"));
+        assertEquals("a:y", get(application, "/root/a/y"));
+        assertEquals(2, processedSubResources.get());
+    }
+}
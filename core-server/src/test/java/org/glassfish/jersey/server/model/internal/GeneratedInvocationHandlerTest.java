@@ -0,0 +1,273 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+
+import org.glassfish.jersey.internal.inject.AbstractBinder;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.MethodHandler;
+import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Generated resource method invoker tests.
+ */
+public class GeneratedInvocationHandlerTest {
+
+    public static class Target {
+
+        public long sum(int a, long b, double c, boolean negate) {
+            final long sum = a + b + (long) c;
+            return negate ? -sum : sum;
+        }
+
+        public String[] echo(String[] values, Object ignored) {
+            return values;
+        }
+
+        public void fail(String message) throws Exception {
+            throw new Exception(message);
+        }
+
+        String hidden() {
+            return "hidden";
+        }
+    }
+
+    private static Method method(String name) {
+        for (Method method : Target.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static GeneratedInvocationHandler create(Method method) {
+        return GeneratedInvocationHandler.create(method,
+                new GeneratedInvocationHandler.InvokerClassLoader(Target.class.getClassLoader()));
+    }
+
+    @Test
+    public void testPrimitiveArgumentsAndResult() throws Throwable {
+        final GeneratedInvocationHandler handler = create(method("sum"));
+        assertNotNull(handler);
+
+        assertEquals(10L, handler.getInvoker().invoke(new Target(), new Object[]{1, 2L, 7.5d, false}));
+        // numeric arguments are widened the same way as when using reflection
+        assertEquals(-6L, handler.invoke(new Target(), method("sum"), new Object[]{1, 2, 3.0f, true}));
+    }
+
+    @Test
+    public void testReferenceArgumentsAndResult() throws Exception {
+        final GeneratedInvocationHandler handler = create(method("echo"));
+        assertNotNull(handler);
+
+        final String[] values = new String[]{"a", "b"};
+        final Object result = handler.getInvoker().invoke(new Target(), new Object[]{values, null});
+        assertSame(values, result);
+        assertArrayEquals(values, (String[]) result);
+    }
+
+    @Test
+    public void testExceptions() throws Throwable {
+        final GeneratedInvocationHandler handler = create(method("fail"));
+        assertNotNull(handler);
+
+        try {
+            handler.getInvoker().invoke(new Target(), new Object[]{"direct"});
+            fail("Exception expected.");
+        } catch (Exception ex) {
+            // generated invoker does not wrap the exception
+            assertEquals("direct", ex.getMessage());
+        }
+
+        try {
+            handler.invoke(new Target(), method("fail"), new Object[]{"handler"});
+            fail("Exception expected.");
+        } catch (InvocationTargetException ex) {
+            // handler behaves like a reflective invocation handler
+            assertEquals("handler", ex.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testNonPublicMethodNotSupported() {
+        assertNull(create(method("hidden")));
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        public String get() {
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                if (element.getClassName().startsWith(GeneratedInvocationHandler.class.getName() + "$Invoker$")) {
+                    return "generated";
+                }
+            }
+            return "reflection";
+        }
+
+        @GET
+        @Path("error")
+        public String error() {
+            throw new WebApplicationException(409);
+        }
+
+        @Path("sub")
+        public SubResource sub() {
+            return new SubResource();
+        }
+    }
+
+    public static class SubResource {
+
+        @GET
+        public String get() {
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                if (element.getClassName().startsWith(GeneratedInvocationHandler.class.getName() + "$Invoker$")) {
+                    return element.getClassName();
+                }
+            }
+            return "reflection";
+        }
+    }
+
+    private static ContainerResponse apply(ApplicationHandler application, String path) throws Exception {
+        return application.apply(RequestContextBuilder.from(path, "GET").build()).get();
+    }
+
+    @Test
+    public void testGeneratedInvokerUsedByDefault() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        assertEquals("generated", apply(application, "/").getEntity());
+        assertEquals(409, apply(application, "/error").getStatus());
+    }
+
+    @Test
+    public void testGeneratedInvokerReusedForSubResources() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        final Object invoker = apply(application, "/sub").getEntity();
+        assertTrue(invoker.toString().startsWith(GeneratedInvocationHandler.class.getName()));
+        assertEquals(invoker, apply(application, "/sub").getEntity());
+    }
+
+    @Test
+    public void testInvokerClassLoaderSharedByResourceMethods() throws Exception {
+        final ResourceMethodDispatcherFactory factory = new ApplicationHandler(new ResourceConfig(Resource.class))
+                .getServiceLocator().getService(ResourceMethodDispatcherFactory.class);
+        final Invocable get = Invocable.create(MethodHandler.create(Resource.class), Resource.class.getMethod("get"));
+        final Invocable error = Invocable.create(MethodHandler.create(Resource.class), Resource.class.getMethod("error"));
+
+        final GeneratedInvocationHandler getHandler = (GeneratedInvocationHandler) factory.getInvocationHandler(get,
+                ResourceMethodInvocationHandlerFactory.DEFAULT_HANDLER);
+        final GeneratedInvocationHandler errorHandler = (GeneratedInvocationHandler) factory.getInvocationHandler(error,
+                ResourceMethodInvocationHandlerFactory.DEFAULT_HANDLER);
+
+        assertSame(getHandler, factory.getInvocationHandler(get, ResourceMethodInvocationHandlerFactory.DEFAULT_HANDLER));
+        assertSame(getHandler.getInvoker().getClass().getClassLoader(),
+                errorHandler.getInvoker().getClass().getClassLoader());
+    }
+
+    @Test
+    public void testGeneratedInvokersDisabled() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .setProperty(ServerProperties.FEATURE_DISABLE_GENERATED_METHOD_INVOKERS, true));
+
+        assertEquals("reflection", apply(application, "/").getEntity());
+        assertEquals(409, apply(application, "/error").getStatus());
+    }
+
+    public static class CountingHandlerProvider implements ResourceMethodInvocationHandlerProvider {
+
+        private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+        @Override
+        public InvocationHandler create(Invocable method) {
+            return new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    INVOCATIONS.incrementAndGet();
+                    return method.invoke(proxy, args);
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testCustomInvocationHandlerUsed() throws Exception {
+        final ApplicationHandler application = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .register(new AbstractBinder() {
+                    @Override
+                    protected void configure() {
+                        bind(CountingHandlerProvider.class).to(ResourceMethodInvocationHandlerProvider.class);
+                    }
+                }));
+
+        final int invocations = CountingHandlerProvider.INVOCATIONS.get();
+        assertEquals("reflection", apply(application, "/").getEntity());
+        assertEquals(409, apply(application, "/error").getStatus());
+        assertTrue(CountingHandlerProvider.INVOCATIONS.get() >= invocations + 2);
+    }
+}
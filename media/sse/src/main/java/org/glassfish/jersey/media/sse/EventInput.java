@@ -39,6 +39,7 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 
@@ -48,6 +49,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import org.glassfish.jersey.client.ChunkedInput;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.FeedableInputStream;
 
 /**
  * Inbound Server-Sent Events channel.
@@ -57,6 +59,21 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 public class EventInput extends ChunkedInput<InboundEvent> {
+    private static final int SCAN_BUFFER_SIZE = 512;
+
+    /**
+     * Response entity stream fed by the transport connector or {@code null} if the connector provides
+     * a blocking response entity stream.
+     */
+    private final FeedableInputStream feedableStream;
+    /**
+     * State of the search for the end of the next event in the received data that have not been read yet.
+     */
+    private final byte[] scanBuffer = new byte[SCAN_BUFFER_SIZE];
+    private long scanned = 0;
+    private int newLines = 0;
+    private boolean eventData = false;
+
     /**
      * Package-private constructor used by the {@link org.glassfish.jersey.client.ChunkedInputReader}.
      *
@@ -76,5 +93,62 @@ public class EventInput extends ChunkedInput<InboundEvent> {
         super(InboundEvent.class, inputStream, annotations, mediaType, headers, messageBodyWorkers, propertiesDelegate);
 
         super.setParser(ChunkedInput.createParser("\n\n"));
+        this.feedableStream = FeedableInputStream.unwrap(inputStream);
+    }
+
+    /**
+     * Check if the events can be read without waiting for the data in a blocking read, i.e. if the response
+     * entity stream is fed by the transport connector.
+     *
+     * @return {@code true} if the readiness of the events can be {@link #setFeedListener(Runnable) listened to}.
+     */
+    boolean isFeedable() {
+        return feedableStream != null;
+    }
+
+    /**
+     * Set the listener invoked whenever new data of the response entity arrive. Must be invoked only
+     * if the event input {@link #isFeedable() is feedable}.
+     *
+     * @param listener feed listener.
+     */
+    void setFeedListener(final Runnable listener) {
+        feedableStream.setFeedListener(listener);
+    }
+
+    /**
+     * Check if the next event can be {@link #read() read} without waiting for the data, i.e. if the data of the next
+     * complete event have been received, or no more data will be received. Must be invoked only if the event input
+     * {@link #isFeedable() is feedable} and not concurrently with reading the events.
+     *
+     * @return {@code true} if the next read will not wait for the data.
+     */
+    boolean isEventReady() {
+        try {
+            int count;
+            while ((count = peek(scanned, scanBuffer)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    if (scanBuffer[i] != '\n') {
+                        eventData = true;
+                        newLines = 0;
+                    } else if (++newLines == 2) {
+                        if (eventData) {
+                            // the next read consumes the event - start over
+                            scanned = 0;
+                            newLines = 0;
+                            eventData = false;
+                            return true;
+                        }
+                        // empty chunk skipped by the chunk parser
+                        newLines = 0;
+                    }
+                }
+                scanned += count;
+            }
+        } catch (IOException e) {
+            // closed - the next read reports the end of the stream
+            return true;
+        }
+        return feedableStream.isFinished() || isClosed();
     }
 }
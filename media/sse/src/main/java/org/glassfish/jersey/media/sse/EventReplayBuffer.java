@@ -0,0 +1,266 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded buffer of the most recently broadcast {@link OutboundEvent outbound events}, used to replay
+ * the missed events to a reconnecting client.
+ * <p>
+ * The buffer retains at most the configured number of events and at most the configured number of bytes;
+ * the oldest events are evicted first. The size of an event is the number of bytes written by
+ * the {@link OutboundEventWriter} when the event was broadcast. Until the event is written for the first time,
+ * its size is estimated from the UTF-8 encoded event fields and the string representation of the event data.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; access must be synchronized externally.
+ * </p>
+ */
+final class EventReplayBuffer {
+
+    /**
+     * Number of bytes of the field names and line ends written for the event fields (e.g. {@code "event: "} and
+     * {@code "\n"}) and of the event end.
+     */
+    private static final int COMMENT_OVERHEAD = 3;
+    private static final int NAME_OVERHEAD = 8;
+    private static final int ID_OVERHEAD = 5;
+    private static final int DATA_LINE_OVERHEAD = 6;
+    private static final int EVENT_END_OVERHEAD = 2;
+
+    private static final class Entry {
+
+        private final long sequence;
+        private final OutboundEvent event;
+        private long size;
+        private boolean evicted;
+
+        private Entry(final long sequence, final OutboundEvent event, final long size) {
+            this.sequence = sequence;
+            this.event = event;
+            this.size = size;
+        }
+    }
+
+    private final int maxEvents;
+    private final long maxBytes;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<Entry>();
+    private final ArrayDeque<Entry> estimated = new ArrayDeque<Entry>();
+    private final Map<String, Long> sequencesById = new HashMap<String, Long>();
+    private long nextSequence = 0;
+    private long bytes = 0;
+
+    /**
+     * Create new replay buffer.
+     *
+     * @param maxEvents maximum number of retained events.
+     * @param maxBytes  maximum size of all the retained events in bytes.
+     */
+    EventReplayBuffer(final int maxEvents, final long maxBytes) {
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Append a broadcast event to the buffer, evicting the oldest events if the buffer limits are exceeded.
+     *
+     * @param event broadcast event.
+     * @param size  size of the event in bytes or {@code -1} if the event has not been written yet.
+     */
+    void append(final OutboundEvent event, final long size) {
+        final Entry entry = new Entry(nextSequence++, event, size < 0 ? estimateSize(event) : size);
+        entries.addLast(entry);
+        bytes += entry.size;
+        if (size < 0) {
+            estimated.addLast(entry);
+        }
+        if (event.getId() != null) {
+            sequencesById.put(event.getId(), entry.sequence);
+        }
+        update();
+    }
+
+    /**
+     * Replace the estimated sizes of the retained events that have been written since with their real sizes
+     * and evict the oldest events if the buffer limits are exceeded.
+     */
+    void update() {
+        for (Iterator<Entry> iterator = estimated.iterator(); iterator.hasNext();) {
+            final Entry entry = iterator.next();
+            final long size = entry.event.getSerializedSize();
+            if (entry.evicted) {
+                iterator.remove();
+            } else if (size >= 0) {
+                bytes += size - entry.size;
+                entry.size = size;
+                iterator.remove();
+            }
+        }
+
+        while (!entries.isEmpty() && (entries.size() > maxEvents || bytes > maxBytes)) {
+            final Entry evicted = entries.removeFirst();
+            evicted.evicted = true;
+            bytes -= evicted.size;
+            final String id = evicted.event.getId();
+            final Long latest = id == null ? null : sequencesById.get(id);
+            if (latest != null && latest == evicted.sequence) {
+                sequencesById.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Get the events broadcast after the most recent retained event with the given id.
+     *
+     * @param lastEventId id of the last event received by the client.
+     * @return events broadcast after the identified event in the broadcast order, or {@code null} if no event
+     *         with the given id is retained in the buffer.
+     */
+    List<OutboundEvent> eventsAfter(final String lastEventId) {
+        final Long last = sequencesById.get(lastEventId);
+        if (last == null) {
+            return null;
+        }
+
+        final LinkedList<OutboundEvent> missed = new LinkedList<OutboundEvent>();
+        final Iterator<Entry> iterator = entries.descendingIterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.sequence <= last) {
+                break;
+            }
+            missed.addFirst(entry.event);
+        }
+        return missed.isEmpty() ? Collections.<OutboundEvent>emptyList() : missed;
+    }
+
+    /**
+     * Get the number of retained events.
+     *
+     * @return number of retained events.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the size of all the retained events in bytes.
+     *
+     * @return size of the retained events.
+     */
+    long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Estimate the number of bytes the {@link OutboundEventWriter} writes for the event.
+     * <p>
+     * The estimate is computed without serializing or encoding the event. Only the textual and binary data
+     * are taken into account, the size of the data of other types is known once the event is written and
+     * the estimate is then {@link #update() replaced} by the {@link OutboundEvent#getSerializedSize() serialized
+     * size}.
+     * </p>
+     *
+     * @param event outbound event.
+     * @return estimated event size in bytes.
+     */
+    static long estimateSize(final OutboundEvent event) {
+        long size = EVENT_END_OVERHEAD;
+        if (event.getComment() != null) {
+            size += COMMENT_OVERHEAD + utf8Length(event.getComment(), 0);
+        }
+        if (event.getType() != null) {
+            if (event.getName() != null) {
+                size += NAME_OVERHEAD + utf8Length(event.getName(), 0);
+            }
+            if (event.getId() != null) {
+                size += ID_OVERHEAD + utf8Length(event.getId(), 0);
+            }
+
+            size += DATA_LINE_OVERHEAD;
+            final Object data = event.getData();
+            if (data instanceof byte[]) {
+                final byte[] bytes = (byte[]) data;
+                size += bytes.length;
+                for (byte b : bytes) {
+                    if (b == '\n') {
+                        size += DATA_LINE_OVERHEAD;
+                    }
+                }
+            } else if (data instanceof CharSequence) {
+                size += utf8Length((CharSequence) data, DATA_LINE_OVERHEAD);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of bytes of the UTF-8 encoded value without encoding the value.
+     *
+     * @param value        measured value.
+     * @param lineOverhead number of bytes added for each line break in the value.
+     * @return number of bytes of the encoded value.
+     */
+    private static long utf8Length(final CharSequence value, final int lineOverhead) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                length += (c == '\n') ? 1 + lineOverhead : 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
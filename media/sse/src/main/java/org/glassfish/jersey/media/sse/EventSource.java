@@ -44,18 +44,22 @@ import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 
-import org.glassfish.jersey.client.ChunkedInput;
+import org.glassfish.jersey.client.ClientProperties;
 
 /**
  * Client for reading and processing {@link InboundEvent incoming Server-Sent Events}.
@@ -69,6 +73,20 @@ import org.glassfish.jersey.client.ChunkedInput;
  * and {@link EventSource#register(EventListener, String, String...)}.
  * </p>
  * <p>
+ * Once the connection to the web target is lost, the event source automatically reconnects after the
+ * {@link #setReconnectDelay(long, java.util.concurrent.TimeUnit) reconnection delay}, which may be overridden
+ * by the server in the {@code retry} field of an event. The id of the last received event is sent to the server
+ * in the <code>{@value SseFeature#LAST_EVENT_ID_HEADER}</code> request header when reconnecting, so that
+ * the server can resend the missed events. Failed reconnection attempts are retried with an exponentially
+ * increasing delay. The server may stop the reconnecting by responding with a {@code 204 No Content} status.
+ * </p>
+ * <p>
+ * By default, the incoming events are read by a dedicated thread of each event source. Event sources
+ * created with a {@link #EventSource(javax.ws.rs.client.WebTarget, java.util.concurrent.ScheduledExecutorService, boolean)
+ * shared executor} read the incoming events in tasks of the shared executor instead, so that many event sources
+ * can be multiplexed over the bounded set of the executor threads.
+ * </p>
+ * <p>
  * Instances of this class are thread safe.
  * </p>
  *
@@ -78,11 +96,25 @@ import org.glassfish.jersey.client.ChunkedInput;
 public class EventSource implements EventListener {
     private static final Logger LOGGER = Logger.getLogger(EventSource.class.getName());
 
-    // Keeping the target is necessary for future reconnect support.
+    /**
+     * Default reconnection delay in milliseconds.
+     */
+    private static final long DEFAULT_RECONNECT_DELAY = 500;
+    /**
+     * Maximum exponent of the reconnection delay multiplier applied after a failed reconnection attempt.
+     */
+    private static final int MAX_RECONNECT_BACKOFF_SHIFT = 6;
+
     private final WebTarget target;
+    private final ScheduledExecutorService sharedExecutor;
+
+    private volatile long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+    private volatile long idleTimeout = 0;
+    private volatile long serverReconnectDelay = -1;
+    private volatile String lastEventId;
 
-    private ExecutorService executorService;
-    private Future<?> process;
+    private ScheduledExecutorService executorService;
+    private EventProcessor processor;
     private final Object connectionLock = new Object();
 
     private final EventListener listenerAggregator = new EventListener() {
@@ -130,7 +162,7 @@ public class EventSource implements EventListener {
      * </p>
      * <p>
      * The incoming events are processed in an asynchronous task running in an internal
-     * {@link java.util.concurrent.Executors#newSingleThreadExecutor() single thread executor}.
+     * {@link java.util.concurrent.Executors#newSingleThreadScheduledExecutor() single thread executor}.
      * </p>
      *
      * @param target SSE streaming web target. Must not be {@code null}.
@@ -153,13 +185,46 @@ public class EventSource implements EventListener {
      * </p>
      * <p>
      * The incoming events are processed in an asynchronous task running in an internal
-     * {@link java.util.concurrent.Executors#newSingleThreadExecutor() single thread executor}.
+     * {@link java.util.concurrent.Executors#newSingleThreadScheduledExecutor() single thread executor}.
      * </p>
      *
      * @param target SSE streaming web target. Must not be {@code null}.
      * @throws NullPointerException in case the supplied web target is {@code null}.
      */
     public EventSource(WebTarget target, boolean open) {
+        this(target, null, open);
+    }
+
+    /**
+     * Create new SSE event source pointing at a SSE streaming {@link WebTarget web target} that processes
+     * the incoming events using a shared executor.
+     * <p>
+     * If the supplied {@code open} flag is {@code true}, the created event source instance automatically
+     * {@link #open opens a connection} to the supplied SSE streaming web target and starts processing incoming
+     * {@link InboundEvent events}.
+     * </p>
+     * <p>
+     * If the executor is not {@code null}, the connection is established by a task submitted to the executor
+     * and the waiting for a reconnection is scheduled without holding any thread. If the transport connector
+     * feeds the response entity stream asynchronously (e.g. the NIO connector), the incoming events are read
+     * and dispatched by tasks submitted to the executor whenever a complete event arrives, so that an executor
+     * with a few threads can serve many event sources. A thread is held only while the received events are being
+     * read and dispatched. Otherwise the reading task occupies one of the executor threads for as long as
+     * the connection stays open and the executor must provide at least as many threads as there are such event
+     * sources connected at the same time.
+     * The executor is not shut down when the event source is {@link #close() closed}.
+     * </p>
+     * <p>
+     * If the executor is {@code null}, the incoming events are processed in an asynchronous task running
+     * in an internal {@link java.util.concurrent.Executors#newSingleThreadScheduledExecutor() single thread executor}.
+     * </p>
+     *
+     * @param target   SSE streaming web target. Must not be {@code null}.
+     * @param executor executor shared by the event sources to process the incoming events, may be {@code null}.
+     * @param open     if {@code true}, the created event source opens the connection immediately.
+     * @throws NullPointerException in case the supplied web target is {@code null}.
+     */
+    public EventSource(WebTarget target, ScheduledExecutorService executor, boolean open) {
         if (target == null) {
             throw new NullPointerException("Web target is 'null'.");
         }
@@ -167,12 +232,50 @@ public class EventSource implements EventListener {
         // TODO replace with SseFeature once common config is fully implemented.
         target.register(InboundEventReader.class).register(EventInputReader.class);
         this.target = target;
+        this.sharedExecutor = executor;
 
         if (open) {
             open();
         }
     }
 
+    /**
+     * Set the delay before reconnecting to the web target once the connection has been lost.
+     * <p>
+     * The value is used unless the server requests a different reconnection delay in the {@code retry}
+     * field of an event. The default reconnection delay is {@value #DEFAULT_RECONNECT_DELAY} ms.
+     * </p>
+     *
+     * @param delay reconnection delay, must not be negative.
+     * @param unit  time unit of the delay argument.
+     */
+    public void setReconnectDelay(long delay, TimeUnit unit) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Reconnection delay must not be negative.");
+        }
+        this.reconnectDelay = unit.toMillis(delay);
+    }
+
+    /**
+     * Set the maximum time the event source waits for new data before it considers the connection lost
+     * and reconnects to the web target.
+     * <p>
+     * The idle timeout is applied as the {@link ClientProperties#READ_TIMEOUT read timeout} of the subsequent
+     * connections and can be used to detect connections that have been lost without being closed. Servers are
+     * then expected to send periodic (e.g. comment) events to idle clients. The idle timeout is disabled
+     * by default; zero disables the idle timeout.
+     * </p>
+     *
+     * @param timeout idle timeout, must not be negative.
+     * @param unit    time unit of the timeout argument.
+     */
+    public void setIdleTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Idle timeout must not be negative.");
+        }
+        this.idleTimeout = unit.toMillis(timeout);
+    }
+
     /**
      * Open the connection to the supplied SSE underlying {@link WebTarget web target} and start processing incoming
      * {@link InboundEvent events}.
@@ -181,57 +284,32 @@ public class EventSource implements EventListener {
      */
     public void open() throws IllegalStateException {
         synchronized (connectionLock) {
-            if (process != null) {
+            if (processor != null) {
                 throw new IllegalStateException(LocalizationMessages.EVENT_SOURCE_ALREADY_CONNECTED());
             }
 
-            executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
-                @Override
-                public Thread newThread(Runnable r) {
-                    return new Thread(r, String.format("jersey-sse-event-source-[%s]", target.getUri().toASCIIString()));
-                }
-            });
-
-
-            final EventInput eventInput = target.request(SseFeature.SERVER_SENT_EVENTS_TYPE).get(EventInput.class);
-            eventInput.setParser(ChunkedInput.createParser("\n\n"));
-
-            final Future<?> p = executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    while (!eventInput.isClosed()) {
-                        synchronized (listenerAggregator) {
-                            final InboundEvent event = eventInput.read();
-                            if (event != null) {
-                                listenerAggregator.onEvent(event);
-                            }
-                        }
-                    }
-                }
-            });
-
-            process = new Future<Object>() {
-                public boolean cancel(boolean mayInterruptIfRunning) {
-                    eventInput.close();
-                    return p.cancel(mayInterruptIfRunning);
-                }
-
-                public boolean isCancelled() {
-                    return p.isCancelled();
-                }
-
-                public boolean isDone() {
-                    return p.isDone();
-                }
+            final EventInput eventInput = connect();
 
-                public Object get() throws InterruptedException, ExecutionException {
-                    return p.get();
-                }
+            final ScheduledExecutorService executor;
+            if (sharedExecutor != null) {
+                executor = sharedExecutor;
+            } else {
+                executorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, String.format("jersey-sse-event-source-[%s]", target.getUri().toASCIIString()));
+                    }
+                });
+                executor = executorService;
+            }
 
-                public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-                    return p.get(timeout, unit);
-                }
-            };
+            processor = new EventProcessor(executor, eventInput);
+            if (eventInput == null) {
+                LOGGER.fine(LocalizationMessages.EVENT_SOURCE_RECONNECT_DISABLED(target.getUri()));
+                processor.close();
+            } else {
+                processor.schedule(0);
+            }
         }
     }
 
@@ -242,7 +320,7 @@ public class EventSource implements EventListener {
      */
     public boolean isOpen() {
         synchronized (connectionLock) {
-            return process != null;
+            return processor != null;
         }
     }
 
@@ -332,7 +410,8 @@ public class EventSource implements EventListener {
      * <p>
      * The method blocks until the event processing task has completed execution after a shutdown
      * request, or until the timeout occurs, or the current thread is interrupted, whichever happens
-     * first.
+     * first. Event sources using a shared executor do not wait for the completion of a running event
+     * processing task.
      * </p>
      * <p>
      * In case the waiting for the event processing task has been interrupted, this method restores
@@ -346,11 +425,15 @@ public class EventSource implements EventListener {
      */
     public boolean close(long timeout, TimeUnit unit) {
         synchronized (connectionLock) {
-            if (process == null) {
+            if (processor == null) {
+                return true;
+            }
+
+            processor.close();
+            if (executorService == null) {
                 return true;
             }
 
-            process.cancel(true);
             executorService.shutdown();
             try {
                 if (!executorService.awaitTermination(timeout, unit)) {
@@ -366,4 +449,263 @@ public class EventSource implements EventListener {
 
         return true;
     }
+
+    /**
+     * Open a new connection to the web target.
+     *
+     * @return event input of the new connection or {@code null} if the server requested the event source
+     *         not to reconnect.
+     * @throws javax.ws.rs.client.ClientException in case the connection could not be established.
+     * @throws WebApplicationException in case the server responded with an error status.
+     */
+    private EventInput connect() {
+        final Invocation.Builder request = target.request(SseFeature.SERVER_SENT_EVENTS_TYPE);
+        final String eventId = lastEventId;
+        if (eventId != null && !eventId.isEmpty()) {
+            request.header(SseFeature.LAST_EVENT_ID_HEADER, eventId);
+        }
+        final long timeout = idleTimeout;
+        if (timeout > 0) {
+            request.setProperty(ClientProperties.READ_TIMEOUT, (int) Math.min(timeout, Integer.MAX_VALUE));
+        }
+
+        final Response response = request.get();
+        if (response.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) {
+            response.close();
+            return null;
+        }
+        if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            response.close();
+            throw new WebApplicationException(response);
+        }
+        return response.readEntity(EventInput.class);
+    }
+
+    private void dispatch(final InboundEvent event) {
+        if (event.getId() != null) {
+            lastEventId = event.getId();
+        }
+        if (event.getReconnectDelay() >= 0) {
+            serverReconnectDelay = event.getReconnectDelay();
+        }
+
+        try {
+            synchronized (listenerAggregator) {
+                listenerAggregator.onEvent(event);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, LocalizationMessages.EVENT_SOURCE_LISTENER_FAILED(target.getUri()), e);
+        }
+    }
+
+    /**
+     * Event processing task that establishes the connection and reads the events from the current connection,
+     * or hands the connection over to an {@link EventReader event reader} driven by the incoming data, and
+     * re-establishes the connection once it is lost.
+     * <p>
+     * The task is never executed concurrently; each execution schedules the next one.
+     * </p>
+     */
+    private final class EventProcessor implements Runnable {
+
+        private final ScheduledExecutorService executor;
+        private volatile EventInput eventInput;
+        private volatile Future<?> task;
+        private volatile boolean closed = false;
+        private int failedAttempts = 0;
+
+        private EventProcessor(final ScheduledExecutorService executor, final EventInput eventInput) {
+            this.executor = executor;
+            this.eventInput = eventInput;
+        }
+
+        @Override
+        public void run() {
+            if (closed) {
+                return;
+            }
+
+            EventInput input = eventInput;
+            if (input == null) {
+                try {
+                    input = connect();
+                } catch (RuntimeException e) {
+                    final long delay = nextReconnectDelay(++failedAttempts);
+                    LOGGER.log(Level.FINE, LocalizationMessages.EVENT_SOURCE_CONNECTION_FAILED(target.getUri(), delay), e);
+                    schedule(delay);
+                    return;
+                }
+                if (input == null) {
+                    LOGGER.fine(LocalizationMessages.EVENT_SOURCE_RECONNECT_DISABLED(target.getUri()));
+                    close();
+                    return;
+                }
+                failedAttempts = 0;
+                eventInput = input;
+                if (closed) {
+                    input.close();
+                    return;
+                }
+            }
+
+            if (sharedExecutor != null && input.isFeedable()) {
+                new EventReader(this, input).start();
+                return;
+            }
+
+            read(input);
+            disconnected(input);
+        }
+
+        /**
+         * Read and dispatch the events until the connection is closed or the event source is closed.
+         *
+         * @param input event input of the current connection.
+         */
+        private void read(final EventInput input) {
+            try {
+                while (!closed && !input.isClosed()) {
+                    final InboundEvent event = input.read();
+                    if (event != null) {
+                        dispatch(event);
+                    }
+                }
+            } catch (IllegalStateException e) {
+                // event input closed concurrently
+            }
+        }
+
+        /**
+         * Close the event input of a lost connection and schedule the reconnection.
+         *
+         * @param input event input of the lost connection.
+         */
+        private void disconnected(final EventInput input) {
+            input.close();
+            eventInput = null;
+            if (closed) {
+                return;
+            }
+            final long delay = nextReconnectDelay(0);
+            LOGGER.fine(LocalizationMessages.EVENT_SOURCE_CONNECTION_LOST(target.getUri(), delay));
+            schedule(delay);
+        }
+
+        private long nextReconnectDelay(final int failures) {
+            final long serverDelay = serverReconnectDelay;
+            final long delay = serverDelay >= 0 ? serverDelay : reconnectDelay;
+            return failures == 0 ? delay : delay << Math.min(failures - 1, MAX_RECONNECT_BACKOFF_SHIFT);
+        }
+
+        private void schedule(final long delay) {
+            if (closed) {
+                return;
+            }
+            try {
+                task = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.WARNING, LocalizationMessages.EVENT_SOURCE_SCHEDULING_REJECTED(target.getUri()), e);
+                close();
+                return;
+            }
+            if (closed) {
+                task.cancel(false);
+            }
+        }
+
+        /**
+         * Stop the event processing, closing the event input of the current connection and interrupting
+         * a processing task blocked in reading the events.
+         */
+        private void close() {
+            closed = true;
+            final EventInput input = eventInput;
+            if (input != null) {
+                input.close();
+            }
+            final Future<?> t = task;
+            if (t != null) {
+                t.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Reader of the events from a connection whose response entity stream is fed by the transport connector.
+     * <p>
+     * Whenever new data arrive, the reader submits a task to the shared executor that reads and dispatches
+     * all the events available. At most one task of the reader is submitted at a time, so the events
+     * are dispatched in order. Once the connection is lost, the reader hands the reconnection over to the
+     * {@link EventProcessor event processor}.
+     * </p>
+     */
+    private final class EventReader implements Runnable {
+
+        private final EventProcessor processor;
+        private final EventInput input;
+        /**
+         * Number of the data arrival signals not yet handled by the read task.
+         */
+        private final AtomicInteger signals = new AtomicInteger();
+
+        private final Runnable signal = new Runnable() {
+            @Override
+            public void run() {
+                if (signals.getAndIncrement() == 0) {
+                    try {
+                        processor.executor.execute(EventReader.this);
+                    } catch (RejectedExecutionException e) {
+                        LOGGER.log(Level.WARNING, LocalizationMessages.EVENT_SOURCE_SCHEDULING_REJECTED(target.getUri()), e);
+                        processor.close();
+                    }
+                }
+            }
+        };
+
+        private EventReader(final EventProcessor processor, final EventInput input) {
+            this.processor = processor;
+            this.input = input;
+        }
+
+        private void start() {
+            input.setFeedListener(signal);
+        }
+
+        @Override
+        public void run() {
+            int handled = signals.get();
+            do {
+                if (!readAvailable()) {
+                    input.setFeedListener(null);
+                    if (!processor.closed) {
+                        processor.disconnected(input);
+                    }
+                    return;
+                }
+            } while ((handled = signals.addAndGet(-handled)) != 0);
+        }
+
+        /**
+         * Read and dispatch the available events.
+         *
+         * @return {@code false} if the connection has been lost or the event source has been closed.
+         */
+        private boolean readAvailable() {
+            try {
+                while (input.isEventReady()) {
+                    if (processor.closed || input.isClosed()) {
+                        return false;
+                    }
+                    final InboundEvent event = input.read();
+                    if (event != null) {
+                        dispatch(event);
+                    }
+                }
+            } catch (IllegalStateException e) {
+                // event input closed concurrently
+                return false;
+            }
+            return !processor.closed && !input.isClosed();
+        }
+    }
 }
@@ -58,6 +58,7 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 public class InboundEvent {
     private final String name;
     private final String id;
+    private final long reconnectDelay;
     private final byte[] data;
 
     private final MessageBodyWorkers messageBodyWorkers;
@@ -71,6 +72,7 @@ public class InboundEvent {
     static class Builder {
         private String name;
         private String id;
+        private long reconnectDelay = -1;
         private ByteArrayOutputStream dataStream;
 
         private final MessageBodyWorkers workers;
@@ -111,6 +113,16 @@ public class InboundEvent {
             return this;
         }
 
+        /**
+         * Set the reconnection delay requested by the server.
+         *
+         * @param milliseconds reconnection delay in milliseconds.
+         */
+        public Builder reconnectDelay(long milliseconds) {
+            this.reconnectDelay = milliseconds;
+            return this;
+        }
+
         /**
          * Add more incoming event data.
          *
@@ -129,10 +141,23 @@ public class InboundEvent {
             return this;
         }
 
+        /**
+         * Add more incoming event data.
+         *
+         * @param data   byte array containing data stored in the incoming event.
+         * @param offset offset of the data in the array.
+         * @param length length of the data.
+         */
+        Builder data(byte[] data, int offset, int length) {
+            this.dataStream.write(data, offset, length);
+            return this;
+        }
+
         public InboundEvent build() {
             return new InboundEvent(
                     name,
                     id,
+                    reconnectDelay,
                     dataStream.toByteArray(),
                     workers,
                     annotations,
@@ -143,6 +168,7 @@ public class InboundEvent {
 
     private InboundEvent(String name,
                         String id,
+                        long reconnectDelay,
                         byte[] data,
                         MessageBodyWorkers messageBodyWorkers,
                         Annotation[] annotations,
@@ -150,6 +176,7 @@ public class InboundEvent {
                         MultivaluedMap<String, String> headers) {
         this.name = name;
         this.id = id;
+        this.reconnectDelay = reconnectDelay;
         this.data = data;
         this.messageBodyWorkers = messageBodyWorkers;
         this.annotations = annotations;
@@ -175,6 +202,24 @@ public class InboundEvent {
         return name;
     }
 
+    /**
+     * Get the event id.
+     *
+     * @return event id or {@code null} if it is not present.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the reconnection delay requested by the server in the {@code retry} field of the event.
+     *
+     * @return reconnection delay in milliseconds or {@code -1} if it is not present.
+     */
+    public long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
     /**
      * Get event data.
      *
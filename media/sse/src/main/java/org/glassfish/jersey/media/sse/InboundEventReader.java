@@ -40,12 +40,13 @@
 
 package org.glassfish.jersey.media.sse;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import javax.ws.rs.ConstrainedTo;
 import javax.ws.rs.RuntimeType;
@@ -61,6 +62,10 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 
 /**
  * Client-side single inbound Server-Sent Event reader.
+ * <p>
+ * The event data are read in blocks into a thread-bound buffer that is reused across the events
+ * and the event fields are located by scanning the buffered bytes. Field values are decoded as UTF-8.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -68,16 +73,27 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 // TODO: make package-private once common config support is fully implemented & replace registration with SseFeature.
 public class InboundEventReader implements MessageBodyReader<InboundEvent> {
     private static final byte[] EOL_DATA = new byte[]{'\n'};
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte[] EVENT_FIELD = "event".getBytes(UTF8);
+    private static final byte[] DATA_FIELD = "data".getBytes(UTF8);
+    private static final byte[] ID_FIELD = "id".getBytes(UTF8);
+    private static final byte[] RETRY_FIELD = "retry".getBytes(UTF8);
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int READ_BLOCK_SIZE = 1024;
+    /**
+     * Buffers grown beyond this size to read a large event are not retained for the subsequent events.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Holds only a JDK type so that the thread-bound buffers do not pin the class loader of this class.
+     */
+    private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>();
 
     @Inject
     private Provider<MessageBodyWorkers> messageBodyWorkers;
 
-    private static enum State {
-        NEW_LINE,
-        COMMENT,
-        FIELD,
-    }
-
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return InboundEvent.class.equals(type) && mediaType.equals(SseFeature.SERVER_SENT_EVENTS_TYPE);
@@ -96,108 +112,211 @@ public class InboundEventReader implements MessageBodyReader<InboundEvent> {
          * http://dev.w3.org/html5/eventsource/
          * last editors draft from 13 March 2012
          */
-        final ByteArrayOutputStream tokenData = new ByteArrayOutputStream();
-        InboundEvent.Builder eventBuilder = new InboundEvent.Builder(messageBodyWorkers.get(), annotations, mediaType, headers);
-
-        int b = -1;
-        State currentState = State.NEW_LINE;
-        loop:
-        do {
-            switch (currentState) {
-                case NEW_LINE:
-                    b = entityStream.read();
-                    if (b == '\n' || b == -1) {
-                        break loop;
-                    }
+        byte[] buffer = BUFFER.get();
+        if (buffer == null) {
+            buffer = new byte[INITIAL_BUFFER_SIZE];
+        } else {
+            BUFFER.remove();
+        }
 
-                    if (b == ':') {
-                        currentState = State.COMMENT;
-                    } else {
-                        tokenData.write(b);
-                        currentState = State.FIELD;
-                    }
-                    break;
-                case COMMENT:
-                    // skipping comment data
-                    b = readLineUntil(entityStream, '\n', null);
-                    currentState = State.NEW_LINE;
-                    break;
-                case FIELD:
-                    // read field name
-                    b = readLineUntil(entityStream, ':', tokenData);
-                    final String fieldName = tokenData.toString();
-                    tokenData.reset();
-
-                    if (b == ':') {
-                        // read field value
-                        b = entityStream.read();
-                        if (b == ' ') {
-                            // first space in value has to be skipped
-                            b = entityStream.read();
-                        }
+        final EventBuffer eventBuffer = new EventBuffer(buffer);
+        try {
+            if (entityStream instanceof ByteArrayInputStream) {
+                // a single event chunk (e.g. provided by the chunked input) - read it all at once
+                eventBuffer.readAll(entityStream);
+            } else {
+                // read in blocks, up to the end of the event if the stream can be reset
+                eventBuffer.readEvent(entityStream);
+            }
+
+            final InboundEvent.Builder eventBuilder =
+                    new InboundEvent.Builder(messageBodyWorkers.get(), annotations, mediaType, headers);
+            eventBuffer.parse(eventBuilder);
+            return eventBuilder.build();
+        } finally {
+            if (eventBuffer.data.length <= MAX_RETAINED_BUFFER_SIZE) {
+                BUFFER.set(eventBuffer.data);
+            }
+        }
+    }
+
+    /**
+     * Buffered data of a single event.
+     */
+    private static final class EventBuffer {
+
+        private byte[] data;
+        private int length = 0;
+
+        private EventBuffer(final byte[] data) {
+            this.data = data;
+        }
+
+        /**
+         * Read the whole entity stream into the buffer.
+         *
+         * @param in entity stream.
+         * @throws IOException in case reading from the entity stream fails.
+         */
+        private void readAll(final InputStream in) throws IOException {
+            while (true) {
+                final int available = ensureCapacity(1);
+                final int read = in.read(data, length, available);
+                if (read < 0) {
+                    return;
+                }
+                length += read;
+            }
+        }
 
-                        if (b != '\n' && b != -1) {
-                            tokenData.write(b);
-                            b = readLineUntil(entityStream, '\n', tokenData);
+        /**
+         * Read the entity stream into the buffer up to the end of the first event, i.e. up to an empty line
+         * or the end of the stream.
+         * <p>
+         * The entity stream is read in blocks. A stream that supports marking is reset to the end of the event,
+         * otherwise the data read past the end of the event are discarded, just like the rest of the entity stream
+         * is discarded once the event entity is read.
+         * </p>
+         *
+         * @param in entity stream.
+         * @throws IOException in case reading from the entity stream fails.
+         */
+        private void readEvent(final InputStream in) throws IOException {
+            final boolean resettable = in.markSupported();
+            while (true) {
+                final int blockSize = Math.min(ensureCapacity(1), READ_BLOCK_SIZE);
+                if (resettable) {
+                    in.mark(blockSize);
+                }
+                final int read = in.read(data, length, blockSize);
+                if (read < 0) {
+                    return;
+                }
+
+                final int blockStart = length;
+                length += read;
+                for (int i = blockStart; i < length; i++) {
+                    if (data[i] == '\n' && (i == 0 || data[i - 1] == '\n')) {
+                        // empty line - end of the event
+                        if (resettable) {
+                            in.reset();
+                            skip(in, i + 1 - blockStart);
                         }
+                        length = i;
+                        return;
                     }
+                }
+            }
+        }
 
-                    processField(eventBuilder, fieldName, tokenData.toByteArray());
-                    tokenData.reset();
+        private static void skip(final InputStream in, long count) throws IOException {
+            while (count > 0) {
+                final long skipped = in.skip(count);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        return;
+                    }
+                    count--;
+                } else {
+                    count -= skipped;
+                }
+            }
+        }
 
-                    currentState = State.NEW_LINE;
-                    break;
+        /**
+         * Make sure the buffer has room for at least the specified number of bytes.
+         *
+         * @param required number of bytes required.
+         * @return number of bytes available in the buffer.
+         */
+        private int ensureCapacity(final int required) {
+            if (data.length - length < required) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + required));
             }
-        } while (b != -1);
+            return data.length - length;
+        }
 
-        return eventBuilder.build();
-    }
+        /**
+         * Parse the buffered event fields.
+         *
+         * @param eventBuilder builder of the parsed event.
+         */
+        private void parse(final InboundEvent.Builder eventBuilder) {
+            int position = 0;
+            while (position < length) {
+                final int lineEnd = indexOf('\n', position, length);
+                if (lineEnd == position) {
+                    // empty line - end of the event
+                    break;
+                }
 
-    /**
-     * Read input stream until a delimiter or {@code EOL ('\n')} or {@code EOF} is reached
-     * and write the read data to the supplied output stream if not {@code null}, or discard
-     * the data if the output stream is {@code null}.
-     *
-     * @param in        input stream to be read.
-     * @param delimiter delimiter to break the read (apart from {@code EOL ('\n')} or {@code EOF}).
-     * @param out       output stream to write the read data to. May be {@code null}, in which case the
-     *                  read data are silently discarded.
-     * @return value of the last byte read.
-     * @throws IOException in case the reading or writing of the data failed.
-     */
-    private int readLineUntil(InputStream in, int delimiter, OutputStream out) throws IOException {
-        int b;
-        while ((b = in.read()) != -1) {
-            if (b == delimiter || b == '\n') {
-                break;
-            } else if (out != null) {
-                out.write(b);
+                if (data[position] != ':') {
+                    // the first colon separates the field name and value, otherwise the whole line is the field name
+                    final int colon = indexOf(':', position, lineEnd);
+                    int valueStart = colon + 1;
+                    if (valueStart < lineEnd && data[valueStart] == ' ') {
+                        // first space in value has to be skipped
+                        valueStart++;
+                    }
+                    processField(eventBuilder, position, colon - position, Math.min(valueStart, lineEnd), lineEnd);
+                }
+                // else skip comment
+
+                position = lineEnd + 1;
             }
         }
 
-        return b;
-    }
+        private int indexOf(final int b, final int from, final int to) {
+            for (int i = from; i < to; i++) {
+                if (data[i] == b) {
+                    return i;
+                }
+            }
+            return to;
+        }
 
-    private void processField(InboundEvent.Builder inboundEventBuilder, String name, byte[] value) {
-        if ("event".equals(name)) {
-            inboundEventBuilder.name(new String(value));
-        } else if ("data".equals(name)) {
-            inboundEventBuilder.data(value);
-            inboundEventBuilder.data(EOL_DATA);
-        } else if ("id".equals(name)) {
-            String s = new String(value);
-            try {
-                // TODO: check the value [0-9]*
-                Integer.parseInt(new String(value));
-            } catch (NumberFormatException nfe) {
-                // TODO log warning
-                s = "";
+        private boolean isField(final byte[] name, final int offset, final int nameLength) {
+            if (nameLength != name.length) {
+                return false;
+            }
+            for (int i = 0; i < nameLength; i++) {
+                if (data[offset + i] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void processField(final InboundEvent.Builder inboundEventBuilder,
+                                  final int nameOffset,
+                                  final int nameLength,
+                                  final int valueStart,
+                                  final int valueEnd) {
+            final int valueLength = valueEnd - valueStart;
+            if (isField(EVENT_FIELD, nameOffset, nameLength)) {
+                inboundEventBuilder.name(new String(data, valueStart, valueLength, UTF8));
+            } else if (isField(DATA_FIELD, nameOffset, nameLength)) {
+                inboundEventBuilder.data(data, valueStart, valueLength);
+                inboundEventBuilder.data(EOL_DATA);
+            } else if (isField(ID_FIELD, nameOffset, nameLength)) {
+                String s = new String(data, valueStart, valueLength, UTF8);
+                try {
+                    // TODO: check the value [0-9]*
+                    Integer.parseInt(s);
+                } catch (NumberFormatException nfe) {
+                    // TODO log warning
+                    s = "";
+                }
+                inboundEventBuilder.id(s);
+            } else if (isField(RETRY_FIELD, nameOffset, nameLength)) {
+                try {
+                    inboundEventBuilder.reconnectDelay(Long.parseLong(new String(data, valueStart, valueLength, UTF8)));
+                } catch (NumberFormatException nfe) {
+                    // ignore invalid values as required by the specification
+                }
+            } else {
+                // TODO support extensions, ignore for now
             }
-            inboundEventBuilder.id(s);
-        } else if ("retry".equals(name)) {
-            // TODO SSE retry support
-        } else {
-            // TODO support extensions, ignore for now
         }
     }
 }
@@ -156,6 +156,10 @@ public final class OutboundEvent {
     private final Class type;
     private final MediaType mediaType;
     private final Object data;
+    /**
+     * Size of the event in bytes as last written by the {@link OutboundEventWriter}, {@code -1} if not written yet.
+     */
+    private volatile long serializedSize = -1;
 
     /**
      * Create new OutboundEvent with given properties.
@@ -229,4 +233,22 @@ public final class OutboundEvent {
     public Object getData() {
         return data;
     }
+
+    /**
+     * Get the size of the event in bytes as last written by the {@link OutboundEventWriter}.
+     *
+     * @return serialized event size, or {@code -1} if the event has not been written yet.
+     */
+    long getSerializedSize() {
+        return serializedSize;
+    }
+
+    /**
+     * Record the size of the written event.
+     *
+     * @param serializedSize serialized event size in bytes.
+     */
+    void setSerializedSize(final long serializedSize) {
+        this.serializedSize = serializedSize;
+    }
 }
@@ -43,6 +43,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -56,14 +57,37 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 
 /**
  * Writer for {@link OutboundEvent}.
+ * <p>
+ * Events are encoded in UTF-8. Field prefixes are written from pre-encoded constants and the event is assembled
+ * in a reusable per-thread scratch buffer (a chunked output is never written by more than one thread at a time)
+ * that is written to the entity stream in bulk, so that writing an event produces almost no short-lived garbage.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  */
 // TODO: make package-private once common config support is fully implemented & replace registration with SseFeature.
 public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
 
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final byte[] COMMENT_LEAD = ": ".getBytes(UTF8);
+    private static final byte[] NAME_LEAD = "event: ".getBytes(UTF8);
+    private static final byte[] ID_LEAD = "id: ".getBytes(UTF8);
+    private static final byte[] DATA_LEAD = "data: ".getBytes(UTF8);
+    private static final byte[] EOL = "\n".getBytes(UTF8);
+    private static final byte[] EVENT_END = "\n\n".getBytes(UTF8);
+
+    private static final int SCRATCH_BUFFER_SIZE = 1024;
+    /**
+     * Holds only a JDK type so that the thread-bound buffers do not pin the class loader of this class.
+     */
+    private static final ThreadLocal<byte[]> SCRATCH_BUFFER = new ThreadLocal<byte[]>();
+
     @Inject
     private Provider<MessageBodyWorkers> workersProvider;
+    /**
+     * Message body workers are an application singleton - cached on first use to avoid a service lookup per event.
+     */
+    private volatile MessageBodyWorkers workers;
 
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -89,48 +113,187 @@ public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
                         MultivaluedMap<String, Object> httpHeaders,
                         final OutputStream entityStream) throws IOException, WebApplicationException {
 
-        if (outboundEvent.getComment() != null) {
-            entityStream.write(String.format(": %s\n", outboundEvent.getComment()).getBytes());
+        byte[] buffer = SCRATCH_BUFFER.get();
+        if (buffer == null) {
+            // first use on this thread or a re-entrant invocation while the buffer is taken by the outer event
+            buffer = new byte[SCRATCH_BUFFER_SIZE];
+        } else {
+            SCRATCH_BUFFER.remove();
         }
+        final Scratch scratch = new Scratch(buffer, entityStream);
 
-        if (outboundEvent.getType() != null) {
-            final MediaType eventMediaType =
-                    outboundEvent.getMediaType() == null ? MediaType.TEXT_PLAIN_TYPE : outboundEvent.getMediaType();
-            final MessageBodyWriter messageBodyWriter = workersProvider.get().getMessageBodyWriter(outboundEvent.getType(),
-                    outboundEvent.getType(), annotations, eventMediaType);
-            if (outboundEvent.getName() != null) {
-                entityStream.write(String.format("event: %s\n", outboundEvent.getName()).getBytes());
+        try {
+            if (outboundEvent.getComment() != null) {
+                scratch.writeField(COMMENT_LEAD, outboundEvent.getComment());
             }
-            if (outboundEvent.getId() != null) {
-                entityStream.write(String.format("id: %s\n", outboundEvent.getId()).getBytes());
+
+            if (outboundEvent.getType() != null) {
+                final MediaType eventMediaType =
+                        outboundEvent.getMediaType() == null ? MediaType.TEXT_PLAIN_TYPE : outboundEvent.getMediaType();
+                final MessageBodyWriter messageBodyWriter = getWorkers().getMessageBodyWriter(outboundEvent.getType(),
+                        outboundEvent.getType(), annotations, eventMediaType);
+                if (outboundEvent.getName() != null) {
+                    scratch.writeField(NAME_LEAD, outboundEvent.getName());
+                }
+                if (outboundEvent.getId() != null) {
+                    scratch.writeField(ID_LEAD, outboundEvent.getId());
+                }
+
+                messageBodyWriter.writeTo(
+                        outboundEvent.getData(),
+                        outboundEvent.getType(),
+                        outboundEvent.getType(),
+                        annotations,
+                        eventMediaType,
+                        httpHeaders,
+                        scratch.dataStream());
             }
 
-            messageBodyWriter.writeTo(
-                    outboundEvent.getData(),
-                    outboundEvent.getType(),
-                    outboundEvent.getType(),
-                    annotations,
-                    eventMediaType,
-                    httpHeaders,
-                    new OutputStream() {
-
-                        private boolean start = true;
-
-                        @Override
-                        public void write(int i) throws IOException {
-                            if (start) {
-                                entityStream.write("data: ".getBytes());
-                                start = false;
-                            }
-                            entityStream.write(i);
-                            if (i == '\n') {
-                                entityStream.write("data: ".getBytes());
-                            }
-                        }
-                    });
+            scratch.write(EVENT_END, 0, EVENT_END.length);
+            scratch.flush();
+            outboundEvent.setSerializedSize(scratch.written);
+        } finally {
+            SCRATCH_BUFFER.set(buffer);
         }
-
-        entityStream.write("\n\n".getBytes());
         entityStream.flush();
     }
+
+    private MessageBodyWorkers getWorkers() {
+        MessageBodyWorkers result = workers;
+        if (result == null) {
+            result = workersProvider.get();
+            workers = result;
+        }
+        return result;
+    }
+
+    /**
+     * Assembles the event in a scratch buffer before it is written to the entity stream.
+     */
+    private static final class Scratch {
+
+        private final byte[] buffer;
+        private final OutputStream out;
+        private final DataStream dataStream = new DataStream();
+        private int position = 0;
+        private long written = 0;
+
+        private Scratch(final byte[] buffer, final OutputStream out) {
+            this.buffer = buffer;
+            this.out = out;
+        }
+
+        private void writeField(final byte[] lead, final String value) throws IOException {
+            write(lead, 0, lead.length);
+            writeUtf8(value);
+            write(EOL, 0, EOL.length);
+        }
+
+        private void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length > buffer.length - position) {
+                flush();
+                if (length > buffer.length) {
+                    out.write(bytes, offset, length);
+                    written += length;
+                    return;
+                }
+            }
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        private void writeByte(final int b) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        private void writeUtf8(final String value) throws IOException {
+            final int length = value.length();
+            for (int i = 0; i < length; i++) {
+                final char c = value.charAt(i);
+                if (buffer.length - position < 4) {
+                    flush();
+                }
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c)
+                        && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                    // unpaired surrogate - replaced the same way as by String.getBytes(...)
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            if (position > 0) {
+                out.write(buffer, 0, position);
+                written += position;
+                position = 0;
+            }
+        }
+
+        private OutputStream dataStream() {
+            dataStream.start = true;
+            return dataStream;
+        }
+
+        /**
+         * Prefixes every line of the event data with the {@code "data: "} field name.
+         */
+        private final class DataStream extends OutputStream {
+
+            private boolean start;
+
+            @Override
+            public void write(final int b) throws IOException {
+                if (start) {
+                    Scratch.this.write(DATA_LEAD, 0, DATA_LEAD.length);
+                    start = false;
+                }
+                writeByte(b);
+                if (b == '\n') {
+                    Scratch.this.write(DATA_LEAD, 0, DATA_LEAD.length);
+                }
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                if (length <= 0) {
+                    return;
+                }
+                if (start) {
+                    Scratch.this.write(DATA_LEAD, 0, DATA_LEAD.length);
+                    start = false;
+                }
+
+                final int end = offset + length;
+                int lineStart = offset;
+                for (int i = offset; i < end; i++) {
+                    if (bytes[i] == '\n') {
+                        Scratch.this.write(bytes, lineStart, i + 1 - lineStart);
+                        Scratch.this.write(DATA_LEAD, 0, DATA_LEAD.length);
+                        lineStart = i + 1;
+                    }
+                }
+                if (lineStart < end) {
+                    Scratch.this.write(bytes, lineStart, end - lineStart);
+                }
+            }
+        }
+    }
 }
@@ -39,8 +39,14 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 import org.glassfish.jersey.server.Broadcaster;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Used for broadcasting SSE to multiple {@link EventOutput} instances.
  *
@@ -49,6 +55,9 @@ import org.glassfish.jersey.server.Broadcaster;
  */
 public class SseBroadcaster extends Broadcaster<OutboundEvent> {
 
+    private final Object replayLock = new Object();
+    private volatile EventReplayBuffer replayBuffer;
+
     /**
      * Creates a new instance.
      * If this constructor is called by a subclass, it assumes the the reason for the subclass to exist is to implement
@@ -74,6 +83,61 @@ public class SseBroadcaster extends Broadcaster<OutboundEvent> {
         super(subclass);
     }
 
+    /**
+     * Creates a new instance that broadcasts events asynchronously, using a bounded queue of pending events
+     * per {@link EventOutput} drained by the supplied executor.
+     *
+     * @param executor       executor used to write the queued events to the event outputs.
+     * @param queueCapacity  maximum number of events pending in the queue of a single event output.
+     * @param overflowPolicy policy applied when an event is broadcast to an event output with a full queue.
+     * @see Broadcaster#Broadcaster(Executor, int, OverflowPolicy)
+     */
+    public SseBroadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        this(SseBroadcaster.class, executor, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * Can be used by subclasses to create an asynchronously broadcasting instance while overriding the default
+     * functionality of adding self to the set of {@link org.glassfish.jersey.server.BroadcasterListener listeners}.
+     *
+     * @param subclass       subclass of SseBroadcaster that should not be registered as a listener - if creating
+     *                       a direct instance of this subclass, this constructor will not register the new instance
+     *                       as a listener.
+     * @param executor       executor used to write the queued events to the event outputs.
+     * @param queueCapacity  maximum number of events pending in the queue of a single event output.
+     * @param overflowPolicy policy applied when an event is broadcast to an event output with a full queue.
+     * @see #SseBroadcaster(Executor, int, OverflowPolicy)
+     */
+    protected SseBroadcaster(final Class<? extends SseBroadcaster> subclass,
+                             final Executor executor,
+                             final int queueCapacity,
+                             final OverflowPolicy overflowPolicy) {
+        super(subclass, executor, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * Enable replaying of the recently broadcast events to the reconnecting clients.
+     * <p>
+     * Once enabled, the broadcaster retains the most recently broadcast events in a bounded buffer; the oldest
+     * events are evicted first once the buffer holds more than {@code maxEvents} events or more than
+     * {@code maxBytes} bytes. The size of an event is the number of bytes written when the event is broadcast
+     * (until then it is estimated from the event fields and the string representation of the event data).
+     * The retained events are replayed to the event outputs registered via {@link #add(EventOutput, String)}.
+     * Calling this method again discards the previously retained events.
+     * </p>
+     *
+     * @param maxEvents maximum number of retained events, must be positive.
+     * @param maxBytes  maximum size of all the retained events in bytes, must be positive.
+     */
+    public void enableReplay(final int maxEvents, final long maxBytes) {
+        Preconditions.checkArgument(maxEvents > 0, "Maximum number of replayed events must be positive.");
+        Preconditions.checkArgument(maxBytes > 0, "Maximum size of replayed events must be positive.");
+
+        synchronized (replayLock) {
+            replayBuffer = new EventReplayBuffer(maxEvents, maxBytes);
+        }
+    }
+
     /**
      * Register {@link EventOutput} to current {@link SseBroadcaster} instance.
      *
@@ -83,4 +147,76 @@ public class SseBroadcaster extends Broadcaster<OutboundEvent> {
     public void add(final EventOutput eventOutput) {
         super.add(eventOutput);
     }
+
+    /**
+     * Register {@link EventOutput} of a (re)connecting client to current {@link SseBroadcaster} instance,
+     * replaying the events the client has missed.
+     * <p>
+     * If the {@link #enableReplay(int, long) replay is enabled} and an event with the given
+     * {@link SseFeature#LAST_EVENT_ID_HEADER last event id} is still retained by the broadcaster, all the events
+     * broadcast after that event are written to the event output before any newly broadcast event.
+     * The replayed events are written on the calling thread, typically before the event output is returned from
+     * the resource method.
+     * </p>
+     *
+     * @param eventOutput {@link EventOutput} to register.
+     * @param lastEventId value of the {@value SseFeature#LAST_EVENT_ID_HEADER} request header sent by the client,
+     *                    may be {@code null}.
+     * @return {@code true} if the client has not missed any event or if all the missed events were replayed,
+     *         {@code false} if the missed events could not be replayed (the replay is not enabled or the last
+     *         event received by the client is no longer retained) and the client state has to be re-synchronized
+     *         by other means.
+     * @throws IOException in case writing of a replayed event fails.
+     */
+    public boolean add(final EventOutput eventOutput, final String lastEventId) throws IOException {
+        if (replayBuffer == null) {
+            super.add(eventOutput);
+            return lastEventId == null;
+        }
+
+        // the broadcast events are appended to the replay buffer together with fixing their recipients,
+        // so each event is either replayed here or written by the broadcast, never both
+        synchronized (replayLock) {
+            final List<OutboundEvent> missed = lastEventId == null ? null : replayBuffer.eventsAfter(lastEventId);
+            if (missed != null) {
+                for (OutboundEvent event : missed) {
+                    eventOutput.write(event);
+                }
+            }
+            super.add(eventOutput);
+            return lastEventId == null || missed != null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the {@link #enableReplay(int, long) replay is enabled}, the event is also retained for replaying
+     * to the reconnecting clients.
+     * </p>
+     */
+    @Override
+    public void broadcast(final OutboundEvent chunk) {
+        if (replayBuffer == null) {
+            super.broadcast(chunk);
+            return;
+        }
+
+        final EventReplayBuffer buffer;
+        final Runnable broadcast;
+        synchronized (replayLock) {
+            buffer = replayBuffer;
+            buffer.append(chunk, chunk.getSerializedSize());
+            broadcast = prepareBroadcast(chunk);
+        }
+        // the event is written (and serialized) outside of the lock so that slow subscribers do not block
+        // registering of the reconnecting clients
+        broadcast.run();
+
+        if (chunk.getSerializedSize() >= 0) {
+            synchronized (replayLock) {
+                buffer.update();
+            }
+        }
+    }
 }
@@ -57,6 +57,13 @@ public class SseFeature implements Feature {
      * Server sent events media type.
      */
     public static final MediaType SERVER_SENT_EVENTS_TYPE = MediaType.valueOf(SERVER_SENT_EVENTS);
+    /**
+     * Name of the HTTP request header a reconnecting client uses to send the id of the last event
+     * it has received. ("{@value}").
+     *
+     * @see SseBroadcaster#add(EventOutput, String)
+     */
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
 
     @Override
     public boolean configure(FeatureContext context) {
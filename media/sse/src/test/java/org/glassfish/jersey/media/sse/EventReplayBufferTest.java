@@ -0,0 +1,147 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link EventReplayBuffer} - the replay order and the eviction of the retained events.
+ */
+public class EventReplayBufferTest {
+
+    private static OutboundEvent event(final String id, final String data) {
+        return new OutboundEvent.Builder().id(id).data(String.class, data).build();
+    }
+
+    private static String ids(final List<OutboundEvent> events) {
+        final StringBuilder ids = new StringBuilder();
+        for (OutboundEvent event : events) {
+            ids.append(event.getId());
+        }
+        return ids.toString();
+    }
+
+    @Test
+    public void testEventsAfterInBroadcastOrder() {
+        final EventReplayBuffer buffer = new EventReplayBuffer(10, Long.MAX_VALUE);
+        for (String id : new String[] {"1", "2", "3", "4"}) {
+            buffer.append(event(id, "data"), -1);
+        }
+
+        assertEquals("34", ids(buffer.eventsAfter("2")));
+        assertEquals("234", ids(buffer.eventsAfter("1")));
+        assertTrue(buffer.eventsAfter("4").isEmpty());
+    }
+
+    @Test
+    public void testUnknownEventId() {
+        final EventReplayBuffer buffer = new EventReplayBuffer(10, Long.MAX_VALUE);
+        buffer.append(event("1", "data"), -1);
+
+        assertNull(buffer.eventsAfter("unknown"));
+    }
+
+    @Test
+    public void testEvictionAtMaxEvents() {
+        final EventReplayBuffer buffer = new EventReplayBuffer(2, Long.MAX_VALUE);
+        for (String id : new String[] {"1", "2", "3", "4"}) {
+            buffer.append(event(id, "data"), -1);
+        }
+
+        assertEquals(2, buffer.size());
+        assertNull(buffer.eventsAfter("1"));
+        assertNull(buffer.eventsAfter("2"));
+        assertEquals("4", ids(buffer.eventsAfter("3")));
+    }
+
+    @Test
+    public void testEvictionAtMaxBytes() {
+        final EventReplayBuffer buffer = new EventReplayBuffer(10, 250);
+        for (String id : new String[] {"1", "2", "3"}) {
+            buffer.append(event(id, "data"), 100);
+        }
+
+        assertEquals(2, buffer.size());
+        assertEquals(200, buffer.bytes());
+        assertNull(buffer.eventsAfter("1"));
+        assertEquals("3", ids(buffer.eventsAfter("2")));
+    }
+
+    @Test
+    public void testEstimatedSizeReplacedBySerializedSize() {
+        final EventReplayBuffer buffer = new EventReplayBuffer(10, 250);
+        final OutboundEvent first = event("1", "data");
+        buffer.append(first, -1);
+        assertEquals(EventReplayBuffer.estimateSize(first), buffer.bytes());
+
+        // the real size of the written event exceeds the bound only together with the next event
+        first.setSerializedSize(200);
+        buffer.update();
+        assertEquals(200, buffer.bytes());
+        assertEquals(1, buffer.size());
+
+        buffer.append(event("2", "data"), 100);
+        assertEquals(1, buffer.size());
+        assertEquals(100, buffer.bytes());
+        assertNull(buffer.eventsAfter("1"));
+    }
+
+    @Test
+    public void testEstimatedSizeOfBinaryAndMultilineData() {
+        final OutboundEvent text = event("1", "a\nb");
+        final OutboundEvent binary = new OutboundEvent.Builder().id("1").data(byte[].class, "a\nb".getBytes()).build();
+
+        // "id: 1\n" + "data: a\n" + "data: b" + "\n\n"
+        assertEquals(6 + 8 + 7 + 2, EventReplayBuffer.estimateSize(text));
+        assertEquals(EventReplayBuffer.estimateSize(text), EventReplayBuffer.estimateSize(binary));
+
+        final String data = "\u00e9\u20ac\ud83d\ude00\na";
+        final OutboundEvent encoded = event("1", data);
+        final OutboundEvent encodedBinary = new OutboundEvent.Builder().id("1").data(byte[].class,
+                data.getBytes(Charset.forName("UTF-8"))).build();
+        assertEquals(EventReplayBuffer.estimateSize(encodedBinary), EventReplayBuffer.estimateSize(encoded));
+    }
+}
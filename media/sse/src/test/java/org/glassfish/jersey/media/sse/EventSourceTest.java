@@ -0,0 +1,351 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientFactory;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.FeedableInputStream;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link EventSource} - reconnecting to the web target once the connection is lost.
+ */
+public class EventSourceTest {
+
+    /**
+     * Connector that replies to the subsequent requests with the scripted responses - either an event stream
+     * (data or an entity stream) or an error status - and with {@code 204 No Content} once the script is exhausted.
+     */
+    private static class ScriptedConnector implements Connector {
+
+        private final Queue<Object> script = new LinkedList<Object>();
+        private final List<ClientRequest> requests = new CopyOnWriteArrayList<ClientRequest>();
+        private final List<Long> times = new CopyOnWriteArrayList<Long>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private ScriptedConnector(final Object... responses) {
+            for (Object response : responses) {
+                script.add(response);
+            }
+        }
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            requests.add(request);
+            times.add(System.currentTimeMillis());
+
+            final Object next;
+            synchronized (script) {
+                next = script.poll();
+            }
+            if (next == null) {
+                finished.countDown();
+                return new ClientResponse(Response.Status.NO_CONTENT, request);
+            }
+            if (next instanceof Response.Status) {
+                return new ClientResponse((Response.Status) next, request);
+            }
+
+            final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+            response.header(HttpHeaders.CONTENT_TYPE, SseFeature.SERVER_SENT_EVENTS);
+            if (next instanceof InputStream) {
+                response.setEntityStream((InputStream) next);
+                return response;
+            }
+            try {
+                response.setEntityStream(new ByteArrayInputStream(((String) next).getBytes("UTF-8")));
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            throw new UnsupportedOperationException("Asynchronous execution not supported.");
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        private void awaitFinished() throws InterruptedException {
+            assertTrue("Event source has not finished reconnecting.", finished.await(10, TimeUnit.SECONDS));
+        }
+
+        private List<String> lastEventIds() {
+            final List<String> ids = new ArrayList<String>();
+            for (ClientRequest request : requests) {
+                ids.add(request.getHeaderString(SseFeature.LAST_EVENT_ID_HEADER));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Listener that collects the data of the received events.
+     */
+    private static class CollectingListener implements EventListener {
+
+        private final List<String> received = new CopyOnWriteArrayList<String>();
+
+        @Override
+        public void onEvent(final InboundEvent inboundEvent) {
+            try {
+                received.add(inboundEvent.getData(String.class));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static WebTarget target(final Connector connector) {
+        return ClientFactory.newClient(new ClientConfig().connector(connector)).target("http://localhost/events");
+    }
+
+    private static List<Object> list(final Object... values) {
+        final List<Object> list = new ArrayList<Object>();
+        for (Object value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Test
+    public void testReconnectWithLastEventId() throws Exception {
+        final ScriptedConnector connector = new ScriptedConnector(
+                "id: 1\ndata: a\n\nid: 2\ndata: b\n\n",
+                "data: c\n\n",
+                "id: 3\ndata: d\n\n");
+        final EventSource eventSource = new EventSource(target(connector), false);
+        eventSource.setReconnectDelay(10, TimeUnit.MILLISECONDS);
+        final CollectingListener listener = new CollectingListener();
+        eventSource.register(listener);
+        eventSource.open();
+
+        connector.awaitFinished();
+        assertTrue(eventSource.close(5, TimeUnit.SECONDS));
+
+        assertEquals(list("a", "b", "c", "d"), new ArrayList<Object>(listener.received));
+        // an event without id does not reset the last event id
+        assertEquals(list(null, "2", "2", "3"), new ArrayList<Object>(connector.lastEventIds()));
+    }
+
+    @Test
+    public void testServerRetryAndBackoff() throws Exception {
+        final ScriptedConnector connector = new ScriptedConnector(
+                "retry: 100\nid: 1\ndata: a\n\n",
+                Response.Status.SERVICE_UNAVAILABLE,
+                Response.Status.SERVICE_UNAVAILABLE,
+                Response.Status.SERVICE_UNAVAILABLE);
+        // the reconnection delay requested by the server overrides the client one
+        final EventSource eventSource = new EventSource(target(connector), false);
+        eventSource.setReconnectDelay(1, TimeUnit.HOURS);
+        eventSource.open();
+
+        connector.awaitFinished();
+        assertTrue(eventSource.close(5, TimeUnit.SECONDS));
+
+        final List<Long> times = connector.times;
+        assertEquals(5, times.size());
+        // connection lost, then the delay doubles with each failed attempt
+        final long[] minDelays = {100, 100, 200, 400};
+        for (int i = 0; i < minDelays.length; i++) {
+            final long delay = times.get(i + 1) - times.get(i);
+            assertTrue("Reconnection attempt " + (i + 1) + " after " + delay + " ms.", delay >= minDelays[i]);
+        }
+        assertEquals(list(null, "1", "1", "1", "1"), new ArrayList<Object>(connector.lastEventIds()));
+    }
+
+    @Test
+    public void testIdleTimeoutOptIn() throws Exception {
+        final ScriptedConnector defaultConnector = new ScriptedConnector();
+        final EventSource defaultSource = new EventSource(target(defaultConnector));
+        defaultConnector.awaitFinished();
+        defaultSource.close();
+        assertNull(defaultConnector.requests.get(0).getConfiguration().getProperties().get(ClientProperties.READ_TIMEOUT));
+
+        final ScriptedConnector timeoutConnector = new ScriptedConnector();
+        final EventSource timeoutSource = new EventSource(target(timeoutConnector), false);
+        timeoutSource.setIdleTimeout(2, TimeUnit.SECONDS);
+        timeoutSource.open();
+        timeoutConnector.awaitFinished();
+        timeoutSource.close();
+        assertEquals(2000,
+                timeoutConnector.requests.get(0).getConfiguration().getProperties().get(ClientProperties.READ_TIMEOUT));
+    }
+
+    @Test
+    public void testSharedExecutorMultiplexesEventSources() throws Exception {
+        final int sourceCount = 50;
+        final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+        try {
+            final List<FeedableInputStream> streams = new ArrayList<FeedableInputStream>();
+            final List<ScriptedConnector> connectors = new ArrayList<ScriptedConnector>();
+            final List<CollectingListener> listeners = new ArrayList<CollectingListener>();
+            final List<EventSource> sources = new ArrayList<EventSource>();
+            final CountDownLatch firstEvents = new CountDownLatch(sourceCount);
+            for (int i = 0; i < sourceCount; i++) {
+                final FeedableInputStream stream = new FeedableInputStream();
+                final ScriptedConnector connector = new ScriptedConnector(stream);
+                final CollectingListener listener = new CollectingListener();
+                final EventSource source = new EventSource(target(connector), executor, false);
+                source.setReconnectDelay(10, TimeUnit.MILLISECONDS);
+                source.register(listener);
+                source.register(new EventListener() {
+                    @Override
+                    public void onEvent(final InboundEvent inboundEvent) {
+                        firstEvents.countDown();
+                    }
+                });
+                source.open();
+
+                streams.add(stream);
+                connectors.add(connector);
+                listeners.add(listener);
+                sources.add(source);
+            }
+
+            // all the connections stay open, yet the events of each of them are delivered by the two threads
+            for (int i = 0; i < sourceCount; i++) {
+                streams.get(i).feed(("data: " + i + "\n\ndata: ").getBytes("UTF-8"));
+            }
+            assertTrue("Events of open connections not delivered.", firstEvents.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < sourceCount; i++) {
+                streams.get(i).feed("next\n\n".getBytes("UTF-8"));
+            }
+            for (int i = 0; i < sourceCount; i++) {
+                streams.get(i).complete();
+            }
+
+            for (int i = 0; i < sourceCount; i++) {
+                connectors.get(i).awaitFinished();
+                sources.get(i).close();
+                assertEquals(list(String.valueOf(i), "next"), new ArrayList<Object>(listeners.get(i).received));
+                assertEquals(2, connectors.get(i).requests.size());
+            }
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCloseStopsBlockedReading() throws Exception {
+        // the stream of an open connection that never delivers any event
+        final CountDownLatch reading = new CountDownLatch(1);
+        final FeedableInputStream stream = new FeedableInputStream() {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                reading.countDown();
+                return super.read(b, off, len);
+            }
+        };
+        final ScriptedConnector connector = new ScriptedConnector(stream);
+        final EventSource eventSource = new EventSource(target(connector));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        assertTrue(eventSource.close(5, TimeUnit.SECONDS));
+        assertTrue(stream.isClosed());
+        assertEquals(1, connector.requests.size());
+    }
+
+    @Test
+    public void testCloseClosesMultiplexedConnection() throws Exception {
+        final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+        try {
+            final FeedableInputStream stream = new FeedableInputStream();
+            final ScriptedConnector connector = new ScriptedConnector(stream);
+            final CountDownLatch received = new CountDownLatch(1);
+            final EventSource eventSource = new EventSource(target(connector), executor, false);
+            eventSource.register(new EventListener() {
+                @Override
+                public void onEvent(final InboundEvent inboundEvent) {
+                    received.countDown();
+                }
+            });
+            eventSource.open();
+            stream.feed("data: a\n\n".getBytes("UTF-8"));
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            // the connection is open, but no task is running
+            assertTrue(eventSource.close(5, TimeUnit.SECONDS));
+            assertTrue(stream.isClosed());
+            assertEquals(1, connector.requests.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
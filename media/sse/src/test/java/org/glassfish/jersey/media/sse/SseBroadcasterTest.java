@@ -0,0 +1,284 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link SseBroadcaster} - replaying of the missed events to the reconnecting clients.
+ */
+public class SseBroadcasterTest {
+
+    @Path("events")
+    public static class Resource {
+
+        static volatile SseBroadcaster broadcaster;
+        static final BlockingQueue<Boolean> REPLAYED = new LinkedBlockingQueue<Boolean>();
+
+        @GET
+        @Produces(SseFeature.SERVER_SENT_EVENTS)
+        public EventOutput events(@HeaderParam(SseFeature.LAST_EVENT_ID_HEADER) final String lastEventId)
+                throws IOException {
+            final EventOutput output = new EventOutput();
+            REPLAYED.add(broadcaster.add(output, lastEventId));
+            return output;
+        }
+    }
+
+    /**
+     * Container stream that blocks the writing thread once blocking is turned on until it is released.
+     */
+    private static class BlockingStream extends ByteArrayOutputStream {
+
+        private volatile boolean blocking = false;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            if (blocking) {
+                blocked.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.write(bytes, offset, length);
+        }
+    }
+
+    private static class Subscription {
+
+        private final ByteArrayOutputStream stream;
+        private final Future<ContainerResponse> response;
+        private final Boolean replayed;
+
+        Subscription(final ApplicationHandler app, final String lastEventId, final ByteArrayOutputStream stream)
+                throws Exception {
+            final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create("/events"), "GET", null,
+                    new MapPropertiesDelegate());
+            if (lastEventId != null) {
+                request.header(SseFeature.LAST_EVENT_ID_HEADER, lastEventId);
+            }
+
+            this.stream = stream;
+            this.response = app.apply(request, stream);
+            this.replayed = Resource.REPLAYED.poll(5, TimeUnit.SECONDS);
+            assertNotNull("Event output has not been registered.", replayed);
+        }
+
+        String received() throws Exception {
+            assertEquals(200, response.get().getStatus());
+            return ids(stream.toString("UTF-8"));
+        }
+    }
+
+    private SseBroadcaster broadcaster;
+    private ApplicationHandler app;
+
+    @Before
+    public void setUp() {
+        broadcaster = new SseBroadcaster();
+        Resource.broadcaster = broadcaster;
+        Resource.REPLAYED.clear();
+        app = new ApplicationHandler(new ResourceConfig(Resource.class, OutboundEventWriter.class));
+    }
+
+    private Subscription subscribe(final String lastEventId) throws Exception {
+        return new Subscription(app, lastEventId, new ByteArrayOutputStream());
+    }
+
+    private static OutboundEvent event(final String id) {
+        return new OutboundEvent.Builder().id(id).data(String.class, "data-" + id).build();
+    }
+
+    private void broadcast(final String... ids) {
+        for (String id : ids) {
+            broadcaster.broadcast(event(id));
+        }
+    }
+
+    /**
+     * Extract the ids of the received events.
+     */
+    private static String ids(final String stream) {
+        final StringBuilder ids = new StringBuilder();
+        for (String line : stream.split("\n")) {
+            if (line.startsWith("id: ")) {
+                ids.append(line.substring("id: ".length()));
+            }
+        }
+        return ids.toString();
+    }
+
+    @Test
+    public void testMissedEventsReplayedInOrder() throws Exception {
+        broadcaster.enableReplay(10, Long.MAX_VALUE);
+        final Subscription connected = subscribe(null);
+        broadcast("1", "2", "3", "4");
+
+        final Subscription reconnected = subscribe("2");
+        broadcast("5");
+        broadcaster.closeAll();
+
+        assertTrue(connected.replayed);
+        assertTrue(reconnected.replayed);
+        assertEquals("12345", connected.received());
+        assertEquals("345", reconnected.received());
+    }
+
+    @Test
+    public void testUnknownLastEventId() throws Exception {
+        broadcaster.enableReplay(10, Long.MAX_VALUE);
+        broadcast("1", "2");
+
+        final Subscription reconnected = subscribe("unknown");
+        broadcast("3");
+        broadcaster.closeAll();
+
+        assertFalse(reconnected.replayed);
+        assertEquals("3", reconnected.received());
+    }
+
+    @Test
+    public void testReplayNotEnabled() throws Exception {
+        broadcast("1", "2");
+
+        final Subscription reconnected = subscribe("1");
+        broadcast("3");
+        broadcaster.closeAll();
+
+        assertFalse(reconnected.replayed);
+        assertEquals("3", reconnected.received());
+    }
+
+    @Test
+    public void testEvictionAtMaxEvents() throws Exception {
+        broadcaster.enableReplay(2, Long.MAX_VALUE);
+        broadcast("1", "2", "3", "4");
+
+        final Subscription evicted = subscribe("2");
+        final Subscription retained = subscribe("3");
+        broadcaster.closeAll();
+
+        assertFalse(evicted.replayed);
+        assertEquals("", evicted.received());
+        assertTrue(retained.replayed);
+        assertEquals("4", retained.received());
+    }
+
+    @Test
+    public void testEvictionAtMaxBytes() throws Exception {
+        final Subscription connected = subscribe(null);
+        final OutboundEvent written = event("0");
+        broadcaster.broadcast(written);
+        final long eventSize = written.getSerializedSize();
+        assertEquals(connected.stream.size(), eventSize);
+
+        // all the broadcast events have the same serialized size
+        broadcaster.enableReplay(10, 2 * eventSize);
+        broadcast("1", "2", "3");
+
+        final Subscription evicted = subscribe("1");
+        final Subscription retained = subscribe("2");
+        broadcaster.closeAll();
+
+        assertEquals("0123", connected.received());
+        assertFalse(evicted.replayed);
+        assertTrue(retained.replayed);
+        assertEquals("3", retained.received());
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockReconnect() throws Exception {
+        broadcaster.enableReplay(10, Long.MAX_VALUE);
+        final BlockingStream slowStream = new BlockingStream();
+        final Subscription slow = new Subscription(app, null, slowStream);
+        broadcast("1");
+
+        slowStream.blocking = true;
+        final Thread broadcasting = new Thread() {
+            @Override
+            public void run() {
+                broadcast("2");
+            }
+        };
+        broadcasting.start();
+        assertTrue(slowStream.blocked.await(5, TimeUnit.SECONDS));
+
+        // the event being written to the slow subscriber has already been retained for the replay
+        final Subscription reconnected = subscribe("1");
+        assertTrue(reconnected.replayed);
+
+        slowStream.blocking = false;
+        slowStream.released.countDown();
+        broadcasting.join(5000);
+        broadcaster.closeAll();
+
+        assertEquals("12", slow.received());
+        assertEquals("2", reconnected.received());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.Broadcaster;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of broadcasting a JAXB chunk to a growing number of subscribed {@link ChunkedOutput chunked
+ * outputs} using {@link Broadcaster#broadcast(Object)}, which serializes the chunk once for all the subscribers,
+ * compared to writing the chunk to each of the chunked outputs individually.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BroadcasterBenchmark {
+
+    @XmlRootElement
+    public static class Event {
+
+        public String id;
+        public String payload;
+    }
+
+    @Path("events")
+    public static class EventsResource {
+
+        static volatile BroadcasterBenchmark benchmark;
+
+        @GET
+        @Produces("application/xml")
+        public ChunkedOutput<Event> subscribe() {
+            final ChunkedOutput<Event> output = new ChunkedOutput<Event>(Event.class);
+            benchmark.broadcaster.add(output);
+            benchmark.outputs.add(output);
+            return output;
+        }
+    }
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"10", "100", "1000", "10000"})
+    public int subscribers;
+
+    private final Broadcaster<Event> broadcaster = new Broadcaster<Event>();
+    private final List<ChunkedOutput<Event>> outputs = new ArrayList<ChunkedOutput<Event>>();
+    private ApplicationHandler handler;
+    private Event event;
+
+    @Setup
+    public void setup() {
+        EventsResource.benchmark = this;
+        handler = new ApplicationHandler(new ResourceConfig(EventsResource.class));
+
+        final URI baseUri = URI.create("http://localhost/");
+        for (int i = 0; i < subscribers; i++) {
+            handler.apply(new ContainerRequest(baseUri, URI.create("http://localhost/events"), "GET", null,
+                    new MapPropertiesDelegate()), NULL_STREAM);
+        }
+
+        event = new Event();
+        event.id = "42";
+        event.payload = "The quick brown fox jumps over the lazy dog.";
+    }
+
+    @TearDown
+    public void tearDown() {
+        broadcaster.closeAll();
+        outputs.clear();
+        handler.getServiceLocator().shutdown();
+    }
+
+    @Benchmark
+    public void broadcast() {
+        broadcaster.broadcast(event);
+    }
+
+    @Benchmark
+    public void writeToEachOutput() throws IOException {
+        for (ChunkedOutput<Event> output : outputs) {
+            output.write(event);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.internal.util.collection.StringKeyIgnoreCaseMultivaluedMap;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEventWriter;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of writing server-sent events with {@link OutboundEventWriter} for single-line and
+ * multi-line event data. Run with {@code -prof gc} to measure the allocation rate per written event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class OutboundEventWriterBenchmark {
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"1", "10"})
+    public int dataLines;
+
+    private ApplicationHandler handler;
+    private MessageBodyWriter<OutboundEvent> writer;
+    private OutboundEvent event;
+    private MultivaluedMap<String, Object> headers;
+    private Annotation[] annotations;
+
+    @Setup
+    public void setup() {
+        handler = new ApplicationHandler(new ResourceConfig(OutboundEventWriter.class));
+        writer = handler.getServiceLocator().getService(MessageBodyWorkers.class).getMessageBodyWriter(
+                OutboundEvent.class, OutboundEvent.class, new Annotation[0], MediaType.WILDCARD_TYPE);
+
+        final StringBuilder data = new StringBuilder();
+        for (int i = 0; i < dataLines; i++) {
+            if (i > 0) {
+                data.append('\n');
+            }
+            data.append("{\"symbol\":\"JRSY\",\"price\":").append(100 + i).append(".25}");
+        }
+        event = new OutboundEvent.Builder()
+                .name("quote")
+                .id("1234567")
+                .data(String.class, data.toString())
+                .build();
+        headers = new StringKeyIgnoreCaseMultivaluedMap<Object>();
+        annotations = new Annotation[0];
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.getServiceLocator().shutdown();
+    }
+
+    @Benchmark
+    public void writeEvent() throws IOException {
+        writer.writeTo(event, OutboundEvent.class, OutboundEvent.class, annotations, MediaType.WILDCARD_TYPE, headers,
+                NULL_STREAM);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.ContainerRequestContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.Resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the request routing as a function of the number of root resources
+ * deployed in the application.
+ * <p>
+ * Each root resource {@code resource<N>} has a resource method and a templated
+ * sub-resource method {@code resource<N>/items/{id}}. The benchmarks request the first
+ * and the last registered resource as well as a path that does not match any resource.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    @Param({"1", "10", "100", "500"})
+    public int resourceCount;
+
+    private ApplicationHandler handler;
+
+    @Setup
+    public void setup() {
+        final Inflector<ContainerRequestContext, String> inflector = new Inflector<ContainerRequestContext, String>() {
+            @Override
+            public String apply(ContainerRequestContext request) {
+                return "ok";
+            }
+        };
+
+        final ResourceConfig resourceConfig = new ResourceConfig();
+        for (int i = 0; i < resourceCount; i++) {
+            final Resource.Builder builder = Resource.builder("resource" + i);
+            builder.addMethod("GET").produces("text/plain").handledBy(inflector);
+            builder.addChildResource("items/{id}").addMethod("GET").produces("text/plain").handledBy(inflector);
+            resourceConfig.registerResources(builder.build());
+        }
+        handler = new ApplicationHandler(resourceConfig);
+    }
+
+    @Benchmark
+    public Object firstResource() throws ExecutionException, InterruptedException {
+        return handler.apply(request("resource0/items/1")).get();
+    }
+
+    @Benchmark
+    public Object lastResource() throws ExecutionException, InterruptedException {
+        return handler.apply(request("resource" + (resourceCount - 1) + "/items/1")).get();
+    }
+
+    @Benchmark
+    public Object notFound() throws ExecutionException, InterruptedException {
+        return handler.apply(request("missing/items/1")).get();
+    }
+
+    private static ContainerRequest request(final String path) {
+        return new ContainerRequest(BASE_URI, BASE_URI.resolve(path), "GET", null, new MapPropertiesDelegate());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.ContainerRequestContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.Resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of the platform-thread and the virtual-thread
+ * ({@link ServerProperties#FEATURE_VIRTUAL_THREADS}) request processing modes for a resource that
+ * sleeps to simulate blocking I/O.
+ * <p>
+ * A fixed pool of platform threads plays the role of the container I/O threads. Each benchmark operation
+ * hands a batch of requests over to the container threads and waits for all the responses. In the platform-thread
+ * mode the requests are processed on the container threads, in the virtual-thread mode the processing is dispatched
+ * to virtual threads and the container threads are released immediately.
+ * </p>
+ * <p>
+ * The virtual-thread mode requires the benchmarks to be run on a Java platform that supports virtual threads,
+ * otherwise Jersey falls back to the platform-thread mode.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"10"})
+    public int sleepMillis;
+
+    @Param({"8"})
+    public int containerThreads;
+
+    @Param({"256"})
+    public int batchSize;
+
+    private ApplicationHandler handler;
+    private ExecutorService containerExecutor;
+
+    @Setup
+    public void setup() {
+        final int sleep = sleepMillis;
+        final Resource.Builder builder = Resource.builder("sleep");
+        builder.addMethod("GET").produces("text/plain").handledBy(new Inflector<ContainerRequestContext, String>() {
+            @Override
+            public String apply(ContainerRequestContext request) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            }
+        });
+
+        handler = new ApplicationHandler(new ResourceConfig()
+                .registerResources(builder.build())
+                .setProperty(ServerProperties.FEATURE_VIRTUAL_THREADS, virtualThreads));
+        containerExecutor = Executors.newFixedThreadPool(containerThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        containerExecutor.shutdownNow();
+        handler.getServiceLocator().shutdown();
+    }
+
+    /**
+     * Process a batch of requests. The reported throughput is in batches per second.
+     *
+     * @return last response.
+     * @throws ExecutionException   in case the request processing failed.
+     * @throws InterruptedException in case the benchmark thread was interrupted.
+     */
+    @Benchmark
+    public Object sleepingResource() throws ExecutionException, InterruptedException {
+        final List<Future<Future<ContainerResponse>>> accepted = new ArrayList<Future<Future<ContainerResponse>>>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            accepted.add(containerExecutor.submit(new Callable<Future<ContainerResponse>>() {
+                @Override
+                public Future<ContainerResponse> call() {
+                    return handler.apply(new ContainerRequest(
+                            BASE_URI, BASE_URI.resolve("sleep"), "GET", null, new MapPropertiesDelegate()));
+                }
+            }));
+        }
+
+        ContainerResponse response = null;
+        for (Future<Future<ContainerResponse>> future : accepted) {
+            response = future.get().get();
+        }
+        return response;
+    }
+}